@@ -0,0 +1,167 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.TradingDashboardApplication;
+import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.persistence.FinanceTransactionRepository;
+import com.austinharlan.trading_dashboard.persistence.UserEntity;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.tradingdashboard.dto.BankImportResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Importing a {@code rows}-row bank CSV into the in-memory H2 database of the test profile, first
+ * into an empty table and then again with every row a duplicate. Run with a small heap ({@code
+ * -Xmx256m}) to check memory stays flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BankImportBenchmark {
+
+  @Param({"100000"})
+  public int rows;
+
+  private ConfigurableApplicationContext context;
+  private BankImportService importService;
+  private FinanceTransactionRepository repository;
+  private UserContext user;
+  private MultipartFile file;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context =
+        new SpringApplicationBuilder(TradingDashboardApplication.class)
+            .profiles("test")
+            // Command-line arguments so they win over the main application.properties.
+            .run(
+                "--server.port=0",
+                "--MANAGEMENT_PASSWORD=bench",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:bank-import-bench;MODE=PostgreSQL;"
+                    + "DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=");
+    importService = context.getBean(BankImportService.class);
+    repository = context.getBean(FinanceTransactionRepository.class);
+    UserEntity entity =
+        context
+            .getBean(UserRepository.class)
+            .save(new UserEntity("bench-key", "Bench", false, false));
+    user = new UserContext(entity.getId(), "Bench", false, false);
+    file = syntheticStatement(rows, 42L);
+  }
+
+  @Setup(Level.Iteration)
+  public void clear() {
+    repository.deleteAllByUserId(user.userId());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public BankImportResponse importThenReimport() {
+    authenticate();
+    importService.importStatement(file, "CHECKING");
+    return importService.importStatement(file, "CHECKING");
+  }
+
+  // The security context is thread-local and JMH may run setup on a different thread.
+  private void authenticate() {
+    SecurityContextHolder.getContext()
+        .setAuthentication(new PreAuthenticatedAuthenticationToken(user, null, List.of()));
+  }
+
+  /** About thirty rows a day from a handful of merchants, oldest first. */
+  private static MultipartFile syntheticStatement(int count, long seed) {
+    String[] merchants = {
+      "WHOLE FOODS MKT #10", "STARBUCKS STORE 9", "SHELL OIL 5544", "AMAZON MKTPL", "CORNER DELI"
+    };
+    Random random = new Random(seed);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    StringBuilder line = new StringBuilder("Date,Description,Amount\n");
+    LocalDate start = LocalDate.of(2015, 1, 1);
+    for (int i = 0; i < count; i++) {
+      line.append(start.plusDays(i / 30))
+          .append(',')
+          .append(merchants[random.nextInt(merchants.length)])
+          .append(",-")
+          .append(1 + random.nextInt(200))
+          .append('.')
+          .append(random.nextInt(10))
+          .append("0\n");
+      out.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+      line.setLength(0);
+    }
+    return new Upload(out.toByteArray());
+  }
+
+  /** spring-test is not on the benchmark classpath, so no MockMultipartFile. */
+  private record Upload(byte[] content) implements MultipartFile {
+
+    @Override
+    public String getName() {
+      return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+      return "statement.csv";
+    }
+
+    @Override
+    public String getContentType() {
+      return "text/csv";
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return content.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+      return content.length;
+    }
+
+    @Override
+    public byte[] getBytes() {
+      return content;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void transferTo(File dest) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
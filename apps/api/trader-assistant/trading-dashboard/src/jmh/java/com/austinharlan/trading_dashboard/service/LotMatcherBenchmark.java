@@ -0,0 +1,96 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.persistence.TradeEntity;
+import com.austinharlan.trading_dashboard.trades.ClosedTrade;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Scaled-long lot matcher, sequential and parallel, versus the {@code BigDecimal} reference on
+ * synthetic trade logs. Setup fails fast if the two ever disagree, so a benchmark run doubles as an
+ * equality check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LotMatcherBenchmark {
+
+  @Param({"5000", "20000", "100000"})
+  public int tradeCount;
+
+  private List<TradeEntity> trades;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    trades = syntheticTrades(tradeCount, 42L);
+    if (!DefaultTradeService.computeClosedTrades(trades)
+        .equals(DefaultTradeService.computeClosedTradesExact(trades))) {
+      throw new IllegalStateException("Scaled matcher diverged from BigDecimal matcher");
+    }
+  }
+
+  @Benchmark
+  public List<ClosedTrade> bigDecimal() {
+    return DefaultTradeService.computeClosedTradesExact(trades);
+  }
+
+  @Benchmark
+  public List<ClosedTrade> scaledLong() {
+    return DefaultTradeService.computeClosedTrades(trades, false);
+  }
+
+  @Benchmark
+  public List<ClosedTrade> scaledLongParallel() {
+    return DefaultTradeService.computeClosedTrades(trades, true);
+  }
+
+  private static List<TradeEntity> syntheticTrades(int count, long seed) {
+    Random random = new Random(seed);
+    LocalDate start = LocalDate.of(2020, 1, 2);
+    List<TradeEntity> trades = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String ticker = "T" + random.nextInt(200);
+      LocalDate date = start.plusDays(i / 50);
+      if (random.nextInt(10) > 0) {
+        trades.add(
+            new TradeEntity(
+                1L,
+                ticker,
+                random.nextBoolean() ? "BUY" : "SELL",
+                BigDecimal.valueOf(1 + random.nextInt(200_000_000), 6),
+                BigDecimal.valueOf(1_000_000L + random.nextInt(900_000_000), 6),
+                date,
+                null));
+      } else {
+        trades.add(
+            new TradeEntity(
+                1L,
+                ticker,
+                random.nextBoolean() ? "BUY" : "SELL",
+                BigDecimal.valueOf(1 + random.nextInt(5)).setScale(6),
+                BigDecimal.valueOf(10_000L + random.nextInt(20_000_000), 6),
+                date,
+                null,
+                "OPTION",
+                random.nextBoolean() ? "CALL" : "PUT",
+                new BigDecimal("100.000000"),
+                start.plusDays(90),
+                100));
+      }
+    }
+    return trades;
+  }
+}
@@ -0,0 +1,107 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.marketdata.Quote;
+import com.austinharlan.trading_dashboard.trades.OpenLot;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Black-Scholes pricing of synthetic option books: the bare array kernel, and the full path from
+ * open lots to per-underlying exposure that the greeks endpoint runs after its market data lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OptionGreeksBenchmark {
+
+  private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+  @Param({"10000"})
+  public int contracts;
+
+  private double[] spot, strike, years, vol;
+  private boolean[] call;
+  private double[] price, delta, gamma, theta, vega;
+
+  private List<OpenLot> lots;
+  private Map<String, Quote> quotes;
+  private Map<String, Double> vols;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42L);
+    spot = new double[contracts];
+    strike = new double[contracts];
+    years = new double[contracts];
+    vol = new double[contracts];
+    call = new boolean[contracts];
+    price = new double[contracts];
+    delta = new double[contracts];
+    gamma = new double[contracts];
+    theta = new double[contracts];
+    vega = new double[contracts];
+
+    lots = new ArrayList<>(contracts);
+    quotes = new HashMap<>();
+    vols = new HashMap<>();
+    for (int u = 0; u < 200; u++) {
+      String ticker = "U" + u;
+      quotes.put(
+          ticker,
+          new Quote(ticker, BigDecimal.valueOf(20 + random.nextInt(480)), BigDecimal.ZERO, null));
+      vols.put(ticker, 0.1 + random.nextDouble() * 0.6);
+    }
+    for (int i = 0; i < contracts; i++) {
+      String ticker = "U" + random.nextInt(200);
+      double s = quotes.get(ticker).price().doubleValue();
+      int days = 1 + random.nextInt(720);
+      double k = Math.round(s * (0.7 + random.nextDouble() * 0.6));
+      boolean isCall = random.nextBoolean();
+      spot[i] = s;
+      strike[i] = k;
+      years[i] = days / 365.0;
+      vol[i] = vols.get(ticker);
+      call[i] = isCall;
+      lots.add(
+          new OpenLot(
+              ticker,
+              BigDecimal.valueOf(1 + random.nextInt(10)),
+              BigDecimal.valueOf(1 + random.nextInt(2000), 2),
+              TODAY.minusDays(random.nextInt(60)),
+              random.nextBoolean(),
+              100,
+              "OPTION",
+              isCall ? "CALL" : "PUT",
+              BigDecimal.valueOf(k),
+              TODAY.plusDays(days)));
+    }
+  }
+
+  @Benchmark
+  public double[] kernel() {
+    BlackScholes.priceAll(
+        contracts, spot, strike, years, vol, call, 0.04, price, delta, gamma, theta, vega);
+    return delta;
+  }
+
+  @Benchmark
+  public OptionsAnalyticsService.OptionsGreeks analyze() {
+    return DefaultOptionsAnalyticsService.analyze(lots, quotes, vols, TODAY, 0.04, Instant.EPOCH);
+  }
+}
@@ -0,0 +1,99 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.TradingDashboardApplication;
+import com.austinharlan.trading_dashboard.persistence.TradeEntity;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.persistence.UserEntity;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The nightly position rebuild over {@code users × tradesPerUser} equity trades in the in-memory H2
+ * database of the test profile. After the first invocation every position is already correct, so
+ * this measures the consistency-check cost: streaming and replaying every fill.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PositionRebuildBenchmark {
+
+  @Param({"50"})
+  public int users;
+
+  @Param({"2000"})
+  public int tradesPerUser;
+
+  private ConfigurableApplicationContext context;
+  private PositionRebuildJob job;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context =
+        new SpringApplicationBuilder(TradingDashboardApplication.class)
+            .profiles("test")
+            // Command-line arguments so they win over the main application.properties.
+            .run(
+                "--server.port=0",
+                "--MANAGEMENT_PASSWORD=bench",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:rebuild-bench;MODE=PostgreSQL;"
+                    + "DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=");
+    job = context.getBean(PositionRebuildJob.class);
+    UserRepository userRepository = context.getBean(UserRepository.class);
+    TradeRepository tradeRepository = context.getBean(TradeRepository.class);
+    Random random = new Random(42L);
+    for (int u = 0; u < users; u++) {
+      UserEntity user =
+          userRepository.save(new UserEntity("bench-key-" + u, "Bench " + u, false, false));
+      tradeRepository.saveAll(syntheticTrades(user.getId(), tradesPerUser, random));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public int rebuildAll() {
+    return job.rebuildAll().users();
+  }
+
+  /** Buys outnumber sells across 25 tickers, so most users end with open positions. */
+  private static List<TradeEntity> syntheticTrades(long userId, int count, Random random) {
+    LocalDate start = LocalDate.of(2020, 1, 2);
+    List<TradeEntity> trades = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      boolean buy = i % 3 != 2;
+      trades.add(
+          new TradeEntity(
+              userId,
+              "T" + random.nextInt(25),
+              buy ? "BUY" : "SELL",
+              BigDecimal.valueOf(buy ? 10 : 6),
+              BigDecimal.valueOf(1_000 + random.nextInt(100_000), 2),
+              start.plusDays(i / 5),
+              null));
+    }
+    return trades;
+  }
+}
@@ -0,0 +1,66 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.marketdata.DailyBar;
+import com.austinharlan.trading_dashboard.service.CorrelationService.CorrelationMatrix;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The correlation and covariance matrix over {@code symbols} cached histories of {@code bars} daily
+ * bars each, a tenth of them listed partway through. The endpoint budget is 50 ms at 100 symbols.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReturnCorrelationsBenchmark {
+
+  @Param({"100"})
+  public int symbols;
+
+  @Param({"100", "252"})
+  public int bars;
+
+  private List<String> tickers;
+  private Map<String, List<DailyBar>> histories;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42L);
+    LocalDate start = LocalDate.of(2025, 1, 2);
+    tickers = new ArrayList<>(symbols);
+    histories = new HashMap<>();
+    for (int k = 0; k < symbols; k++) {
+      String ticker = "T" + k;
+      int first = k % 10 == 0 ? random.nextInt(bars / 2) : 0;
+      List<DailyBar> history = new ArrayList<>(bars - first);
+      double close = 10 + random.nextInt(500);
+      for (int i = first; i < bars; i++) {
+        close *= 1 + random.nextGaussian() * 0.02;
+        BigDecimal value = BigDecimal.valueOf(close);
+        history.add(new DailyBar(start.plusDays(i), value, value, value, value, 0L));
+      }
+      tickers.add(ticker);
+      histories.put(ticker, history);
+    }
+  }
+
+  @Benchmark
+  public CorrelationMatrix compute() {
+    return ReturnCorrelations.compute(tickers, histories);
+  }
+}
@@ -0,0 +1,139 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.TradingDashboardApplication;
+import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.persistence.PortfolioPositionRepository;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.persistence.UserEntity;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+/**
+ * Logging a batch of trades one request at a time versus one {@link TradeService#logTrades} call,
+ * against the in-memory H2 database of the test profile. Each invocation starts from an empty trade
+ * log and portfolio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TradeIngestionBenchmark {
+
+  @Param({"1000"})
+  public int tradeCount;
+
+  private ConfigurableApplicationContext context;
+  private TradeService tradeService;
+  private TradeRepository tradeRepository;
+  private PortfolioPositionRepository positionRepository;
+  private UserContext user;
+  private List<TradeService.NewTrade> trades;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context =
+        new SpringApplicationBuilder(TradingDashboardApplication.class)
+            .profiles("test")
+            // Command-line arguments so they win over the main application.properties.
+            .run(
+                "--server.port=0",
+                "--MANAGEMENT_PASSWORD=bench",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:ingest-bench;MODE=PostgreSQL;"
+                    + "DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=");
+    tradeService = context.getBean(TradeService.class);
+    tradeRepository = context.getBean(TradeRepository.class);
+    positionRepository = context.getBean(PortfolioPositionRepository.class);
+    UserEntity entity =
+        context
+            .getBean(UserRepository.class)
+            .save(new UserEntity("bench-key", "Bench", false, false));
+    user = new UserContext(entity.getId(), "Bench", false, false);
+    trades = syntheticTrades(tradeCount, 42L);
+  }
+
+  @Setup(Level.Invocation)
+  public void clear() {
+    tradeRepository.deleteAllByUserId(user.userId());
+    positionRepository.deleteAllByUserId(user.userId());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public int singleTrades() {
+    authenticate();
+    for (TradeService.NewTrade t : trades) {
+      tradeService.logTrade(
+          t.ticker(),
+          t.side(),
+          t.quantity(),
+          t.pricePerShare(),
+          t.tradeDate(),
+          t.notes(),
+          t.assetType(),
+          t.optionType(),
+          t.strikePrice(),
+          t.expirationDate());
+    }
+    return trades.size();
+  }
+
+  @Benchmark
+  public int batch() {
+    authenticate();
+    return tradeService.logTrades(trades);
+  }
+
+  // The security context is thread-local and JMH may run setup on a different thread.
+  private void authenticate() {
+    SecurityContextHolder.getContext()
+        .setAuthentication(new PreAuthenticatedAuthenticationToken(user, null, List.of()));
+  }
+
+  /** Buys outnumber sells so every sell closes part of an existing long position. */
+  private static List<TradeService.NewTrade> syntheticTrades(int count, long seed) {
+    Random random = new Random(seed);
+    LocalDate start = LocalDate.of(2024, 1, 2);
+    List<TradeService.NewTrade> trades = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      boolean buy = i % 4 != 3;
+      trades.add(
+          new TradeService.NewTrade(
+              "T" + (i % 20),
+              buy ? "BUY" : "SELL",
+              BigDecimal.valueOf(buy ? 10 : 5),
+              BigDecimal.valueOf(1_000 + random.nextInt(100_000), 2),
+              start.plusDays(i / 20),
+              null,
+              null,
+              null,
+              null,
+              null));
+    }
+    return trades;
+  }
+}
@@ -39,7 +39,27 @@ public class CacheConfig {
             buildCache(
                 "news",
                 cacheProperties.getNews().getTtl(),
-                cacheProperties.getNews().getMaximumSize())));
+                cacheProperties.getNews().getMaximumSize()),
+            buildCache(
+                "tradeAnalytics",
+                cacheProperties.getTradeAnalytics().getTtl(),
+                cacheProperties.getTradeAnalytics().getMaximumSize()),
+            buildCache(
+                "unrealizedPnl",
+                cacheProperties.getQuotes().getTtl(),
+                cacheProperties.getUnrealizedPnl().getMaximumSize()),
+            buildCache(
+                "correlations",
+                cacheProperties.getHistory().getTtl(),
+                cacheProperties.getCorrelations().getMaximumSize()),
+            buildCache(
+                "financeCategories",
+                cacheProperties.getFinanceCategories().getTtl(),
+                cacheProperties.getFinanceCategories().getMaximumSize()),
+            buildCache(
+                "financeSearchIndex",
+                cacheProperties.getFinanceSearch().getTtl(),
+                cacheProperties.getFinanceSearch().getMaximumSize())));
     return manager;
   }
 
@@ -10,6 +10,11 @@ public class CacheProperties {
   private final Overview overview = new Overview();
   private final History history = new History();
   private final News news = new News();
+  private final TradeAnalytics tradeAnalytics = new TradeAnalytics();
+  private final UnrealizedPnl unrealizedPnl = new UnrealizedPnl();
+  private final Correlations correlations = new Correlations();
+  private final FinanceCategories financeCategories = new FinanceCategories();
+  private final FinanceSearch financeSearch = new FinanceSearch();
 
   public Quotes getQuotes() {
     return quotes;
@@ -27,6 +32,26 @@ public class CacheProperties {
     return news;
   }
 
+  public TradeAnalytics getTradeAnalytics() {
+    return tradeAnalytics;
+  }
+
+  public UnrealizedPnl getUnrealizedPnl() {
+    return unrealizedPnl;
+  }
+
+  public Correlations getCorrelations() {
+    return correlations;
+  }
+
+  public FinanceCategories getFinanceCategories() {
+    return financeCategories;
+  }
+
+  public FinanceSearch getFinanceSearch() {
+    return financeSearch;
+  }
+
   public static class Quotes {
     private Duration ttl = Duration.ofSeconds(30);
     private long maximumSize = 1024;
@@ -110,4 +135,98 @@ public class CacheProperties {
       this.maximumSize = maximumSize > 0 ? maximumSize : 256;
     }
   }
+
+  public static class TradeAnalytics {
+    private Duration ttl = Duration.ofHours(1);
+    private long maximumSize = 512;
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl == null ? Duration.ofHours(1) : ttl;
+    }
+
+    public long getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize > 0 ? maximumSize : 512;
+    }
+  }
+
+  /** Expires with the quotes it was marked from, so only the size is configurable. */
+  public static class UnrealizedPnl {
+    private long maximumSize = 512;
+
+    public long getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize > 0 ? maximumSize : 512;
+    }
+  }
+
+  /** Expires with the price histories it was computed from, so only the size is configurable. */
+  public static class Correlations {
+    private long maximumSize = 256;
+
+    public long getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize > 0 ? maximumSize : 256;
+    }
+  }
+
+  /** Evicted on every category change; the TTL only bounds how long a missed eviction can last. */
+  public static class FinanceCategories {
+    private Duration ttl = Duration.ofMinutes(30);
+    private long maximumSize = 1024;
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl == null ? Duration.ofMinutes(30) : ttl;
+    }
+
+    public long getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize > 0 ? maximumSize : 1024;
+    }
+  }
+
+  /**
+   * In-memory search indexes, used only where the database has no full-text index. Each holds all
+   * of one user's transactions, so keep the size small.
+   */
+  public static class FinanceSearch {
+    private Duration ttl = Duration.ofMinutes(30);
+    private long maximumSize = 64;
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl == null ? Duration.ofMinutes(30) : ttl;
+    }
+
+    public long getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize > 0 ? maximumSize : 64;
+    }
+  }
 }
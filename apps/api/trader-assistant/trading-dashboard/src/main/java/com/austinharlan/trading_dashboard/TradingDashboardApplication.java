@@ -6,6 +6,7 @@ import com.austinharlan.trading_dashboard.config.MarketDataProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "com.austinharlan") // ensures all subpackages are scanned
 @EnableConfigurationProperties({
@@ -13,6 +14,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
   CacheProperties.class,
   ApiSecurityProperties.class
 })
+@EnableScheduling
 public class TradingDashboardApplication {
   public static void main(String[] args) {
     SpringApplication.run(TradingDashboardApplication.class, args);
@@ -1,5 +1,6 @@
 package com.austinharlan.trading_dashboard.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -40,7 +41,10 @@ class ActuatorSecurityConfig {
   SecurityFilterChain applicationSecurity(HttpSecurity http) throws Exception {
     http.authorizeHttpRequests(
             auth ->
-                auth.requestMatchers(
+                // ASYNC dispatches only finish streaming responses whose request was authorized
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC)
+                    .permitAll()
+                    .requestMatchers(
                         "/",
                         "/index.html",
                         "/api/demo/session",
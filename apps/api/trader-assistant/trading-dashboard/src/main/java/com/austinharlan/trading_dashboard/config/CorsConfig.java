@@ -1,5 +1,7 @@
 package com.austinharlan.trading_dashboard.config;
 
+import com.austinharlan.trading_dashboard.controllers.FinanceController;
+import java.util.ArrayList;
 import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -38,10 +40,15 @@ class CorsConfig {
             ? corsProperties.getAllowedHeaders()
             : List.of("Authorization", "Content-Type", "X-API-KEY"));
 
-    configuration.setExposedHeaders(
+    // Browser clients page transactions through the cursor header, so it is always exposed.
+    List<String> exposedHeaders =
         corsProperties.getExposedHeaders() != null
-            ? corsProperties.getExposedHeaders()
-            : List.of());
+            ? new ArrayList<>(corsProperties.getExposedHeaders())
+            : new ArrayList<>();
+    if (!exposedHeaders.contains(FinanceController.NEXT_CURSOR_HEADER)) {
+      exposedHeaders.add(FinanceController.NEXT_CURSOR_HEADER);
+    }
+    configuration.setExposedHeaders(exposedHeaders);
 
     configuration.setAllowCredentials(corsProperties.isAllowCredentials());
 
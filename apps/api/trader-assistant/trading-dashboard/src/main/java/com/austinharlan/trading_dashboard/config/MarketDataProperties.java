@@ -23,6 +23,8 @@ public class MarketDataProperties {
 
   @NotNull private Duration writeTimeout = Duration.ofSeconds(10);
 
+  @NotNull private Duration batchTimeout = Duration.ofSeconds(5);
+
   public String getQuery2BaseUrl() {
     return query2BaseUrl;
   }
@@ -79,4 +81,12 @@ public class MarketDataProperties {
   public void setWriteTimeout(Duration writeTimeout) {
     this.writeTimeout = writeTimeout != null ? writeTimeout : Duration.ofSeconds(10);
   }
+
+  public Duration getBatchTimeout() {
+    return batchTimeout;
+  }
+
+  public void setBatchTimeout(Duration batchTimeout) {
+    this.batchTimeout = batchTimeout != null ? batchTimeout : Duration.ofSeconds(5);
+  }
 }
@@ -3,6 +3,7 @@ package com.austinharlan.trading_dashboard.controllers;
 import com.austinharlan.trading_dashboard.config.UserContext;
 import com.austinharlan.trading_dashboard.persistence.UserEntity;
 import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.trading_dashboard.service.PositionRebuildJob;
 import java.util.Map;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
@@ -15,9 +16,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminController {
 
   private final UserRepository userRepository;
+  private final PositionRebuildJob positionRebuildJob;
 
-  public AdminController(UserRepository userRepository) {
+  public AdminController(UserRepository userRepository, PositionRebuildJob positionRebuildJob) {
     this.userRepository = userRepository;
+    this.positionRebuildJob = positionRebuildJob;
   }
 
   @PostMapping("/api/admin/users")
@@ -42,4 +45,13 @@ public class AdminController {
                 "displayName", user.getDisplayName(),
                 "apiKey", user.getApiKey()));
   }
+
+  /** Runs the nightly position rebuild now and reports how much drift it corrected. */
+  @PostMapping("/api/admin/positions/rebuild")
+  public ResponseEntity<PositionRebuildJob.RebuildReport> rebuildPositions() {
+    if (!UserContext.current().isAdmin()) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    return ResponseEntity.ok(positionRebuildJob.rebuildAll());
+  }
 }
@@ -14,8 +14,10 @@ import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
 class ApiExceptionHandler {
@@ -84,6 +86,19 @@ class ApiExceptionHandler {
         HttpStatus.BAD_REQUEST, "MALFORMED_REQUEST", "Request body is missing or not valid JSON.");
   }
 
+  @ExceptionHandler(MissingServletRequestParameterException.class)
+  ResponseEntity<ErrorResponse> handleMissingParameter(MissingServletRequestParameterException ex) {
+    return build(
+        HttpStatus.BAD_REQUEST,
+        "VALIDATION_ERROR",
+        "Missing required parameter: " + ex.getParameterName());
+  }
+
+  @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+  ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+    return build(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "Invalid value for " + ex.getName());
+  }
+
   @ExceptionHandler(Exception.class)
   ResponseEntity<ErrorResponse> handleUnexpected(Exception ex) {
     log.error("Unhandled exception", ex);
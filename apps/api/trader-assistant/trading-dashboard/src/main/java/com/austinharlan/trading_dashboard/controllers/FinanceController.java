@@ -1,18 +1,30 @@
 package com.austinharlan.trading_dashboard.controllers;
 
+import com.austinharlan.trading_dashboard.finance.FinanceBucketTotal;
 import com.austinharlan.trading_dashboard.finance.FinanceCategoryRecord;
 import com.austinharlan.trading_dashboard.finance.FinanceSummaryData;
+import com.austinharlan.trading_dashboard.finance.FinanceSummaryData.CategoryTotal;
 import com.austinharlan.trading_dashboard.finance.FinanceTransactionRecord;
+import com.austinharlan.trading_dashboard.finance.RecurringSeriesRecord;
 import com.austinharlan.trading_dashboard.service.FinanceInsightsService;
+import com.austinharlan.trading_dashboard.service.FinanceInsightsService.RecurringCharges;
+import com.austinharlan.trading_dashboard.service.FinanceInsightsService.TransactionPage;
 import com.austinharlan.tradingdashboard.api.FinanceApi;
 import com.austinharlan.tradingdashboard.dto.AddCategoryRequest;
 import com.austinharlan.tradingdashboard.dto.AddTransactionRequest;
+import com.austinharlan.tradingdashboard.dto.FinanceBreakdownResponse;
+import com.austinharlan.tradingdashboard.dto.FinanceBucket;
 import com.austinharlan.tradingdashboard.dto.FinanceCategoriesResponse;
 import com.austinharlan.tradingdashboard.dto.FinanceCategory;
+import com.austinharlan.tradingdashboard.dto.FinanceCategoryTotal;
+import com.austinharlan.tradingdashboard.dto.FinanceMonthTotal;
+import com.austinharlan.tradingdashboard.dto.FinanceRecurringResponse;
+import com.austinharlan.tradingdashboard.dto.FinanceRecurringSeries;
 import com.austinharlan.tradingdashboard.dto.FinanceSummary;
 import com.austinharlan.tradingdashboard.dto.FinanceTransaction;
 import com.austinharlan.tradingdashboard.dto.FinanceTransactionsResponse;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
@@ -24,6 +36,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequiredArgsConstructor
 public class FinanceController implements FinanceApi {
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
   private final FinanceInsightsService financeInsightsService;
 
   @Override
@@ -34,25 +48,69 @@ public class FinanceController implements FinanceApi {
             .monthToDateSpend(summary.monthToDateSpend().doubleValue())
             .averageDailySpend(summary.averageDailySpend().doubleValue())
             .projectedMonthEndSpend(summary.projectedMonthEndSpend().doubleValue())
-            .asOf(OffsetDateTime.ofInstant(summary.asOf(), ZoneOffset.UTC));
+            .asOf(OffsetDateTime.ofInstant(summary.asOf(), ZoneOffset.UTC))
+            .monthToDateByCategory(
+                summary.monthToDateByCategory().stream().map(this::toDto).toList())
+            .monthlyTrend(
+                summary.monthlyTrend().stream()
+                    .map(
+                        m ->
+                            new FinanceMonthTotal()
+                                .month(m.month().toString())
+                                .amount(m.amount().doubleValue())
+                                .count(m.count()))
+                    .toList());
     return ResponseEntity.ok(dto);
   }
 
+  @Override
+  public ResponseEntity<FinanceBreakdownResponse> getFinanceBreakdown(
+      LocalDate from, LocalDate to, String bucket) {
+    List<FinanceBucket> buckets =
+        financeInsightsService.getBreakdown(bucket, from, to).stream().map(this::toDto).toList();
+    return ResponseEntity.ok(
+        new FinanceBreakdownResponse()
+            .bucket(FinanceBreakdownResponse.BucketEnum.fromValue(bucket))
+            .buckets(buckets));
+  }
+
   @Override
   public ResponseEntity<FinanceTransactionsResponse> listFinanceTransactions(
-      Integer limit, String category) {
-    List<FinanceTransactionRecord> transactions =
-        financeInsightsService.listTransactions(limit, category);
-    if (transactions.isEmpty()) {
+      Integer limit, String category, String cursor) {
+    return toResponse(financeInsightsService.listTransactions(limit, category, cursor));
+  }
+
+  private ResponseEntity<FinanceTransactionsResponse> toResponse(TransactionPage page) {
+    if (page.transactions().isEmpty()) {
       return ResponseEntity.noContent().build();
     }
 
-    List<FinanceTransaction> payload = transactions.stream().map(this::toDto).toList();
+    List<FinanceTransaction> payload = page.transactions().stream().map(this::toDto).toList();
     FinanceTransactionsResponse response =
         new FinanceTransactionsResponse()
             .asOf(OffsetDateTime.now(ZoneOffset.UTC))
             .transactions(payload);
-    return ResponseEntity.ok(response);
+    ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+    if (page.nextCursor() != null) {
+      ok.header(NEXT_CURSOR_HEADER, page.nextCursor());
+    }
+    return ok.body(response);
+  }
+
+  @Override
+  public ResponseEntity<FinanceTransactionsResponse> searchFinanceTransactions(
+      String q, Integer limit, String cursor) {
+    return toResponse(financeInsightsService.searchTransactions(q, limit, cursor));
+  }
+
+  @Override
+  public ResponseEntity<FinanceRecurringResponse> listRecurringCharges(Boolean includeInactive) {
+    RecurringCharges recurring =
+        financeInsightsService.listRecurring(Boolean.TRUE.equals(includeInactive));
+    return ResponseEntity.ok(
+        new FinanceRecurringResponse()
+            .estimatedMonthlyTotal(recurring.estimatedMonthlyTotal().doubleValue())
+            .series(recurring.series().stream().map(this::toDto).toList()));
   }
 
   @Override
@@ -109,6 +167,36 @@ public class FinanceController implements FinanceApi {
     return dto;
   }
 
+  private FinanceBucket toDto(FinanceBucketTotal bucket) {
+    return new FinanceBucket()
+        .start(bucket.start())
+        .amount(bucket.amount().doubleValue())
+        .count(bucket.count())
+        .byCategory(bucket.byCategory().stream().map(this::toDto).toList());
+  }
+
+  private FinanceCategoryTotal toDto(CategoryTotal total) {
+    return new FinanceCategoryTotal()
+        .category(total.category())
+        .amount(total.amount().doubleValue())
+        .count(total.count());
+  }
+
+  private FinanceRecurringSeries toDto(RecurringSeriesRecord series) {
+    return new FinanceRecurringSeries()
+        .merchantKey(series.merchantKey())
+        .merchant(series.merchant())
+        .category(series.category())
+        .cadence(FinanceRecurringSeries.CadenceEnum.fromValue(series.cadence().name()))
+        .occurrences(series.occurrences())
+        .averageAmount(series.averageAmount().doubleValue())
+        .lastAmount(series.lastAmount().doubleValue())
+        .firstChargedOn(series.firstChargedOn())
+        .lastChargedOn(series.lastChargedOn())
+        .nextExpectedOn(series.nextExpectedOn())
+        .active(series.active());
+  }
+
   private FinanceCategory toDto(FinanceCategoryRecord record) {
     return new FinanceCategory().slug(record.slug()).label(record.label());
   }
@@ -1,7 +1,9 @@
 package com.austinharlan.trading_dashboard.controllers;
 
+import com.austinharlan.trading_dashboard.service.BankImportService;
 import com.austinharlan.trading_dashboard.service.ImportService;
 import com.austinharlan.tradingdashboard.api.ImportApi;
+import com.austinharlan.tradingdashboard.dto.BankImportResponse;
 import com.austinharlan.tradingdashboard.dto.ImportConfirmResponse;
 import com.austinharlan.tradingdashboard.dto.ImportPreviewResponse;
 import org.springframework.http.ResponseEntity;
@@ -12,9 +14,11 @@ import org.springframework.web.multipart.MultipartFile;
 public class ImportController implements ImportApi {
 
   private final ImportService importService;
+  private final BankImportService bankImportService;
 
-  public ImportController(ImportService importService) {
+  public ImportController(ImportService importService, BankImportService bankImportService) {
     this.importService = importService;
+    this.bankImportService = bankImportService;
   }
 
   @Override
@@ -28,4 +32,10 @@ public class ImportController implements ImportApi {
       MultipartFile file, String account) {
     return ResponseEntity.ok(importService.confirm(file, account));
   }
+
+  @Override
+  public ResponseEntity<BankImportResponse> importBankStatement(
+      MultipartFile file, String account) {
+    return ResponseEntity.ok(bankImportService.importStatement(file, account));
+  }
 }
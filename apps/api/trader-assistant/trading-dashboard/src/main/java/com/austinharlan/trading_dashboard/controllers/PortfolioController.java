@@ -1,17 +1,45 @@
 package com.austinharlan.trading_dashboard.controllers;
 
+import com.austinharlan.trading_dashboard.portfolio.PortfolioExposure;
 import com.austinharlan.trading_dashboard.portfolio.PortfolioHolding;
 import com.austinharlan.trading_dashboard.portfolio.PortfolioSnapshot;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValuation;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValueHistory;
+import com.austinharlan.trading_dashboard.service.CorrelationService;
+import com.austinharlan.trading_dashboard.service.CorrelationService.CorrelationMatrix;
+import com.austinharlan.trading_dashboard.service.OptionsAnalyticsService;
+import com.austinharlan.trading_dashboard.service.OptionsAnalyticsService.ContractGreeks;
+import com.austinharlan.trading_dashboard.service.OptionsAnalyticsService.OptionsGreeks;
 import com.austinharlan.trading_dashboard.service.PortfolioService;
+import com.austinharlan.trading_dashboard.service.UnrealizedPnlService;
+import com.austinharlan.trading_dashboard.service.UnrealizedPnlService.LotPnl;
+import com.austinharlan.trading_dashboard.service.UnrealizedPnlService.TickerPnl;
+import com.austinharlan.trading_dashboard.service.UnrealizedPnlService.UnrealizedPnl;
 import com.austinharlan.tradingdashboard.api.PortfolioApi;
 import com.austinharlan.tradingdashboard.dto.AddPositionRequest;
+import com.austinharlan.tradingdashboard.dto.ExposureGroup;
+import com.austinharlan.tradingdashboard.dto.OptionContractGreeks;
+import com.austinharlan.tradingdashboard.dto.PortfolioAsOfResponse;
+import com.austinharlan.tradingdashboard.dto.PortfolioCorrelationResponse;
+import com.austinharlan.tradingdashboard.dto.PortfolioExposureResponse;
+import com.austinharlan.tradingdashboard.dto.PortfolioGreeksResponse;
+import com.austinharlan.tradingdashboard.dto.PortfolioHistoryResponse;
 import com.austinharlan.tradingdashboard.dto.PortfolioPosition;
 import com.austinharlan.tradingdashboard.dto.PortfolioPositionsResponse;
 import com.austinharlan.tradingdashboard.dto.PortfolioSummary;
+import com.austinharlan.tradingdashboard.dto.PortfolioValuationResponse;
+import com.austinharlan.tradingdashboard.dto.TickerValueSeries;
+import com.austinharlan.tradingdashboard.dto.UnderlyingExposure;
+import com.austinharlan.tradingdashboard.dto.UnrealizedLotPnl;
+import com.austinharlan.tradingdashboard.dto.UnrealizedPnlResponse;
+import com.austinharlan.tradingdashboard.dto.UnrealizedTickerPnl;
+import com.austinharlan.tradingdashboard.dto.ValuedPosition;
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +50,9 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class PortfolioController implements PortfolioApi {
   private final PortfolioService portfolioService;
+  private final UnrealizedPnlService unrealizedPnlService;
+  private final OptionsAnalyticsService optionsAnalyticsService;
+  private final CorrelationService correlationService;
 
   @Override
   public ResponseEntity<PortfolioPositionsResponse> listPortfolioPositions() {
@@ -48,6 +79,62 @@ public class PortfolioController implements PortfolioApi {
         .orElseGet(() -> ResponseEntity.noContent().build());
   }
 
+  @Override
+  public ResponseEntity<PortfolioValuationResponse> getPortfolioValuation() {
+    return portfolioService
+        .valuation()
+        .map(this::toDto)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.noContent().build());
+  }
+
+  @Override
+  public ResponseEntity<PortfolioExposureResponse> getPortfolioExposure() {
+    return portfolioService
+        .exposure()
+        .map(this::toDto)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.noContent().build());
+  }
+
+  @Override
+  public ResponseEntity<PortfolioHistoryResponse> getPortfolioHistory(String range) {
+    PortfolioValueHistory history = portfolioService.valueHistory(range);
+    return ResponseEntity.ok(
+        new PortfolioHistoryResponse()
+            .range(range)
+            .dates(history.dates())
+            .values(Arrays.stream(history.values()).boxed().toList())
+            .tickers(history.tickers().stream().map(this::toDto).toList())
+            .missingTickers(history.missingTickers()));
+  }
+
+  @Override
+  public ResponseEntity<PortfolioCorrelationResponse> getPortfolioCorrelation() {
+    return correlationService
+        .currentCorrelations()
+        .map(this::toDto)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.noContent().build());
+  }
+
+  @Override
+  public ResponseEntity<PortfolioAsOfResponse> getPortfolioAsOf(LocalDate date) {
+    List<PortfolioPosition> positions =
+        portfolioService.holdingsAsOf(date).stream().map(this::toDto).toList();
+    return ResponseEntity.ok(new PortfolioAsOfResponse().date(date).positions(positions));
+  }
+
+  @Override
+  public ResponseEntity<UnrealizedPnlResponse> getUnrealizedPnl() {
+    return ResponseEntity.ok(toDto(unrealizedPnlService.currentUnrealizedPnl()));
+  }
+
+  @Override
+  public ResponseEntity<PortfolioGreeksResponse> getPortfolioGreeks() {
+    return ResponseEntity.ok(toDto(optionsAnalyticsService.currentGreeks()));
+  }
+
   @Override
   public ResponseEntity<PortfolioPosition> addPortfolioPosition(
       @Valid @RequestBody AddPositionRequest request) {
@@ -79,4 +166,162 @@ public class PortfolioController implements PortfolioApi {
         .totalCostBasis(snapshot.totalCostBasis().doubleValue())
         .asOf(OffsetDateTime.now(ZoneOffset.UTC));
   }
+
+  private PortfolioValuationResponse toDto(PortfolioValuation valuation) {
+    return new PortfolioValuationResponse()
+        .asOf(valuation.asOf().atOffset(ZoneOffset.UTC))
+        .positionsCount(valuation.positionsCount())
+        .totalMarketValue(valuation.totalMarketValue())
+        .totalCostBasis(valuation.totalCostBasis())
+        .totalUnrealizedPnl(valuation.totalUnrealizedPnl())
+        .totalDayChange(valuation.totalDayChange())
+        .totalDayChangePercent(valuation.totalDayChangePercent())
+        .positions(valuation.positions().stream().map(this::toDto).toList())
+        .unpricedTickers(valuation.unpricedTickers());
+  }
+
+  private ValuedPosition toDto(PortfolioValuation.ValuedPosition position) {
+    return new ValuedPosition()
+        .ticker(position.ticker())
+        .quantity(position.quantity())
+        .costBasis(position.costBasis())
+        .price(position.price())
+        .changePercent(position.changePercent())
+        .marketValue(position.marketValue())
+        .weight(position.weight())
+        .unrealizedPnl(position.unrealizedPnl())
+        .dayChange(position.dayChange());
+  }
+
+  private PortfolioExposureResponse toDto(PortfolioExposure exposure) {
+    return new PortfolioExposureResponse()
+        .asOf(exposure.asOf().atOffset(ZoneOffset.UTC))
+        .totalMarketValue(exposure.totalMarketValue())
+        .sectors(exposure.sectors().stream().map(this::toDto).toList())
+        .unclassifiedTickers(exposure.unclassifiedTickers())
+        .unpricedTickers(exposure.unpricedTickers());
+  }
+
+  private ExposureGroup toDto(PortfolioExposure.Group group) {
+    return new ExposureGroup()
+        .name(group.name())
+        .marketValue(group.marketValue())
+        .costBasis(group.costBasis())
+        .unrealizedPnl(group.unrealizedPnl())
+        .weight(group.weight())
+        .tickers(group.tickers())
+        .children(group.children().stream().map(this::toDto).toList());
+  }
+
+  private TickerValueSeries toDto(PortfolioValueHistory.TickerSeries series) {
+    return new TickerValueSeries()
+        .ticker(series.ticker())
+        .quantities(Arrays.stream(series.quantities()).boxed().toList())
+        .closes(
+            Arrays.stream(series.closes())
+                .mapToObj(close -> Double.isNaN(close) ? null : close)
+                .toList());
+  }
+
+  private PortfolioCorrelationResponse toDto(CorrelationMatrix matrix) {
+    return new PortfolioCorrelationResponse()
+        .from(matrix.from())
+        .to(matrix.to())
+        .tickers(matrix.tickers())
+        .correlation(Arrays.stream(matrix.correlation()).map(this::nullableRow).toList())
+        .covariance(Arrays.stream(matrix.covariance()).map(this::nullableRow).toList())
+        .observations(
+            Arrays.stream(matrix.observations())
+                .map(row -> Arrays.stream(row).boxed().toList())
+                .toList())
+        .missingTickers(matrix.missingTickers());
+  }
+
+  private List<Double> nullableRow(double[] row) {
+    return Arrays.stream(row).mapToObj(value -> Double.isNaN(value) ? null : value).toList();
+  }
+
+  private UnrealizedPnlResponse toDto(UnrealizedPnl pnl) {
+    return new UnrealizedPnlResponse()
+        .asOf(pnl.asOf().atOffset(ZoneOffset.UTC))
+        .totalMarketValue(pnl.totalMarketValue())
+        .totalCostBasis(pnl.totalCostBasis())
+        .totalUnrealizedPnl(pnl.totalUnrealizedPnl())
+        .totalDayChange(pnl.totalDayChange())
+        .tickers(pnl.tickers().stream().map(this::toDto).toList())
+        .lots(pnl.lots().stream().map(this::toDto).toList())
+        .unpricedTickers(pnl.unpricedTickers());
+  }
+
+  private UnrealizedTickerPnl toDto(TickerPnl ticker) {
+    return new UnrealizedTickerPnl()
+        .ticker(ticker.ticker())
+        .marketValue(ticker.marketValue())
+        .costBasis(ticker.costBasis())
+        .unrealizedPnl(ticker.unrealizedPnl())
+        .dayChange(ticker.dayChange())
+        .lotCount(ticker.lotCount());
+  }
+
+  private UnrealizedLotPnl toDto(LotPnl lot) {
+    return new UnrealizedLotPnl()
+        .ticker(lot.ticker())
+        .assetType(lot.assetType())
+        .optionType(lot.optionType())
+        .strikePrice(lot.strikePrice() != null ? lot.strikePrice().doubleValue() : null)
+        .expirationDate(lot.expirationDate())
+        .openDate(lot.openDate())
+        .side(lot.isLong() ? "LONG" : "SHORT")
+        .quantity(lot.quantity())
+        .multiplier(lot.multiplier())
+        .openPrice(lot.openPrice())
+        .markPrice(lot.markPrice())
+        .marketValue(lot.marketValue())
+        .unrealizedPnl(lot.unrealizedPnl())
+        .dayChange(lot.dayChange());
+  }
+
+  private PortfolioGreeksResponse toDto(OptionsGreeks greeks) {
+    return new PortfolioGreeksResponse()
+        .asOf(greeks.asOf().atOffset(ZoneOffset.UTC))
+        .riskFreeRate(greeks.riskFreeRate())
+        .contracts(greeks.contracts().stream().map(this::toDto).toList())
+        .underlyings(greeks.underlyings().stream().map(this::toDto).toList())
+        .unpricedTickers(greeks.unpricedTickers());
+  }
+
+  private OptionContractGreeks toDto(ContractGreeks contract) {
+    return new OptionContractGreeks()
+        .ticker(contract.ticker())
+        .optionType(contract.optionType())
+        .strikePrice(contract.strikePrice().doubleValue())
+        .expirationDate(contract.expirationDate())
+        .side(contract.isLong() ? "LONG" : "SHORT")
+        .quantity(contract.quantity())
+        .multiplier(contract.multiplier())
+        .underlyingPrice(contract.underlyingPrice())
+        .volatility(contract.volatility())
+        .yearsToExpiry(contract.yearsToExpiry())
+        .price(contract.price())
+        .delta(contract.delta())
+        .gamma(contract.gamma())
+        .theta(contract.theta())
+        .vega(contract.vega())
+        .positionValue(contract.positionValue())
+        .positionDelta(contract.positionDelta());
+  }
+
+  private UnderlyingExposure toDto(OptionsAnalyticsService.UnderlyingExposure exposure) {
+    return new UnderlyingExposure()
+        .ticker(exposure.ticker())
+        .underlyingPrice(exposure.underlyingPrice())
+        .volatility(exposure.volatility())
+        .lots(exposure.lots())
+        .netDelta(exposure.netDelta())
+        .dollarDelta(exposure.dollarDelta())
+        .gamma(exposure.gamma())
+        .theta(exposure.theta())
+        .vega(exposure.vega())
+        .marketValue(exposure.marketValue());
+  }
 }
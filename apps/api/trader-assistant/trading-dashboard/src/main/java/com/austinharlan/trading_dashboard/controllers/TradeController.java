@@ -1,26 +1,39 @@
 package com.austinharlan.trading_dashboard.controllers;
 
+import com.austinharlan.trading_dashboard.config.UserContext;
 import com.austinharlan.trading_dashboard.persistence.TradeEntity;
 import com.austinharlan.trading_dashboard.service.TradeService;
 import com.austinharlan.trading_dashboard.trades.ClosedTrade;
 import com.austinharlan.tradingdashboard.api.TradesApi;
 import com.austinharlan.tradingdashboard.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 public class TradeController implements TradesApi {
 
+  private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
   private final TradeService tradeService;
+  private final ObjectMapper objectMapper;
 
-  public TradeController(TradeService tradeService) {
+  public TradeController(TradeService tradeService, ObjectMapper objectMapper) {
     this.tradeService = tradeService;
+    this.objectMapper = objectMapper;
   }
 
   @Override
@@ -40,16 +53,77 @@ public class TradeController implements TradesApi {
     return ResponseEntity.status(201).body(toDto(entity));
   }
 
+  @Override
+  public ResponseEntity<LogTradeBatchResponse> logTradesBatch(@Valid LogTradeBatchRequest req) {
+    List<TradeService.NewTrade> trades =
+        req.getTrades().stream()
+            .map(
+                t ->
+                    new TradeService.NewTrade(
+                        t.getTicker().toUpperCase().strip(),
+                        t.getSide().getValue(),
+                        t.getQuantity() != null ? BigDecimal.valueOf(t.getQuantity()) : null,
+                        t.getPricePerShare() != null
+                            ? BigDecimal.valueOf(t.getPricePerShare())
+                            : null,
+                        t.getTradeDate(),
+                        t.getNotes(),
+                        t.getAssetType() != null ? t.getAssetType().getValue() : null,
+                        t.getOptionType() != null ? t.getOptionType().getValue() : null,
+                        t.getStrikePrice() != null ? BigDecimal.valueOf(t.getStrikePrice()) : null,
+                        t.getExpirationDate()))
+            .toList();
+    int logged = tradeService.logTrades(trades);
+    return ResponseEntity.status(201).body(new LogTradeBatchResponse().tradesLogged(logged));
+  }
+
   @Override
   public ResponseEntity<TradeListResponse> listTrades(
-      String ticker, String side, LocalDate from, LocalDate to) {
+      String ticker, String side, LocalDate from, LocalDate to, Integer limit, String cursor) {
     String normalizedTicker = ticker != null ? ticker.toUpperCase().strip() : null;
-    List<TradeEntity> trades = tradeService.listTrades(normalizedTicker, side, from, to);
+    if (limit == null && cursor == null) {
+      List<TradeEntity> trades = tradeService.listTrades(normalizedTicker, side, from, to);
+      return ResponseEntity.ok(
+          new TradeListResponse().trades(trades.stream().map(this::toDto).toList()));
+    }
+    TradeService.TradePage page =
+        tradeService.listTradesPage(normalizedTicker, side, from, to, cursor, limit);
     TradeListResponse response =
-        new TradeListResponse().trades(trades.stream().map(this::toDto).toList());
+        new TradeListResponse()
+            .trades(page.trades().stream().map(this::toDto).toList())
+            .nextCursor(page.nextCursor());
     return ResponseEntity.ok(response);
   }
 
+  /** Documented in openAPI.yaml under TradeExport; hand-mapped so the body can stream. */
+  @GetMapping("/api/trades/export")
+  public ResponseEntity<StreamingResponseBody> exportTrades(
+      @RequestParam(required = false) String ticker,
+      @RequestParam(required = false) String side,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    // The body is written on an async thread, where the security context is not available.
+    long userId = UserContext.current().userId();
+    String normalizedTicker = ticker != null ? ticker.toUpperCase().strip() : null;
+    StreamingResponseBody body =
+        out ->
+            tradeService.exportTrades(
+                userId,
+                normalizedTicker,
+                side,
+                from,
+                to,
+                trade -> {
+                  try {
+                    out.write(objectMapper.writeValueAsBytes(toDto(trade)));
+                    out.write('\n');
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+    return ResponseEntity.ok().contentType(NDJSON).body(body);
+  }
+
   @Override
   public ResponseEntity<Trade> getTrade(Long id) {
     return ResponseEntity.ok(toDto(tradeService.getTrade(id)));
@@ -63,30 +137,7 @@ public class TradeController implements TradesApi {
 
   @Override
   public ResponseEntity<TradeStats> getTradeStats() {
-    TradeService.TradeStats stats = tradeService.getStats();
-    TradeStats dto =
-        new TradeStats()
-            .totalTrades(stats.totalTrades())
-            .wins(stats.wins())
-            .losses(stats.losses())
-            .winRate(stats.winRate())
-            .totalPnl(stats.totalPnl().doubleValue())
-            .currentStreak(stats.currentStreak())
-            .currentStreakType(
-                TradeStats.CurrentStreakTypeEnum.fromValue(stats.currentStreakType()))
-            .bestWinStreak(stats.bestWinStreak())
-            .bestLossStreak(stats.bestLossStreak())
-            .avgHoldDays(stats.avgHoldDays())
-            .topTickers(
-                stats.topTickers().stream()
-                    .map(
-                        tp ->
-                            new TickerPnl()
-                                .ticker(tp.ticker())
-                                .pnl(tp.pnl().doubleValue())
-                                .tradeCount(tp.tradeCount()))
-                    .toList());
-    return ResponseEntity.ok(dto);
+    return ResponseEntity.ok(toStatsDto(tradeService.getStats()));
   }
 
   @Override
@@ -98,39 +149,131 @@ public class TradeController implements TradesApi {
   }
 
   @Override
-  public ResponseEntity<PnlHistoryResponse> getPnlHistory() {
-    List<TradeService.PnlHistoryEntry> entries = tradeService.getPnlHistory();
+  public ResponseEntity<PnlHistoryResponse> getPnlHistory(LocalDate from, LocalDate to) {
+    List<TradeService.PnlHistoryEntry> entries = tradeService.getPnlHistory(from, to);
     PnlHistoryResponse response =
-        new PnlHistoryResponse()
-            .entries(
-                entries.stream()
-                    .map(
-                        e ->
-                            new com.austinharlan.tradingdashboard.dto.PnlHistoryEntry()
-                                .date(e.date())
-                                .pnl(e.pnl().doubleValue())
-                                .cumulativePnl(e.cumulativePnl().doubleValue()))
-                    .toList());
+        new PnlHistoryResponse().entries(entries.stream().map(this::toHistoryDto).toList());
     return ResponseEntity.ok(response);
   }
 
   @Override
-  public ResponseEntity<TradeCalendarResponse> getTradeCalendar() {
-    List<TradeService.TradeCalendarEntry> entries = tradeService.getTradeCalendar();
+  public ResponseEntity<TradeCalendarResponse> getTradeCalendar(LocalDate from, LocalDate to) {
+    List<TradeService.TradeCalendarEntry> entries = tradeService.getTradeCalendar(from, to);
     TradeCalendarResponse response =
-        new TradeCalendarResponse()
-            .entries(
-                entries.stream()
-                    .map(
-                        e ->
-                            new com.austinharlan.tradingdashboard.dto.TradeCalendarEntry()
-                                .date(e.date())
-                                .pnl(e.pnl().doubleValue())
-                                .tradeCount(e.tradeCount()))
+        new TradeCalendarResponse().entries(entries.stream().map(this::toCalendarDto).toList());
+    return ResponseEntity.ok(response);
+  }
+
+  @Override
+  public ResponseEntity<PnlSummaryResponse> getPnlSummary(
+      String period, LocalDate from, LocalDate to) {
+    List<PnlPeriod> entries =
+        tradeService.getPnlSummary(period, from, to).stream()
+            .map(
+                t ->
+                    new PnlPeriod()
+                        .year(t.year())
+                        .month(t.month())
+                        .pnl(t.realizedPnl().doubleValue())
+                        .tradeCount(t.tradeCount()))
+            .toList();
+    return ResponseEntity.ok(
+        new PnlSummaryResponse()
+            .period(PnlSummaryResponse.PeriodEnum.fromValue(period))
+            .entries(entries));
+  }
+
+  @Override
+  public ResponseEntity<TradeAnalyticsResponse> getTradeAnalytics() {
+    TradeService.TradeAnalytics analytics = tradeService.getAnalytics();
+    TradeAnalyticsResponse response =
+        new TradeAnalyticsResponse()
+            .stats(toStatsDto(analytics.stats()))
+            .closedTrades(analytics.closedTrades().stream().map(this::toClosedDto).toList())
+            // The same daily rollup rows as /pnl-history and /calendar.
+            .pnlHistory(
+                tradeService.getPnlHistory(null, null).stream().map(this::toHistoryDto).toList())
+            .calendar(
+                tradeService.getTradeCalendar(null, null).stream()
+                    .map(this::toCalendarDto)
                     .toList());
     return ResponseEntity.ok(response);
   }
 
+  @Override
+  public ResponseEntity<TradeRiskResponse> getTradeRisk() {
+    TradeService.RiskMetrics risk = tradeService.getRiskMetrics();
+    TradeRiskResponse response =
+        new TradeRiskResponse()
+            .asOf(risk.asOf())
+            .closedTrades(risk.closedTrades())
+            .profitFactor(risk.profitFactor())
+            .expectancy(risk.expectancy())
+            .avgWin(risk.avgWin())
+            .avgLoss(risk.avgLoss())
+            .tradePnlStdDev(risk.tradePnlStdDev())
+            .maxDrawdown(risk.maxDrawdown())
+            .maxDrawdownPeak(risk.maxDrawdownPeak())
+            .maxDrawdownTrough(risk.maxDrawdownTrough())
+            .longestDrawdownDays(risk.longestDrawdownDays())
+            .currentDrawdown(risk.currentDrawdown())
+            .currentDrawdownDays(risk.currentDrawdownDays())
+            .windows(risk.windows().stream().map(this::toRiskWindowDto).toList())
+            .allTime(toRiskWindowDto(risk.allTime()));
+    return ResponseEntity.ok(response);
+  }
+
+  private RiskWindow toRiskWindowDto(TradeService.RiskWindow window) {
+    return new RiskWindow()
+        .days(window.days())
+        .observedDays(window.observedDays())
+        .totalPnl(window.totalPnl())
+        .meanDailyPnl(window.meanDailyPnl())
+        .dailyVolatility(window.dailyVolatility())
+        .annualizedVolatility(window.annualizedVolatility())
+        .sharpe(window.sharpe())
+        .sortino(window.sortino());
+  }
+
+  private TradeStats toStatsDto(TradeService.TradeStats stats) {
+    return new TradeStats()
+        .totalTrades(stats.totalTrades())
+        .wins(stats.wins())
+        .losses(stats.losses())
+        .winRate(stats.winRate())
+        .totalPnl(stats.totalPnl().doubleValue())
+        .currentStreak(stats.currentStreak())
+        .currentStreakType(TradeStats.CurrentStreakTypeEnum.fromValue(stats.currentStreakType()))
+        .bestWinStreak(stats.bestWinStreak())
+        .bestLossStreak(stats.bestLossStreak())
+        .avgHoldDays(stats.avgHoldDays())
+        .topTickers(
+            stats.topTickers().stream()
+                .map(
+                    tp ->
+                        new TickerPnl()
+                            .ticker(tp.ticker())
+                            .pnl(tp.pnl().doubleValue())
+                            .tradeCount(tp.tradeCount()))
+                .toList());
+  }
+
+  private com.austinharlan.tradingdashboard.dto.PnlHistoryEntry toHistoryDto(
+      TradeService.PnlHistoryEntry e) {
+    return new com.austinharlan.tradingdashboard.dto.PnlHistoryEntry()
+        .date(e.date())
+        .pnl(e.pnl().doubleValue())
+        .cumulativePnl(e.cumulativePnl().doubleValue());
+  }
+
+  private com.austinharlan.tradingdashboard.dto.TradeCalendarEntry toCalendarDto(
+      TradeService.TradeCalendarEntry e) {
+    return new com.austinharlan.tradingdashboard.dto.TradeCalendarEntry()
+        .date(e.date())
+        .pnl(e.pnl().doubleValue())
+        .tradeCount(e.tradeCount());
+  }
+
   private Trade toDto(TradeEntity e) {
     Trade dto =
         new Trade()
@@ -0,0 +1,13 @@
+package com.austinharlan.trading_dashboard.finance;
+
+import com.austinharlan.trading_dashboard.finance.FinanceSummaryData.CategoryTotal;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Transactions summed over one day, week or month, starting on {@code start} in UTC, with the same
+ * totals split by category.
+ */
+public record FinanceBucketTotal(
+    LocalDate start, BigDecimal amount, long count, List<CategoryTotal> byCategory) {}
@@ -2,9 +2,24 @@ package com.austinharlan.trading_dashboard.finance;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import org.springframework.lang.Nullable;
 
+/**
+ * {@code monthlyTrend} covers the twelve months ending with the current one, oldest first, with
+ * zero for months without transactions.
+ */
 public record FinanceSummaryData(
     BigDecimal monthToDateSpend,
     BigDecimal averageDailySpend,
     BigDecimal projectedMonthEndSpend,
-    Instant asOf) {}
+    Instant asOf,
+    List<CategoryTotal> monthToDateByCategory,
+    List<MonthTotal> monthlyTrend) {
+
+  /** {@code category} is null for uncategorized transactions. */
+  public record CategoryTotal(@Nullable String category, BigDecimal amount, long count) {}
+
+  public record MonthTotal(YearMonth month, BigDecimal amount, long count) {}
+}
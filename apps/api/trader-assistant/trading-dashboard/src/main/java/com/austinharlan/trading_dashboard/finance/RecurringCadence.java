@@ -0,0 +1,50 @@
+package com.austinharlan.trading_dashboard.finance;
+
+import java.time.LocalDate;
+import java.time.Period;
+import org.springframework.lang.Nullable;
+
+/**
+ * How often a recurring series charges. A gap between two charges fits a cadence when it is within
+ * {@code [minDays, maxDays]}, wide enough for month lengths and charges that slip past a weekend.
+ */
+public enum RecurringCadence {
+  WEEKLY(6, 8, Period.ofWeeks(1), 52.0 / 12),
+  BIWEEKLY(13, 16, Period.ofWeeks(2), 26.0 / 12),
+  MONTHLY(27, 33, Period.ofMonths(1), 1),
+  QUARTERLY(85, 97, Period.ofMonths(3), 1.0 / 3),
+  ANNUAL(355, 375, Period.ofYears(1), 1.0 / 12);
+
+  private final int minDays;
+  private final int maxDays;
+  private final Period period;
+  private final double perMonth;
+
+  RecurringCadence(int minDays, int maxDays, Period period, double perMonth) {
+    this.minDays = minDays;
+    this.maxDays = maxDays;
+    this.period = period;
+    this.perMonth = perMonth;
+  }
+
+  /** The cadence a gap of {@code days} between charges fits, or null if none. */
+  @Nullable
+  public static RecurringCadence ofGap(long days) {
+    for (RecurringCadence cadence : values()) {
+      if (days >= cadence.minDays && days <= cadence.maxDays) {
+        return cadence;
+      }
+    }
+    return null;
+  }
+
+  /** When the charge after one on {@code last} is due. */
+  public LocalDate next(LocalDate last) {
+    return last.plus(period);
+  }
+
+  /** Charges per month on average, to put every series on a monthly footing. */
+  public double perMonth() {
+    return perMonth;
+  }
+}
@@ -0,0 +1,22 @@
+package com.austinharlan.trading_dashboard.finance;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.springframework.lang.Nullable;
+
+/**
+ * A merchant charging on a regular cadence. Amounts are negative, as the transactions are; a series
+ * is active until it misses a second expected charge.
+ */
+public record RecurringSeriesRecord(
+    String merchantKey,
+    String merchant,
+    @Nullable String category,
+    RecurringCadence cadence,
+    int occurrences,
+    BigDecimal averageAmount,
+    BigDecimal lastAmount,
+    LocalDate firstChargedOn,
+    LocalDate lastChargedOn,
+    LocalDate nextExpectedOn,
+    boolean active) {}
@@ -1,10 +1,29 @@
 package com.austinharlan.trading_dashboard.marketdata;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public interface MarketDataProvider {
   Quote getQuote(String symbol);
 
+  /**
+   * Quotes for several symbols at once, keyed by symbol. Symbols without a quote are left out of
+   * the map rather than failing the whole lookup. The default asks for each symbol in turn.
+   */
+  default Map<String, Quote> getQuotes(Collection<String> symbols) {
+    Map<String, Quote> quotes = new LinkedHashMap<>();
+    for (String symbol : symbols) {
+      try {
+        quotes.put(symbol, getQuote(symbol));
+      } catch (QuoteNotFoundException ex) {
+        // Leave it out; callers report the symbols they did not get back.
+      }
+    }
+    return quotes;
+  }
+
   default CompanyOverview getOverview(String symbol) {
     throw new UnsupportedOperationException("getOverview not implemented");
   }
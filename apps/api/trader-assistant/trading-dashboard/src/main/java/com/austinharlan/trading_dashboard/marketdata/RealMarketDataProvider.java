@@ -2,6 +2,7 @@ package com.austinharlan.trading_dashboard.marketdata;
 
 import com.austinharlan.trading_dashboard.config.MarketDataProperties;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
 import com.rometools.rome.feed.synd.SyndEntry;
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.SyndFeedInput;
@@ -14,8 +15,11 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
@@ -39,6 +43,9 @@ public class RealMarketDataProvider implements MarketDataProvider {
       "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
           + "(KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
 
+  // Symbols per /v7/finance/quote request; longer lists are split into several calls.
+  private static final int QUOTE_BATCH_SIZE = 50;
+
   private final WebClient webClient;
   private final WebClient rssClient;
   private final MarketDataProperties properties;
@@ -91,6 +98,34 @@ public class RealMarketDataProvider implements MarketDataProvider {
     return toQuote(symbol, result);
   }
 
+  @Override
+  public Map<String, Quote> getQuotes(Collection<String> symbols) {
+    List<String> distinct = symbols.stream().distinct().toList();
+    distinct.forEach(this::requireSymbol);
+    Map<String, Quote> quotes = new LinkedHashMap<>();
+    for (int from = 0; from < distinct.size(); from += QUOTE_BATCH_SIZE) {
+      List<String> batch =
+          distinct.subList(from, Math.min(from + QUOTE_BATCH_SIZE, distinct.size()));
+      JsonNode results = fetchQuotes(batch).path("quoteResponse").path("result");
+      for (JsonNode result : results) {
+        String symbol = result.path("symbol").asText(null);
+        BigDecimal price = rawBigDecimal(result, "regularMarketPrice");
+        if (symbol == null || price == null || price.signum() == 0) {
+          continue;
+        }
+        long epochSeconds = result.path("regularMarketTime").asLong(0);
+        quotes.put(
+            symbol,
+            new Quote(
+                symbol,
+                price,
+                rawBigDecimal(result, "regularMarketChangePercent"),
+                epochSeconds > 0 ? Instant.ofEpochSecond(epochSeconds) : Instant.now()));
+      }
+    }
+    return quotes;
+  }
+
   @Override
   public CompanyOverview getOverview(String symbol) {
     requireSymbol(symbol);
@@ -169,6 +204,60 @@ public class RealMarketDataProvider implements MarketDataProvider {
 
   // ── quoteSummary with crumb ──────────────────────────────────────────────
 
+  private JsonNode fetchQuotes(List<String> symbols) {
+    try {
+      return doFetchQuotes(symbols);
+    } catch (MarketDataClientException ex) {
+      if (ex.getMessage() != null
+          && (ex.getMessage().contains("401") || ex.getMessage().contains("403"))) {
+        log.info("Crumb rejected, refreshing and retrying quote batch");
+        crumbProvider.invalidate();
+        return doFetchQuotes(symbols);
+      }
+      throw ex;
+    }
+  }
+
+  private JsonNode doFetchQuotes(List<String> symbols) {
+    JsonNode root =
+        webClient
+            .get()
+            .uri(
+                uriBuilder ->
+                    uriBuilder
+                        .path("/v7/finance/quote")
+                        .queryParam("symbols", String.join(",", symbols))
+                        .queryParam("crumb", crumbProvider.getCrumb())
+                        .build())
+            .header("Cookie", crumbProvider.getCookie())
+            .retrieve()
+            .onStatus(
+                HttpStatusCode::isError,
+                r ->
+                    r.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(
+                            body ->
+                                new MarketDataClientException(
+                                    "Yahoo Finance error %s: %s".formatted(r.statusCode(), body))))
+            .bodyToMono(JsonNode.class)
+            .doOnError(
+                ex ->
+                    log.warn("Yahoo quote batch of {} failed: {}", symbols.size(), ex.getMessage()))
+            .onErrorMap(
+                WebClientResponseException.class,
+                ex ->
+                    new MarketDataClientException(
+                        "Yahoo call failed with status %s".formatted(ex.getStatusCode()), ex))
+            .onErrorMap(
+                WebClientRequestException.class,
+                ex ->
+                    new MarketDataClientException(
+                        "Yahoo request failed: %s".formatted(ex.getMessage()), ex))
+            .block(properties.getReadTimeout());
+    return root != null ? root : MissingNode.getInstance();
+  }
+
   private JsonNode fetchQuoteSummary(String symbol, String modules) {
     try {
       return doFetchQuoteSummary(symbol, modules);
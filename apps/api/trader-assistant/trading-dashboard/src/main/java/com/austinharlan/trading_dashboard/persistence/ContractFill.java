@@ -0,0 +1,6 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.math.BigDecimal;
+
+/** Side and quantity of one trade on an option or equity contract, in chronological order. */
+public record ContractFill(String side, BigDecimal quantity) {}
@@ -0,0 +1,111 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import org.springframework.data.domain.Persistable;
+
+@Entity
+@Table(name = "daily_realized_pnl")
+@IdClass(DailyRealizedPnlEntity.Key.class)
+public class DailyRealizedPnlEntity implements Persistable<DailyRealizedPnlEntity.Key> {
+
+  @Id
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Id
+  @Column(name = "pnl_date", nullable = false)
+  private LocalDate pnlDate;
+
+  @Column(name = "realized_pnl", nullable = false, precision = 24, scale = 6)
+  private BigDecimal realizedPnl;
+
+  @Column(name = "trade_count", nullable = false)
+  private int tradeCount;
+
+  // The key is assigned, so tell Spring Data which rows are new instead of having it select first.
+  @Transient private boolean isNew = true;
+
+  protected DailyRealizedPnlEntity() {}
+
+  public DailyRealizedPnlEntity(
+      Long userId, LocalDate pnlDate, BigDecimal realizedPnl, int tradeCount) {
+    this.userId = Objects.requireNonNull(userId, "userId");
+    this.pnlDate = Objects.requireNonNull(pnlDate, "pnlDate");
+    this.realizedPnl = Objects.requireNonNull(realizedPnl, "realizedPnl");
+    this.tradeCount = tradeCount;
+  }
+
+  public void add(BigDecimal pnl, int count) {
+    this.realizedPnl = realizedPnl.add(pnl);
+    this.tradeCount += count;
+  }
+
+  @Override
+  public Key getId() {
+    return new Key(userId, pnlDate);
+  }
+
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public LocalDate getPnlDate() {
+    return pnlDate;
+  }
+
+  public BigDecimal getRealizedPnl() {
+    return realizedPnl;
+  }
+
+  public int getTradeCount() {
+    return tradeCount;
+  }
+
+  // A class rather than a record: Hibernate binds @IdClass records by sorted component name, which
+  // swaps userId and pnlDate.
+  public static class Key implements Serializable {
+    private Long userId;
+    private LocalDate pnlDate;
+
+    protected Key() {}
+
+    public Key(Long userId, LocalDate pnlDate) {
+      this.userId = userId;
+      this.pnlDate = pnlDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key k
+          && Objects.equals(userId, k.userId)
+          && Objects.equals(pnlDate, k.pnlDate);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(userId, pnlDate);
+    }
+  }
+}
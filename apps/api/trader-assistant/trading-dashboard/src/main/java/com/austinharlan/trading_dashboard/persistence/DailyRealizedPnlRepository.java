@@ -0,0 +1,69 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface DailyRealizedPnlRepository
+    extends JpaRepository<DailyRealizedPnlEntity, DailyRealizedPnlEntity.Key> {
+
+  /**
+   * Rows in {@code [from, to]}, either bound optional, served by the primary key. The bounds go
+   * through {@code coalesce} rather than {@code :from is null} so PostgreSQL can type a null
+   * parameter.
+   */
+  @Query(
+      """
+      select r from DailyRealizedPnlEntity r
+      where r.userId = :userId
+        and r.pnlDate >= coalesce(:from, r.pnlDate)
+        and r.pnlDate <= coalesce(:to, r.pnlDate)
+      order by r.pnlDate asc
+      """)
+  List<DailyRealizedPnlEntity> findRange(
+      @Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  List<DailyRealizedPnlEntity> findByUserIdAndPnlDateIn(Long userId, Collection<LocalDate> dates);
+
+  @Query(
+      "select coalesce(sum(r.realizedPnl), 0) from DailyRealizedPnlEntity r "
+          + "where r.userId = :userId and r.pnlDate < :before")
+  BigDecimal sumBefore(@Param("userId") Long userId, @Param("before") LocalDate before);
+
+  @Query(
+      """
+      select new com.austinharlan.trading_dashboard.persistence.PnlPeriodTotal(
+          year(r.pnlDate), month(r.pnlDate), sum(r.realizedPnl), sum(r.tradeCount))
+      from DailyRealizedPnlEntity r
+      where r.userId = :userId
+        and r.pnlDate >= coalesce(:from, r.pnlDate)
+        and r.pnlDate <= coalesce(:to, r.pnlDate)
+      group by year(r.pnlDate), month(r.pnlDate)
+      order by year(r.pnlDate), month(r.pnlDate)
+      """)
+  List<PnlPeriodTotal> sumByMonth(
+      @Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  @Query(
+      """
+      select new com.austinharlan.trading_dashboard.persistence.PnlPeriodTotal(
+          year(r.pnlDate), sum(r.realizedPnl), sum(r.tradeCount))
+      from DailyRealizedPnlEntity r
+      where r.userId = :userId
+        and r.pnlDate >= coalesce(:from, r.pnlDate)
+        and r.pnlDate <= coalesce(:to, r.pnlDate)
+      group by year(r.pnlDate)
+      order by year(r.pnlDate)
+      """)
+  List<PnlPeriodTotal> sumByYear(
+      @Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  @Modifying
+  @Query("delete from DailyRealizedPnlEntity r where r.userId = :userId")
+  int deleteAllForUser(@Param("userId") Long userId);
+}
@@ -0,0 +1,12 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** One equity BUY or SELL from the trade log, as replayed into holdings. */
+public record EquityFill(
+    String ticker,
+    String side,
+    BigDecimal quantity,
+    BigDecimal pricePerShare,
+    LocalDate tradeDate) {}
@@ -0,0 +1,24 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.lang.Nullable;
+
+/**
+ * Grouped {@code SUM}/{@code COUNT} over a user's transactions, so callers read one row per period
+ * and category however many transactions there are. Periods are UTC calendar days, ISO weeks
+ * starting on Monday, or calendar months.
+ */
+public interface FinanceAggregates {
+
+  String DAY = "day";
+  String WEEK = "week";
+  String MONTH = "month";
+
+  /**
+   * Totals of transactions posted in {@code [from, to)}, either bound optional, per {@code unit}
+   * period and, if {@code byCategory}, per category; ordered by period, then category.
+   */
+  List<FinancePeriodTotal> sumByPeriod(
+      long userId, String unit, boolean byCategory, @Nullable Instant from, @Nullable Instant to);
+}
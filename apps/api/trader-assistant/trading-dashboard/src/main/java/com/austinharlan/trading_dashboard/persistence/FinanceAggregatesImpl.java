@@ -0,0 +1,86 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.springframework.lang.Nullable;
+
+/**
+ * Native SQL, since JPQL cannot truncate a timestamp in a given zone. Periods are computed from
+ * {@code posted_at at time zone 'UTC'} with expressions that read the same on PostgreSQL and H2,
+ * and the unit is checked against a fixed set before it is written into the statement.
+ */
+class FinanceAggregatesImpl implements FinanceAggregates {
+
+  private static final Set<String> UNITS = Set.of(DAY, WEEK, MONTH);
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<FinancePeriodTotal> sumByPeriod(
+      long userId, String unit, boolean byCategory, @Nullable Instant from, @Nullable Instant to) {
+    if (!UNITS.contains(unit)) {
+      throw new IllegalArgumentException("Unknown period: " + unit);
+    }
+    StringBuilder sql =
+        new StringBuilder("select ")
+            .append(periodStart(unit))
+            .append(" as period, ")
+            .append(byCategory ? "category" : "cast(null as varchar(64))")
+            .append(", sum(amount), count(*) from finance_transaction where user_id = :userId");
+    if (from != null) {
+      sql.append(" and posted_at >= :from");
+    }
+    if (to != null) {
+      sql.append(" and posted_at < :to");
+    }
+    sql.append(byCategory ? " group by 1, 2 order by 1, 2" : " group by 1 order by 1");
+
+    Query query = entityManager.createNativeQuery(sql.toString()).setParameter("userId", userId);
+    if (from != null) {
+      query.setParameter("from", from);
+    }
+    if (to != null) {
+      query.setParameter("to", to);
+    }
+    @SuppressWarnings("unchecked")
+    List<Object[]> rows = query.getResultList();
+    return rows.stream()
+        .map(
+            row ->
+                new FinancePeriodTotal(
+                    toLocalDate(row[0]),
+                    (String) row[1],
+                    (BigDecimal) row[2],
+                    ((Number) row[3]).longValue()))
+        .toList();
+  }
+
+  /**
+   * First day of the period holding {@code posted_at}. {@code date_trunc('week')} starts weeks on
+   * Sunday in H2, so weeks step back from the day by its ISO day of week instead.
+   */
+  private static String periodStart(String unit) {
+    String local = "posted_at at time zone 'UTC'";
+    return switch (unit) {
+      case WEEK ->
+          "cast(cast("
+              + local
+              + " as date) - cast(extract(isodow from "
+              + local
+              + ") - 1 as integer)"
+              + " as date)";
+      default -> "cast(date_trunc('" + unit + "', " + local + ") as date)";
+    };
+  }
+
+  private static LocalDate toLocalDate(Object value) {
+    return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+  }
+}
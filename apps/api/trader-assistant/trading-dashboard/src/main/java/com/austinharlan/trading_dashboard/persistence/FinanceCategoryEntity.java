@@ -3,14 +3,18 @@ package com.austinharlan.trading_dashboard.persistence;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "finance_category")
-public class FinanceCategoryEntity {
+public class FinanceCategoryEntity implements Persistable<String> {
 
   @Id
   @Column(name = "id", nullable = false, updatable = false, length = 36)
@@ -31,6 +35,9 @@ public class FinanceCategoryEntity {
   @Column(name = "created_at", nullable = false)
   private Instant createdAt;
 
+  // The id is assigned, so tell Spring Data which rows are new instead of having it select first.
+  @Transient private boolean isNew = true;
+
   protected FinanceCategoryEntity() {}
 
   public FinanceCategoryEntity(Long userId, String slug, String label, int sortOrder) {
@@ -42,10 +49,22 @@ public class FinanceCategoryEntity {
     this.createdAt = Instant.now();
   }
 
+  @Override
   public String getId() {
     return id;
   }
 
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
   public Long getUserId() {
     return userId;
   }
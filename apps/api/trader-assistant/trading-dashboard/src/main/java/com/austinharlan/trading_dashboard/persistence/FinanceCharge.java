@@ -0,0 +1,8 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/** A negative transaction as the recurring charge analyzer reads it. */
+public record FinanceCharge(
+    Instant postedAt, String description, BigDecimal amount, String category) {}
@@ -0,0 +1,110 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import org.springframework.data.domain.Persistable;
+
+@Entity
+@Table(name = "finance_monthly_rollup")
+@IdClass(FinanceMonthlyRollupEntity.Key.class)
+public class FinanceMonthlyRollupEntity implements Persistable<FinanceMonthlyRollupEntity.Key> {
+
+  @Id
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Id
+  @Column(name = "month_start", nullable = false)
+  private LocalDate monthStart;
+
+  @Column(name = "total_amount", nullable = false, precision = 24, scale = 2)
+  private BigDecimal totalAmount;
+
+  @Column(name = "txn_count", nullable = false)
+  private int txnCount;
+
+  // The key is assigned, so tell Spring Data which rows are new instead of having it select first.
+  @Transient private boolean isNew = true;
+
+  protected FinanceMonthlyRollupEntity() {}
+
+  public FinanceMonthlyRollupEntity(
+      Long userId, LocalDate monthStart, BigDecimal totalAmount, int txnCount) {
+    this.userId = Objects.requireNonNull(userId, "userId");
+    this.monthStart = Objects.requireNonNull(monthStart, "monthStart");
+    this.totalAmount = Objects.requireNonNull(totalAmount, "totalAmount");
+    this.txnCount = txnCount;
+  }
+
+  public void add(BigDecimal amount, int count) {
+    this.totalAmount = totalAmount.add(amount);
+    this.txnCount += count;
+  }
+
+  @Override
+  public Key getId() {
+    return new Key(userId, monthStart);
+  }
+
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public LocalDate getMonthStart() {
+    return monthStart;
+  }
+
+  public BigDecimal getTotalAmount() {
+    return totalAmount;
+  }
+
+  public int getTxnCount() {
+    return txnCount;
+  }
+
+  // A class rather than a record, as for DailyRealizedPnlEntity.Key.
+  public static class Key implements Serializable {
+    private Long userId;
+    private LocalDate monthStart;
+
+    protected Key() {}
+
+    public Key(Long userId, LocalDate monthStart) {
+      this.userId = userId;
+      this.monthStart = monthStart;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key k
+          && Objects.equals(userId, k.userId)
+          && Objects.equals(monthStart, k.monthStart);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(userId, monthStart);
+    }
+  }
+}
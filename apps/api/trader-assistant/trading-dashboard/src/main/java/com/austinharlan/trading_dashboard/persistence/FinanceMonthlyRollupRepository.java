@@ -0,0 +1,29 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface FinanceMonthlyRollupRepository
+    extends JpaRepository<FinanceMonthlyRollupEntity, FinanceMonthlyRollupEntity.Key> {
+
+  /** Months in {@code [from, to]}, served by the primary key. */
+  @Query(
+      """
+      select r from FinanceMonthlyRollupEntity r
+      where r.userId = :userId and r.monthStart >= :from and r.monthStart <= :to
+      order by r.monthStart asc
+      """)
+  List<FinanceMonthlyRollupEntity> findRange(
+      @Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  Optional<FinanceMonthlyRollupEntity> findByUserIdAndMonthStart(Long userId, LocalDate monthStart);
+
+  @Modifying
+  @Query("delete from FinanceMonthlyRollupEntity r where r.userId = :userId")
+  int deleteAllForUser(@Param("userId") Long userId);
+}
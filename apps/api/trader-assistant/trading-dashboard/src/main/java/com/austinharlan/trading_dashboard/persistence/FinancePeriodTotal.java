@@ -0,0 +1,13 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.springframework.lang.Nullable;
+
+/**
+ * Transaction amounts summed over the period starting on {@code period}, for one category or, when
+ * not grouped by category, all of them. {@code category} is null for uncategorized transactions and
+ * for totals across categories.
+ */
+public record FinancePeriodTotal(
+    LocalDate period, @Nullable String category, BigDecimal amount, long count) {}
@@ -0,0 +1,254 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Running statistics over one merchant's charges, in date order: how many there were, the mean and
+ * spread of their amounts (Welford's {@code m2}), and how many of the gaps between charge dates fit
+ * each cadence. {@code cadence} is set once those say the charges recur.
+ */
+@Entity
+@Table(name = "finance_recurring_series")
+@IdClass(FinanceRecurringSeriesEntity.Key.class)
+public class FinanceRecurringSeriesEntity implements Persistable<FinanceRecurringSeriesEntity.Key> {
+
+  @Id
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Id
+  @Column(name = "merchant_key", nullable = false, length = 64)
+  private String merchantKey;
+
+  @Column(name = "merchant", nullable = false, length = 255)
+  private String merchant;
+
+  @Column(name = "category", length = 64)
+  private String category;
+
+  @Column(name = "occurrences", nullable = false)
+  private int occurrences;
+
+  @Column(name = "first_charged_on", nullable = false)
+  private LocalDate firstChargedOn;
+
+  @Column(name = "last_charged_on", nullable = false)
+  private LocalDate lastChargedOn;
+
+  @Column(name = "last_amount", nullable = false, precision = 18, scale = 2)
+  private BigDecimal lastAmount;
+
+  @Column(name = "amount_mean", nullable = false)
+  private double amountMean;
+
+  @Column(name = "amount_m2", nullable = false)
+  private double amountM2;
+
+  @Column(name = "intervals", nullable = false)
+  private int intervals;
+
+  @Column(name = "weekly_hits", nullable = false)
+  private int weeklyHits;
+
+  @Column(name = "biweekly_hits", nullable = false)
+  private int biweeklyHits;
+
+  @Column(name = "monthly_hits", nullable = false)
+  private int monthlyHits;
+
+  @Column(name = "quarterly_hits", nullable = false)
+  private int quarterlyHits;
+
+  @Column(name = "annual_hits", nullable = false)
+  private int annualHits;
+
+  @Column(name = "cadence", length = 16)
+  private String cadence;
+
+  // The key is assigned, so tell Spring Data which rows are new instead of having it select first.
+  @Transient private boolean isNew = true;
+
+  protected FinanceRecurringSeriesEntity() {}
+
+  public FinanceRecurringSeriesEntity(Long userId, String merchantKey) {
+    this.userId = Objects.requireNonNull(userId, "userId");
+    this.merchantKey = Objects.requireNonNull(merchantKey, "merchantKey");
+  }
+
+  /**
+   * Adds a charge on or after the last one. {@code gapCadence} names the cadence the gap since the
+   * last charge fits, or is null when it fits none; a charge on the same day as the last one adds
+   * no gap.
+   */
+  public void add(
+      LocalDate chargedOn, BigDecimal amount, String merchant, String category, String gapCadence) {
+    if (lastChargedOn != null && chargedOn.isAfter(lastChargedOn)) {
+      intervals++;
+      if (gapCadence != null) {
+        addHit(gapCadence);
+      }
+    }
+    occurrences++;
+    double x = amount.doubleValue();
+    double delta = x - amountMean;
+    amountMean += delta / occurrences;
+    amountM2 += delta * (x - amountMean);
+    if (firstChargedOn == null) {
+      firstChargedOn = chargedOn;
+    }
+    lastChargedOn = chargedOn;
+    lastAmount = amount;
+    this.merchant = merchant;
+    if (category != null) {
+      this.category = category;
+    }
+  }
+
+  /** Forgets every charge, ahead of folding them all in again. */
+  public void reset() {
+    merchant = null;
+    category = null;
+    occurrences = 0;
+    firstChargedOn = null;
+    lastChargedOn = null;
+    lastAmount = null;
+    amountMean = 0;
+    amountM2 = 0;
+    intervals = 0;
+    weeklyHits = 0;
+    biweeklyHits = 0;
+    monthlyHits = 0;
+    quarterlyHits = 0;
+    annualHits = 0;
+    cadence = null;
+  }
+
+  /** Gaps that fit {@code cadence}, one of WEEKLY, BIWEEKLY, MONTHLY, QUARTERLY or ANNUAL. */
+  public int hits(String cadence) {
+    return switch (cadence) {
+      case "WEEKLY" -> weeklyHits;
+      case "BIWEEKLY" -> biweeklyHits;
+      case "MONTHLY" -> monthlyHits;
+      case "QUARTERLY" -> quarterlyHits;
+      case "ANNUAL" -> annualHits;
+      default -> throw new IllegalArgumentException("Unknown cadence: " + cadence);
+    };
+  }
+
+  private void addHit(String cadence) {
+    switch (cadence) {
+      case "WEEKLY" -> weeklyHits++;
+      case "BIWEEKLY" -> biweeklyHits++;
+      case "MONTHLY" -> monthlyHits++;
+      case "QUARTERLY" -> quarterlyHits++;
+      case "ANNUAL" -> annualHits++;
+      default -> throw new IllegalArgumentException("Unknown cadence: " + cadence);
+    }
+  }
+
+  @Override
+  public Key getId() {
+    return new Key(userId, merchantKey);
+  }
+
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public String getMerchantKey() {
+    return merchantKey;
+  }
+
+  public String getMerchant() {
+    return merchant;
+  }
+
+  public String getCategory() {
+    return category;
+  }
+
+  public int getOccurrences() {
+    return occurrences;
+  }
+
+  public LocalDate getFirstChargedOn() {
+    return firstChargedOn;
+  }
+
+  public LocalDate getLastChargedOn() {
+    return lastChargedOn;
+  }
+
+  public BigDecimal getLastAmount() {
+    return lastAmount;
+  }
+
+  public double getAmountMean() {
+    return amountMean;
+  }
+
+  /** Population standard deviation of the amounts. */
+  public double getAmountStdDev() {
+    return occurrences == 0 ? 0 : Math.sqrt(amountM2 / occurrences);
+  }
+
+  public int getIntervals() {
+    return intervals;
+  }
+
+  public String getCadence() {
+    return cadence;
+  }
+
+  public void setCadence(String cadence) {
+    this.cadence = cadence;
+  }
+
+  // A class rather than a record, as for DailyRealizedPnlEntity.Key.
+  public static class Key implements Serializable {
+    private Long userId;
+    private String merchantKey;
+
+    protected Key() {}
+
+    public Key(Long userId, String merchantKey) {
+      this.userId = userId;
+      this.merchantKey = merchantKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key k
+          && Objects.equals(userId, k.userId)
+          && Objects.equals(merchantKey, k.merchantKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(userId, merchantKey);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface FinanceRecurringSeriesRepository
+    extends JpaRepository<FinanceRecurringSeriesEntity, FinanceRecurringSeriesEntity.Key> {
+
+  List<FinanceRecurringSeriesEntity> findAllByUserId(Long userId);
+
+  /** Series found to recur; the others are only kept so later charges can be folded in. */
+  @Query(
+      """
+      select s from FinanceRecurringSeriesEntity s
+      where s.userId = :userId and s.cadence is not null
+      """)
+  List<FinanceRecurringSeriesEntity> findDetectedByUserId(@Param("userId") Long userId);
+
+  @Modifying
+  @Query("delete from FinanceRecurringSeriesEntity s where s.userId = :userId")
+  int deleteAllForUser(@Param("userId") Long userId);
+}
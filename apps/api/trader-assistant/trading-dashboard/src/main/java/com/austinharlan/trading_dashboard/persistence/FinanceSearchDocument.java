@@ -0,0 +1,8 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.time.Instant;
+import org.springframework.lang.Nullable;
+
+/** The searchable text of one transaction, for building an in-memory search index. */
+public record FinanceSearchDocument(
+    String id, Instant postedAt, String description, @Nullable String notes) {}
@@ -0,0 +1,9 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.time.Instant;
+
+/**
+ * A transaction matching a search, with its relevance. Results run by {@code rank} descending, then
+ * newest first, then by id descending, so a hit is also the keyset cursor for the page after it.
+ */
+public record FinanceSearchHit(String id, float rank, Instant postedAt) {}
@@ -0,0 +1,22 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.util.List;
+import org.springframework.lang.Nullable;
+
+/**
+ * Ranked full-text search over a user's transaction descriptions and notes, served by the {@code
+ * search_vector} GIN index on PostgreSQL. H2 has no such index; check {@link #hasFullTextIndex}
+ * first.
+ */
+public interface FinanceTextSearch {
+
+  boolean hasFullTextIndex();
+
+  /**
+   * Up to {@code limit} transactions containing a word starting with each of {@code prefixes}, in
+   * {@link FinanceSearchHit} order and strictly after {@code after} when given. Prefixes must be
+   * lower-case letters and digits only.
+   */
+  List<FinanceSearchHit> searchFullText(
+      long userId, List<String> prefixes, @Nullable FinanceSearchHit after, int limit);
+}
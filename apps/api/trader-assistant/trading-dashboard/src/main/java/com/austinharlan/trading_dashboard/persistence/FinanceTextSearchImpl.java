@@ -0,0 +1,94 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.hibernate.Session;
+import org.springframework.lang.Nullable;
+
+/**
+ * The query ANDs a {@code prefix:*} term per prefix. Prefixes are checked to be letters and digits
+ * before they are joined into the {@code to_tsquery} text, so no input can inject query operators.
+ * The rank is compared as {@code real}, the type {@code ts_rank} returns, so a cursor taken from a
+ * hit matches that hit's rank exactly.
+ */
+class FinanceTextSearchImpl implements FinanceTextSearch {
+
+  private static final String MATCHES =
+      """
+      select id, rank, posted_at from (
+        select t.id, t.posted_at, ts_rank(t.search_vector, q.query) as rank
+        from finance_transaction t, to_tsquery('simple', :query) as q(query)
+        where t.user_id = :userId and t.search_vector @@ q.query
+      ) m
+      """;
+
+  private static final String AFTER =
+      """
+      where rank < cast(:rank as real)
+         or (rank = cast(:rank as real)
+             and (posted_at < :postedAt or (posted_at = :postedAt and id < :id)))
+      """;
+
+  private static final String ORDER = "order by rank desc, posted_at desc, id desc limit :limit";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private volatile Boolean postgres;
+
+  @Override
+  public boolean hasFullTextIndex() {
+    Boolean result = postgres;
+    if (result == null) {
+      result =
+          entityManager
+              .unwrap(Session.class)
+              .doReturningWork(c -> "PostgreSQL".equals(c.getMetaData().getDatabaseProductName()));
+      postgres = result;
+    }
+    return result;
+  }
+
+  @Override
+  public List<FinanceSearchHit> searchFullText(
+      long userId, List<String> prefixes, @Nullable FinanceSearchHit after, int limit) {
+    StringBuilder query = new StringBuilder();
+    for (String prefix : prefixes) {
+      if (prefix.isEmpty() || !prefix.chars().allMatch(Character::isLetterOrDigit)) {
+        throw new IllegalArgumentException("Invalid search prefix: " + prefix);
+      }
+      query.append(query.isEmpty() ? "" : " & ").append(prefix).append(":*");
+    }
+    Query statement =
+        entityManager
+            .createNativeQuery(MATCHES + (after != null ? AFTER : "") + ORDER)
+            .setParameter("query", query.toString())
+            .setParameter("userId", userId)
+            .setParameter("limit", limit);
+    if (after != null) {
+      statement
+          .setParameter("rank", after.rank())
+          .setParameter("postedAt", after.postedAt())
+          .setParameter("id", after.id());
+    }
+    @SuppressWarnings("unchecked")
+    List<Object[]> rows = statement.getResultList();
+    return rows.stream()
+        .map(
+            row ->
+                new FinanceSearchHit(
+                    (String) row[0], ((Number) row[1]).floatValue(), toInstant(row[2])))
+        .toList();
+  }
+
+  private static Instant toInstant(Object value) {
+    if (value instanceof OffsetDateTime time) {
+      return time.toInstant();
+    }
+    return value instanceof Timestamp timestamp ? timestamp.toInstant() : (Instant) value;
+  }
+}
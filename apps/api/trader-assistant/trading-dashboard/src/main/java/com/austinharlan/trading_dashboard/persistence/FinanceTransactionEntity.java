@@ -6,6 +6,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -41,6 +42,10 @@ public class FinanceTransactionEntity {
   @Column(name = "import_dedup_key", length = 64)
   private String importDedupKey;
 
+  // Assigned by the database in write order; only queries read it.
+  @Column(name = "insert_seq", insertable = false, updatable = false)
+  private Long insertSeq;
+
   protected FinanceTransactionEntity() {
     // for JPA
   }
@@ -68,7 +73,7 @@ public class FinanceTransactionEntity {
     this.postedAt = Objects.requireNonNull(postedAt, "postedAt must not be null");
     this.description = Objects.requireNonNull(description, "description must not be null");
     this.amount = Objects.requireNonNull(amount, "amount must not be null");
-    this.category = category;
+    this.category = normalizeCategory(category);
     this.notes = notes;
   }
 
@@ -113,7 +118,15 @@ public class FinanceTransactionEntity {
   }
 
   public void setCategory(String category) {
-    this.category = category;
+    this.category = normalizeCategory(category);
+  }
+
+  /**
+   * Categories are stored lower-case so the category filter is a plain equality that the {@code
+   * (user_id, category, posted_at, id)} index can serve.
+   */
+  public static String normalizeCategory(String category) {
+    return category == null ? null : category.toLowerCase(Locale.ROOT);
   }
 
   public String getNotes() {
@@ -0,0 +1,16 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.util.List;
+
+/**
+ * Bulk inserts for statement imports, sent as one JDBC batch without passing through the
+ * persistence context, so an import holds no more than one batch of rows in memory.
+ */
+public interface FinanceTransactionImports {
+
+  /**
+   * Inserts {@code rows}, skipping any whose {@code import_dedup_key} is already taken, and returns
+   * how many were inserted. Must run inside a transaction.
+   */
+  int insertSkippingDuplicates(List<FinanceTransactionEntity> rows);
+}
@@ -0,0 +1,89 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@code ON CONFLICT DO NOTHING} without a conflict target skips a row that violates any unique
+ * index, here the dedup key; H2 accepts the same form in PostgreSQL mode. The statement runs on the
+ * transaction's own connection, so rows inserted here are visible to later queries in it.
+ *
+ * <p>A driver may answer a batch with {@link Statement#SUCCESS_NO_INFO} instead of row counts
+ * (PgJDBC does with {@code reWriteBatchedInserts}). Every row carries a freshly generated id, so
+ * the rows inserted are then counted by looking those ids up.
+ */
+class FinanceTransactionImportsImpl implements FinanceTransactionImports {
+
+  private static final String INSERT =
+      """
+      insert into finance_transaction
+        (id, user_id, posted_at, description, amount, category, notes, account, import_dedup_key)
+      values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+      on conflict do nothing
+      """;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public int insertSkippingDuplicates(List<FinanceTransactionEntity> rows) {
+    if (rows.isEmpty()) {
+      return 0;
+    }
+    return entityManager
+        .unwrap(Session.class)
+        .doReturningWork(
+            connection -> {
+              try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (FinanceTransactionEntity row : rows) {
+                  statement.setString(1, row.getId());
+                  statement.setLong(2, row.getUserId());
+                  statement.setObject(3, row.getPostedAt().atOffset(ZoneOffset.UTC));
+                  statement.setString(4, row.getDescription());
+                  statement.setBigDecimal(5, row.getAmount());
+                  statement.setString(6, row.getCategory());
+                  statement.setString(7, row.getNotes());
+                  statement.setString(8, row.getAccount());
+                  statement.setString(9, row.getImportDedupKey());
+                  statement.addBatch();
+                }
+                int inserted = 0;
+                for (int count : statement.executeBatch()) {
+                  if (count == Statement.SUCCESS_NO_INFO) {
+                    return countPresent(connection, rows);
+                  }
+                  inserted += Math.max(count, 0);
+                }
+                return inserted;
+              }
+            });
+  }
+
+  private static int countPresent(Connection connection, List<FinanceTransactionEntity> rows)
+      throws SQLException {
+    String sql =
+        "select count(*) from finance_transaction where id in ("
+            + String.join(",", Collections.nCopies(rows.size(), "?"))
+            + ")";
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (int i = 0; i < rows.size(); i++) {
+        statement.setString(i + 1, rows.get(i).getId());
+      }
+      try (ResultSet result = statement.executeQuery()) {
+        result.next();
+        return result.getInt(1);
+      }
+    }
+  }
+}
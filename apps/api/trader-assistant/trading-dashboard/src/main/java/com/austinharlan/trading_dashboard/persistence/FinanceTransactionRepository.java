@@ -1,20 +1,81 @@
 package com.austinharlan.trading_dashboard.persistence;
 
+import jakarta.persistence.QueryHint;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 public interface FinanceTransactionRepository
-    extends JpaRepository<FinanceTransactionEntity, String> {
+    extends JpaRepository<FinanceTransactionEntity, String>,
+        FinanceAggregates,
+        FinanceTransactionImports,
+        FinanceTextSearch {
 
   List<FinanceTransactionEntity> findAllByUserIdOrderByPostedAtDesc(Long userId, Pageable pageable);
 
-  List<FinanceTransactionEntity> findByUserIdAndCategoryIgnoreCaseOrderByPostedAtDesc(
-      Long userId, String category, Pageable pageable);
+  /** First keyset page, newest first; continue with {@link #findPageByUserIdAfter}. */
+  @Query(
+      """
+      select t from FinanceTransactionEntity t
+      where t.userId = :userId
+      order by t.postedAt desc, t.id desc
+      """)
+  List<FinanceTransactionEntity> findPageByUserId(@Param("userId") Long userId, Pageable page);
+
+  /**
+   * Keyset page strictly after (afterPostedAt, afterId) in list order. The {@code postedAt <=
+   * :afterPostedAt} bound lets the index seek to the cursor instead of filtering from the top.
+   */
+  @Query(
+      """
+      select t from FinanceTransactionEntity t
+      where t.userId = :userId
+        and t.postedAt <= :afterPostedAt
+        and (t.postedAt < :afterPostedAt or t.id < :afterId)
+      order by t.postedAt desc, t.id desc
+      """)
+  List<FinanceTransactionEntity> findPageByUserIdAfter(
+      @Param("userId") Long userId,
+      @Param("afterPostedAt") Instant afterPostedAt,
+      @Param("afterId") String afterId,
+      Pageable page);
+
+  /**
+   * First keyset page in one category. Categories are stored lower-case, so pass {@code category}
+   * through {@link FinanceTransactionEntity#normalizeCategory}.
+   */
+  @Query(
+      """
+      select t from FinanceTransactionEntity t
+      where t.userId = :userId and t.category = :category
+      order by t.postedAt desc, t.id desc
+      """)
+  List<FinanceTransactionEntity> findPageByUserIdAndCategory(
+      @Param("userId") Long userId, @Param("category") String category, Pageable page);
+
+  /** {@link #findPageByUserIdAfter} within one category. */
+  @Query(
+      """
+      select t from FinanceTransactionEntity t
+      where t.userId = :userId and t.category = :category
+        and t.postedAt <= :afterPostedAt
+        and (t.postedAt < :afterPostedAt or t.id < :afterId)
+      order by t.postedAt desc, t.id desc
+      """)
+  List<FinanceTransactionEntity> findPageByUserIdAndCategoryAfter(
+      @Param("userId") Long userId,
+      @Param("category") String category,
+      @Param("afterPostedAt") Instant afterPostedAt,
+      @Param("afterId") String afterId,
+      Pageable page);
 
   @Query(
       "SELECT t FROM FinanceTransactionEntity t WHERE t.userId = :userId AND t.postedAt >= :startInclusive AND t.postedAt < :endExclusive ORDER BY t.postedAt DESC")
@@ -23,6 +84,54 @@ public interface FinanceTransactionRepository
       @Param("startInclusive") Instant startInclusive,
       @Param("endExclusive") Instant endExclusive);
 
+  /** Every transaction's searchable text, for the in-memory search index. */
+  @Query(
+      """
+      select new com.austinharlan.trading_dashboard.persistence.FinanceSearchDocument(
+        t.id, t.postedAt, t.description, t.notes)
+      from FinanceTransactionEntity t
+      where t.userId = :userId
+      """)
+  List<FinanceSearchDocument> findSearchDocumentsByUserId(@Param("userId") Long userId);
+
+  /**
+   * Changes whenever a transaction is inserted or deleted; transactions are never edited. Every
+   * insert takes a higher insert_seq than any before it, so an insert always moves the largest one
+   * even when a delete in between two reads leaves the count unchanged.
+   */
+  @Query(
+      """
+      select concat(count(t), '|', coalesce(cast(max(t.insertSeq) as String), ''))
+      from FinanceTransactionEntity t
+      where t.userId = :userId
+      """)
+  String findSearchVersionByUserId(@Param("userId") Long userId);
+
+  @Query("select max(t.insertSeq) from FinanceTransactionEntity t where t.userId = :userId")
+  Optional<Long> findMaxInsertSeqByUserId(@Param("userId") Long userId);
+
+  /**
+   * The user's charges written after {@code after} and up to {@code through} in insert order, in
+   * date order, streamed so folding years of them holds one at a time. Must be consumed inside a
+   * transaction and closed.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(
+      """
+      select new com.austinharlan.trading_dashboard.persistence.FinanceCharge(
+        t.postedAt, t.description, t.amount, t.category)
+      from FinanceTransactionEntity t
+      where t.userId = :userId
+        and t.insertSeq > :after and t.insertSeq <= :through
+        and t.amount < 0
+      order by t.postedAt asc, t.insertSeq asc
+      """)
+  Stream<FinanceCharge> streamCharges(
+      @Param("userId") Long userId, @Param("after") long after, @Param("through") long through);
+
   @Query(
       "select t.importDedupKey from FinanceTransactionEntity t "
           + "where t.userId = :userId and t.importDedupKey is not null")
@@ -0,0 +1,11 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.math.BigDecimal;
+
+/** Realized P&L summed over a calendar month, or a whole year when {@code month} is null. */
+public record PnlPeriodTotal(int year, Integer month, BigDecimal realizedPnl, long tradeCount) {
+
+  public PnlPeriodTotal(int year, BigDecimal realizedPnl, long tradeCount) {
+    this(year, null, realizedPnl, tradeCount);
+  }
+}
@@ -0,0 +1,62 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Entity
+@Table(name = "portfolio_checkpoint")
+public class PortfolioCheckpointEntity {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "as_of_date", nullable = false)
+  private LocalDate asOfDate;
+
+  // JSON array of {ticker, qty, basis}; an empty array is a valid checkpoint.
+  @Column(name = "holdings", nullable = false, columnDefinition = "TEXT")
+  private String holdings;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  protected PortfolioCheckpointEntity() {}
+
+  public PortfolioCheckpointEntity(Long userId, LocalDate asOfDate, String holdings) {
+    this.userId = Objects.requireNonNull(userId, "userId");
+    this.asOfDate = Objects.requireNonNull(asOfDate, "asOfDate");
+    this.holdings = Objects.requireNonNull(holdings, "holdings");
+    this.createdAt = Instant.now();
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public LocalDate getAsOfDate() {
+    return asOfDate;
+  }
+
+  public String getHoldings() {
+    return holdings;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+}
@@ -0,0 +1,27 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface PortfolioCheckpointRepository
+    extends JpaRepository<PortfolioCheckpointEntity, Long> {
+
+  Optional<PortfolioCheckpointEntity> findFirstByUserIdAndAsOfDateLessThanEqualOrderByAsOfDateDesc(
+      Long userId, LocalDate asOfDate);
+
+  boolean existsByUserIdAndAsOfDate(Long userId, LocalDate asOfDate);
+
+  @Modifying
+  @Query(
+      "delete from PortfolioCheckpointEntity c "
+          + "where c.userId = :userId and c.asOfDate >= :from")
+  int deleteFrom(@Param("userId") Long userId, @Param("from") LocalDate from);
+
+  @Transactional
+  void deleteAllByUserId(Long userId);
+}
@@ -5,7 +5,8 @@ import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.transaction.annotation.Transactional;
 
-public interface PortfolioPositionRepository extends JpaRepository<PortfolioPositionEntity, Long> {
+public interface PortfolioPositionRepository
+    extends JpaRepository<PortfolioPositionEntity, Long>, PortfolioPositionUpserts {
 
   List<PortfolioPositionEntity> findAllByUserId(Long userId);
 
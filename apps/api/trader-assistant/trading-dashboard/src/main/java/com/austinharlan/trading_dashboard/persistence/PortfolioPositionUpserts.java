@@ -0,0 +1,20 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.math.BigDecimal;
+
+/**
+ * Single-statement position writes, so concurrent writers to one (user, ticker) row cannot lose
+ * each other's updates and no write needs a read first.
+ */
+public interface PortfolioPositionUpserts {
+
+  /**
+   * Folds one equity fill into the position with the arithmetic of {@code Position.apply}: a BUY
+   * adds quantity and basis, creating the row if needed; a SELL scales basis down by the quantity
+   * left and deletes the row once nothing is left. A SELL with no position does nothing.
+   */
+  void applyFill(long userId, String ticker, String side, BigDecimal quantity, BigDecimal price);
+
+  /** Creates or overwrites the position with exactly {@code qty} and {@code basis}. */
+  void upsert(long userId, String ticker, BigDecimal qty, BigDecimal basis);
+}
@@ -0,0 +1,126 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * PostgreSQL gets {@code INSERT ... ON CONFLICT DO UPDATE}. H2, used by the test profile and the
+ * benchmarks, does not support that form and gets the equivalent {@code MERGE}; it is atomic per
+ * statement but two racing inserts of a new row can still fail on the unique key there.
+ *
+ * <p>A SELL is an update that clamps quantity at zero followed by a delete of zero rows. The update
+ * alone is already a correct position: a BUY landing on a zero row starts a fresh position just as
+ * it would with no row, so the delete can run as a separate statement.
+ */
+class PortfolioPositionUpsertsImpl implements PortfolioPositionUpserts {
+
+  private static final String POSTGRES_BUY =
+      """
+      insert into portfolio_position (user_id, ticker, qty, basis)
+      values (:userId, :ticker, :qty, round(:qty * :price, 6))
+      on conflict (user_id, ticker) do update
+        set qty = portfolio_position.qty + excluded.qty,
+            basis = portfolio_position.basis + excluded.basis
+      """;
+
+  private static final String H2_BUY =
+      """
+      merge into portfolio_position p
+      using (values (cast(:userId as bigint), cast(:ticker as varchar(12)),
+                     cast(:qty as numeric(18, 6)), round(cast(:qty as numeric(18, 6))
+                         * cast(:price as numeric(18, 6)), 6)))
+        as f (user_id, ticker, qty, basis)
+      on p.user_id = f.user_id and p.ticker = f.ticker
+      when matched then update set qty = p.qty + f.qty, basis = p.basis + f.basis
+      when not matched then insert (user_id, ticker, qty, basis)
+        values (f.user_id, f.ticker, f.qty, f.basis)
+      """;
+
+  // Both SET expressions see the row as it was before the update.
+  private static final String SELL =
+      """
+      update portfolio_position
+      set basis = case when qty > :qty
+                       then round(basis * round((qty - :qty) / qty, 10), 6)
+                       else 0 end,
+          qty = greatest(qty - :qty, 0)
+      where user_id = :userId and ticker = :ticker
+      """;
+
+  private static final String DELETE_CLOSED =
+      "delete from portfolio_position where user_id = :userId and ticker = :ticker and qty <= 0";
+
+  private static final String POSTGRES_UPSERT =
+      """
+      insert into portfolio_position (user_id, ticker, qty, basis)
+      values (:userId, :ticker, :qty, :basis)
+      on conflict (user_id, ticker) do update set qty = excluded.qty, basis = excluded.basis
+      """;
+
+  private static final String H2_UPSERT =
+      """
+      merge into portfolio_position (user_id, ticker, qty, basis) key (user_id, ticker)
+      values (:userId, :ticker, :qty, :basis)
+      """;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private volatile Boolean postgres;
+
+  @Override
+  @Transactional
+  public void applyFill(
+      long userId, String ticker, String side, BigDecimal quantity, BigDecimal price) {
+    if ("BUY".equals(side)) {
+      entityManager
+          .createNativeQuery(isPostgres() ? POSTGRES_BUY : H2_BUY)
+          .setParameter("userId", userId)
+          .setParameter("ticker", ticker)
+          .setParameter("qty", quantity)
+          .setParameter("price", price)
+          .executeUpdate();
+      return;
+    }
+    int updated =
+        entityManager
+            .createNativeQuery(SELL)
+            .setParameter("userId", userId)
+            .setParameter("ticker", ticker)
+            .setParameter("qty", quantity)
+            .executeUpdate();
+    if (updated > 0) {
+      entityManager
+          .createNativeQuery(DELETE_CLOSED)
+          .setParameter("userId", userId)
+          .setParameter("ticker", ticker)
+          .executeUpdate();
+    }
+  }
+
+  @Override
+  @Transactional
+  public void upsert(long userId, String ticker, BigDecimal qty, BigDecimal basis) {
+    entityManager
+        .createNativeQuery(isPostgres() ? POSTGRES_UPSERT : H2_UPSERT)
+        .setParameter("userId", userId)
+        .setParameter("ticker", ticker)
+        .setParameter("qty", qty)
+        .setParameter("basis", basis)
+        .executeUpdate();
+  }
+
+  private boolean isPostgres() {
+    Boolean result = postgres;
+    if (result == null) {
+      result =
+          entityManager
+              .unwrap(Session.class)
+              .doReturningWork(c -> "PostgreSQL".equals(c.getMetaData().getDatabaseProductName()));
+      postgres = result;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,6 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import java.time.LocalDate;
+
+/** A ticker and one date from its trades, e.g. the latest fill already projected. */
+public record TickerDate(String ticker, LocalDate tradeDate) {}
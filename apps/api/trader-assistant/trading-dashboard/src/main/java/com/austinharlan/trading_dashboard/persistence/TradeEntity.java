@@ -10,8 +10,10 @@ import java.util.Objects;
 @Table(name = "trades")
 public class TradeEntity {
 
+  // Pooled sequence (V12) instead of IDENTITY so Hibernate can batch inserts.
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trades_id")
+  @SequenceGenerator(name = "trades_id", sequenceName = "trades_id_pool_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "user_id", nullable = false)
@@ -62,6 +64,10 @@ public class TradeEntity {
   @Column(name = "import_dedup_key", length = 64)
   private String importDedupKey;
 
+  // Assigned by the database in write order; only queries read it.
+  @Column(name = "insert_seq", insertable = false, updatable = false)
+  private Long insertSeq;
+
   protected TradeEntity() {}
 
   /** Constructor for equity trades (backward compatible). */
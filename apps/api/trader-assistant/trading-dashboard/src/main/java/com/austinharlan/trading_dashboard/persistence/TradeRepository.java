@@ -1,9 +1,18 @@
 package com.austinharlan.trading_dashboard.persistence;
 
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +37,76 @@ public interface TradeRepository extends JpaRepository<TradeEntity, Long> {
       @Param("fromDate") LocalDate fromDate,
       @Param("toDate") LocalDate toDate);
 
+  /** First keyset page; continue with {@link #findPageByUserIdAfter}. */
+  @Query(
+      """
+      select t from TradeEntity t
+      where t.userId = :userId
+        and (:ticker is null or t.ticker = :ticker)
+        and (:side is null or t.side = :side)
+        and (:fromDate is null or t.tradeDate >= :fromDate)
+        and (:toDate is null or t.tradeDate <= :toDate)
+      order by t.tradeDate desc, t.createdAt desc, t.id desc
+      """)
+  List<TradeEntity> findPageByUserId(
+      @Param("userId") Long userId,
+      @Param("ticker") String ticker,
+      @Param("side") String side,
+      @Param("fromDate") LocalDate fromDate,
+      @Param("toDate") LocalDate toDate,
+      Pageable page);
+
+  /**
+   * Keyset page strictly after (afterDate, afterCreatedAt, afterId) in list order. The {@code
+   * tradeDate <= :afterDate} bound lets the index seek to the cursor instead of filtering from the
+   * top.
+   */
+  @Query(
+      """
+      select t from TradeEntity t
+      where t.userId = :userId
+        and (:ticker is null or t.ticker = :ticker)
+        and (:side is null or t.side = :side)
+        and (:fromDate is null or t.tradeDate >= :fromDate)
+        and (:toDate is null or t.tradeDate <= :toDate)
+        and t.tradeDate <= :afterDate
+        and (t.tradeDate < :afterDate
+             or t.createdAt < :afterCreatedAt
+             or (t.createdAt = :afterCreatedAt and t.id < :afterId))
+      order by t.tradeDate desc, t.createdAt desc, t.id desc
+      """)
+  List<TradeEntity> findPageByUserIdAfter(
+      @Param("userId") Long userId,
+      @Param("ticker") String ticker,
+      @Param("side") String side,
+      @Param("fromDate") LocalDate fromDate,
+      @Param("toDate") LocalDate toDate,
+      @Param("afterDate") LocalDate afterDate,
+      @Param("afterCreatedAt") Instant afterCreatedAt,
+      @Param("afterId") Long afterId,
+      Pageable page);
+
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(
+      """
+      select t from TradeEntity t
+      where t.userId = :userId
+        and (:ticker is null or t.ticker = :ticker)
+        and (:side is null or t.side = :side)
+        and (:fromDate is null or t.tradeDate >= :fromDate)
+        and (:toDate is null or t.tradeDate <= :toDate)
+      order by t.tradeDate desc, t.createdAt desc, t.id desc
+      """)
+  Stream<TradeEntity> streamFilteredByUserId(
+      @Param("userId") Long userId,
+      @Param("ticker") String ticker,
+      @Param("side") String side,
+      @Param("fromDate") LocalDate fromDate,
+      @Param("toDate") LocalDate toDate);
+
   @Query(
       """
       select t from TradeEntity t
@@ -36,6 +115,142 @@ public interface TradeRepository extends JpaRepository<TradeEntity, Long> {
       """)
   List<TradeEntity> findAllChronologicalByUserId(@Param("userId") Long userId);
 
+  /** Same order as {@link #findAllChronologicalByUserId}, restricted to some tickers. */
+  @Query(
+      """
+      select t from TradeEntity t
+      where t.userId = :userId
+        and t.ticker in :tickers
+      order by t.tradeDate asc, t.createdAt asc
+      """)
+  List<TradeEntity> findChronologicalByUserIdAndTickerIn(
+      @Param("userId") Long userId, @Param("tickers") Collection<String> tickers);
+
+  /**
+   * Side and quantity of every trade on one contract, served by {@code idx_trades_contract}. Enough
+   * to replay the open quantity without loading the user's whole history.
+   */
+  @Query(
+      """
+      select new com.austinharlan.trading_dashboard.persistence.ContractFill(t.side, t.quantity)
+      from TradeEntity t
+      where t.userId = :userId
+        and t.ticker = :ticker
+        and t.assetType = :assetType
+        and t.optionType = :optionType
+        and t.strikePrice = :strikePrice
+        and t.expirationDate = :expirationDate
+      order by t.tradeDate asc, t.createdAt asc
+      """)
+  List<ContractFill> findContractFills(
+      @Param("userId") Long userId,
+      @Param("ticker") String ticker,
+      @Param("assetType") String assetType,
+      @Param("optionType") String optionType,
+      @Param("strikePrice") BigDecimal strikePrice,
+      @Param("expirationDate") LocalDate expirationDate);
+
+  /** Equity BUY/SELL fills up to and including {@code to}, in replay order. */
+  @Query(
+      """
+      select new com.austinharlan.trading_dashboard.persistence.EquityFill(
+          t.ticker, t.side, t.quantity, t.pricePerShare, t.tradeDate)
+      from TradeEntity t
+      where t.userId = :userId
+        and t.assetType = 'EQUITY'
+        and t.side in ('BUY', 'SELL')
+        and t.tradeDate <= :to
+      order by t.tradeDate asc, t.createdAt asc, t.id asc
+      """)
+  List<EquityFill> findEquityFillsUpTo(@Param("userId") Long userId, @Param("to") LocalDate to);
+
+  /** Same as {@link #findEquityFillsUpTo} but only for trades dated after {@code after}. */
+  @Query(
+      """
+      select new com.austinharlan.trading_dashboard.persistence.EquityFill(
+          t.ticker, t.side, t.quantity, t.pricePerShare, t.tradeDate)
+      from TradeEntity t
+      where t.userId = :userId
+        and t.assetType = 'EQUITY'
+        and t.side in ('BUY', 'SELL')
+        and t.tradeDate > :after
+        and t.tradeDate <= :to
+      order by t.tradeDate asc, t.createdAt asc, t.id asc
+      """)
+  List<EquityFill> findEquityFillsBetween(
+      @Param("userId") Long userId, @Param("after") LocalDate after, @Param("to") LocalDate to);
+
+  /**
+   * Every equity BUY/SELL of the user in replay order, streamed so a full position rebuild holds
+   * one fill at a time. Must be consumed inside a transaction and closed.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(
+      """
+      select new com.austinharlan.trading_dashboard.persistence.EquityFill(
+          t.ticker, t.side, t.quantity, t.pricePerShare, t.tradeDate)
+      from TradeEntity t
+      where t.userId = :userId
+        and t.assetType = 'EQUITY'
+        and t.side in ('BUY', 'SELL')
+      order by t.tradeDate asc, t.createdAt asc, t.id asc
+      """)
+  Stream<EquityFill> streamEquityFills(@Param("userId") Long userId);
+
+  /** Equity BUY/SELL fills on some tickers, in replay order. */
+  @Query(
+      """
+      select new com.austinharlan.trading_dashboard.persistence.EquityFill(
+          t.ticker, t.side, t.quantity, t.pricePerShare, t.tradeDate)
+      from TradeEntity t
+      where t.userId = :userId
+        and t.assetType = 'EQUITY'
+        and t.side in ('BUY', 'SELL')
+        and t.ticker in :tickers
+      order by t.tradeDate asc, t.createdAt asc, t.id asc
+      """)
+  List<EquityFill> findEquityFillsByTickers(
+      @Param("userId") Long userId, @Param("tickers") Collection<String> tickers);
+
+  /** Equity BUY/SELL fills written after insert sequence {@code afterSeq}, in replay order. */
+  @Query(
+      """
+      select new com.austinharlan.trading_dashboard.persistence.EquityFill(
+          t.ticker, t.side, t.quantity, t.pricePerShare, t.tradeDate)
+      from TradeEntity t
+      where t.userId = :userId
+        and t.assetType = 'EQUITY'
+        and t.side in ('BUY', 'SELL')
+        and t.insertSeq > :afterSeq
+      order by t.tradeDate asc, t.createdAt asc, t.id asc
+      """)
+  List<EquityFill> findEquityFillsAfterSeq(
+      @Param("userId") Long userId, @Param("afterSeq") long afterSeq);
+
+  /** Latest equity fill date per ticker among trades written up to {@code throughSeq}. */
+  @Query(
+      """
+      select new com.austinharlan.trading_dashboard.persistence.TickerDate(
+          t.ticker, max(t.tradeDate))
+      from TradeEntity t
+      where t.userId = :userId
+        and t.assetType = 'EQUITY'
+        and t.side in ('BUY', 'SELL')
+        and t.insertSeq <= :throughSeq
+        and t.ticker in :tickers
+      group by t.ticker
+      """)
+  List<TickerDate> findLastEquityFillDates(
+      @Param("userId") Long userId,
+      @Param("throughSeq") long throughSeq,
+      @Param("tickers") Collection<String> tickers);
+
+  @Query("select max(t.insertSeq) from TradeEntity t where t.userId = :userId")
+  Optional<Long> findMaxInsertSeqByUserId(@Param("userId") Long userId);
+
   @Query(
       "select t.importDedupKey from TradeEntity t "
           + "where t.userId = :userId and t.importDedupKey is not null")
@@ -35,6 +35,11 @@ public class UserEntity {
   @Column(name = "category_seeded", nullable = false)
   private boolean categorySeeded;
 
+  // Maintained only through UserRepository.incrementTradeDataVersion so that saving a stale
+  // entity can never roll the counter back.
+  @Column(name = "trade_data_version", nullable = false, updatable = false)
+  private long tradeDataVersion;
+
   protected UserEntity() {}
 
   public UserEntity(String apiKey, String displayName, boolean admin, boolean demo) {
@@ -80,4 +85,8 @@ public class UserEntity {
   public void setCategorySeeded(boolean categorySeeded) {
     this.categorySeeded = categorySeeded;
   }
+
+  public long getTradeDataVersion() {
+    return tradeDataVersion;
+  }
 }
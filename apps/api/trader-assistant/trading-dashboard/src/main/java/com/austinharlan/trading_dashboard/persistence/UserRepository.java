@@ -1,8 +1,11 @@
 package com.austinharlan.trading_dashboard.persistence;
 
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
@@ -14,4 +17,91 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
   Optional<UserEntity> findByIsDemoTrue();
 
   Optional<UserEntity> findByAdminTrueAndDemoFalse();
+
+  @Query("SELECT u.tradeDataVersion FROM UserEntity u WHERE u.id = :userId")
+  Optional<Long> findTradeDataVersionById(@Param("userId") Long userId);
+
+  /** Reads the version while holding the user row lock that trade writes take when bumping it. */
+  @Query(
+      value = "SELECT trade_data_version FROM users WHERE id = :userId FOR UPDATE",
+      nativeQuery = true)
+  Optional<Long> lockTradeDataVersionById(@Param("userId") Long userId);
+
+  @Modifying
+  @Query("UPDATE UserEntity u SET u.tradeDataVersion = u.tradeDataVersion + 1 WHERE u.id = :userId")
+  int incrementTradeDataVersion(@Param("userId") Long userId);
+
+  /** Reads the flag under the user row lock, so only one request seeds the default categories. */
+  @Query(
+      value = "SELECT category_seeded FROM users WHERE id = :userId FOR UPDATE",
+      nativeQuery = true)
+  Optional<Boolean> lockCategorySeededById(@Param("userId") Long userId);
+
+  @Modifying
+  @Query(value = "UPDATE users SET category_seeded = TRUE WHERE id = :userId", nativeQuery = true)
+  int markCategorySeeded(@Param("userId") Long userId);
+
+  /** Whether the user's daily_realized_pnl rows reflect the whole trade log. */
+  @Query(value = "SELECT daily_pnl_built FROM users WHERE id = :userId", nativeQuery = true)
+  Optional<Boolean> findDailyPnlBuiltById(@Param("userId") Long userId);
+
+  @Modifying
+  @Query(value = "UPDATE users SET daily_pnl_built = :built WHERE id = :userId", nativeQuery = true)
+  int setDailyPnlBuilt(@Param("userId") Long userId, @Param("built") boolean built);
+
+  /** Whether the user's finance_monthly_rollup rows reflect all of their transactions. */
+  @Query(value = "SELECT finance_rollup_built FROM users WHERE id = :userId", nativeQuery = true)
+  Optional<Boolean> findFinanceRollupBuiltById(@Param("userId") Long userId);
+
+  /** Reads the flag while holding the user row lock, which finance writes take before inserting. */
+  @Query(
+      value = "SELECT finance_rollup_built FROM users WHERE id = :userId FOR UPDATE",
+      nativeQuery = true)
+  Optional<Boolean> lockFinanceRollupBuiltById(@Param("userId") Long userId);
+
+  @Modifying
+  @Query(
+      value = "UPDATE users SET finance_rollup_built = :built WHERE id = :userId",
+      nativeQuery = true)
+  int setFinanceRollupBuilt(@Param("userId") Long userId, @Param("built") boolean built);
+
+  /**
+   * Highest trades insert_seq folded into the user's positions, read under the user row lock. Empty
+   * when the positions need a full rebuild.
+   */
+  @Query(
+      value = "SELECT positions_hwm FROM users WHERE id = :userId FOR UPDATE",
+      nativeQuery = true)
+  Optional<Long> lockPositionsHwmById(@Param("userId") Long userId);
+
+  @Query(value = "SELECT positions_hwm FROM users WHERE id = :userId", nativeQuery = true)
+  Optional<Long> findPositionsHwmById(@Param("userId") Long userId);
+
+  @Modifying
+  @Query(value = "UPDATE users SET positions_hwm = :hwm WHERE id = :userId", nativeQuery = true)
+  int setPositionsHwm(@Param("userId") Long userId, @Param("hwm") long hwm);
+
+  @Modifying
+  @Query(value = "UPDATE users SET positions_hwm = NULL WHERE id = :userId", nativeQuery = true)
+  int clearPositionsHwm(@Param("userId") Long userId);
+
+  /**
+   * Highest finance_transaction insert_seq folded into the user's recurring series, read under the
+   * user row lock. Empty when the series need a full rebuild.
+   */
+  @Query(
+      value = "SELECT recurring_hwm FROM users WHERE id = :userId FOR UPDATE",
+      nativeQuery = true)
+  Optional<Long> lockRecurringHwmById(@Param("userId") Long userId);
+
+  @Modifying
+  @Query(value = "UPDATE users SET recurring_hwm = :hwm WHERE id = :userId", nativeQuery = true)
+  int setRecurringHwm(@Param("userId") Long userId, @Param("hwm") long hwm);
+
+  @Modifying
+  @Query(value = "UPDATE users SET recurring_hwm = NULL WHERE id = :userId", nativeQuery = true)
+  int clearRecurringHwm(@Param("userId") Long userId);
+
+  @Query("SELECT u.id FROM UserEntity u ORDER BY u.id")
+  List<Long> findAllIds();
 }
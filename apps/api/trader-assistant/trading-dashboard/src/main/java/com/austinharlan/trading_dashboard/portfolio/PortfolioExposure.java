@@ -0,0 +1,31 @@
+package com.austinharlan.trading_dashboard.portfolio;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Priced positions grouped by sector and then by industry. Weights are shares of the priced market
+ * value, so the sector weights sum to one.
+ */
+public record PortfolioExposure(
+    Instant asOf,
+    double totalMarketValue,
+    List<Group> sectors,
+    List<String> unclassifiedTickers,
+    List<String> unpricedTickers) {
+
+  public static final String UNKNOWN = "Unknown";
+
+  /**
+   * One sector or industry. A sector's {@code children} are its industries; an industry has none
+   * and lists its tickers instead.
+   */
+  public record Group(
+      String name,
+      double marketValue,
+      double costBasis,
+      double unrealizedPnl,
+      double weight,
+      List<String> tickers,
+      List<Group> children) {}
+}
@@ -0,0 +1,33 @@
+package com.austinharlan.trading_dashboard.portfolio;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.lang.Nullable;
+
+/**
+ * Stored positions marked to current quotes. Market value, weights, unrealized P&amp;L and day
+ * change cover only the priced positions; cost basis covers all of them.
+ */
+public record PortfolioValuation(
+    Instant asOf,
+    int positionsCount,
+    double totalMarketValue,
+    double totalCostBasis,
+    double totalUnrealizedPnl,
+    double totalDayChange,
+    @Nullable Double totalDayChangePercent,
+    List<ValuedPosition> positions,
+    List<String> unpricedTickers) {
+
+  /** One position; the price fields are null when its ticker has no quote. */
+  public record ValuedPosition(
+      String ticker,
+      double quantity,
+      double costBasis,
+      @Nullable Double price,
+      @Nullable Double changePercent,
+      @Nullable Double marketValue,
+      @Nullable Double weight,
+      @Nullable Double unrealizedPnl,
+      @Nullable Double dayChange) {}
+}
@@ -0,0 +1,21 @@
+package com.austinharlan.trading_dashboard.portfolio;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily portfolio market value on a date axis shared by every ticker. {@code values[i]} is the sum
+ * over tickers of quantity held times close on {@code dates.get(i)}.
+ */
+public record PortfolioValueHistory(
+    List<LocalDate> dates,
+    double[] values,
+    List<TickerSeries> tickers,
+    List<String> missingTickers) {
+
+  /**
+   * One ticker on the shared axis. A close missing on some date carries the previous close forward;
+   * {@code NaN} means no close is known yet.
+   */
+  public record TickerSeries(String ticker, double[] quantities, double[] closes) {}
+}
@@ -0,0 +1,206 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.lang.Nullable;
+
+/**
+ * A bank or card CSV export. Columns are found by header name, looking past any preamble lines
+ * above the header; the amount is either one signed column or separate debit and credit columns.
+ * Amounts keep the sign the export gives them, and dates are read month first.
+ */
+final class BankCsvReader implements BankStatementReader {
+
+  static final int MAX_PREAMBLE_ROWS = 20;
+
+  private static final List<String> DATE_HEADERS =
+      List.of(
+          "posted date",
+          "posting date",
+          "post date",
+          "date",
+          "transaction date",
+          "trans. date",
+          "trans date");
+  private static final List<String> DESCRIPTION_HEADERS =
+      List.of("description", "payee", "merchant", "name", "transaction description", "details");
+  private static final List<String> AMOUNT_HEADERS =
+      List.of("amount", "transaction amount", "amount (usd)");
+  private static final List<String> DEBIT_HEADERS =
+      List.of("debit", "debit amount", "withdrawal", "withdrawals", "withdrawal amount");
+  private static final List<String> CREDIT_HEADERS =
+      List.of("credit", "credit amount", "deposit", "deposits", "deposit amount");
+  private static final List<String> ID_HEADERS =
+      List.of("transaction id", "reference", "reference number", "fitid");
+  private static final List<String> MEMO_HEADERS = List.of("memo", "notes");
+
+  private static final List<DateTimeFormatter> DATE_FORMATS =
+      List.of(
+          DateTimeFormatter.ISO_LOCAL_DATE,
+          DateTimeFormatter.ofPattern("M/d/uuuu"),
+          DateTimeFormatter.ofPattern("M/d/uu"),
+          DateTimeFormatter.ofPattern("M-d-uuuu"),
+          DateTimeFormatter.ofPattern("uuuu/M/d"));
+
+  private final CSVReader reader;
+  private int date = -1;
+  private int description = -1;
+  private int amount = -1;
+  private int debit = -1;
+  private int credit = -1;
+  private int id = -1;
+  private int memo = -1;
+
+  BankCsvReader(Reader in) {
+    this.reader = new CSVReader(in);
+  }
+
+  @Override
+  public String format() {
+    return "CSV";
+  }
+
+  @Override
+  @Nullable
+  public Row next() throws IOException {
+    if (date < 0) {
+      findHeader();
+    }
+    String[] cols;
+    while ((cols = readNext()) != null) {
+      if (isBlank(cols)) {
+        continue;
+      }
+      return toRow(reader.getLinesRead(), cols);
+    }
+    return null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private void findHeader() throws IOException {
+    for (int i = 0; i < MAX_PREAMBLE_ROWS; i++) {
+      String[] cols = readNext();
+      if (cols == null) {
+        break;
+      }
+      List<String> names = Arrays.stream(cols).map(BankCsvReader::headerName).toList();
+      date = indexOf(names, DATE_HEADERS);
+      description = indexOf(names, DESCRIPTION_HEADERS);
+      amount = indexOf(names, AMOUNT_HEADERS);
+      debit = indexOf(names, DEBIT_HEADERS);
+      credit = indexOf(names, CREDIT_HEADERS);
+      if (date >= 0 && description >= 0 && (amount >= 0 || debit >= 0 || credit >= 0)) {
+        id = indexOf(names, ID_HEADERS);
+        memo = indexOf(names, MEMO_HEADERS);
+        return;
+      }
+    }
+    date = -1;
+    throw new IllegalArgumentException(
+        "Could not find date, description and amount columns in the CSV header");
+  }
+
+  private Row toRow(long number, String[] cols) {
+    String rawDate = column(cols, date);
+    LocalDate postedOn = parseDate(rawDate);
+    if (postedOn == null) {
+      return Row.failed(number, "Unrecognised date: \"" + rawDate + "\"");
+    }
+    String text = column(cols, description);
+    if (text.isEmpty()) {
+      return Row.failed(number, "Missing description");
+    }
+    BigDecimal value;
+    try {
+      value = amount >= 0 ? CsvImportService.parseAmount(column(cols, amount)) : debitCredit(cols);
+    } catch (NumberFormatException e) {
+      return Row.failed(number, "Unrecognised amount");
+    }
+    if (value == null) {
+      return Row.failed(number, "Missing amount");
+    }
+    String fitId = column(cols, id);
+    String notes = column(cols, memo);
+    return new Row(
+        number,
+        postedOn,
+        text,
+        value,
+        fitId.isEmpty() ? null : fitId,
+        notes.isEmpty() ? null : notes,
+        null);
+  }
+
+  /** Credit minus debit; banks write debits as positive or negative numbers. */
+  @Nullable
+  private BigDecimal debitCredit(String[] cols) {
+    BigDecimal out = CsvImportService.parseAmount(column(cols, debit));
+    BigDecimal in = CsvImportService.parseAmount(column(cols, credit));
+    if (out == null && in == null) {
+      return null;
+    }
+    BigDecimal total = in != null ? in : BigDecimal.ZERO;
+    return out != null ? total.subtract(out.abs()) : total;
+  }
+
+  @Nullable
+  static LocalDate parseDate(String raw) {
+    for (DateTimeFormatter format : DATE_FORMATS) {
+      try {
+        return LocalDate.parse(raw, format);
+      } catch (DateTimeParseException e) {
+        // try the next format
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private String[] readNext() throws IOException {
+    try {
+      return reader.readNext();
+    } catch (CsvValidationException e) {
+      throw new IllegalArgumentException("Could not parse CSV: " + e.getMessage(), e);
+    }
+  }
+
+  private static String column(String[] cols, int index) {
+    return index >= 0 && index < cols.length ? cols[index].trim() : "";
+  }
+
+  private static boolean isBlank(String[] cols) {
+    for (String col : cols) {
+      if (!col.isBlank()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String headerName(String raw) {
+    return raw.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static int indexOf(List<String> names, List<String> candidates) {
+    for (String candidate : candidates) {
+      int index = names.indexOf(candidate);
+      if (index >= 0) {
+        return index;
+      }
+    }
+    return -1;
+  }
+}
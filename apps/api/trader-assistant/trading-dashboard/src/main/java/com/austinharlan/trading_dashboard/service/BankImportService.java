@@ -0,0 +1,10 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.tradingdashboard.dto.BankImportResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface BankImportService {
+
+  /** Imports a bank or credit card CSV or OFX export into the current user's transactions. */
+  BankImportResponse importStatement(MultipartFile file, String account);
+}
@@ -0,0 +1,58 @@
+package com.austinharlan.trading_dashboard.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import org.springframework.lang.Nullable;
+
+/**
+ * Reads a bank statement export one transaction at a time, so memory does not grow with the file.
+ * {@link #open} tells OFX from CSV by the first few kilobytes.
+ */
+interface BankStatementReader extends Closeable {
+
+  int SNIFF_CHARS = 4096;
+
+  String format();
+
+  /** The next transaction, or null at the end of the file. */
+  @Nullable
+  Row next() throws IOException;
+
+  /**
+   * One transaction. A row that could not be parsed carries an {@code error} and nothing else
+   * beyond its number; {@code fitId} is the bank's own transaction id when the export has one.
+   */
+  record Row(
+      long number,
+      @Nullable LocalDate postedOn,
+      @Nullable String description,
+      @Nullable BigDecimal amount,
+      @Nullable String fitId,
+      @Nullable String notes,
+      @Nullable String error) {
+
+    static Row failed(long number, String error) {
+      return new Row(number, null, null, null, null, null, error);
+    }
+  }
+
+  static BankStatementReader open(InputStream in) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    reader.mark(SNIFF_CHARS);
+    char[] head = new char[SNIFF_CHARS];
+    int length = reader.read(head, 0, SNIFF_CHARS);
+    reader.reset();
+    String start = length > 0 ? new String(head, 0, length).toUpperCase(Locale.ROOT) : "";
+    if (start.contains("OFXHEADER") || start.contains("<OFX>")) {
+      return new OfxStatementReader(reader);
+    }
+    return new BankCsvReader(reader);
+  }
+}
@@ -0,0 +1,79 @@
+package com.austinharlan.trading_dashboard.service;
+
+/**
+ * Black-Scholes price and Greeks for European options on a non-dividend-paying underlying, over
+ * parallel arrays. The loop body is plain double arithmetic with no allocation so the JIT can keep
+ * everything in registers.
+ *
+ * <p>Theta is per calendar day and vega per one volatility point (0.01), the units traders quote
+ * them in. A contract at or past expiry, or with no volatility, is priced at intrinsic value with a
+ * step delta and zero gamma, theta and vega.
+ */
+final class BlackScholes {
+
+  private static final double INV_SQRT_2PI = 1.0 / Math.sqrt(2.0 * Math.PI);
+
+  private BlackScholes() {}
+
+  static void priceAll(
+      int n,
+      double[] spot,
+      double[] strike,
+      double[] years,
+      double[] vol,
+      boolean[] call,
+      double rate,
+      double[] price,
+      double[] delta,
+      double[] gamma,
+      double[] theta,
+      double[] vega) {
+    for (int i = 0; i < n; i++) {
+      double s = spot[i];
+      double k = strike[i];
+      double t = years[i];
+      double sigma = vol[i];
+      if (t <= 0 || sigma <= 0 || s <= 0 || k <= 0) {
+        double intrinsic = call[i] ? Math.max(s - k, 0) : Math.max(k - s, 0);
+        price[i] = intrinsic;
+        delta[i] = intrinsic > 0 ? (call[i] ? 1.0 : -1.0) : 0.0;
+        gamma[i] = 0;
+        theta[i] = 0;
+        vega[i] = 0;
+        continue;
+      }
+      double sqrtT = Math.sqrt(t);
+      double volSqrtT = sigma * sqrtT;
+      double d1 = (Math.log(s / k) + (rate + 0.5 * sigma * sigma) * t) / volSqrtT;
+      double d2 = d1 - volSqrtT;
+      double discountedStrike = k * Math.exp(-rate * t);
+      double pdf = INV_SQRT_2PI * Math.exp(-0.5 * d1 * d1);
+      double nd1 = normCdf(d1);
+      double nd2 = normCdf(d2);
+      double decay = -s * pdf * sigma / (2 * sqrtT);
+      if (call[i]) {
+        price[i] = s * nd1 - discountedStrike * nd2;
+        delta[i] = nd1;
+        theta[i] = (decay - rate * discountedStrike * nd2) / 365.0;
+      } else {
+        price[i] = discountedStrike * (1 - nd2) - s * (1 - nd1);
+        delta[i] = nd1 - 1;
+        theta[i] = (decay + rate * discountedStrike * (1 - nd2)) / 365.0;
+      }
+      gamma[i] = pdf / (s * volSqrtT);
+      vega[i] = s * pdf * sqrtT / 100.0;
+    }
+  }
+
+  /** Standard normal CDF, Abramowitz and Stegun 26.2.17; absolute error below 7.5e-8. */
+  static double normCdf(double x) {
+    double z = Math.abs(x);
+    double t = 1.0 / (1.0 + 0.2316419 * z);
+    double poly =
+        t
+            * (0.319381530
+                + t * (-0.356563782 + t * (1.781477937 + t * (-1.821255978 + t * 1.330274429))));
+    double tail = INV_SQRT_2PI * Math.exp(-0.5 * z * z) * poly;
+    return x >= 0 ? 1.0 - tail : tail;
+  }
+}
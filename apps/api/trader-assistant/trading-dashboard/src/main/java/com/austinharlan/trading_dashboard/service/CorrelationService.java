@@ -0,0 +1,28 @@
+package com.austinharlan.trading_dashboard.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.lang.Nullable;
+
+public interface CorrelationService {
+
+  /**
+   * Pairwise correlation and covariance of daily returns across the stored positions, from the
+   * cached price histories. Empty when there are no positions.
+   */
+  Optional<CorrelationMatrix> currentCorrelations();
+
+  /**
+   * Symmetric matrices indexed like {@code tickers}. A cell is {@code NaN} when its pair has fewer
+   * than two common returns, or for correlation, when either side never moves.
+   */
+  record CorrelationMatrix(
+      @Nullable LocalDate from,
+      @Nullable LocalDate to,
+      List<String> tickers,
+      double[][] correlation,
+      double[][] covariance,
+      int[][] observations,
+      List<String> missingTickers) {}
+}
@@ -54,15 +54,21 @@ public class CsvImportService implements ImportService {
 
   private final TradeRepository tradeRepository;
   private final FinanceTransactionRepository financeTransactionRepository;
-  private final PortfolioService portfolioService;
+  private final PositionProjector positionProjector;
+  private final TradeDataVersions tradeDataVersions;
+  private final FinanceRollups financeRollups;
 
   public CsvImportService(
       TradeRepository tradeRepository,
       FinanceTransactionRepository financeTransactionRepository,
-      PortfolioService portfolioService) {
+      PositionProjector positionProjector,
+      TradeDataVersions tradeDataVersions,
+      FinanceRollups financeRollups) {
     this.tradeRepository = tradeRepository;
     this.financeTransactionRepository = financeTransactionRepository;
-    this.portfolioService = portfolioService;
+    this.positionProjector = positionProjector;
+    this.tradeDataVersions = tradeDataVersions;
+    this.financeRollups = financeRollups;
   }
 
   // ── Amount parsing ────────────────────────────────────────────────────────
@@ -222,6 +228,10 @@ public class CsvImportService implements ImportService {
   public ImportConfirmResponse confirm(MultipartFile file, String account) {
     guardDemo();
     long userId = UserContext.current().userId();
+    // Holds the user row until commit, as every other trade and finance write does, so rows commit
+    // in insert_seq order and the position and recurring charge marks never pass one still being
+    // written. Taken before the duplicate check so two imports of one file cannot both pass it.
+    financeRollups.lockForWrite(userId);
     Set<String> existing = existingDedupKeys(userId);
     List<RawRow> rows = parseCsvRows(file);
     List<String> dedupKeys = computeDedupKeys(account, rows);
@@ -268,6 +278,14 @@ public class CsvImportService implements ImportService {
         }
       }
     }
+    if (tradesImported > 0) {
+      // Exports list newest first; the bump clears the position mark so this replays in date order.
+      tradeDataVersions.bump(userId);
+      positionProjector.catchUp(userId);
+    }
+    if (cashImported > 0) {
+      financeRollups.invalidate(userId);
+    }
 
     return new ImportConfirmResponse()
         .tradesImported(tradesImported)
@@ -439,7 +457,6 @@ public class CsvImportService implements ImportService {
     entity.setAccount(account);
     entity.setImportDedupKey(dedupKey);
     tradeRepository.save(entity);
-    portfolioService.applyTrade(row.instrument(), side, assetType, qty, price);
   }
 
   private void insertCashEvent(RawRow row, String account, String dedupKey, long userId) {
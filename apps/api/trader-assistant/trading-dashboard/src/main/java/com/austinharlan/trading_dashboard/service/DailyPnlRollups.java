@@ -0,0 +1,150 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.persistence.DailyRealizedPnlEntity;
+import com.austinharlan.trading_dashboard.persistence.DailyRealizedPnlRepository;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.trading_dashboard.trades.ClosedTrade;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps {@code daily_realized_pnl} in step with the trade log. Contracts are matched independently,
+ * so a write can only change the closes of the tickers it touches: the trade service snapshots
+ * those tickers' closes before the write, and {@link #applyWrite} re-matches them afterwards and
+ * adds the per-date difference to the stored rows.
+ *
+ * <p>Both steps run after {@link TradeDataVersions#bump} has locked the user row, which is also
+ * what {@link #ensureBuilt} locks, so maintenance and full builds never interleave. Until a user's
+ * rows have been built once, writes skip maintenance and the first read builds them.
+ */
+@Service
+public class DailyPnlRollups {
+
+  private final DailyRealizedPnlRepository repository;
+  private final TradeRepository tradeRepository;
+  private final UserRepository userRepository;
+
+  public DailyPnlRollups(
+      DailyRealizedPnlRepository repository,
+      TradeRepository tradeRepository,
+      UserRepository userRepository) {
+    this.repository = repository;
+    this.tradeRepository = tradeRepository;
+    this.userRepository = userRepository;
+  }
+
+  /**
+   * Current closes per sell date on {@code tickers}, or null when the user's rows are not built and
+   * the coming write needs no maintenance.
+   */
+  @Transactional
+  @Nullable
+  public Map<LocalDate, Day> snapshot(long userId, Collection<String> tickers) {
+    if (!isBuilt(userId)) {
+      return null;
+    }
+    return closesByDate(userId, tickers);
+  }
+
+  /** Adds the change in closes on {@code tickers} since {@code before} was taken. */
+  @Transactional
+  public void applyWrite(
+      long userId, Collection<String> tickers, @Nullable Map<LocalDate, Day> before) {
+    if (before == null) {
+      return;
+    }
+    Map<LocalDate, Day> after = closesByDate(userId, tickers);
+    Set<LocalDate> dates = new HashSet<>(before.keySet());
+    dates.addAll(after.keySet());
+    Map<LocalDate, Day> delta = new HashMap<>();
+    for (LocalDate date : dates) {
+      Day was = before.getOrDefault(date, Day.EMPTY);
+      Day now = after.getOrDefault(date, Day.EMPTY);
+      if (was.count() != now.count() || was.pnl().compareTo(now.pnl()) != 0) {
+        delta.put(date, new Day(now.pnl().subtract(was.pnl()), now.count() - was.count()));
+      }
+    }
+    if (delta.isEmpty()) {
+      return;
+    }
+
+    Map<LocalDate, DailyRealizedPnlEntity> rows = new HashMap<>();
+    for (DailyRealizedPnlEntity row : repository.findByUserIdAndPnlDateIn(userId, delta.keySet())) {
+      rows.put(row.getPnlDate(), row);
+    }
+    List<DailyRealizedPnlEntity> upserts = new ArrayList<>();
+    List<DailyRealizedPnlEntity> deletes = new ArrayList<>();
+    delta.forEach(
+        (date, d) -> {
+          DailyRealizedPnlEntity row = rows.get(date);
+          if (row == null) {
+            row = new DailyRealizedPnlEntity(userId, date, BigDecimal.ZERO, 0);
+          }
+          row.add(d.pnl(), d.count());
+          (row.getTradeCount() > 0 ? upserts : deletes).add(row);
+        });
+    repository.saveAll(upserts);
+    repository.deleteAll(deletes.stream().filter(r -> rows.containsKey(r.getPnlDate())).toList());
+  }
+
+  /**
+   * Builds the user's rows from the whole trade log if that has not happened since the last bump
+   * that invalidated them. Runs in its own transaction so read-only callers can use it.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void ensureBuilt(long userId) {
+    if (userRepository.lockTradeDataVersionById(userId).isEmpty() || isBuilt(userId)) {
+      return;
+    }
+    repository.deleteAllForUser(userId);
+    List<DailyRealizedPnlEntity> rows = new ArrayList<>();
+    Map<LocalDate, Day> all =
+        group(
+            DefaultTradeService.computeClosedTrades(
+                tradeRepository.findAllChronologicalByUserId(userId)));
+    all.forEach(
+        (date, day) -> rows.add(new DailyRealizedPnlEntity(userId, date, day.pnl(), day.count())));
+    repository.saveAll(rows);
+    userRepository.setDailyPnlBuilt(userId, true);
+  }
+
+  public boolean isBuilt(long userId) {
+    return userRepository.findDailyPnlBuiltById(userId).orElse(false);
+  }
+
+  private Map<LocalDate, Day> closesByDate(long userId, Collection<String> tickers) {
+    return group(
+        DefaultTradeService.computeClosedTrades(
+            tradeRepository.findChronologicalByUserIdAndTickerIn(userId, tickers)));
+  }
+
+  private static Map<LocalDate, Day> group(List<ClosedTrade> closed) {
+    Map<LocalDate, Day> days = new TreeMap<>();
+    for (ClosedTrade ct : closed) {
+      days.merge(ct.sellDate(), new Day(ct.pnl(), 1), Day::plus);
+    }
+    return days;
+  }
+
+  /** Realized P&L and number of closes on one date. */
+  public record Day(BigDecimal pnl, int count) {
+    static final Day EMPTY = new Day(BigDecimal.ZERO, 0);
+
+    Day plus(Day other) {
+      return new Day(pnl.add(other.pnl), count + other.count);
+    }
+  }
+}
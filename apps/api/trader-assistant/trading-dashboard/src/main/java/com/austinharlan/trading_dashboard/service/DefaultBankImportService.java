@@ -0,0 +1,211 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.persistence.FinanceTransactionEntity;
+import com.austinharlan.trading_dashboard.persistence.FinanceTransactionRepository;
+import com.austinharlan.trading_dashboard.service.BankStatementReader.Row;
+import com.austinharlan.trading_dashboard.service.FinanceCategories.Registry;
+import com.austinharlan.tradingdashboard.dto.BankImportResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.RoundingMode;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Streams a statement into {@code finance_transaction}: rows are read one at a time, categorised,
+ * and inserted {@link #BATCH_SIZE} at a time, so no more than one batch of rows is held at once.
+ * The unique {@code import_dedup_key} index does the deduplication, and a row that cannot be parsed
+ * is counted and skipped rather than failing the file.
+ *
+ * <p>A row's dedup key is the bank's transaction id when the export has one. Otherwise it is the
+ * row's date, description and amount plus an occurrence number, so two identical purchases on one
+ * day both import. Occurrences are counted across the whole file, since exports are not always
+ * sorted by date, so that map keeps one small entry per distinct row; its size is bounded by the
+ * multipart upload limit rather than flat.
+ */
+@Service
+public class DefaultBankImportService implements BankImportService {
+
+  static final int BATCH_SIZE = 500;
+  static final int MAX_REPORTED_ERRORS = 20;
+  static final int MAX_ACCOUNT_LENGTH = 20;
+  static final int MAX_DESCRIPTION_LENGTH = 255;
+
+  private static final Logger log = LoggerFactory.getLogger(DefaultBankImportService.class);
+
+  private final FinanceTransactionRepository repository;
+  private final FinanceCategories financeCategories;
+  private final FinanceRollups financeRollups;
+
+  public DefaultBankImportService(
+      FinanceTransactionRepository repository,
+      FinanceCategories financeCategories,
+      FinanceRollups financeRollups) {
+    this.repository = repository;
+    this.financeCategories = financeCategories;
+    this.financeRollups = financeRollups;
+  }
+
+  @Override
+  @Transactional
+  public BankImportResponse importStatement(MultipartFile file, String account) {
+    UserContext user = UserContext.current();
+    if (user.isDemo()) {
+      throw new AccessDeniedException("Demo accounts cannot import data");
+    }
+    String label = account == null ? "" : account.trim().toUpperCase(Locale.ROOT);
+    if (label.isEmpty() || label.length() > MAX_ACCOUNT_LENGTH) {
+      throw new IllegalArgumentException("account must be 1 to 20 characters");
+    }
+    long userId = user.userId();
+    Registry registry = financeCategories.cached(userId);
+    if (registry == null) {
+      registry = financeCategories.load(userId);
+    }
+    // Holds the user row until commit, as single writes do, so the recurring charge analyzer
+    // never moves its mark past rows still being written. Taken after the load, which seeds
+    // categories in a transaction of its own.
+    financeRollups.lockForWrite(userId);
+
+    long started = System.nanoTime();
+    Tally tally = new Tally();
+    try (InputStream in = file.getInputStream();
+        BankStatementReader reader = BankStatementReader.open(in)) {
+      tally.format = reader.format();
+      Occurrences occurrences = new Occurrences();
+      List<FinanceTransactionEntity> batch = new ArrayList<>(BATCH_SIZE);
+      Row row;
+      while ((row = reader.next()) != null) {
+        tally.rows++;
+        if (row.error() != null) {
+          tally.error("Row " + row.number() + ": " + row.error());
+          continue;
+        }
+        String key =
+            row.fitId() != null
+                ? dedupKey(userId, label, "fitid", row.fitId())
+                : dedupKey(
+                    userId,
+                    label,
+                    row.postedOn().toString(),
+                    row.description(),
+                    row.amount().toPlainString(),
+                    Integer.toString(occurrences.next(row)));
+        FinanceTransactionEntity entity = toEntity(userId, label, key, row, registry);
+        if (entity.getCategory() != null) {
+          tally.categorized++;
+        }
+        batch.add(entity);
+        if (batch.size() == BATCH_SIZE) {
+          flush(batch, tally);
+        }
+      }
+      flush(batch, tally);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Could not read statement: " + e.getMessage(), e);
+    }
+    if (tally.imported > 0) {
+      financeRollups.invalidate(userId);
+    }
+
+    long elapsedNanos = System.nanoTime() - started;
+    double rowsPerSecond = tally.rows * 1e9 / Math.max(elapsedNanos, 1);
+    log.info(
+        "Imported {} of {} {} rows for user {} in {} ms ({} rows/s, {} duplicates, {} errors)",
+        tally.imported,
+        tally.rows,
+        tally.format,
+        userId,
+        elapsedNanos / 1_000_000,
+        Math.round(rowsPerSecond),
+        tally.duplicates,
+        tally.errorCount);
+    return new BankImportResponse()
+        .format(BankImportResponse.FormatEnum.fromValue(tally.format))
+        .rowsRead(Math.toIntExact(tally.rows))
+        .imported(tally.imported)
+        .duplicatesSkipped(tally.duplicates)
+        .categorized(tally.categorized)
+        .errorCount(tally.errorCount)
+        .errors(tally.errors)
+        .elapsedMillis(elapsedNanos / 1_000_000)
+        .rowsPerSecond(rowsPerSecond);
+  }
+
+  private void flush(List<FinanceTransactionEntity> batch, Tally tally) {
+    int inserted = repository.insertSkippingDuplicates(batch);
+    tally.imported += inserted;
+    tally.duplicates += batch.size() - inserted;
+    batch.clear();
+  }
+
+  private static FinanceTransactionEntity toEntity(
+      long userId, String account, String dedupKey, Row row, Registry registry) {
+    String description = row.description();
+    if (description.length() > MAX_DESCRIPTION_LENGTH) {
+      description = description.substring(0, MAX_DESCRIPTION_LENGTH);
+    }
+    FinanceTransactionEntity entity =
+        new FinanceTransactionEntity(
+            userId,
+            row.postedOn().atStartOfDay(ZoneOffset.UTC).toInstant(),
+            description,
+            row.amount().setScale(2, RoundingMode.HALF_UP),
+            TransactionCategorizer.categorize(row.description(), row.amount(), registry),
+            row.notes());
+    entity.setAccount(account);
+    entity.setImportDedupKey(dedupKey);
+    return entity;
+  }
+
+  /**
+   * The key index is unique across users, so the user id is part of every key; the account keeps
+   * two accounts' exports apart when their banks reuse transaction ids.
+   */
+  static String dedupKey(long userId, String account, String... parts) {
+    return CsvImportService.sha256Hex(
+        "bank|" + userId + "|" + account + "|" + String.join("|", parts));
+  }
+
+  /**
+   * Numbers identical rows on the same posting date across the whole file, since exports are not
+   * always sorted by date (or are merged from several accounts). Holds one entry per distinct row,
+   * so its size is bounded by the upload limit.
+   */
+  private static final class Occurrences {
+    private final Map<String, Integer> seen = new HashMap<>();
+
+    int next(Row row) {
+      String key = row.postedOn() + "|" + row.description() + "|" + row.amount().toPlainString();
+      return seen.merge(key, 1, Integer::sum) - 1;
+    }
+  }
+
+  private static final class Tally {
+    private String format;
+    private long rows;
+    private int imported;
+    private int duplicates;
+    private int categorized;
+    private int errorCount;
+    private final List<String> errors = new ArrayList<>();
+
+    void error(String message) {
+      errorCount++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(message);
+      }
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.marketdata.DailyBar;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioHolding;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+@Service
+public class DefaultCorrelationService implements CorrelationService {
+
+  private final PortfolioService portfolioService;
+  private final QuoteService quoteService;
+  private final Cache cache;
+
+  public DefaultCorrelationService(
+      PortfolioService portfolioService,
+      QuoteService quoteService,
+      @Nullable CacheManager cacheManager) {
+    this.portfolioService = portfolioService;
+    this.quoteService = quoteService;
+    this.cache = cacheManager != null ? cacheManager.getCache("correlations") : null;
+  }
+
+  @Override
+  public Optional<CorrelationMatrix> currentCorrelations() {
+    TreeSet<String> held = new TreeSet<>();
+    for (PortfolioHolding holding : portfolioService.listHoldings()) {
+      held.add(holding.ticker());
+    }
+    if (held.isEmpty()) {
+      return Optional.empty();
+    }
+    Map<String, List<DailyBar>> histories = quoteService.getCachedHistories(held);
+    List<String> tickers = new ArrayList<>();
+    List<LocalDate> lastBars = new ArrayList<>();
+    List<String> missing = new ArrayList<>();
+    for (String ticker : held) {
+      List<DailyBar> bars = histories.get(ticker);
+      if (bars == null) {
+        missing.add(ticker);
+        continue;
+      }
+      tickers.add(ticker);
+      LocalDate lastBar = LocalDate.MIN;
+      for (DailyBar bar : bars) {
+        if (bar.date().isAfter(lastBar)) {
+          lastBar = bar.date();
+        }
+      }
+      lastBars.add(lastBar);
+    }
+
+    // Not per user: the matrix depends only on which tickers are held and on their histories,
+    // which can only change by gaining a bar. Histories are refreshed one ticker at a time, so a
+    // lagging ticker can catch up without moving the latest bar overall; key on each one's.
+    CorrelationKey key = new CorrelationKey(List.copyOf(tickers), List.copyOf(lastBars));
+    CorrelationMatrix matrix = cache != null ? cache.get(key, CorrelationMatrix.class) : null;
+    if (matrix == null) {
+      matrix = ReturnCorrelations.compute(tickers, histories);
+      if (cache != null) {
+        cache.put(key, matrix);
+      }
+    }
+    if (missing.isEmpty()) {
+      return Optional.of(matrix);
+    }
+    return Optional.of(
+        new CorrelationMatrix(
+            matrix.from(),
+            matrix.to(),
+            matrix.tickers(),
+            matrix.correlation(),
+            matrix.covariance(),
+            matrix.observations(),
+            missing));
+  }
+
+  /** {@code lastBars} is parallel to {@code tickers}. */
+  private record CorrelationKey(List<String> tickers, List<LocalDate> lastBars) {}
+}
@@ -1,27 +1,44 @@
 package com.austinharlan.trading_dashboard.service;
 
 import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.finance.FinanceBucketTotal;
 import com.austinharlan.trading_dashboard.finance.FinanceCategoryRecord;
 import com.austinharlan.trading_dashboard.finance.FinanceSummaryData;
+import com.austinharlan.trading_dashboard.finance.FinanceSummaryData.CategoryTotal;
+import com.austinharlan.trading_dashboard.finance.FinanceSummaryData.MonthTotal;
 import com.austinharlan.trading_dashboard.finance.FinanceTransactionRecord;
+import com.austinharlan.trading_dashboard.finance.RecurringCadence;
+import com.austinharlan.trading_dashboard.finance.RecurringSeriesRecord;
+import com.austinharlan.trading_dashboard.persistence.FinanceAggregates;
 import com.austinharlan.trading_dashboard.persistence.FinanceCategoryEntity;
 import com.austinharlan.trading_dashboard.persistence.FinanceCategoryRepository;
+import com.austinharlan.trading_dashboard.persistence.FinanceMonthlyRollupEntity;
+import com.austinharlan.trading_dashboard.persistence.FinancePeriodTotal;
+import com.austinharlan.trading_dashboard.persistence.FinanceRecurringSeriesEntity;
+import com.austinharlan.trading_dashboard.persistence.FinanceSearchHit;
 import com.austinharlan.trading_dashboard.persistence.FinanceTransactionEntity;
 import com.austinharlan.trading_dashboard.persistence.FinanceTransactionRepository;
-import com.austinharlan.trading_dashboard.persistence.UserEntity;
-import com.austinharlan.trading_dashboard.persistence.UserRepository;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -30,45 +47,50 @@ import org.springframework.util.StringUtils;
 public class DefaultFinanceInsightsService implements FinanceInsightsService {
   private static final int DEFAULT_LIMIT = 100;
   private static final int MAX_LIMIT = 500;
-
-  private static final List<FinanceCategoryRecord> DEFAULT_CATEGORIES =
-      List.of(
-          new FinanceCategoryRecord("groceries", "Groceries"),
-          new FinanceCategoryRecord("dining", "Dining"),
-          new FinanceCategoryRecord("housing", "Housing"),
-          new FinanceCategoryRecord("utilities", "Utilities"),
-          new FinanceCategoryRecord("transport", "Transport"),
-          new FinanceCategoryRecord("entertainment", "Entertainment"),
-          new FinanceCategoryRecord("shopping", "Shopping"),
-          new FinanceCategoryRecord("health", "Health"),
-          new FinanceCategoryRecord("subscriptions", "Subscriptions"),
-          new FinanceCategoryRecord("gambling", "Gambling"),
-          new FinanceCategoryRecord("investing", "Investing"),
-          new FinanceCategoryRecord("video_games", "Video Games"),
-          new FinanceCategoryRecord("income", "Income"),
-          new FinanceCategoryRecord("other", "Other"));
+  private static final int TREND_MONTHS = 12;
+  private static final Set<String> BUCKETS =
+      Set.of(FinanceAggregates.DAY, FinanceAggregates.WEEK, FinanceAggregates.MONTH);
 
   private final FinanceTransactionRepository transactionRepository;
   private final FinanceCategoryRepository categoryRepository;
-  private final UserRepository userRepository;
+  private final FinanceCategories financeCategories;
+  private final FinanceRollups financeRollups;
+  private final FinanceSearch financeSearch;
+  private final RecurringChargeAnalyzer recurringChargeAnalyzer;
   private final Clock clock;
 
   @Autowired
   public DefaultFinanceInsightsService(
       FinanceTransactionRepository transactionRepository,
       FinanceCategoryRepository categoryRepository,
-      UserRepository userRepository) {
-    this(transactionRepository, categoryRepository, userRepository, Clock.systemUTC());
+      FinanceCategories financeCategories,
+      FinanceRollups financeRollups,
+      FinanceSearch financeSearch,
+      RecurringChargeAnalyzer recurringChargeAnalyzer) {
+    this(
+        transactionRepository,
+        categoryRepository,
+        financeCategories,
+        financeRollups,
+        financeSearch,
+        recurringChargeAnalyzer,
+        Clock.systemUTC());
   }
 
   public DefaultFinanceInsightsService(
       FinanceTransactionRepository transactionRepository,
       FinanceCategoryRepository categoryRepository,
-      UserRepository userRepository,
+      FinanceCategories financeCategories,
+      FinanceRollups financeRollups,
+      FinanceSearch financeSearch,
+      RecurringChargeAnalyzer recurringChargeAnalyzer,
       Clock clock) {
     this.transactionRepository = transactionRepository;
     this.categoryRepository = categoryRepository;
-    this.userRepository = userRepository;
+    this.financeCategories = financeCategories;
+    this.financeRollups = financeRollups;
+    this.financeSearch = financeSearch;
+    this.recurringChargeAnalyzer = recurringChargeAnalyzer;
     this.clock = clock;
   }
 
@@ -82,19 +104,23 @@ public class DefaultFinanceInsightsService implements FinanceInsightsService {
     Instant startOfNextMonth =
         currentMonth.plusMonths(1).atDay(1).atStartOfDay(clock.getZone()).toInstant();
 
-    List<FinanceTransactionRecord> monthTransactions =
-        transactionRepository
-            .findWithinRangeByUserId(userId, startOfMonth, startOfNextMonth)
-            .stream()
-            .map(this::toRecord)
-            .toList();
-
-    BigDecimal monthToDate =
-        monthTransactions.stream()
-            .map(FinanceTransactionRecord::amount)
-            .map(this::safeAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add)
-            .setScale(2, RoundingMode.HALF_UP);
+    // The current month is summed live, a row per day and category, so it reflects every write;
+    // earlier months come from the rollup.
+    BigDecimal monthToDate = BigDecimal.ZERO;
+    long monthCount = 0;
+    Map<String, CategoryTotal> byCategory = new HashMap<>();
+    for (FinancePeriodTotal day :
+        transactionRepository.sumByPeriod(
+            userId, FinanceAggregates.DAY, true, startOfMonth, startOfNextMonth)) {
+      monthToDate = monthToDate.add(day.amount());
+      monthCount += day.count();
+      byCategory.merge(
+          day.category(),
+          new CategoryTotal(day.category(), day.amount(), day.count()),
+          (a, b) ->
+              new CategoryTotal(a.category(), a.amount().add(b.amount()), a.count() + b.count()));
+    }
+    monthToDate = monthToDate.setScale(2, RoundingMode.HALF_UP);
 
     BigDecimal averageDaily =
         today.getDayOfMonth() > 0
@@ -106,35 +132,176 @@ public class DefaultFinanceInsightsService implements FinanceInsightsService {
             .multiply(BigDecimal.valueOf(currentMonth.lengthOfMonth()))
             .setScale(2, RoundingMode.HALF_UP);
 
-    return new FinanceSummaryData(monthToDate, averageDaily, projectedMonthEnd, now);
+    financeRollups.ensureBuilt(userId);
+    Map<YearMonth, FinanceMonthlyRollupEntity> stored = new HashMap<>();
+    for (FinanceMonthlyRollupEntity row :
+        financeRollups.months(
+            userId,
+            currentMonth.minusMonths(TREND_MONTHS - 1).atDay(1),
+            currentMonth.minusMonths(1).atDay(1))) {
+      stored.put(YearMonth.from(row.getMonthStart()), row);
+    }
+    List<MonthTotal> trend = new ArrayList<>(TREND_MONTHS);
+    for (int i = TREND_MONTHS - 1; i > 0; i--) {
+      YearMonth month = currentMonth.minusMonths(i);
+      FinanceMonthlyRollupEntity row = stored.get(month);
+      trend.add(
+          row != null
+              ? new MonthTotal(month, row.getTotalAmount(), row.getTxnCount())
+              : new MonthTotal(month, BigDecimal.ZERO.setScale(2), 0));
+    }
+    trend.add(new MonthTotal(currentMonth, monthToDate, monthCount));
+
+    List<CategoryTotal> categories =
+        byCategory.values().stream()
+            .sorted(
+                Comparator.comparing(
+                    CategoryTotal::category, Comparator.nullsLast(Comparator.naturalOrder())))
+            .toList();
+    return new FinanceSummaryData(
+        monthToDate, averageDaily, projectedMonthEnd, now, categories, trend);
   }
 
   @Override
-  public List<FinanceTransactionRecord> listTransactions(Integer limit, String category) {
+  public List<FinanceBucketTotal> getBreakdown(
+      String bucket, @Nullable LocalDate from, @Nullable LocalDate to) {
+    if (bucket == null || !BUCKETS.contains(bucket)) {
+      throw new IllegalArgumentException("bucket must be day, week or month");
+    }
+    if (from != null && to != null && from.isAfter(to)) {
+      throw new IllegalArgumentException("from must not be after to");
+    }
     long userId = UserContext.current().userId();
-    Pageable pageable = resolvePageable(limit);
-    if (StringUtils.hasText(category)) {
-      String normalizedCategory = category.trim();
-      return transactionRepository
-          .findByUserIdAndCategoryIgnoreCaseOrderByPostedAtDesc(
-              userId, normalizedCategory, pageable)
-          .stream()
-          .map(this::toRecord)
-          .toList();
+    Instant start = from != null ? from.atStartOfDay(ZoneOffset.UTC).toInstant() : null;
+    Instant end = to != null ? to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant() : null;
+
+    // Rows arrive ordered by period, then category, so each bucket is one consecutive run.
+    List<FinanceBucketTotal> buckets = new ArrayList<>();
+    List<CategoryTotal> categories = new ArrayList<>();
+    LocalDate period = null;
+    BigDecimal amount = BigDecimal.ZERO;
+    long count = 0;
+    for (FinancePeriodTotal row :
+        transactionRepository.sumByPeriod(userId, bucket, true, start, end)) {
+      if (period != null && !period.equals(row.period())) {
+        buckets.add(new FinanceBucketTotal(period, amount, count, List.copyOf(categories)));
+        categories.clear();
+        amount = BigDecimal.ZERO;
+        count = 0;
+      }
+      period = row.period();
+      amount = amount.add(row.amount());
+      count += row.count();
+      categories.add(new CategoryTotal(row.category(), row.amount(), row.count()));
     }
+    if (period != null) {
+      buckets.add(new FinanceBucketTotal(period, amount, count, List.copyOf(categories)));
+    }
+    return buckets;
+  }
 
-    return transactionRepository.findAllByUserIdOrderByPostedAtDesc(userId, pageable).stream()
-        .map(this::toRecord)
-        .toList();
+  @Override
+  @Transactional(readOnly = true)
+  public TransactionPage listTransactions(
+      @Nullable Integer limit, @Nullable String category, @Nullable String cursor) {
+    long userId = UserContext.current().userId();
+    int pageSize = (limit == null || limit <= 0) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+    TransactionCursor after =
+        cursor != null && !cursor.isBlank() ? TransactionCursor.decode(cursor) : null;
+    String normalizedCategory =
+        StringUtils.hasText(category)
+            ? FinanceTransactionEntity.normalizeCategory(category.trim())
+            : null;
+
+    // Fetch one extra row to learn whether another page exists without a count query.
+    PageRequest window = PageRequest.of(0, pageSize + 1);
+    List<FinanceTransactionEntity> rows;
+    if (normalizedCategory == null) {
+      rows =
+          after == null
+              ? transactionRepository.findPageByUserId(userId, window)
+              : transactionRepository.findPageByUserIdAfter(
+                  userId, after.postedAt(), after.id(), window);
+    } else {
+      rows =
+          after == null
+              ? transactionRepository.findPageByUserIdAndCategory(
+                  userId, normalizedCategory, window)
+              : transactionRepository.findPageByUserIdAndCategoryAfter(
+                  userId, normalizedCategory, after.postedAt(), after.id(), window);
+    }
+    if (rows.size() <= pageSize) {
+      return new TransactionPage(rows.stream().map(this::toRecord).toList(), null);
+    }
+    List<FinanceTransactionEntity> page = rows.subList(0, pageSize);
+    return new TransactionPage(
+        page.stream().map(this::toRecord).toList(),
+        TransactionCursor.of(page.get(pageSize - 1)).encode());
   }
 
-  private BigDecimal safeAmount(BigDecimal amount) {
-    return amount != null ? amount : BigDecimal.ZERO;
+  @Override
+  @Transactional(readOnly = true)
+  public TransactionPage searchTransactions(
+      String query, @Nullable Integer limit, @Nullable String cursor) {
+    long userId = UserContext.current().userId();
+    List<String> prefixes = FinanceSearch.prefixes(query);
+    int pageSize = (limit == null || limit <= 0) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+    FinanceSearchHit after =
+        cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor) : null;
+
+    List<FinanceSearchHit> hits = financeSearch.search(userId, prefixes, after, pageSize + 1);
+    List<FinanceSearchHit> page = hits.size() > pageSize ? hits.subList(0, pageSize) : hits;
+    Map<String, FinanceTransactionEntity> byId = new HashMap<>();
+    transactionRepository
+        .findAllById(page.stream().map(FinanceSearchHit::id).toList())
+        .forEach(t -> byId.put(t.getId(), t));
+    List<FinanceTransactionRecord> records =
+        page.stream()
+            .map(hit -> byId.get(hit.id()))
+            .filter(Objects::nonNull)
+            .map(this::toRecord)
+            .toList();
+    return new TransactionPage(
+        records, hits.size() > pageSize ? SearchCursor.encode(page.get(pageSize - 1)) : null);
   }
 
-  private Pageable resolvePageable(Integer limit) {
-    int effectiveLimit = (limit == null || limit <= 0) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
-    return PageRequest.of(0, effectiveLimit, Sort.by(Sort.Direction.DESC, "postedAt"));
+  @Override
+  public RecurringCharges listRecurring(boolean includeInactive) {
+    long userId = UserContext.current().userId();
+    recurringChargeAnalyzer.catchUp(userId);
+    LocalDate today = LocalDate.now(clock);
+    List<RecurringSeriesRecord> series = new ArrayList<>();
+    BigDecimal monthly = BigDecimal.ZERO;
+    for (FinanceRecurringSeriesEntity s : recurringChargeAnalyzer.detected(userId)) {
+      RecurringCadence cadence = RecurringCadence.valueOf(s.getCadence());
+      LocalDate next = cadence.next(s.getLastChargedOn());
+      // One missed charge may be a late one; two mean the series has ended.
+      boolean active = !today.isAfter(cadence.next(next));
+      if (!active && !includeInactive) {
+        continue;
+      }
+      BigDecimal average = BigDecimal.valueOf(s.getAmountMean()).setScale(2, RoundingMode.HALF_UP);
+      if (active) {
+        monthly = monthly.add(average.multiply(BigDecimal.valueOf(cadence.perMonth())));
+      }
+      series.add(
+          new RecurringSeriesRecord(
+              s.getMerchantKey(),
+              s.getMerchant(),
+              s.getCategory(),
+              cadence,
+              s.getOccurrences(),
+              average,
+              s.getLastAmount(),
+              s.getFirstChargedOn(),
+              s.getLastChargedOn(),
+              next,
+              active));
+    }
+    series.sort(
+        Comparator.comparing(RecurringSeriesRecord::nextExpectedOn)
+            .thenComparing(RecurringSeriesRecord::merchantKey));
+    return new RecurringCharges(series, monthly.setScale(2, RoundingMode.HALF_UP));
   }
 
   private FinanceTransactionRecord toRecord(FinanceTransactionEntity entity) {
@@ -148,6 +315,7 @@ public class DefaultFinanceInsightsService implements FinanceInsightsService {
   }
 
   @Override
+  @Transactional
   public FinanceTransactionRecord createTransaction(
       Instant postedAt, String description, BigDecimal amount, String category, String notes) {
     long userId = UserContext.current().userId();
@@ -163,11 +331,12 @@ public class DefaultFinanceInsightsService implements FinanceInsightsService {
     if (slug.isEmpty()) {
       throw new IllegalArgumentException("Category is required.");
     }
-    if (!categoryRepository.existsByUserIdAndSlug(userId, slug)) {
+    if (!categoriesOf(userId).contains(slug)) {
       throw new IllegalArgumentException("Unknown category: " + slug);
     }
     String trimmedNotes = (notes == null || notes.isBlank()) ? null : notes.trim();
 
+    boolean rollupBuilt = financeRollups.lockForWrite(userId);
     FinanceTransactionEntity entity =
         new FinanceTransactionEntity(
             userId,
@@ -177,27 +346,15 @@ public class DefaultFinanceInsightsService implements FinanceInsightsService {
             slug,
             trimmedNotes);
     FinanceTransactionEntity saved = transactionRepository.save(entity);
+    if (rollupBuilt) {
+      financeRollups.add(userId, saved.getPostedAt(), saved.getAmount());
+    }
     return toRecord(saved);
   }
 
   @Override
-  @Transactional
   public List<FinanceCategoryRecord> listCategories() {
-    long userId = UserContext.current().userId();
-    UserEntity user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new IllegalStateException("Current user not found: " + userId));
-
-    if (!user.isCategorySeeded()) {
-      seedDefaults(userId);
-      user.setCategorySeeded(true);
-      userRepository.save(user);
-    }
-
-    return categoryRepository.findAllByUserIdOrderBySortOrderAscLabelAsc(userId).stream()
-        .map(e -> new FinanceCategoryRecord(e.getSlug(), e.getLabel()))
-        .toList();
+    return categoriesOf(UserContext.current().userId()).categories();
   }
 
   @Override
@@ -215,11 +372,12 @@ public class DefaultFinanceInsightsService implements FinanceInsightsService {
       throw new IllegalArgumentException(
           "Category label must contain at least one letter or digit.");
     }
-    if (categoryRepository.existsByUserIdAndSlug(userId, slug)) {
+    if (categoriesOf(userId).contains(slug)) {
       throw new IllegalArgumentException("Category already exists: " + trimmedLabel);
     }
     FinanceCategoryEntity saved =
         categoryRepository.save(new FinanceCategoryEntity(userId, slug, trimmedLabel, 0));
+    financeCategories.evict(userId);
     return new FinanceCategoryRecord(saved.getSlug(), saved.getLabel());
   }
 
@@ -230,17 +388,15 @@ public class DefaultFinanceInsightsService implements FinanceInsightsService {
     if (normalized.isEmpty()) {
       return false;
     }
-    return categoryRepository.deleteByUserIdAndSlug(userId, normalized) > 0;
+    boolean deleted = categoryRepository.deleteByUserIdAndSlug(userId, normalized) > 0;
+    financeCategories.evict(userId);
+    return deleted;
   }
 
-  private void seedDefaults(long userId) {
-    int order = 1;
-    for (FinanceCategoryRecord def : DEFAULT_CATEGORIES) {
-      if (!categoryRepository.existsByUserIdAndSlug(userId, def.slug())) {
-        categoryRepository.save(new FinanceCategoryEntity(userId, def.slug(), def.label(), order));
-      }
-      order++;
-    }
+  /** The user's categories from the cache, loading (and on first use seeding) them on a miss. */
+  private FinanceCategories.Registry categoriesOf(long userId) {
+    FinanceCategories.Registry registry = financeCategories.cached(userId);
+    return registry != null ? registry : financeCategories.load(userId);
   }
 
   private static String slugify(String value) {
@@ -253,4 +409,58 @@ public class DefaultFinanceInsightsService implements FinanceInsightsService {
         .replaceAll("[^a-z0-9]+", "_")
         .replaceAll("^_|_$", "");
   }
+
+  /** A search page's last hit, as {@code rank|postedAt|id}; the rank is a float and round-trips. */
+  static final class SearchCursor {
+
+    private SearchCursor() {}
+
+    static String encode(FinanceSearchHit hit) {
+      String raw = hit.rank() + "|" + hit.postedAt() + "|" + hit.id();
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static FinanceSearchHit decode(String cursor) {
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\|");
+        if (parts.length != 3 || parts[2].isEmpty()) {
+          throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new FinanceSearchHit(parts[2], Float.parseFloat(parts[0]), Instant.parse(parts[1]));
+      } catch (DateTimeParseException | NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+    }
+  }
+
+  /** Opaque keyset position: base64url of {@code postedAt|id}. */
+  record TransactionCursor(Instant postedAt, String id) {
+
+    static TransactionCursor of(FinanceTransactionEntity t) {
+      return new TransactionCursor(t.getPostedAt(), t.getId());
+    }
+
+    String encode() {
+      String raw = postedAt + "|" + id;
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionCursor decode(String cursor) {
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\|");
+        if (parts.length != 2 || parts[1].isEmpty()) {
+          throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new TransactionCursor(Instant.parse(parts[0]), parts[1]);
+      } catch (DateTimeParseException e) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+    }
+  }
 }
@@ -0,0 +1,216 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.marketdata.DailyBar;
+import com.austinharlan.trading_dashboard.marketdata.MarketDataClientException;
+import com.austinharlan.trading_dashboard.marketdata.Quote;
+import com.austinharlan.trading_dashboard.marketdata.QuoteNotFoundException;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.trades.OpenLot;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class DefaultOptionsAnalyticsService implements OptionsAnalyticsService {
+
+  /** Daily returns used for realized volatility, about three months of sessions. */
+  static final int VOLATILITY_LOOKBACK = 63;
+
+  private static final double TRADING_DAYS_PER_YEAR = 252.0;
+
+  private final TradeRepository repository;
+  private final QuoteService quoteService;
+  private final double riskFreeRate;
+
+  public DefaultOptionsAnalyticsService(
+      TradeRepository repository,
+      QuoteService quoteService,
+      @Value("${trading.options.risk-free-rate:0.04}") double riskFreeRate) {
+    this.repository = repository;
+    this.quoteService = quoteService;
+    this.riskFreeRate = riskFreeRate;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public OptionsGreeks currentGreeks() {
+    long userId = UserContext.current().userId();
+    List<OpenLot> options = new ArrayList<>();
+    for (OpenLot lot :
+        DefaultTradeService.computeOpenLots(repository.findAllChronologicalByUserId(userId))) {
+      if ("OPTION".equals(lot.assetType())) {
+        options.add(lot);
+      }
+    }
+    Set<String> tickers = new LinkedHashSet<>();
+    for (OpenLot lot : options) {
+      tickers.add(lot.ticker());
+    }
+    if (tickers.isEmpty()) {
+      return analyze(options, Map.of(), Map.of(), LocalDate.now(), riskFreeRate, Instant.now());
+    }
+
+    Map<String, Quote> quotes = quoteService.getCachedQuotes(tickers);
+    Map<String, Double> vols = new HashMap<>();
+    for (String ticker : quotes.keySet()) {
+      try {
+        double vol = realizedVolatility(quoteService.getCachedHistory(ticker));
+        if (vol > 0) {
+          vols.put(ticker, vol);
+        }
+      } catch (QuoteNotFoundException | MarketDataClientException ex) {
+        // No history: the underlying is reported as unpriced.
+      }
+    }
+    return analyze(options, quotes, vols, LocalDate.now(), riskFreeRate, Instant.now());
+  }
+
+  /**
+   * Prices {@code lots} in one {@link BlackScholes#priceAll} call and rolls the signed position
+   * Greeks up per underlying. Lots whose underlying has no spot or volatility are skipped and their
+   * tickers listed as unpriced.
+   */
+  static OptionsGreeks analyze(
+      List<OpenLot> lots,
+      Map<String, Quote> quotes,
+      Map<String, Double> vols,
+      LocalDate today,
+      double rate,
+      Instant asOf) {
+    List<OpenLot> priced = new ArrayList<>(lots.size());
+    List<String> unpriced = new ArrayList<>();
+    for (OpenLot lot : lots) {
+      Quote quote = quotes.get(lot.ticker());
+      if (quote != null && quote.price() != null && vols.containsKey(lot.ticker())) {
+        priced.add(lot);
+      } else if (!unpriced.contains(lot.ticker())) {
+        unpriced.add(lot.ticker());
+      }
+    }
+
+    int n = priced.size();
+    double[] spot = new double[n];
+    double[] strike = new double[n];
+    double[] years = new double[n];
+    double[] vol = new double[n];
+    boolean[] call = new boolean[n];
+    for (int i = 0; i < n; i++) {
+      OpenLot lot = priced.get(i);
+      spot[i] = quotes.get(lot.ticker()).price().doubleValue();
+      strike[i] = lot.strikePrice().doubleValue();
+      years[i] = ChronoUnit.DAYS.between(today, lot.expirationDate()) / 365.0;
+      vol[i] = vols.get(lot.ticker());
+      call[i] = "CALL".equals(lot.optionType());
+    }
+    double[] price = new double[n];
+    double[] delta = new double[n];
+    double[] gamma = new double[n];
+    double[] theta = new double[n];
+    double[] vega = new double[n];
+    BlackScholes.priceAll(
+        n, spot, strike, years, vol, call, rate, price, delta, gamma, theta, vega);
+
+    Map<String, int[]> index = new LinkedHashMap<>();
+    for (OpenLot lot : priced) {
+      index.computeIfAbsent(lot.ticker(), t -> new int[] {index.size()});
+    }
+    int u = index.size();
+    double[] uSpot = new double[u];
+    double[] uVol = new double[u];
+    int[] uLots = new int[u];
+    double[] uDelta = new double[u];
+    double[] uGamma = new double[u];
+    double[] uTheta = new double[u];
+    double[] uVega = new double[u];
+    double[] uValue = new double[u];
+
+    List<ContractGreeks> contracts = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      OpenLot lot = priced.get(i);
+      double qty = lot.quantity().doubleValue();
+      double units = (lot.isLong() ? qty : -qty) * lot.multiplier();
+      contracts.add(
+          new ContractGreeks(
+              lot.ticker(),
+              lot.optionType(),
+              lot.strikePrice(),
+              lot.expirationDate(),
+              lot.isLong(),
+              qty,
+              lot.multiplier(),
+              spot[i],
+              vol[i],
+              Math.max(years[i], 0),
+              price[i],
+              delta[i],
+              gamma[i],
+              theta[i],
+              vega[i],
+              price[i] * units,
+              delta[i] * units));
+
+      int k = index.get(lot.ticker())[0];
+      uSpot[k] = spot[i];
+      uVol[k] = vol[i];
+      uLots[k]++;
+      uDelta[k] += delta[i] * units;
+      uGamma[k] += gamma[i] * units;
+      uTheta[k] += theta[i] * units;
+      uVega[k] += vega[i] * units;
+      uValue[k] += price[i] * units;
+    }
+
+    List<UnderlyingExposure> underlyings = new ArrayList<>(u);
+    index.forEach(
+        (ticker, idx) -> {
+          int k = idx[0];
+          underlyings.add(
+              new UnderlyingExposure(
+                  ticker,
+                  uSpot[k],
+                  uVol[k],
+                  uLots[k],
+                  uDelta[k],
+                  uDelta[k] * uSpot[k],
+                  uGamma[k],
+                  uTheta[k],
+                  uVega[k],
+                  uValue[k]));
+        });
+    return new OptionsGreeks(asOf, rate, contracts, underlyings, unpriced);
+  }
+
+  /**
+   * Annualized standard deviation of daily log returns over the last {@link #VOLATILITY_LOOKBACK}
+   * sessions, or 0 when there are fewer than two returns.
+   */
+  static double realizedVolatility(List<DailyBar> bars) {
+    int count = 0;
+    double mean = 0, m2 = 0;
+    int from = Math.max(1, bars.size() - VOLATILITY_LOOKBACK);
+    for (int i = from; i < bars.size(); i++) {
+      DailyBar prev = bars.get(i - 1);
+      DailyBar bar = bars.get(i);
+      if (prev.close() == null || bar.close() == null || prev.close().signum() <= 0) {
+        continue;
+      }
+      double r = Math.log(bar.close().doubleValue() / prev.close().doubleValue());
+      count++;
+      double d = r - mean;
+      mean += d / count;
+      m2 += d * (r - mean);
+    }
+    return count > 1 ? Math.sqrt(m2 / (count - 1) * TRADING_DAYS_PER_YEAR) : 0;
+  }
+}
@@ -1,16 +1,39 @@
 package com.austinharlan.trading_dashboard.service;
 
 import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.marketdata.CompanyOverview;
+import com.austinharlan.trading_dashboard.marketdata.DailyBar;
+import com.austinharlan.trading_dashboard.marketdata.Quote;
+import com.austinharlan.trading_dashboard.persistence.EquityFill;
 import com.austinharlan.trading_dashboard.persistence.PortfolioPositionEntity;
 import com.austinharlan.trading_dashboard.persistence.PortfolioPositionRepository;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioExposure;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioExposure.Group;
 import com.austinharlan.trading_dashboard.portfolio.PortfolioHolding;
 import com.austinharlan.trading_dashboard.portfolio.PortfolioPositionNotFoundException;
 import com.austinharlan.trading_dashboard.portfolio.PortfolioSnapshot;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValuation;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValuation.ValuedPosition;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValueHistory;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValueHistory.TickerSeries;
+import com.austinharlan.trading_dashboard.service.PortfolioCheckpoints.Checkpoint;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,12 +43,19 @@ import org.springframework.transaction.annotation.Transactional;
 public class DefaultPortfolioService implements PortfolioService {
   private static final Comparator<PortfolioHolding> HOLDING_COMPARATOR =
       Comparator.comparing(PortfolioHolding::ticker, String.CASE_INSENSITIVE_ORDER);
+  private static final Comparator<Group> BY_MARKET_VALUE =
+      Comparator.comparingDouble(Group::marketValue).reversed().thenComparing(Group::name);
 
   private final PortfolioPositionRepository repository;
+  private final TradeRepository tradeRepository;
+  private final TradeDataVersions versions;
+  private final PortfolioCheckpoints checkpoints;
+  private final PositionProjector projector;
+  private final QuoteService quoteService;
 
   @Override
   public List<PortfolioHolding> listHoldings() {
-    long userId = UserContext.current().userId();
+    long userId = projectedUserId();
     return repository.findAllByUserId(userId).stream()
         .map(this::toHolding)
         .sorted(HOLDING_COMPARATOR)
@@ -34,7 +64,7 @@ public class DefaultPortfolioService implements PortfolioService {
 
   @Override
   public Optional<PortfolioSnapshot> summarize() {
-    long userId = UserContext.current().userId();
+    long userId = projectedUserId();
     List<PortfolioHolding> holdings =
         repository.findAllByUserId(userId).stream()
             .map(this::toHolding)
@@ -52,18 +82,375 @@ public class DefaultPortfolioService implements PortfolioService {
     return Optional.of(new PortfolioSnapshot(holdings.size(), totalQuantity, totalCostBasis));
   }
 
+  @Override
+  public Optional<PortfolioValuation> valuation() {
+    List<PortfolioHolding> holdings = listHoldings();
+    if (holdings.isEmpty()) {
+      return Optional.empty();
+    }
+    List<String> tickers = holdings.stream().map(PortfolioHolding::ticker).toList();
+    return Optional.of(value(holdings, quoteService.getCachedQuotes(tickers), Instant.now()));
+  }
+
+  /**
+   * Marks {@code holdings} against {@code quotes}. Values are computed into parallel double arrays
+   * first because weights need the priced total before any row can be built. The previous close is
+   * derived from the quote's change percent, as in {@link DefaultUnrealizedPnlService}.
+   */
+  static PortfolioValuation value(
+      List<PortfolioHolding> holdings, Map<String, Quote> quotes, Instant asOf) {
+    int n = holdings.size();
+    double[] qty = new double[n];
+    double[] cost = new double[n];
+    double[] price = new double[n];
+    double[] change = new double[n];
+    double[] value = new double[n];
+    double[] day = new double[n];
+    boolean[] priced = new boolean[n];
+    double totalValue = 0, totalCost = 0, pricedCost = 0, totalDay = 0, prevValue = 0;
+    for (int i = 0; i < n; i++) {
+      PortfolioHolding holding = holdings.get(i);
+      qty[i] = holding.quantity().doubleValue();
+      cost[i] = holding.costBasis().doubleValue();
+      totalCost += cost[i];
+      Quote quote = quotes.get(holding.ticker());
+      if (quote == null || quote.price() == null) {
+        continue;
+      }
+      priced[i] = true;
+      price[i] = quote.price().doubleValue();
+      change[i] = quote.changePercent() != null ? quote.changePercent().doubleValue() : 0.0;
+      double prev = change[i] > -100.0 ? price[i] / (1.0 + change[i] / 100.0) : price[i];
+      value[i] = qty[i] * price[i];
+      day[i] = qty[i] * (price[i] - prev);
+      totalValue += value[i];
+      pricedCost += cost[i];
+      totalDay += day[i];
+      prevValue += qty[i] * prev;
+    }
+
+    List<ValuedPosition> rows = new ArrayList<>(n);
+    List<String> unpriced = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      String ticker = holdings.get(i).ticker();
+      if (!priced[i]) {
+        unpriced.add(ticker);
+        rows.add(new ValuedPosition(ticker, qty[i], cost[i], null, null, null, null, null, null));
+        continue;
+      }
+      rows.add(
+          new ValuedPosition(
+              ticker,
+              qty[i],
+              cost[i],
+              price[i],
+              change[i],
+              value[i],
+              totalValue != 0 ? value[i] / totalValue : 0.0,
+              value[i] - cost[i],
+              day[i]));
+    }
+    return new PortfolioValuation(
+        asOf,
+        n,
+        totalValue,
+        totalCost,
+        totalValue - pricedCost,
+        totalDay,
+        prevValue != 0 ? totalDay / prevValue * 100.0 : null,
+        rows,
+        unpriced);
+  }
+
+  @Override
+  public Optional<PortfolioExposure> exposure() {
+    return valuation()
+        .map(
+            v -> {
+              List<String> priced =
+                  v.positions().stream()
+                      .filter(p -> p.price() != null)
+                      .map(ValuedPosition::ticker)
+                      .toList();
+              return exposure(
+                  v, priced.isEmpty() ? Map.of() : quoteService.getCachedOverviews(priced));
+            });
+  }
+
+  /**
+   * Groups the priced positions of {@code valuation} by sector and industry from {@code overviews}.
+   * A ticker with no overview, or one without a sector or industry, goes under {@link
+   * PortfolioExposure#UNKNOWN} so one failed lookup never drops a position from the tree. Groups
+   * are ordered by market value, largest first.
+   */
+  static PortfolioExposure exposure(
+      PortfolioValuation valuation, Map<String, CompanyOverview> overviews) {
+    Map<String, Map<String, GroupTotals>> tree = new HashMap<>();
+    List<String> unclassified = new ArrayList<>();
+    for (ValuedPosition position : valuation.positions()) {
+      if (position.marketValue() == null) {
+        continue;
+      }
+      CompanyOverview overview = overviews.get(position.ticker());
+      String sector = overview != null ? orUnknown(overview.sector()) : PortfolioExposure.UNKNOWN;
+      String industry =
+          overview != null ? orUnknown(overview.industry()) : PortfolioExposure.UNKNOWN;
+      if (PortfolioExposure.UNKNOWN.equals(sector)) {
+        unclassified.add(position.ticker());
+      }
+      tree.computeIfAbsent(sector, k -> new HashMap<>())
+          .computeIfAbsent(industry, k -> new GroupTotals())
+          .add(position);
+    }
+
+    double total = valuation.totalMarketValue();
+    List<Group> sectors = new ArrayList<>(tree.size());
+    tree.forEach(
+        (sector, industries) -> {
+          GroupTotals sectorTotals = new GroupTotals();
+          List<Group> children = new ArrayList<>(industries.size());
+          industries.forEach(
+              (industry, totals) -> {
+                sectorTotals.add(totals);
+                children.add(totals.toGroup(industry, total, List.of()));
+              });
+          children.sort(BY_MARKET_VALUE);
+          sectors.add(sectorTotals.toGroup(sector, total, children));
+        });
+    sectors.sort(BY_MARKET_VALUE);
+    return new PortfolioExposure(
+        valuation.asOf(), total, sectors, unclassified, valuation.unpricedTickers());
+  }
+
+  private static String orUnknown(String name) {
+    return name == null || name.isBlank() ? PortfolioExposure.UNKNOWN : name.strip();
+  }
+
+  /** Running sums for one sector or industry. */
+  private static final class GroupTotals {
+    private double marketValue;
+    private double costBasis;
+    private double unrealizedPnl;
+    private final List<String> tickers = new ArrayList<>();
+
+    void add(ValuedPosition position) {
+      marketValue += position.marketValue();
+      costBasis += position.costBasis();
+      unrealizedPnl += position.unrealizedPnl();
+      tickers.add(position.ticker());
+    }
+
+    void add(GroupTotals other) {
+      marketValue += other.marketValue;
+      costBasis += other.costBasis;
+      unrealizedPnl += other.unrealizedPnl;
+      tickers.addAll(other.tickers);
+    }
+
+    Group toGroup(String name, double total, List<Group> children) {
+      return new Group(
+          name,
+          marketValue,
+          costBasis,
+          unrealizedPnl,
+          total != 0 ? marketValue / total : 0.0,
+          tickers.stream().sorted().toList(),
+          children);
+    }
+  }
+
+  @Override
+  public PortfolioValueHistory valueHistory(String range) {
+    LocalDate today = LocalDate.now();
+    LocalDate from =
+        switch (range) {
+          case "1W" -> today.minusWeeks(1);
+          case "1M" -> today.minusMonths(1);
+          case "3M" -> today.minusMonths(3);
+          case "MAX" -> LocalDate.EPOCH;
+          default -> throw new IllegalArgumentException("Unknown range: " + range);
+        };
+    long userId = projectedUserId();
+
+    // Positions at the start of the range: the nearest checkpoint plus the fills after it.
+    Optional<Checkpoint> start = checkpoints.nearest(userId, from);
+    Map<String, Position> opening = new HashMap<>();
+    start.ifPresent(
+        c ->
+            c.holdings()
+                .forEach(h -> opening.put(h.ticker(), new Position(h.quantity(), h.costBasis()))));
+    List<EquityFill> fills =
+        start.isPresent()
+            ? tradeRepository.findEquityFillsBetween(userId, start.get().asOfDate(), today)
+            : tradeRepository.findEquityFillsUpTo(userId, today);
+    int first = 0;
+    while (first < fills.size() && fills.get(first).tradeDate().isBefore(from)) {
+      EquityFill fill = fills.get(first++);
+      opening.compute(
+          fill.ticker(),
+          (ticker, pos) -> Position.apply(pos, fill.side(), fill.quantity(), fill.pricePerShare()));
+    }
+    List<EquityFill> inRange = fills.subList(first, fills.size());
+
+    // Stored positions the trade log does not explain were set by hand.
+    Map<String, BigDecimal> manual = new HashMap<>();
+    Set<String> traded = new HashSet<>(opening.keySet());
+    fills.forEach(f -> traded.add(f.ticker()));
+    repository.findAllByUserId(userId).stream()
+        .filter(p -> !traded.contains(p.getTicker()))
+        .forEach(p -> manual.put(p.getTicker(), p.getQty()));
+
+    Set<String> held = new TreeSet<>(manual.keySet());
+    opening.forEach((ticker, pos) -> held.add(ticker));
+    inRange.forEach(f -> held.add(f.ticker()));
+    Map<String, List<DailyBar>> histories =
+        held.isEmpty() ? Map.of() : quoteService.getCachedHistories(held);
+    return series(from, opening, inRange, manual, histories);
+  }
+
+  /**
+   * Lines up every held ticker's closes on the union of their bar dates from {@code from} on and
+   * multiplies by the quantity held at the end of each date. {@code opening} is what was held
+   * before {@code from} and {@code fills} are the trades after it, in replay order; {@code manual}
+   * quantities are constant. Each ticker lives in its own pair of double arrays so the value sum is
+   * one pass over primitives. Tickers never held on the axis are dropped, and held tickers without
+   * a history are reported as missing.
+   */
+  static PortfolioValueHistory series(
+      LocalDate from,
+      Map<String, Position> opening,
+      List<EquityFill> fills,
+      Map<String, BigDecimal> manual,
+      Map<String, List<DailyBar>> histories) {
+    Set<String> tickerSet = new TreeSet<>(manual.keySet());
+    tickerSet.addAll(opening.keySet());
+    fills.forEach(f -> tickerSet.add(f.ticker()));
+    List<String> tickers = new ArrayList<>(tickerSet);
+    int t = tickers.size();
+
+    long fromDay = from.toEpochDay();
+    int count = 0;
+    for (List<DailyBar> bars : histories.values()) {
+      count += bars.size();
+    }
+    long[] axis = new long[count];
+    count = 0;
+    for (List<DailyBar> bars : histories.values()) {
+      for (DailyBar bar : bars) {
+        long day = bar.date().toEpochDay();
+        if (day >= fromDay) {
+          axis[count++] = day;
+        }
+      }
+    }
+    Arrays.sort(axis, 0, count);
+    int n = 0;
+    for (int i = 0; i < count; i++) {
+      if (n == 0 || axis[i] != axis[n - 1]) {
+        axis[n++] = axis[i];
+      }
+    }
+
+    double[][] closes = new double[t][];
+    for (int k = 0; k < t; k++) {
+      double[] close = new double[n];
+      closes[k] = close;
+      List<DailyBar> bars = histories.get(tickers.get(k));
+      if (bars == null) {
+        Arrays.fill(close, Double.NaN);
+        continue;
+      }
+      List<DailyBar> sorted = bars.stream().sorted(Comparator.comparing(DailyBar::date)).toList();
+      double last = Double.NaN;
+      int j = 0;
+      for (int i = 0; i < n; i++) {
+        while (j < sorted.size() && sorted.get(j).date().toEpochDay() <= axis[i]) {
+          BigDecimal value = sorted.get(j++).close();
+          if (value != null) {
+            last = value.doubleValue();
+          }
+        }
+        close[i] = last;
+      }
+    }
+
+    Map<String, Integer> index = new HashMap<>();
+    double[] current = new double[t];
+    Map<String, Position> positions = new HashMap<>(opening);
+    for (int k = 0; k < t; k++) {
+      String ticker = tickers.get(k);
+      index.put(ticker, k);
+      BigDecimal manualQty = manual.get(ticker);
+      Position pos = opening.get(ticker);
+      current[k] =
+          manualQty != null ? manualQty.doubleValue() : pos != null ? pos.qty().doubleValue() : 0.0;
+    }
+    double[][] quantities = new double[t][n];
+    int f = 0;
+    for (int i = 0; i < n; i++) {
+      while (f < fills.size() && fills.get(f).tradeDate().toEpochDay() <= axis[i]) {
+        EquityFill fill = fills.get(f++);
+        Position pos =
+            positions.compute(
+                fill.ticker(),
+                (ticker, p) ->
+                    Position.apply(p, fill.side(), fill.quantity(), fill.pricePerShare()));
+        current[index.get(fill.ticker())] = pos != null ? pos.qty().doubleValue() : 0.0;
+      }
+      for (int k = 0; k < t; k++) {
+        quantities[k][i] = current[k];
+      }
+    }
+
+    double[] values = new double[n];
+    List<TickerSeries> series = new ArrayList<>(t);
+    List<String> missing = new ArrayList<>();
+    for (int k = 0; k < t; k++) {
+      double[] qty = quantities[k];
+      double[] close = closes[k];
+      // With no dates at all, go by what is held now so a missing history is still reported.
+      boolean held = n == 0 && current[k] != 0.0;
+      for (int i = 0; i < n && !held; i++) {
+        held = qty[i] != 0.0;
+      }
+      if (!held) {
+        continue;
+      }
+      if (!histories.containsKey(tickers.get(k))) {
+        missing.add(tickers.get(k));
+        continue;
+      }
+      for (int i = 0; i < n; i++) {
+        if (!Double.isNaN(close[i])) {
+          values[i] += qty[i] * close[i];
+        }
+      }
+      series.add(new TickerSeries(tickers.get(k), qty, close));
+    }
+
+    List<LocalDate> dates = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      dates.add(LocalDate.ofEpochDay(axis[i]));
+    }
+    return new PortfolioValueHistory(dates, values, series, missing);
+  }
+
+  /** Current user's id, after making sure their positions reflect the trade log. */
+  private long projectedUserId() {
+    long userId = UserContext.current().userId();
+    if (!projector.isProjected(userId)) {
+      projector.ensureProjected(userId);
+    }
+    return userId;
+  }
+
   @Override
   @Transactional
   public PortfolioHolding addHolding(String ticker, BigDecimal quantity, BigDecimal pricePerShare) {
     long userId = UserContext.current().userId();
-    BigDecimal totalBasis = quantity.multiply(pricePerShare);
-    PortfolioPositionEntity entity =
-        repository
-            .findByUserIdAndTicker(userId, ticker)
-            .orElseGet(() -> new PortfolioPositionEntity(userId, ticker, quantity, totalBasis));
-    entity.setQty(quantity);
-    entity.setBasis(totalBasis);
-    return toHolding(repository.save(entity));
+    BigDecimal totalBasis = quantity.multiply(pricePerShare).setScale(6, RoundingMode.HALF_UP);
+    repository.upsert(userId, ticker, quantity, totalBasis);
+    return new PortfolioHolding(ticker, quantity, totalBasis);
   }
 
   @Override
@@ -77,41 +464,88 @@ public class DefaultPortfolioService implements PortfolioService {
   }
 
   @Override
-  @Transactional
-  public void applyTrade(
-      String ticker, String side, String assetType, BigDecimal quantity, BigDecimal pricePerShare) {
-    if (!"EQUITY".equals(assetType) || (!"BUY".equals(side) && !"SELL".equals(side))) {
-      return;
-    }
+  @Transactional(readOnly = true)
+  public List<PortfolioHolding> holdingsAsOf(LocalDate date) {
     long userId = UserContext.current().userId();
-    if ("BUY".equals(side)) {
-      BigDecimal addedBasis = quantity.multiply(pricePerShare);
-      repository
-          .findByUserIdAndTicker(userId, ticker)
-          .ifPresentOrElse(
-              pos -> {
-                pos.setQty(pos.getQty().add(quantity));
-                pos.setBasis(pos.getBasis().add(addedBasis));
-                repository.save(pos);
-              },
-              () ->
-                  repository.save(
-                      new PortfolioPositionEntity(userId, ticker, quantity, addedBasis)));
-    } else {
-      repository
-          .findByUserIdAndTicker(userId, ticker)
-          .ifPresent(
-              pos -> {
-                BigDecimal newQty = pos.getQty().subtract(quantity);
-                if (newQty.compareTo(BigDecimal.ZERO) <= 0) {
-                  repository.deleteByUserIdAndTicker(userId, ticker);
-                } else {
-                  BigDecimal ratio = newQty.divide(pos.getQty(), 10, RoundingMode.HALF_UP);
-                  pos.setQty(newQty);
-                  pos.setBasis(pos.getBasis().multiply(ratio).setScale(6, RoundingMode.HALF_UP));
-                  repository.save(pos);
-                }
-              });
+    // Read the version first: if a write lands while replaying, the checkpoints built here are
+    // tagged with the old version and PortfolioCheckpoints.save drops them.
+    long version = versions.current(userId);
+    Optional<Checkpoint> start = checkpoints.nearest(userId, date);
+
+    Map<String, Position> positions = new HashMap<>();
+    start.ifPresent(
+        c ->
+            c.holdings()
+                .forEach(
+                    h -> positions.put(h.ticker(), new Position(h.quantity(), h.costBasis()))));
+    List<EquityFill> fills =
+        start.isPresent()
+            ? tradeRepository.findEquityFillsBetween(userId, start.get().asOfDate(), date)
+            : tradeRepository.findEquityFillsUpTo(userId, date);
+
+    // Month ends crossed during the replay become new checkpoints. The current month stays open
+    // so that ordinary same-month trading does not keep invalidating fresh checkpoints.
+    LocalDate lastCheckpoint =
+        Collections.min(List.of(date, YearMonth.now().minusMonths(1).atEndOfMonth()));
+    LocalDate boundary =
+        start
+            .map(c -> YearMonth.from(c.asOfDate().plusDays(1)).atEndOfMonth())
+            .orElse(
+                fills.isEmpty() ? null : YearMonth.from(fills.get(0).tradeDate()).atEndOfMonth());
+    List<Checkpoint> crossed = new ArrayList<>();
+    for (EquityFill fill : fills) {
+      while (boundary != null
+          && !boundary.isAfter(lastCheckpoint)
+          && fill.tradeDate().isAfter(boundary)) {
+        crossed.add(new Checkpoint(boundary, toHoldings(positions)));
+        boundary = YearMonth.from(boundary).plusMonths(1).atEndOfMonth();
+      }
+      positions.compute(
+          fill.ticker(),
+          (ticker, pos) -> Position.apply(pos, fill.side(), fill.quantity(), fill.pricePerShare()));
+    }
+    while (boundary != null && !boundary.isAfter(lastCheckpoint)) {
+      crossed.add(new Checkpoint(boundary, toHoldings(positions)));
+      boundary = YearMonth.from(boundary).plusMonths(1).atEndOfMonth();
+    }
+    if (!crossed.isEmpty()) {
+      checkpoints.save(userId, version, crossed);
+    }
+    return toHoldings(positions);
+  }
+
+  private static List<PortfolioHolding> toHoldings(Map<String, Position> positions) {
+    return positions.entrySet().stream()
+        .map(e -> new PortfolioHolding(e.getKey(), e.getValue().qty(), e.getValue().basis()))
+        .sorted(HOLDING_COMPARATOR)
+        .toList();
+  }
+
+  /** Open equity position; {@code null} stands for no position. */
+  record Position(BigDecimal qty, BigDecimal basis) {
+
+    /**
+     * The position arithmetic shared by {@link PositionProjector} and as-of replays: BUY adds
+     * quantity and basis, SELL scales basis down proportionally and closes the position at zero or
+     * below, and SELL without a position is ignored. Basis is kept at the column's six decimals so
+     * a position folded one trade at a time equals one replayed in a single pass.
+     */
+    static Position apply(Position pos, String side, BigDecimal quantity, BigDecimal price) {
+      if ("BUY".equals(side)) {
+        BigDecimal addedBasis = quantity.multiply(price).setScale(6, RoundingMode.HALF_UP);
+        return pos == null
+            ? new Position(quantity, addedBasis)
+            : new Position(pos.qty().add(quantity), pos.basis().add(addedBasis));
+      }
+      if (pos == null) {
+        return null;
+      }
+      BigDecimal newQty = pos.qty().subtract(quantity);
+      if (newQty.compareTo(BigDecimal.ZERO) <= 0) {
+        return null;
+      }
+      BigDecimal ratio = newQty.divide(pos.qty(), 10, RoundingMode.HALF_UP);
+      return new Position(newQty, pos.basis().multiply(ratio).setScale(6, RoundingMode.HALF_UP));
     }
   }
 
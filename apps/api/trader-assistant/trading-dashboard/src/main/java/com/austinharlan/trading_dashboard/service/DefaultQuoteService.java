@@ -1,25 +1,43 @@
 package com.austinharlan.trading_dashboard.service;
 
 import com.austinharlan.trader.config.CacheProperties;
+import com.austinharlan.trading_dashboard.config.MarketDataProperties;
 import com.austinharlan.trading_dashboard.marketdata.CompanyOverview;
 import com.austinharlan.trading_dashboard.marketdata.DailyBar;
 import com.austinharlan.trading_dashboard.marketdata.MarketDataClientException;
 import com.austinharlan.trading_dashboard.marketdata.MarketDataProvider;
 import com.austinharlan.trading_dashboard.marketdata.NewsArticle;
 import com.austinharlan.trading_dashboard.marketdata.Quote;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
 @Service
 public class DefaultQuoteService implements QuoteService {
+  private static final int LOADER_THREADS = 4;
+
   private final MarketDataProvider provider;
   private final CacheProperties cacheProperties;
+  private final MarketDataProperties marketDataProperties;
+  private final ExecutorService loaders =
+      Executors.newFixedThreadPool(
+          LOADER_THREADS, Thread.ofPlatform().name("quote-loader-", 0).daemon().factory());
   private final Cache quotesCache;
   private final Cache overviewsCache;
   private final Cache historyCache;
@@ -27,9 +45,13 @@ public class DefaultQuoteService implements QuoteService {
   private final Map<String, Instant> cacheTimestamps = new ConcurrentHashMap<>();
 
   public DefaultQuoteService(
-      MarketDataProvider provider, CacheManager cacheManager, CacheProperties cacheProperties) {
+      MarketDataProvider provider,
+      CacheManager cacheManager,
+      CacheProperties cacheProperties,
+      MarketDataProperties marketDataProperties) {
     this.provider = provider;
     this.cacheProperties = cacheProperties;
+    this.marketDataProperties = marketDataProperties;
     this.quotesCache = cacheManager != null ? cacheManager.getCache("quotes") : null;
     this.overviewsCache = cacheManager != null ? cacheManager.getCache("overviews") : null;
     this.historyCache = cacheManager != null ? cacheManager.getCache("history") : null;
@@ -47,6 +69,97 @@ public class DefaultQuoteService implements QuoteService {
         () -> provider.getQuote(symbol));
   }
 
+  @Override
+  public Map<String, Quote> getCachedQuotes(Collection<String> symbols) {
+    Duration ttl = cacheProperties.getQuotes().getTtl();
+    Map<String, Quote> quotes = new LinkedHashMap<>();
+    List<String> misses = new ArrayList<>();
+    for (String symbol : new LinkedHashSet<>(symbols)) {
+      String cacheKey = "quote:" + symbol;
+      Quote cached = getCachedValue(quotesCache, cacheKey, Quote.class);
+      if (cached != null && !isStale(cacheKey, ttl)) {
+        quotes.put(symbol, cached);
+      } else {
+        misses.add(symbol);
+      }
+    }
+    if (misses.isEmpty()) {
+      return quotes;
+    }
+
+    try {
+      provider
+          .getQuotes(misses)
+          .forEach(
+              (symbol, quote) -> {
+                putCache(quotesCache, "quote:" + symbol, quote);
+                quotes.put(symbol, quote);
+              });
+      // The batch endpoint drops some symbols the single-quote endpoint still knows. Only asked
+      // after a successful batch; when the batch itself fails the provider is treated as down.
+      List<String> omitted = misses.stream().filter(symbol -> !quotes.containsKey(symbol)).toList();
+      quotes.putAll(
+          loadEach(
+              omitted,
+              symbol -> {
+                Quote quote = provider.getQuote(symbol);
+                putCache(quotesCache, "quote:" + symbol, quote);
+                return quote;
+              }));
+    } catch (MarketDataClientException ex) {
+      // Fall through to whatever stale values the cache still holds.
+    }
+    for (String symbol : misses) {
+      if (!quotes.containsKey(symbol)) {
+        Quote fallback = getCachedValue(quotesCache, "quote:" + symbol, Quote.class);
+        if (fallback != null) {
+          quotes.put(symbol, fallback);
+        }
+      }
+    }
+    return quotes;
+  }
+
+  /**
+   * Runs {@code loader} for each symbol on the shared loader pool, so concurrent requests together
+   * cannot have more than {@link #LOADER_THREADS} provider calls in flight. Symbols whose load
+   * fails, returns null or is still running at the batch timeout are left out of the result, which
+   * keeps the input order.
+   */
+  private <T> Map<String, T> loadEach(Collection<String> symbols, Function<String, T> loader) {
+    List<String> distinct = new ArrayList<>(new LinkedHashSet<>(symbols));
+    if (distinct.isEmpty()) {
+      return Map.of();
+    }
+    List<Callable<T>> tasks = new ArrayList<>(distinct.size());
+    for (String symbol : distinct) {
+      tasks.add(() -> loader.apply(symbol));
+    }
+    List<Future<T>> results;
+    try {
+      // Cancels whatever has not finished by the deadline.
+      results =
+          loaders.invokeAll(
+              tasks, marketDataProperties.getBatchTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return Map.of();
+    }
+    Map<String, T> loaded = new LinkedHashMap<>();
+    for (int i = 0; i < distinct.size(); i++) {
+      Future<T> result = results.get(i);
+      if (result.state() == Future.State.SUCCESS && result.resultNow() != null) {
+        loaded.put(distinct.get(i), result.resultNow());
+      }
+    }
+    return loaded;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    loaders.shutdownNow();
+  }
+
   @Override
   public CompanyOverview getCachedOverview(String symbol) {
     return fetchWithCache(
@@ -58,6 +171,11 @@ public class DefaultQuoteService implements QuoteService {
         () -> provider.getOverview(symbol));
   }
 
+  @Override
+  public Map<String, CompanyOverview> getCachedOverviews(Collection<String> symbols) {
+    return loadEach(symbols, this::getCachedOverview);
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public List<DailyBar> getCachedHistory(String symbol) {
@@ -81,6 +199,11 @@ public class DefaultQuoteService implements QuoteService {
     }
   }
 
+  @Override
+  public Map<String, List<DailyBar>> getCachedHistories(Collection<String> symbols) {
+    return loadEach(symbols, this::getCachedHistory);
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public List<NewsArticle> getCachedNews(String symbol) {
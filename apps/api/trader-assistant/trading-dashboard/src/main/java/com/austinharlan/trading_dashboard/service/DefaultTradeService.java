@@ -1,16 +1,30 @@
 package com.austinharlan.trading_dashboard.service;
 
 import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.persistence.ContractFill;
+import com.austinharlan.trading_dashboard.persistence.DailyRealizedPnlEntity;
+import com.austinharlan.trading_dashboard.persistence.DailyRealizedPnlRepository;
+import com.austinharlan.trading_dashboard.persistence.PnlPeriodTotal;
 import com.austinharlan.trading_dashboard.persistence.TradeEntity;
 import com.austinharlan.trading_dashboard.persistence.TradeRepository;
 import com.austinharlan.trading_dashboard.trades.ClosedTrade;
+import com.austinharlan.trading_dashboard.trades.OpenLot;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,12 +33,32 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class DefaultTradeService implements TradeService {
 
-  private final TradeRepository repository;
-  private final PortfolioService portfolioService;
+  private static final int DEFAULT_PAGE_SIZE = 100;
+  private static final int MAX_PAGE_SIZE = 500;
 
-  public DefaultTradeService(TradeRepository repository, PortfolioService portfolioService) {
+  private final TradeRepository repository;
+  private final PositionProjector projector;
+  private final TradeDataVersions versions;
+  private final DailyPnlRollups rollups;
+  private final DailyRealizedPnlRepository pnlRepository;
+  private final Cache analyticsCache;
+  private final EntityManager entityManager;
+
+  public DefaultTradeService(
+      TradeRepository repository,
+      PositionProjector projector,
+      TradeDataVersions versions,
+      DailyPnlRollups rollups,
+      DailyRealizedPnlRepository pnlRepository,
+      @Nullable CacheManager cacheManager,
+      EntityManager entityManager) {
     this.repository = repository;
-    this.portfolioService = portfolioService;
+    this.entityManager = entityManager;
+    this.projector = projector;
+    this.versions = versions;
+    this.rollups = rollups;
+    this.pnlRepository = pnlRepository;
+    this.analyticsCache = cacheManager != null ? cacheManager.getCache("tradeAnalytics") : null;
   }
 
   @Override
@@ -46,32 +80,93 @@ public class DefaultTradeService implements TradeService {
     int multiplier = "OPTION".equals(type) ? 100 : 1;
 
     validate(side, type, quantity, pricePerShare, optionType, strikePrice, expirationDate);
+    versions.bump(userId, date);
+    List<String> tickers = List.of(ticker);
+    Map<LocalDate, DailyPnlRollups.Day> before = rollups.snapshot(userId, tickers);
 
+    TradeEntity saved;
     if ("EXPIRE".equals(side)) {
-      return handleExpire(userId, ticker, date, notes, optionType, strikePrice, expirationDate);
-    }
-    if ("EXERCISE".equals(side)) {
-      return handleExercise(
-          userId, ticker, date, notes, quantity, optionType, strikePrice, expirationDate);
+      saved = handleExpire(userId, ticker, date, notes, optionType, strikePrice, expirationDate);
+    } else if ("EXERCISE".equals(side)) {
+      saved =
+          handleExercise(
+              userId, ticker, date, notes, quantity, optionType, strikePrice, expirationDate);
+    } else {
+      TradeEntity entity =
+          new TradeEntity(
+              userId,
+              ticker,
+              side,
+              quantity,
+              pricePerShare,
+              date,
+              notes,
+              type,
+              optionType,
+              strikePrice,
+              expirationDate,
+              multiplier);
+      saved = repository.save(entity);
     }
+    projector.catchUp(userId);
+    rollups.applyWrite(userId, tickers, before);
+    return saved;
+  }
 
-    TradeEntity entity =
-        new TradeEntity(
-            userId,
-            ticker,
-            side,
-            quantity,
-            pricePerShare,
-            date,
-            notes,
+  @Override
+  public int logTrades(List<NewTrade> trades) {
+    if (trades.isEmpty()) {
+      return 0;
+    }
+    long userId = UserContext.current().userId();
+    LocalDate today = LocalDate.now();
+    List<TradeEntity> entities = new ArrayList<>(trades.size());
+    for (int i = 0; i < trades.size(); i++) {
+      NewTrade t = trades.get(i);
+      String type = t.assetType() != null ? t.assetType() : "EQUITY";
+      try {
+        if (!"BUY".equals(t.side()) && !"SELL".equals(t.side())) {
+          throw new IllegalArgumentException(
+              t.side() + " trades must be logged individually, not in a batch");
+        }
+        validate(
+            t.side(),
             type,
-            optionType,
-            strikePrice,
-            expirationDate,
-            multiplier);
-    TradeEntity saved = repository.save(entity);
-    portfolioService.applyTrade(ticker, side, type, quantity, pricePerShare);
-    return saved;
+            t.quantity(),
+            t.pricePerShare(),
+            t.optionType(),
+            t.strikePrice(),
+            t.expirationDate());
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("trades[" + i + "]: " + e.getMessage());
+      }
+      entities.add(
+          new TradeEntity(
+              userId,
+              t.ticker(),
+              t.side(),
+              t.quantity(),
+              t.pricePerShare(),
+              t.tradeDate() != null ? t.tradeDate() : today,
+              t.notes(),
+              type,
+              t.optionType(),
+              t.strikePrice(),
+              t.expirationDate(),
+              "OPTION".equals(type) ? 100 : 1));
+    }
+
+    versions.bump(
+        userId,
+        entities.stream().map(TradeEntity::getTradeDate).min(Comparator.naturalOrder()).get());
+    Set<String> tickers = new LinkedHashSet<>();
+    entities.forEach(e -> tickers.add(e.getTicker()));
+    Map<LocalDate, DailyPnlRollups.Day> before = rollups.snapshot(userId, tickers);
+
+    repository.saveAll(entities);
+    projector.catchUp(userId);
+    rollups.applyWrite(userId, tickers, before);
+    return entities.size();
   }
 
   private void validate(
@@ -132,9 +227,8 @@ public class DefaultTradeService implements TradeService {
       BigDecimal strikePrice,
       LocalDate expirationDate) {
 
-    List<TradeEntity> all = repository.findAllChronologicalByUserId(userId);
-    ContractKey key = new ContractKey(ticker, "OPTION", optionType, strikePrice, expirationDate);
-    BigDecimal remainingQty = computeRemainingQuantity(all, key);
+    BigDecimal remainingQty =
+        openPosition(userId, ticker, optionType, strikePrice, expirationDate).quantity();
 
     if (remainingQty.compareTo(BigDecimal.ZERO) == 0) {
       throw new IllegalArgumentException("No open lots found for this contract to expire");
@@ -167,10 +261,8 @@ public class DefaultTradeService implements TradeService {
       BigDecimal strikePrice,
       LocalDate expirationDate) {
 
-    // Determine if long or short position by checking which side has open lots
-    List<TradeEntity> all = repository.findAllChronologicalByUserId(userId);
-    ContractKey key = new ContractKey(ticker, "OPTION", optionType, strikePrice, expirationDate);
-    BigDecimal remainingQty = computeRemainingQuantity(all, key);
+    OpenPosition open = openPosition(userId, ticker, optionType, strikePrice, expirationDate);
+    BigDecimal remainingQty = open.quantity();
     if (remainingQty.compareTo(BigDecimal.ZERO) == 0) {
       throw new IllegalArgumentException("No open lots found for this contract to exercise");
     }
@@ -178,7 +270,7 @@ public class DefaultTradeService implements TradeService {
       throw new IllegalArgumentException(
           "Exercise quantity " + quantity + " exceeds remaining open lots " + remainingQty);
     }
-    boolean isLong = isLongPosition(all, key);
+    boolean isLong = open.isLong();
 
     // Save the option EXERCISE trade
     TradeEntity exercise =
@@ -223,47 +315,36 @@ public class DefaultTradeService implements TradeService {
     equity.setLinkedTradeId(exercise.getId());
     repository.save(exercise);
     repository.save(equity);
-    portfolioService.applyTrade(ticker, equitySide, "EQUITY", shares, strikePrice);
 
     return exercise;
   }
 
-  private boolean isLongPosition(List<TradeEntity> allTrades, ContractKey key) {
-    BigDecimal buyQty = BigDecimal.ZERO;
-    BigDecimal sellQty = BigDecimal.ZERO;
-    for (TradeEntity t : allTrades) {
-      if (!key.matches(t)) continue;
-      if ("BUY".equals(t.getSide())) {
-        buyQty = buyQty.add(t.getQuantity());
-      } else if ("SELL".equals(t.getSide())) {
-        sellQty = sellQty.add(t.getQuantity());
-      }
-    }
-    return buyQty.compareTo(sellQty) > 0;
+  private OpenPosition openPosition(
+      long userId,
+      String ticker,
+      String optionType,
+      BigDecimal strikePrice,
+      LocalDate expirationDate) {
+    return replayOpenPosition(
+        repository.findContractFills(
+            userId, ticker, "OPTION", optionType, strikePrice, expirationDate));
   }
 
-  private BigDecimal computeRemainingQuantity(List<TradeEntity> allTrades, ContractKey key) {
-    BigDecimal buyQty = BigDecimal.ZERO;
-    BigDecimal sellQty = BigDecimal.ZERO;
-    for (TradeEntity t : allTrades) {
-      if (!key.matches(t)) continue;
-      String s = t.getSide();
-      if ("BUY".equals(s)) {
-        buyQty = buyQty.add(t.getQuantity());
-      } else if ("SELL".equals(s)) {
-        sellQty = sellQty.add(t.getQuantity());
-      }
-      // EXPIRE/EXERCISE already matched against open lots, so they close qty too
-      if ("EXPIRE".equals(s) || "EXERCISE".equals(s)) {
-        // These reduce the majority side
-        if (buyQty.compareTo(sellQty) > 0) {
-          sellQty = sellQty.add(t.getQuantity());
-        } else {
-          buyQty = buyQty.add(t.getQuantity());
-        }
+  /**
+   * Folds a contract's fills into its open quantity and direction. EXPIRE and EXERCISE close the
+   * side that is open at that point, which is why this replays in order rather than summing.
+   */
+  static OpenPosition replayOpenPosition(List<ContractFill> fills) {
+    BigDecimal net = BigDecimal.ZERO;
+    for (ContractFill fill : fills) {
+      switch (fill.side()) {
+        case "BUY" -> net = net.add(fill.quantity());
+        case "SELL" -> net = net.subtract(fill.quantity());
+        default ->
+            net = net.signum() > 0 ? net.subtract(fill.quantity()) : net.add(fill.quantity());
       }
     }
-    return buyQty.subtract(sellQty).abs();
+    return new OpenPosition(net.abs(), net.signum() > 0);
   }
 
   @Override
@@ -280,6 +361,61 @@ public class DefaultTradeService implements TradeService {
     return repository.findFilteredByUserId(userId, ticker, side, from, to);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public TradePage listTradesPage(
+      @Nullable String ticker,
+      @Nullable String side,
+      @Nullable LocalDate from,
+      @Nullable LocalDate to,
+      @Nullable String cursor,
+      @Nullable Integer limit) {
+    long userId = UserContext.current().userId();
+    int pageSize =
+        (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    TradeCursor after = cursor != null && !cursor.isBlank() ? TradeCursor.decode(cursor) : null;
+
+    // Fetch one extra row to learn whether another page exists without a count query.
+    PageRequest window = PageRequest.of(0, pageSize + 1);
+    List<TradeEntity> rows =
+        after == null
+            ? repository.findPageByUserId(userId, ticker, side, from, to, window)
+            : repository.findPageByUserIdAfter(
+                userId,
+                ticker,
+                side,
+                from,
+                to,
+                after.tradeDate(),
+                after.createdAt(),
+                after.id(),
+                window);
+    if (rows.size() <= pageSize) {
+      return new TradePage(rows, null);
+    }
+    List<TradeEntity> page = rows.subList(0, pageSize);
+    return new TradePage(page, TradeCursor.of(page.get(pageSize - 1)).encode());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void exportTrades(
+      long userId,
+      @Nullable String ticker,
+      @Nullable String side,
+      @Nullable LocalDate from,
+      @Nullable LocalDate to,
+      Consumer<TradeEntity> sink) {
+    try (Stream<TradeEntity> trades =
+        repository.streamFilteredByUserId(userId, ticker, side, from, to)) {
+      trades.forEach(
+          trade -> {
+            sink.accept(trade);
+            entityManager.detach(trade);
+          });
+    }
+  }
+
   @Override
   @Transactional(readOnly = true)
   public TradeEntity getTrade(long id) {
@@ -298,33 +434,138 @@ public class DefaultTradeService implements TradeService {
     if (!entity.getUserId().equals(userId)) {
       throw new EntityNotFoundException("Trade not found: " + id);
     }
+    versions.bump(userId, entity.getTradeDate());
+    List<String> tickers = List.of(entity.getTicker());
+    Map<LocalDate, DailyPnlRollups.Day> before = rollups.snapshot(userId, tickers);
     repository.deleteById(id);
+    if ("EQUITY".equals(entity.getAssetType())) {
+      projector.replay(userId, tickers);
+    }
+    rollups.applyWrite(userId, tickers, before);
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<ClosedTrade> getClosedTrades() {
+    return getAnalytics().closedTrades();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public TradeStats getStats() {
+    return getAnalytics().stats();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<PnlHistoryEntry> getPnlHistory(@Nullable LocalDate from, @Nullable LocalDate to) {
+    long userId = builtRollups();
+    BigDecimal cumulative = from != null ? pnlRepository.sumBefore(userId, from) : BigDecimal.ZERO;
+    List<PnlHistoryEntry> history = new ArrayList<>();
+    for (DailyRealizedPnlEntity day : pnlRepository.findRange(userId, from, to)) {
+      cumulative = cumulative.add(day.getRealizedPnl());
+      history.add(new PnlHistoryEntry(day.getPnlDate(), day.getRealizedPnl(), cumulative));
+    }
+    return history;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<TradeCalendarEntry> getTradeCalendar(
+      @Nullable LocalDate from, @Nullable LocalDate to) {
+    long userId = builtRollups();
+    return pnlRepository.findRange(userId, from, to).stream()
+        .map(d -> new TradeCalendarEntry(d.getPnlDate(), d.getRealizedPnl(), d.getTradeCount()))
+        .toList();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<PnlPeriodTotal> getPnlSummary(
+      String period, @Nullable LocalDate from, @Nullable LocalDate to) {
+    long userId = builtRollups();
+    return switch (period) {
+      case "MONTH" -> pnlRepository.sumByMonth(userId, from, to);
+      case "YEAR" -> pnlRepository.sumByYear(userId, from, to);
+      default -> throw new IllegalArgumentException("period must be MONTH or YEAR");
+    };
+  }
+
+  /** Current user's id, after making sure their daily P&L rows exist. */
+  private long builtRollups() {
     long userId = UserContext.current().userId();
+    if (!rollups.isBuilt(userId)) {
+      rollups.ensureBuilt(userId);
+    }
+    return userId;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public TradeAnalytics getAnalytics() {
+    long userId = UserContext.current().userId();
+    // Read the version before the trades: a write landing in between can only make the cached
+    // value newer than its key, and that key is dead as soon as the write commits.
+    AnalyticsKey key = new AnalyticsKey(userId, versions.current(userId));
+    if (analyticsCache != null) {
+      TradeAnalytics cached = analyticsCache.get(key, TradeAnalytics.class);
+      if (cached != null) {
+        return cached;
+      }
+    }
     List<TradeEntity> all = repository.findAllChronologicalByUserId(userId);
-    return computeClosedTrades(all);
+    TradeAnalytics analytics = analyze(computeClosedTrades(all));
+    if (analyticsCache != null) {
+      analyticsCache.put(key, analytics);
+    }
+    return analytics;
   }
 
   @Override
   @Transactional(readOnly = true)
-  public TradeStats getStats() {
-    List<ClosedTrade> closed = getClosedTrades();
+  public RiskMetrics getRiskMetrics() {
+    long userId = UserContext.current().userId();
+    LocalDate today = LocalDate.now();
+    // Windows end today, so the date is part of the key as well as the trade data version.
+    RiskKey key = new RiskKey(userId, versions.current(userId), today);
+    if (analyticsCache != null) {
+      RiskMetrics cached = analyticsCache.get(key, RiskMetrics.class);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    RiskMetrics risk = RiskAnalytics.compute(getAnalytics().closedTrades(), today);
+    if (analyticsCache != null) {
+      analyticsCache.put(key, risk);
+    }
+    return risk;
+  }
+
+  private record AnalyticsKey(long userId, long version) {}
+
+  private record RiskKey(long userId, long version, LocalDate day) {}
+
+  // ── Fused analytics pass ─────────────────────────────────────────────────
+
+  /** Derives stats in one walk over the closed trades ordered by sell date. */
+  static TradeAnalytics analyze(List<ClosedTrade> closed) {
     if (closed.isEmpty()) {
-      return new TradeStats(0, 0, 0, 0.0, BigDecimal.ZERO, 0, "NONE", 0, 0, 0.0, List.of());
+      return new TradeAnalytics(
+          new TradeStats(0, 0, 0, 0.0, BigDecimal.ZERO, 0, "NONE", 0, 0, 0.0, List.of()),
+          List.of());
     }
 
+    List<ClosedTrade> sorted = new ArrayList<>(closed);
+    sorted.sort(Comparator.comparing(ClosedTrade::sellDate));
+
     int wins = 0, losses = 0;
     BigDecimal totalPnl = BigDecimal.ZERO;
     long totalHoldDays = 0;
     int bestWinStreak = 0, bestLossStreak = 0;
     int runWin = 0, runLoss = 0;
 
-    List<ClosedTrade> sorted =
-        closed.stream().sorted(Comparator.comparing(ClosedTrade::sellDate)).toList();
+    Map<String, BigDecimal> pnlByTicker = new LinkedHashMap<>();
+    Map<String, Integer> countByTicker = new LinkedHashMap<>();
 
     for (ClosedTrade ct : sorted) {
       totalPnl = totalPnl.add(ct.pnl());
@@ -340,20 +581,17 @@ public class DefaultTradeService implements TradeService {
         runWin = 0;
         bestLossStreak = Math.max(bestLossStreak, runLoss);
       }
+
+      pnlByTicker.merge(ct.ticker(), ct.pnl(), BigDecimal::add);
+      countByTicker.merge(ct.ticker(), 1, Integer::sum);
     }
 
     int total = wins + losses;
-    double winRate = total > 0 ? (double) wins / total * 100.0 : 0.0;
-    double avgHold = total > 0 ? (double) totalHoldDays / total : 0.0;
+    double winRate = (double) wins / total * 100.0;
+    double avgHold = (double) totalHoldDays / total;
     int currentStreak = Math.max(runWin, runLoss);
     String currentStreakType = runWin > 0 ? "WIN" : (runLoss > 0 ? "LOSS" : "NONE");
 
-    Map<String, BigDecimal> pnlByTicker = new LinkedHashMap<>();
-    Map<String, Integer> countByTicker = new LinkedHashMap<>();
-    for (ClosedTrade ct : closed) {
-      pnlByTicker.merge(ct.ticker(), ct.pnl(), BigDecimal::add);
-      countByTicker.merge(ct.ticker(), 1, Integer::sum);
-    }
     List<TickerPnl> topTickers =
         pnlByTicker.entrySet().stream()
             .sorted(
@@ -364,110 +602,173 @@ public class DefaultTradeService implements TradeService {
             .map(e -> new TickerPnl(e.getKey(), e.getValue(), countByTicker.get(e.getKey())))
             .toList();
 
-    return new TradeStats(
-        total,
-        wins,
-        losses,
-        winRate,
-        totalPnl,
-        currentStreak,
-        currentStreakType,
-        bestWinStreak,
-        bestLossStreak,
-        avgHold,
-        topTickers);
+    TradeStats stats =
+        new TradeStats(
+            total,
+            wins,
+            losses,
+            winRate,
+            totalPnl,
+            currentStreak,
+            currentStreakType,
+            bestWinStreak,
+            bestLossStreak,
+            avgHold,
+            topTickers);
+    // Results are shared through the analytics cache, so hand out read-only lists.
+    return new TradeAnalytics(stats, List.copyOf(closed));
   }
 
-  @Override
-  @Transactional(readOnly = true)
-  public List<PnlHistoryEntry> getPnlHistory() {
-    List<ClosedTrade> closed = getClosedTrades();
-    List<ClosedTrade> sorted =
-        closed.stream().sorted(Comparator.comparing(ClosedTrade::sellDate)).toList();
-    List<PnlHistoryEntry> history = new ArrayList<>();
-    BigDecimal cumulative = BigDecimal.ZERO;
-    for (ClosedTrade ct : sorted) {
-      cumulative = cumulative.add(ct.pnl());
-      history.add(new PnlHistoryEntry(ct.sellDate(), ct.pnl(), cumulative));
+  // ── Bidirectional Lot Matcher ────────────────────────────────────────────
+
+  /** Trade count from which contracts are matched on the common fork-join pool. */
+  static final int PARALLEL_MATCH_THRESHOLD = 20_000;
+
+  /**
+   * Runs each contract through {@link ScaledLotMatcher}, falling back to the {@code BigDecimal}
+   * matcher for any contract whose values do not fit the scaled-long representation. Contracts are
+   * independent, so large histories are matched in parallel; either way the output lists contracts
+   * in order of their first trade.
+   */
+  static List<ClosedTrade> computeClosedTrades(List<TradeEntity> trades) {
+    return computeClosedTrades(trades, trades.size() >= PARALLEL_MATCH_THRESHOLD);
+  }
+
+  static List<ClosedTrade> computeClosedTrades(List<TradeEntity> trades, boolean parallel) {
+    Map<ContractKey, List<TradeEntity>> contracts = groupByContract(trades);
+    if (!parallel || contracts.size() < 2) {
+      List<ClosedTrade> result = new ArrayList<>();
+      contracts.forEach((key, contractTrades) -> matchContract(key, contractTrades, result));
+      return result;
     }
-    return history;
+    // ArrayList splits evenly, and toList() keeps encounter order regardless of completion order.
+    List<List<ClosedTrade>> perContract =
+        new ArrayList<>(contracts.entrySet())
+            .parallelStream()
+                .map(
+                    entry -> {
+                      List<ClosedTrade> out = new ArrayList<>();
+                      matchContract(entry.getKey(), entry.getValue(), out);
+                      return out;
+                    })
+                .toList();
+    List<ClosedTrade> result = new ArrayList<>(perContract.stream().mapToInt(List::size).sum());
+    perContract.forEach(result::addAll);
+    return result;
   }
 
-  @Override
-  @Transactional(readOnly = true)
-  public List<TradeCalendarEntry> getTradeCalendar() {
-    List<ClosedTrade> closed = getClosedTrades();
-    Map<LocalDate, BigDecimal> pnlByDate = new LinkedHashMap<>();
-    Map<LocalDate, Integer> countByDate = new LinkedHashMap<>();
-    for (ClosedTrade ct : closed) {
-      pnlByDate.merge(ct.sellDate(), ct.pnl(), BigDecimal::add);
-      countByDate.merge(ct.sellDate(), 1, Integer::sum);
-    }
-    return pnlByDate.entrySet().stream()
-        .sorted(Map.Entry.comparingByKey())
-        .map(e -> new TradeCalendarEntry(e.getKey(), e.getValue(), countByDate.get(e.getKey())))
-        .toList();
+  private static void matchContract(
+      ContractKey key, List<TradeEntity> trades, List<ClosedTrade> result) {
+    if (!ScaledLotMatcher.matchContract(key, trades, result)) {
+      matchContractExact(key, trades, result);
+    }
   }
 
-  // ── Bidirectional Lot Matcher ────────────────────────────────────────────
+  /** Reference {@code BigDecimal} implementation of {@link #computeClosedTrades}. */
+  static List<ClosedTrade> computeClosedTradesExact(List<TradeEntity> trades) {
+    List<ClosedTrade> result = new ArrayList<>();
+    for (Map.Entry<ContractKey, List<TradeEntity>> entry : groupByContract(trades).entrySet()) {
+      matchContractExact(entry.getKey(), entry.getValue(), result);
+    }
+    return result;
+  }
 
-  static List<ClosedTrade> computeClosedTrades(List<TradeEntity> trades) {
-    Map<ContractKey, List<TradeEntity>> byContract =
-        trades.stream()
-            .collect(
-                Collectors.groupingBy(ContractKey::from, LinkedHashMap::new, Collectors.toList()));
+  /** Lots still open after FIFO matching, per contract in order of first trade. */
+  static List<OpenLot> computeOpenLots(List<TradeEntity> trades) {
+    List<OpenLot> open = new ArrayList<>();
+    List<ClosedTrade> closed = new ArrayList<>();
+    groupByContract(trades)
+        .forEach(
+            (key, contractTrades) -> {
+              matchContractExact(key, contractTrades, closed, open);
+              closed.clear();
+            });
+    return open;
+  }
 
-    List<ClosedTrade> result = new ArrayList<>();
-    for (Map.Entry<ContractKey, List<TradeEntity>> entry : byContract.entrySet()) {
-      ContractKey key = entry.getKey();
-      Deque<Lot> buyQueue = new ArrayDeque<>();
-      Deque<Lot> sellQueue = new ArrayDeque<>();
-
-      for (TradeEntity t : entry.getValue()) {
-        String side = t.getSide();
-        int mult = t.getMultiplier();
-
-        if ("EXPIRE".equals(side)) {
-          // Close ALL remaining lots at $0
-          closeAllLots(buyQueue, t, key, mult, result);
-          closeAllLots(sellQueue, t, key, mult, result);
-          continue;
-        }
+  private static Map<ContractKey, List<TradeEntity>> groupByContract(List<TradeEntity> trades) {
+    return trades.stream()
+        .collect(Collectors.groupingBy(ContractKey::from, LinkedHashMap::new, Collectors.toList()));
+  }
 
-        if ("EXERCISE".equals(side)) {
-          // Close specified quantity from whichever side has open lots
-          Deque<Lot> openQueue = !buyQueue.isEmpty() ? buyQueue : sellQueue;
-          matchLots(
-              openQueue, t.getQuantity(), BigDecimal.ZERO, t.getTradeDate(), key, mult, result);
-          continue;
-        }
+  private static void matchContractExact(
+      ContractKey key, List<TradeEntity> trades, List<ClosedTrade> result) {
+    matchContractExact(key, trades, result, null);
+  }
 
-        boolean isBuy = "BUY".equals(side);
-        Deque<Lot> oppositeQueue = isBuy ? sellQueue : buyQueue;
-        Deque<Lot> sameQueue = isBuy ? buyQueue : sellQueue;
-
-        if (!oppositeQueue.isEmpty()) {
-          // Closing: match against opposite side; capture any unmatched remainder
-          BigDecimal unmatched =
-              matchLots(
-                  oppositeQueue,
-                  t.getQuantity(),
-                  t.getPricePerShare(),
-                  t.getTradeDate(),
-                  key,
-                  mult,
-                  result);
-          if (unmatched.compareTo(BigDecimal.ZERO) > 0) {
-            sameQueue.addLast(new Lot(unmatched, t.getPricePerShare(), t.getTradeDate(), isBuy));
-          }
-        } else {
-          // Opening: add to same side queue
-          sameQueue.addLast(
-              new Lot(t.getQuantity(), t.getPricePerShare(), t.getTradeDate(), isBuy));
+  private static void matchContractExact(
+      ContractKey key,
+      List<TradeEntity> trades,
+      List<ClosedTrade> result,
+      @Nullable List<OpenLot> open) {
+    Deque<Lot> buyQueue = new ArrayDeque<>();
+    Deque<Lot> sellQueue = new ArrayDeque<>();
+
+    for (TradeEntity t : trades) {
+      String side = t.getSide();
+      int mult = t.getMultiplier();
+
+      if ("EXPIRE".equals(side)) {
+        // Close ALL remaining lots at $0
+        closeAllLots(buyQueue, t, key, mult, result);
+        closeAllLots(sellQueue, t, key, mult, result);
+        continue;
+      }
+
+      if ("EXERCISE".equals(side)) {
+        // Close specified quantity from whichever side has open lots
+        Deque<Lot> openQueue = !buyQueue.isEmpty() ? buyQueue : sellQueue;
+        matchLots(openQueue, t.getQuantity(), BigDecimal.ZERO, t.getTradeDate(), key, mult, result);
+        continue;
+      }
+
+      boolean isBuy = "BUY".equals(side);
+      Deque<Lot> oppositeQueue = isBuy ? sellQueue : buyQueue;
+      Deque<Lot> sameQueue = isBuy ? buyQueue : sellQueue;
+
+      if (!oppositeQueue.isEmpty()) {
+        // Closing: match against opposite side; capture any unmatched remainder
+        BigDecimal unmatched =
+            matchLots(
+                oppositeQueue,
+                t.getQuantity(),
+                t.getPricePerShare(),
+                t.getTradeDate(),
+                key,
+                mult,
+                result);
+        if (unmatched.compareTo(BigDecimal.ZERO) > 0) {
+          sameQueue.addLast(new Lot(unmatched, t.getPricePerShare(), t.getTradeDate(), isBuy));
         }
+      } else {
+        // Opening: add to same side queue
+        sameQueue.addLast(new Lot(t.getQuantity(), t.getPricePerShare(), t.getTradeDate(), isBuy));
       }
     }
-    return result;
+
+    if (open != null) {
+      int mult = trades.get(0).getMultiplier();
+      for (Lot lot : buyQueue) {
+        open.add(toOpenLot(key, lot, mult));
+      }
+      for (Lot lot : sellQueue) {
+        open.add(toOpenLot(key, lot, mult));
+      }
+    }
+  }
+
+  private static OpenLot toOpenLot(ContractKey key, Lot lot, int mult) {
+    return new OpenLot(
+        key.ticker(),
+        lot.remaining,
+        lot.price,
+        lot.date,
+        lot.isBuy,
+        mult,
+        key.assetType(),
+        key.optionType(),
+        key.strikePrice(),
+        key.expirationDate());
   }
 
   private static void closeAllLots(
@@ -590,13 +891,36 @@ public class DefaultTradeService implements TradeService {
           t.getStrikePrice(),
           t.getExpirationDate());
     }
+  }
+
+  record OpenPosition(BigDecimal quantity, boolean isLong) {}
+
+  /** Opaque keyset position: base64url of {@code tradeDate|createdAt|id}. */
+  record TradeCursor(LocalDate tradeDate, Instant createdAt, long id) {
+
+    static TradeCursor of(TradeEntity t) {
+      return new TradeCursor(t.getTradeDate(), t.getCreatedAt(), t.getId());
+    }
 
-    boolean matches(TradeEntity t) {
-      return Objects.equals(ticker, t.getTicker())
-          && Objects.equals(assetType, t.getAssetType())
-          && Objects.equals(optionType, t.getOptionType())
-          && Objects.equals(strikePrice, t.getStrikePrice())
-          && Objects.equals(expirationDate, t.getExpirationDate());
+    String encode() {
+      String raw = tradeDate + "|" + createdAt + "|" + id;
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TradeCursor decode(String cursor) {
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\|");
+        if (parts.length != 3) {
+          throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new TradeCursor(
+            LocalDate.parse(parts[0]), Instant.parse(parts[1]), Long.parseLong(parts[2]));
+      } catch (DateTimeParseException | NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
     }
   }
 
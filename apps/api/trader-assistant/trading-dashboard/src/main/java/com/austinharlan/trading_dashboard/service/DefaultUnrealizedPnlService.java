@@ -0,0 +1,189 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.marketdata.Quote;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.trades.OpenLot;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class DefaultUnrealizedPnlService implements UnrealizedPnlService {
+
+  private final TradeRepository repository;
+  private final TradeDataVersions versions;
+  private final QuoteService quoteService;
+  private final Cache cache;
+
+  public DefaultUnrealizedPnlService(
+      TradeRepository repository,
+      TradeDataVersions versions,
+      QuoteService quoteService,
+      @Nullable CacheManager cacheManager) {
+    this.repository = repository;
+    this.versions = versions;
+    this.quoteService = quoteService;
+    this.cache = cacheManager != null ? cacheManager.getCache("unrealizedPnl") : null;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public UnrealizedPnl currentUnrealizedPnl() {
+    long userId = UserContext.current().userId();
+    // Keyed by trade data version so a trade write is visible at once; the cache TTL matches the
+    // quote TTL so marks are never older than the quotes they came from.
+    PnlKey key = new PnlKey(userId, versions.current(userId));
+    if (cache != null) {
+      UnrealizedPnl cached = cache.get(key, UnrealizedPnl.class);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    List<OpenLot> lots =
+        DefaultTradeService.computeOpenLots(repository.findAllChronologicalByUserId(userId));
+    Set<String> tickers = new LinkedHashSet<>();
+    for (OpenLot lot : lots) {
+      tickers.add(lot.ticker());
+    }
+    Map<String, Quote> quotes =
+        tickers.isEmpty() ? Map.of() : quoteService.getCachedQuotes(tickers);
+    UnrealizedPnl result = value(lots, quotes, LocalDate.now(), Instant.now());
+    if (cache != null) {
+      cache.put(key, result);
+    }
+    return result;
+  }
+
+  private record PnlKey(long userId, long version) {}
+
+  // ── Valuation ────────────────────────────────────────────────────────────
+
+  /**
+   * Marks {@code lots} against {@code quotes}. Prices are copied into parallel double arrays up
+   * front so the per-lot loop and the per-ticker roll-up stay on primitives.
+   *
+   * <p>Equity lots are marked at the last price. Option lots are marked at intrinsic value, zero
+   * once past expiry, since no option chain quotes are available. The previous close is derived
+   * from the quote's change percent; a lot opened today measures its day change from its open price
+   * instead.
+   */
+  static UnrealizedPnl value(
+      List<OpenLot> lots, Map<String, Quote> quotes, LocalDate today, Instant asOf) {
+    int n = lots.size();
+    double[] price = new double[n];
+    double[] prevPrice = new double[n];
+    boolean[] priced = new boolean[n];
+    for (int i = 0; i < n; i++) {
+      Quote quote = quotes.get(lots.get(i).ticker());
+      if (quote != null && quote.price() != null) {
+        price[i] = quote.price().doubleValue();
+        double change =
+            quote.changePercent() != null ? quote.changePercent().doubleValue() / 100.0 : 0.0;
+        prevPrice[i] = change > -1.0 ? price[i] / (1.0 + change) : price[i];
+        priced[i] = true;
+      }
+    }
+
+    Map<String, int[]> tickerIndex = new LinkedHashMap<>();
+    List<String> unpriced = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      String ticker = lots.get(i).ticker();
+      if (!priced[i]) {
+        if (!unpriced.contains(ticker)) {
+          unpriced.add(ticker);
+        }
+        continue;
+      }
+      tickerIndex.computeIfAbsent(ticker, t -> new int[] {tickerIndex.size()});
+    }
+    int t = tickerIndex.size();
+    double[] tValue = new double[t];
+    double[] tCost = new double[t];
+    double[] tPnl = new double[t];
+    double[] tDay = new double[t];
+    int[] tLots = new int[t];
+
+    List<LotPnl> lotRows = new ArrayList<>(n);
+    double totalValue = 0, totalCost = 0, totalPnl = 0, totalDay = 0;
+    for (int i = 0; i < n; i++) {
+      if (!priced[i]) {
+        continue;
+      }
+      OpenLot lot = lots.get(i);
+      double units = lot.quantity().doubleValue() * lot.multiplier();
+      double sign = lot.isLong() ? 1.0 : -1.0;
+      double open = lot.openPrice().doubleValue();
+      double mark = mark(lot, price[i], today);
+      double prevMark = mark(lot, prevPrice[i], today.minusDays(1));
+
+      double value = sign * mark * units;
+      double cost = sign * open * units;
+      double pnl = value - cost;
+      double day = lot.openDate().equals(today) ? pnl : sign * (mark - prevMark) * units;
+
+      lotRows.add(
+          new LotPnl(
+              lot.ticker(),
+              lot.assetType(),
+              lot.optionType(),
+              lot.strikePrice(),
+              lot.expirationDate(),
+              lot.openDate(),
+              lot.isLong(),
+              lot.quantity().doubleValue(),
+              lot.multiplier(),
+              open,
+              mark,
+              value,
+              pnl,
+              day));
+
+      int k = tickerIndex.get(lot.ticker())[0];
+      tValue[k] += value;
+      tCost[k] += cost;
+      tPnl[k] += pnl;
+      tDay[k] += day;
+      tLots[k]++;
+      totalValue += value;
+      totalCost += cost;
+      totalPnl += pnl;
+      totalDay += day;
+    }
+
+    List<TickerPnl> tickerRows = new ArrayList<>(t);
+    tickerIndex.forEach(
+        (ticker, idx) -> {
+          int k = idx[0];
+          tickerRows.add(new TickerPnl(ticker, tValue[k], tCost[k], tPnl[k], tDay[k], tLots[k]));
+        });
+    return new UnrealizedPnl(
+        asOf, totalValue, totalCost, totalPnl, totalDay, tickerRows, lotRows, unpriced);
+  }
+
+  private static double mark(OpenLot lot, double underlying, LocalDate on) {
+    if (!"OPTION".equals(lot.assetType())) {
+      return underlying;
+    }
+    LocalDate expiry = lot.expirationDate();
+    if (expiry != null && expiry.isBefore(on)) {
+      return 0.0;
+    }
+    BigDecimal strikeValue = lot.strikePrice();
+    double strike = strikeValue != null ? strikeValue.doubleValue() : 0.0;
+    return "PUT".equals(lot.optionType())
+        ? Math.max(strike - underlying, 0.0)
+        : Math.max(underlying - strike, 0.0);
+  }
+}
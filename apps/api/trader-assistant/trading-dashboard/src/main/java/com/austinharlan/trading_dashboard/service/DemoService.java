@@ -20,6 +20,10 @@ public class DemoService {
   private final JournalEntryRepository journalEntryRepository;
   private final JournalGoalRepository journalGoalRepository;
   private final EntityManager entityManager;
+  private final TradeDataVersions tradeDataVersions;
+  private final PositionProjector positionProjector;
+  private final FinanceRollups financeRollups;
+  private final RecurringChargeAnalyzer recurringChargeAnalyzer;
 
   public DemoService(
       UserRepository userRepository,
@@ -28,7 +32,11 @@ public class DemoService {
       FinanceTransactionRepository financeRepository,
       JournalEntryRepository journalEntryRepository,
       JournalGoalRepository journalGoalRepository,
-      EntityManager entityManager) {
+      EntityManager entityManager,
+      TradeDataVersions tradeDataVersions,
+      PositionProjector positionProjector,
+      FinanceRollups financeRollups,
+      RecurringChargeAnalyzer recurringChargeAnalyzer) {
     this.userRepository = userRepository;
     this.portfolioRepository = portfolioRepository;
     this.tradeRepository = tradeRepository;
@@ -36,6 +44,10 @@ public class DemoService {
     this.journalEntryRepository = journalEntryRepository;
     this.journalGoalRepository = journalGoalRepository;
     this.entityManager = entityManager;
+    this.tradeDataVersions = tradeDataVersions;
+    this.positionProjector = positionProjector;
+    this.financeRollups = financeRollups;
+    this.recurringChargeAnalyzer = recurringChargeAnalyzer;
   }
 
   @Transactional
@@ -57,28 +69,14 @@ public class DemoService {
     entityManager.flush();
     entityManager.clear();
 
-    seedPortfolio(demoUserId);
     seedTrades(demoUserId);
     seedFinanceTransactions(demoUserId);
+    financeRollups.invalidate(demoUserId);
+    recurringChargeAnalyzer.reset(demoUserId);
     seedJournalEntries(demoUserId);
-  }
-
-  private void seedPortfolio(Long userId) {
-    portfolio(userId, "NVDA", "25", "118.50");
-    portfolio(userId, "OKLO", "100", "23.75");
-    portfolio(userId, "MRVL", "50", "72.30");
-    portfolio(userId, "AAPL", "30", "185.20");
-    portfolio(userId, "MSFT", "15", "415.60");
-    portfolio(userId, "AMZN", "20", "186.40");
-    portfolio(userId, "LLY", "8", "790.00");
-    portfolio(userId, "JPM", "25", "198.50");
-    portfolio(userId, "COST", "10", "875.30");
-    portfolio(userId, "PLTR", "75", "42.15");
-  }
-
-  private void portfolio(Long userId, String ticker, String qty, String basis) {
-    portfolioRepository.save(
-        new PortfolioPositionEntity(userId, ticker, new BigDecimal(qty), new BigDecimal(basis)));
+    tradeDataVersions.bump(demoUserId);
+    // Positions are whatever the seeded trades leave open.
+    positionProjector.catchUp(demoUserId);
   }
 
   private void seedTrades(Long userId) {
@@ -0,0 +1,116 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.finance.FinanceCategoryRecord;
+import com.austinharlan.trading_dashboard.persistence.FinanceCategoryEntity;
+import com.austinharlan.trading_dashboard.persistence.FinanceCategoryRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Each user's finance categories, held in the {@code financeCategories} cache so listing them and
+ * checking a transaction's category need no queries. Callers try {@link #cached} and fall back to
+ * {@link #load}, which seeds the defaults on first use; every category write must {@link #evict}.
+ */
+@Service
+public class FinanceCategories {
+
+  static final List<FinanceCategoryRecord> DEFAULTS =
+      List.of(
+          new FinanceCategoryRecord("groceries", "Groceries"),
+          new FinanceCategoryRecord("dining", "Dining"),
+          new FinanceCategoryRecord("housing", "Housing"),
+          new FinanceCategoryRecord("utilities", "Utilities"),
+          new FinanceCategoryRecord("transport", "Transport"),
+          new FinanceCategoryRecord("entertainment", "Entertainment"),
+          new FinanceCategoryRecord("shopping", "Shopping"),
+          new FinanceCategoryRecord("health", "Health"),
+          new FinanceCategoryRecord("subscriptions", "Subscriptions"),
+          new FinanceCategoryRecord("gambling", "Gambling"),
+          new FinanceCategoryRecord("investing", "Investing"),
+          new FinanceCategoryRecord("video_games", "Video Games"),
+          new FinanceCategoryRecord("income", "Income"),
+          new FinanceCategoryRecord("other", "Other"));
+
+  private final FinanceCategoryRepository repository;
+  private final UserRepository userRepository;
+  @Nullable private final Cache cache;
+
+  public FinanceCategories(
+      FinanceCategoryRepository repository,
+      UserRepository userRepository,
+      @Nullable CacheManager cacheManager) {
+    this.repository = repository;
+    this.userRepository = userRepository;
+    this.cache = cacheManager != null ? cacheManager.getCache("financeCategories") : null;
+  }
+
+  @Nullable
+  public Registry cached(long userId) {
+    return cache != null ? cache.get(userId, Registry.class) : null;
+  }
+
+  /**
+   * Reads the user's categories and caches them, first inserting the defaults in one batch if they
+   * were never seeded. Runs in its own transaction so a caller that rolls back cannot leave seeded
+   * categories in the cache that are not in the table.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public Registry load(long userId) {
+    boolean seeded =
+        userRepository
+            .lockCategorySeededById(userId)
+            .orElseThrow(() -> new IllegalStateException("Current user not found: " + userId));
+    List<FinanceCategoryEntity> rows =
+        repository.findAllByUserIdOrderBySortOrderAscLabelAsc(userId);
+    if (!seeded) {
+      Set<String> existing = new HashSet<>();
+      rows.forEach(row -> existing.add(row.getSlug()));
+      List<FinanceCategoryEntity> missing = new ArrayList<>();
+      for (int i = 0; i < DEFAULTS.size(); i++) {
+        FinanceCategoryRecord def = DEFAULTS.get(i);
+        if (!existing.contains(def.slug())) {
+          missing.add(new FinanceCategoryEntity(userId, def.slug(), def.label(), i + 1));
+        }
+      }
+      repository.saveAll(missing);
+      userRepository.markCategorySeeded(userId);
+      rows = repository.findAllByUserIdOrderBySortOrderAscLabelAsc(userId);
+    }
+    Registry registry =
+        Registry.of(
+            rows.stream().map(e -> new FinanceCategoryRecord(e.getSlug(), e.getLabel())).toList());
+    if (cache != null) {
+      cache.put(userId, registry);
+    }
+    return registry;
+  }
+
+  public void evict(long userId) {
+    if (cache != null) {
+      cache.evict(userId);
+    }
+  }
+
+  /** A user's categories in display order, with their slugs for lookups. */
+  public record Registry(List<FinanceCategoryRecord> categories, Set<String> slugs) {
+
+    static Registry of(List<FinanceCategoryRecord> categories) {
+      return new Registry(
+          List.copyOf(categories),
+          Set.copyOf(categories.stream().map(FinanceCategoryRecord::slug).toList()));
+    }
+
+    public boolean contains(String slug) {
+      return slugs.contains(slug);
+    }
+  }
+}
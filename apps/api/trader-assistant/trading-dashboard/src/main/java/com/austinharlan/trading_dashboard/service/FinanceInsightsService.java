@@ -1,16 +1,52 @@
 package com.austinharlan.trading_dashboard.service;
 
+import com.austinharlan.trading_dashboard.finance.FinanceBucketTotal;
 import com.austinharlan.trading_dashboard.finance.FinanceCategoryRecord;
 import com.austinharlan.trading_dashboard.finance.FinanceSummaryData;
 import com.austinharlan.trading_dashboard.finance.FinanceTransactionRecord;
+import com.austinharlan.trading_dashboard.finance.RecurringSeriesRecord;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import org.springframework.lang.Nullable;
 
 public interface FinanceInsightsService {
+  /**
+   * Current month totals from one grouped query by day and category, with average daily spend and a
+   * month-end projection, plus a twelve-month trend read from the monthly rollup.
+   */
   FinanceSummaryData getSummary();
 
-  List<FinanceTransactionRecord> listTransactions(Integer limit, String category);
+  /**
+   * Spend per {@code bucket} ("day", "week" or "month") and category over the UTC dates {@code
+   * [from, to]}, either end open when null, from one grouped query. Buckets without transactions
+   * are left out.
+   */
+  List<FinanceBucketTotal> getBreakdown(
+      String bucket, @Nullable LocalDate from, @Nullable LocalDate to);
+
+  /**
+   * One page of transactions, newest first, using a keyset cursor on (posted_at, id). Pass the
+   * previous page's {@code nextCursor} to continue; it is null on the last page.
+   */
+  TransactionPage listTransactions(
+      @Nullable Integer limit, @Nullable String category, @Nullable String cursor);
+
+  /**
+   * One page of transactions whose description or notes have a word starting with each word of
+   * {@code query}, most relevant first, then newest first. Pages continue from {@code cursor} as in
+   * {@link #listTransactions}.
+   */
+  TransactionPage searchTransactions(
+      String query, @Nullable Integer limit, @Nullable String cursor);
+
+  /**
+   * Merchants charging the user on a regular cadence, next due first, after folding in any
+   * transactions written since the last analysis. {@code estimatedMonthlyTotal} puts every active
+   * series on a monthly footing and sums them.
+   */
+  RecurringCharges listRecurring(boolean includeInactive);
 
   FinanceTransactionRecord createTransaction(
       Instant postedAt, String description, BigDecimal amount, String category, String notes);
@@ -20,4 +56,9 @@ public interface FinanceInsightsService {
   FinanceCategoryRecord createCategory(String label);
 
   boolean deleteCategory(String slug);
+
+  record TransactionPage(
+      List<FinanceTransactionRecord> transactions, @Nullable String nextCursor) {}
+
+  record RecurringCharges(List<RecurringSeriesRecord> series, BigDecimal estimatedMonthlyTotal) {}
 }
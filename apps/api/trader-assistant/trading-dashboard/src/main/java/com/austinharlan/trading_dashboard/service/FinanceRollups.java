@@ -0,0 +1,100 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.persistence.FinanceAggregates;
+import com.austinharlan.trading_dashboard.persistence.FinanceMonthlyRollupEntity;
+import com.austinharlan.trading_dashboard.persistence.FinanceMonthlyRollupRepository;
+import com.austinharlan.trading_dashboard.persistence.FinanceTransactionRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps {@code finance_monthly_rollup} in step with {@code finance_transaction}. A single write
+ * takes the user row lock with {@link #lockForWrite} before inserting and then adds its amount to
+ * its month with {@link #add}; bulk writers insert first and call {@link #invalidate}, leaving the
+ * next read to rebuild every month from one grouped query.
+ *
+ * <p>{@link #ensureBuilt} takes the same lock, so a rebuild never misses a write that has already
+ * been folded in. Months are UTC calendar months, matching {@link FinanceAggregates}.
+ */
+@Service
+public class FinanceRollups {
+
+  private final FinanceMonthlyRollupRepository repository;
+  private final FinanceTransactionRepository transactionRepository;
+  private final UserRepository userRepository;
+
+  public FinanceRollups(
+      FinanceMonthlyRollupRepository repository,
+      FinanceTransactionRepository transactionRepository,
+      UserRepository userRepository) {
+    this.repository = repository;
+    this.transactionRepository = transactionRepository;
+    this.userRepository = userRepository;
+  }
+
+  /**
+   * Locks the user row for the rest of the caller's transaction and returns whether the rows are
+   * built, that is, whether the coming write must be folded in with {@link #add}.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public boolean lockForWrite(long userId) {
+    return userRepository.lockFinanceRollupBuiltById(userId).orElse(false);
+  }
+
+  /** Adds one transaction to the month it was posted in. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void add(long userId, Instant postedAt, BigDecimal amount) {
+    LocalDate month = monthOf(postedAt);
+    FinanceMonthlyRollupEntity row =
+        repository
+            .findByUserIdAndMonthStart(userId, month)
+            .orElseGet(() -> new FinanceMonthlyRollupEntity(userId, month, BigDecimal.ZERO, 0));
+    row.add(amount, 1);
+    repository.save(row);
+  }
+
+  /** Marks the user's rows stale after writes that were not folded in one by one. */
+  @Transactional
+  public void invalidate(long userId) {
+    userRepository.setFinanceRollupBuilt(userId, false);
+  }
+
+  /**
+   * Builds the user's rows from all of their transactions unless they are already built. Runs in
+   * its own transaction so read-only callers can use it.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void ensureBuilt(long userId) {
+    if (userRepository.lockFinanceRollupBuiltById(userId).orElse(true)) {
+      return;
+    }
+    repository.deleteAllForUser(userId);
+    repository.saveAll(
+        transactionRepository
+            .sumByPeriod(userId, FinanceAggregates.MONTH, false, null, null)
+            .stream()
+            .map(
+                t ->
+                    new FinanceMonthlyRollupEntity(
+                        userId, t.period(), t.amount(), Math.toIntExact(t.count())))
+            .toList());
+    userRepository.setFinanceRollupBuilt(userId, true);
+  }
+
+  /** Stored months in {@code [from, to]}, each given by its first day. */
+  @Transactional(readOnly = true)
+  public List<FinanceMonthlyRollupEntity> months(long userId, LocalDate from, LocalDate to) {
+    return repository.findRange(userId, from, to);
+  }
+
+  static LocalDate monthOf(Instant instant) {
+    return instant.atZone(ZoneOffset.UTC).toLocalDate().withDayOfMonth(1);
+  }
+}
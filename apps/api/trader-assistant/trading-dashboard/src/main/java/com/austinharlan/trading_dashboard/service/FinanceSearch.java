@@ -0,0 +1,66 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.persistence.FinanceSearchHit;
+import com.austinharlan.trading_dashboard.persistence.FinanceTransactionRepository;
+import java.util.List;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Transaction search by word prefixes. PostgreSQL answers from its full-text index; elsewhere each
+ * user's {@link FinanceSearchIndex} is built on first search and kept in the {@code
+ * financeSearchIndex} cache until their transactions change.
+ */
+@Service
+public class FinanceSearch {
+
+  static final int MAX_TERMS = 8;
+
+  private final FinanceTransactionRepository repository;
+  @Nullable private final Cache cache;
+
+  public FinanceSearch(
+      FinanceTransactionRepository repository, @Nullable CacheManager cacheManager) {
+    this.repository = repository;
+    this.cache = cacheManager != null ? cacheManager.getCache("financeSearchIndex") : null;
+  }
+
+  /** Must run inside a transaction so the index is built from one consistent read. */
+  public List<FinanceSearchHit> search(
+      long userId, List<String> prefixes, @Nullable FinanceSearchHit after, int limit) {
+    if (repository.hasFullTextIndex()) {
+      return repository.searchFullText(userId, prefixes, after, limit);
+    }
+    return index(userId).search(prefixes, after, limit);
+  }
+
+  /**
+   * The distinct words of {@code query}, each to be matched as a prefix. Everything but letters and
+   * digits separates words.
+   */
+  static List<String> prefixes(String query) {
+    List<String> prefixes =
+        FinanceSearchIndex.words(query == null ? "" : query).stream().distinct().toList();
+    if (prefixes.isEmpty()) {
+      throw new IllegalArgumentException("q must contain at least one letter or digit");
+    }
+    if (prefixes.size() > MAX_TERMS) {
+      throw new IllegalArgumentException("q may contain at most " + MAX_TERMS + " words");
+    }
+    return prefixes;
+  }
+
+  private FinanceSearchIndex index(long userId) {
+    String version = repository.findSearchVersionByUserId(userId);
+    FinanceSearchIndex index = cache != null ? cache.get(userId, FinanceSearchIndex.class) : null;
+    if (index == null || !index.version().equals(version)) {
+      index = FinanceSearchIndex.build(version, repository.findSearchDocumentsByUserId(userId));
+      if (cache != null) {
+        cache.put(userId, index);
+      }
+    }
+    return index;
+  }
+}
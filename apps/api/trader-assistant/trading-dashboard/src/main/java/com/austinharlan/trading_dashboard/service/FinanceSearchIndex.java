@@ -0,0 +1,143 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.persistence.FinanceSearchDocument;
+import com.austinharlan.trading_dashboard.persistence.FinanceSearchHit;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.springframework.lang.Nullable;
+
+/**
+ * An inverted index over one user's transactions, standing in for the PostgreSQL {@code
+ * search_vector} index where the database has none. Words are kept sorted so a prefix matches a
+ * contiguous range of them.
+ *
+ * <p>A transaction's rank is the sum, over the query's prefixes, of the weights of its matching
+ * words: {@link #DESCRIPTION_WEIGHT} in the description and {@link #NOTES_WEIGHT} in the notes, the
+ * {@code A} and {@code B} weights {@code ts_rank} applies. Ranks are not on the same scale as
+ * PostgreSQL's, but order the same way for the common cases.
+ */
+final class FinanceSearchIndex {
+
+  static final float DESCRIPTION_WEIGHT = 1.0f;
+  static final float NOTES_WEIGHT = 0.4f;
+
+  static final Comparator<FinanceSearchHit> ORDER =
+      Comparator.comparing(FinanceSearchHit::rank)
+          .thenComparing(FinanceSearchHit::postedAt)
+          .thenComparing(FinanceSearchHit::id)
+          .reversed();
+
+  /** Documents holding one word, ascending, with the word's weight in each. */
+  private record Postings(int[] documents, float[] weights) {}
+
+  private final String version;
+  private final String[] ids;
+  private final Instant[] postedAt;
+  private final NavigableMap<String, Postings> words;
+
+  private FinanceSearchIndex(
+      String version, String[] ids, Instant[] postedAt, NavigableMap<String, Postings> words) {
+    this.version = version;
+    this.ids = ids;
+    this.postedAt = postedAt;
+    this.words = words;
+  }
+
+  static FinanceSearchIndex build(String version, List<FinanceSearchDocument> documents) {
+    String[] ids = new String[documents.size()];
+    Instant[] postedAt = new Instant[documents.size()];
+    Map<String, Map<Integer, Float>> weights = new HashMap<>();
+    for (int i = 0; i < documents.size(); i++) {
+      FinanceSearchDocument document = documents.get(i);
+      ids[i] = document.id();
+      postedAt[i] = document.postedAt();
+      add(weights, i, document.description(), DESCRIPTION_WEIGHT);
+      if (document.notes() != null) {
+        add(weights, i, document.notes(), NOTES_WEIGHT);
+      }
+    }
+    NavigableMap<String, Postings> words = new TreeMap<>();
+    weights.forEach(
+        (word, byDocument) -> {
+          int[] docs = new int[byDocument.size()];
+          float[] values = new float[byDocument.size()];
+          int k = 0;
+          for (Map.Entry<Integer, Float> entry : byDocument.entrySet()) {
+            docs[k] = entry.getKey();
+            values[k++] = entry.getValue();
+          }
+          words.put(word, new Postings(docs, values));
+        });
+    return new FinanceSearchIndex(version, ids, postedAt, words);
+  }
+
+  String version() {
+    return version;
+  }
+
+  /**
+   * Up to {@code limit} transactions with a word starting with every prefix, in {@link #ORDER} and
+   * strictly after {@code after} when given.
+   */
+  List<FinanceSearchHit> search(
+      List<String> prefixes, @Nullable FinanceSearchHit after, int limit) {
+    float[] scores = new float[ids.length];
+    // How many prefixes, taken in order, each document has matched so far.
+    int[] matched = new int[ids.length];
+    for (int p = 0; p < prefixes.size(); p++) {
+      String prefix = prefixes.get(p);
+      for (Postings postings : words.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+        for (int k = 0; k < postings.documents().length; k++) {
+          int doc = postings.documents()[k];
+          if (matched[doc] < p) {
+            continue;
+          }
+          matched[doc] = p + 1;
+          scores[doc] += postings.weights()[k];
+        }
+      }
+    }
+    List<FinanceSearchHit> hits = new ArrayList<>();
+    for (int doc = 0; doc < ids.length; doc++) {
+      if (matched[doc] == prefixes.size()) {
+        FinanceSearchHit hit = new FinanceSearchHit(ids[doc], scores[doc], postedAt[doc]);
+        if (after == null || ORDER.compare(hit, after) > 0) {
+          hits.add(hit);
+        }
+      }
+    }
+    hits.sort(ORDER);
+    return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+  }
+
+  /** Lower-case runs of letters and digits, the words both the index and queries are made of. */
+  static List<String> words(String text) {
+    List<String> words = new ArrayList<>();
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (wordChar && start < 0) {
+        start = i;
+      } else if (!wordChar && start >= 0) {
+        words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+        start = -1;
+      }
+    }
+    return words;
+  }
+
+  private static void add(
+      Map<String, Map<Integer, Float>> weights, int document, String text, float weight) {
+    for (String word : words(text)) {
+      weights.computeIfAbsent(word, w -> new LinkedHashMap<>()).merge(document, weight, Float::sum);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.austinharlan.trading_dashboard.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reduces a statement description to the merchant it names, so "NETFLIX.COM 866-579-7172" and
+ * "Netflix.com" group together. Words with two or more digits are store numbers, phone numbers or
+ * reference codes and are dropped, as are payment processor prefixes and filler such as "pos" or
+ * "inc"; the first {@link #MAX_WORDS} words left are the key.
+ */
+final class MerchantKeys {
+
+  static final int MAX_WORDS = 3;
+  static final int MAX_LENGTH = 64;
+
+  private static final Set<String> NOISE =
+      Set.of(
+          "sq",
+          "tst",
+          "pp",
+          "paypal",
+          "pos",
+          "purchase",
+          "debit",
+          "credit",
+          "card",
+          "recurring",
+          "payment",
+          "pmt",
+          "ach",
+          "autopay",
+          "online",
+          "www",
+          "com",
+          "net",
+          "org",
+          "inc",
+          "llc",
+          "ltd",
+          "co",
+          "corp",
+          "us",
+          "usa");
+
+  private MerchantKeys() {}
+
+  static String of(String description) {
+    String[] words = TransactionCategorizer.normalize(description).trim().split(" ");
+    List<String> kept = new ArrayList<>(MAX_WORDS);
+    for (String word : words) {
+      if (!word.isEmpty() && !NOISE.contains(word) && digits(word) < 2) {
+        kept.add(word);
+        if (kept.size() == MAX_WORDS) {
+          break;
+        }
+      }
+    }
+    // All noise: group by the description itself rather than lumping such rows together.
+    String key = kept.isEmpty() ? String.join(" ", words) : String.join(" ", kept);
+    if (key.isEmpty()) {
+      return "-";
+    }
+    return key.length() > MAX_LENGTH ? key.substring(0, MAX_LENGTH) : key;
+  }
+
+  private static int digits(String word) {
+    int count = 0;
+    for (int i = 0; i < word.length(); i++) {
+      if (Character.isDigit(word.charAt(i))) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,156 @@
+package com.austinharlan.trading_dashboard.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.lang.Nullable;
+
+/**
+ * An OFX or QFX statement, SGML or XML. Only {@code <STMTTRN>} blocks are read, tag by tag straight
+ * off the stream; SGML leaves element values unclosed, so a value runs to the next tag. Values are
+ * cut at {@link #MAX_VALUE_CHARS} so a malformed file cannot build an unbounded string.
+ */
+final class OfxStatementReader implements BankStatementReader {
+
+  static final int MAX_VALUE_CHARS = 1024;
+
+  private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+  private final Reader in;
+  private final StringBuilder buffer = new StringBuilder();
+  private int pending = -1;
+  private long transactions;
+
+  OfxStatementReader(Reader in) {
+    this.in = in;
+  }
+
+  @Override
+  public String format() {
+    return "OFX";
+  }
+
+  @Override
+  @Nullable
+  public Row next() throws IOException {
+    Map<String, String> fields = null;
+    String tag;
+    while ((tag = nextTag()) != null) {
+      if (tag.equals("STMTTRN")) {
+        fields = new HashMap<>();
+      } else if (tag.equals("/STMTTRN")) {
+        if (fields != null) {
+          return toRow(++transactions, fields);
+        }
+      } else if (fields != null && !tag.startsWith("/")) {
+        fields.put(tag, readValue());
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private Row toRow(long number, Map<String, String> fields) {
+    String rawDate = fields.getOrDefault("DTPOSTED", "");
+    LocalDate postedOn = parseDate(rawDate);
+    if (postedOn == null) {
+      return Row.failed(number, "Unrecognised DTPOSTED: \"" + rawDate + "\"");
+    }
+    String name = fields.getOrDefault("NAME", "");
+    String memo = fields.getOrDefault("MEMO", "");
+    String description = name.isEmpty() ? memo : name;
+    if (description.isEmpty()) {
+      return Row.failed(number, "Missing NAME and MEMO");
+    }
+    BigDecimal amount;
+    try {
+      amount = new BigDecimal(fields.getOrDefault("TRNAMT", "").replace(',', '.'));
+    } catch (NumberFormatException e) {
+      return Row.failed(number, "Unrecognised TRNAMT");
+    }
+    String fitId = fields.getOrDefault("FITID", "");
+    return new Row(
+        number,
+        postedOn,
+        description,
+        amount,
+        fitId.isEmpty() ? null : fitId,
+        name.isEmpty() || memo.isEmpty() || memo.equals(name) ? null : memo,
+        null);
+  }
+
+  /** OFX dates are {@code YYYYMMDD} followed by an optional time and zone; the day is enough. */
+  @Nullable
+  static LocalDate parseDate(String raw) {
+    if (raw.length() < 8) {
+      return null;
+    }
+    try {
+      return LocalDate.parse(raw.substring(0, 8), OFX_DATE);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  /** The next tag name, upper-cased, with a leading {@code /} for a closing tag. */
+  @Nullable
+  private String nextTag() throws IOException {
+    int c;
+    while ((c = read()) != -1 && c != '<') {
+      // skip text outside the fields being read
+    }
+    if (c == -1) {
+      return null;
+    }
+    buffer.setLength(0);
+    while ((c = read()) != -1 && c != '>') {
+      if (buffer.length() < MAX_VALUE_CHARS) {
+        buffer.append((char) c);
+      }
+    }
+    return buffer.toString().trim().toUpperCase(Locale.ROOT);
+  }
+
+  private String readValue() throws IOException {
+    buffer.setLength(0);
+    int c;
+    while ((c = read()) != -1 && c != '<') {
+      if (buffer.length() < MAX_VALUE_CHARS) {
+        buffer.append((char) c);
+      }
+    }
+    pending = c;
+    return unescape(buffer.toString().trim());
+  }
+
+  private int read() throws IOException {
+    if (pending != -1) {
+      int c = pending;
+      pending = -1;
+      return c;
+    }
+    return in.read();
+  }
+
+  private static String unescape(String value) {
+    if (value.indexOf('&') < 0) {
+      return value;
+    }
+    return value
+        .replace("&lt;", "<")
+        .replace("&gt;", ">")
+        .replace("&quot;", "\"")
+        .replace("&apos;", "'")
+        .replace("&amp;", "&");
+  }
+}
@@ -0,0 +1,55 @@
+package com.austinharlan.trading_dashboard.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OptionsAnalyticsService {
+
+  /**
+   * Black-Scholes value and Greeks for every open option lot, with spot from the quote cache and
+   * volatility realized over recent daily closes of the underlying. Per-contract Greeks are per
+   * share; position and underlying figures are signed and scaled by quantity and multiplier.
+   * Underlyings without a quote or enough history are reported as unpriced.
+   */
+  OptionsGreeks currentGreeks();
+
+  record ContractGreeks(
+      String ticker,
+      String optionType,
+      BigDecimal strikePrice,
+      LocalDate expirationDate,
+      boolean isLong,
+      double quantity,
+      int multiplier,
+      double underlyingPrice,
+      double volatility,
+      double yearsToExpiry,
+      double price,
+      double delta,
+      double gamma,
+      double theta,
+      double vega,
+      double positionValue,
+      double positionDelta) {}
+
+  record UnderlyingExposure(
+      String ticker,
+      double underlyingPrice,
+      double volatility,
+      int lots,
+      double netDelta,
+      double dollarDelta,
+      double gamma,
+      double theta,
+      double vega,
+      double marketValue) {}
+
+  record OptionsGreeks(
+      Instant asOf,
+      double riskFreeRate,
+      List<ContractGreeks> contracts,
+      List<UnderlyingExposure> underlyings,
+      List<String> unpricedTickers) {}
+}
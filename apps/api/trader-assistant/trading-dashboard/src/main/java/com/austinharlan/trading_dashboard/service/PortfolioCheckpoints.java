@@ -0,0 +1,89 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.persistence.PortfolioCheckpointEntity;
+import com.austinharlan.trading_dashboard.persistence.PortfolioCheckpointRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioHolding;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores per-user holdings snapshots rebuilt from the trade log. Checkpoints are only ever written
+ * for a known trade data version and are deleted by {@link TradeDataVersions#bump} when a trade
+ * write can change them, so a stored checkpoint always matches the current trade log.
+ */
+@Service
+public class PortfolioCheckpoints {
+
+  private static final TypeReference<List<PortfolioHolding>> HOLDINGS = new TypeReference<>() {};
+
+  private final PortfolioCheckpointRepository repository;
+  private final UserRepository userRepository;
+  private final ObjectMapper objectMapper;
+
+  public PortfolioCheckpoints(
+      PortfolioCheckpointRepository repository,
+      UserRepository userRepository,
+      ObjectMapper objectMapper) {
+    this.repository = repository;
+    this.userRepository = userRepository;
+    this.objectMapper = objectMapper;
+  }
+
+  /** Latest checkpoint dated on or before {@code date}. */
+  @Transactional(readOnly = true)
+  public Optional<Checkpoint> nearest(long userId, LocalDate date) {
+    return repository
+        .findFirstByUserIdAndAsOfDateLessThanEqualOrderByAsOfDateDesc(userId, date)
+        .map(c -> new Checkpoint(c.getAsOfDate(), read(c.getHoldings())));
+  }
+
+  /**
+   * Saves checkpoints built from trade data {@code version}. Holding the user row lock makes this
+   * serialize with {@link TradeDataVersions#bump}: either a write has already moved the version on
+   * and nothing is saved, or the write's checkpoint delete runs after these rows commit. Runs in
+   * its own transaction so callers can stay read-only. Returns whether anything was written.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public boolean save(long userId, long version, List<Checkpoint> checkpoints) {
+    if (userRepository.lockTradeDataVersionById(userId).orElse(-1L) != version) {
+      return false;
+    }
+    boolean saved = false;
+    for (Checkpoint checkpoint : checkpoints) {
+      // A concurrent as-of query for the same user may already have written this date.
+      if (!repository.existsByUserIdAndAsOfDate(userId, checkpoint.asOfDate())) {
+        repository.save(
+            new PortfolioCheckpointEntity(
+                userId, checkpoint.asOfDate(), write(checkpoint.holdings())));
+        saved = true;
+      }
+    }
+    return saved;
+  }
+
+  private List<PortfolioHolding> read(String json) {
+    try {
+      return objectMapper.readValue(json, HOLDINGS);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unreadable portfolio checkpoint", e);
+    }
+  }
+
+  private String write(List<PortfolioHolding> holdings) {
+    try {
+      return objectMapper.writeValueAsString(holdings);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize portfolio checkpoint", e);
+    }
+  }
+
+  public record Checkpoint(LocalDate asOfDate, List<PortfolioHolding> holdings) {}
+}
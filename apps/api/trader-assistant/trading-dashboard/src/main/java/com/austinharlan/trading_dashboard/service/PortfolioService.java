@@ -1,8 +1,12 @@
 package com.austinharlan.trading_dashboard.service;
 
+import com.austinharlan.trading_dashboard.portfolio.PortfolioExposure;
 import com.austinharlan.trading_dashboard.portfolio.PortfolioHolding;
 import com.austinharlan.trading_dashboard.portfolio.PortfolioSnapshot;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValuation;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValueHistory;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,15 +15,34 @@ public interface PortfolioService {
 
   Optional<PortfolioSnapshot> summarize();
 
+  /**
+   * Stored positions marked to current quotes, fetched in one batched lookup. Empty when there are
+   * no positions.
+   */
+  Optional<PortfolioValuation> valuation();
+
+  /**
+   * The valued positions grouped by sector and industry, with overviews loaded a few at a time
+   * through the overview cache. Empty when there are no positions.
+   */
+  Optional<PortfolioExposure> exposure();
+
+  /**
+   * Daily market value of the portfolio over {@code range} (1W, 1M, 3M or MAX), on the dates the
+   * cached price histories cover. Quantities on each date come from the trade log; positions set by
+   * hand have no trades and count at their current quantity throughout.
+   */
+  PortfolioValueHistory valueHistory(String range);
+
   PortfolioHolding addHolding(String ticker, BigDecimal quantity, BigDecimal pricePerShare);
 
   void deleteHolding(String ticker);
 
   /**
-   * Adjusts the portfolio position for an equity trade. BUY increases qty and basis; SELL reduces
-   * them proportionally. No-ops for non-EQUITY asset types and for EXPIRE/EXERCISE sides. Safe to
-   * call within an existing transaction — joins via REQUIRED propagation.
+   * Equity holdings at the end of {@code date}, rebuilt from BUY/SELL trades dated on or before it
+   * with the same arithmetic as the live positions. Starts from the nearest stored month-end
+   * checkpoint and replays only the trades after it. Positions set by hand through {@link
+   * #addHolding} are not part of the trade log and do not appear.
    */
-  void applyTrade(
-      String ticker, String side, String assetType, BigDecimal quantity, BigDecimal pricePerShare);
+  List<PortfolioHolding> holdingsAsOf(LocalDate date);
 }
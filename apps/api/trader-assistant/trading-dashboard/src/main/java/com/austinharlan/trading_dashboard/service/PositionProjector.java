@@ -0,0 +1,205 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.persistence.EquityFill;
+import com.austinharlan.trading_dashboard.persistence.PortfolioPositionEntity;
+import com.austinharlan.trading_dashboard.persistence.PortfolioPositionRepository;
+import com.austinharlan.trading_dashboard.persistence.TickerDate;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.trading_dashboard.service.DefaultPortfolioService.Position;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Derives {@code portfolio_position} from the equity BUY/SELL trades in the trade log, replayed in
+ * trade date order with {@link Position#apply}. Only tickers that have equity trades are projected;
+ * a position on any other ticker was entered by hand and is left alone.
+ *
+ * <p>{@code users.positions_hwm} records the highest {@code trades.insert_seq} already folded in.
+ * {@link #catchUp} folds only the fills above it into each ticker's position in memory and writes
+ * each ticker once, falling back to a replay of a ticker when a new fill is dated before one
+ * already applied, since position arithmetic depends on order. The mark is not a trade id: ids come
+ * from a pooled sequence, so another instance can commit a lower one later. {@code insert_seq} is
+ * assigned as the row is inserted, and trade writes insert under the user row lock, so per user it
+ * grows in commit order. Deletes cannot be expressed against the mark and replay the affected
+ * ticker instead. An empty mark means a full rebuild.
+ */
+@Service
+public class PositionProjector {
+
+  private final PortfolioPositionRepository positionRepository;
+  private final TradeRepository tradeRepository;
+  private final UserRepository userRepository;
+
+  public PositionProjector(
+      PortfolioPositionRepository positionRepository,
+      TradeRepository tradeRepository,
+      UserRepository userRepository) {
+    this.positionRepository = positionRepository;
+    this.tradeRepository = tradeRepository;
+    this.userRepository = userRepository;
+  }
+
+  /** Folds every trade written since the last call into the user's positions. */
+  @Transactional
+  public void catchUp(long userId) {
+    Optional<Long> hwm = userRepository.lockPositionsHwmById(userId);
+    if (hwm.isEmpty()) {
+      rebuild(userId);
+      return;
+    }
+    long through = hwm.get();
+    List<EquityFill> fresh = tradeRepository.findEquityFillsAfterSeq(userId, through);
+    if (!fresh.isEmpty()) {
+      Map<String, List<EquityFill>> byTicker =
+          fresh.stream()
+              .collect(
+                  Collectors.groupingBy(
+                      EquityFill::ticker, LinkedHashMap::new, Collectors.toList()));
+      Map<String, LocalDate> applied = new HashMap<>();
+      for (TickerDate last :
+          tradeRepository.findLastEquityFillDates(userId, through, byTicker.keySet())) {
+        applied.put(last.ticker(), last.tradeDate());
+      }
+      Map<String, PortfolioPositionEntity> stored = new HashMap<>();
+      positionRepository.findAllByUserId(userId).forEach(p -> stored.put(p.getTicker(), p));
+      List<String> outOfOrder = new ArrayList<>();
+      for (Map.Entry<String, List<EquityFill>> entry : byTicker.entrySet()) {
+        String ticker = entry.getKey();
+        LocalDate last = applied.get(ticker);
+        if (last != null && entry.getValue().get(0).tradeDate().isBefore(last)) {
+          outOfOrder.add(ticker);
+          continue;
+        }
+        // The user row lock is held, so folding in memory is as safe as per-fill statements and
+        // a batch costs one write per ticker.
+        PortfolioPositionEntity existing = stored.get(ticker);
+        Position position =
+            existing != null ? new Position(existing.getQty(), existing.getBasis()) : null;
+        for (EquityFill fill : entry.getValue()) {
+          position = Position.apply(position, fill.side(), fill.quantity(), fill.pricePerShare());
+        }
+        write(userId, ticker, position, existing);
+      }
+      if (!outOfOrder.isEmpty()) {
+        replay(userId, outOfOrder);
+      }
+    }
+    tradeRepository
+        .findMaxInsertSeqByUserId(userId)
+        .filter(max -> max > through)
+        .ifPresent(max -> userRepository.setPositionsHwm(userId, max));
+  }
+
+  /**
+   * Recomputes the positions on {@code tickers} from their whole history. The caller must already
+   * hold the user row lock, as every trade write does after {@link TradeDataVersions#bump}.
+   */
+  @Transactional
+  public void replay(long userId, Collection<String> tickers) {
+    Map<String, Position> positions = new HashMap<>();
+    for (EquityFill fill : tradeRepository.findEquityFillsByTickers(userId, tickers)) {
+      positions.compute(
+          fill.ticker(),
+          (ticker, pos) -> Position.apply(pos, fill.side(), fill.quantity(), fill.pricePerShare()));
+    }
+    for (String ticker : new HashSet<>(tickers)) {
+      write(
+          userId,
+          ticker,
+          positions.get(ticker),
+          positionRepository.findByUserIdAndTicker(userId, ticker).orElse(null));
+    }
+  }
+
+  /**
+   * Replays the user's whole equity trade log into their positions and moves the mark to the latest
+   * trade. Returns how many stored positions were wrong, so a scheduled rebuild doubles as a
+   * consistency check.
+   */
+  @Transactional
+  public int rebuild(long userId) {
+    userRepository.lockPositionsHwmById(userId);
+    Map<String, Position> positions = new HashMap<>();
+    Set<String> traded = new HashSet<>();
+    try (Stream<EquityFill> fills = tradeRepository.streamEquityFills(userId)) {
+      fills.forEach(
+          fill -> {
+            traded.add(fill.ticker());
+            positions.compute(
+                fill.ticker(),
+                (ticker, pos) ->
+                    Position.apply(pos, fill.side(), fill.quantity(), fill.pricePerShare()));
+          });
+    }
+    Map<String, PortfolioPositionEntity> stored = new HashMap<>();
+    positionRepository.findAllByUserId(userId).forEach(p -> stored.put(p.getTicker(), p));
+    int changed = 0;
+    for (String ticker : traded) {
+      if (write(userId, ticker, positions.get(ticker), stored.get(ticker))) {
+        changed++;
+      }
+    }
+    userRepository.setPositionsHwm(
+        userId, tradeRepository.findMaxInsertSeqByUserId(userId).orElse(0L));
+    return changed;
+  }
+
+  /**
+   * Rebuilds the user's positions if the mark was cleared, in its own transaction so read paths can
+   * call it.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void ensureProjected(long userId) {
+    if (userRepository.lockPositionsHwmById(userId).isEmpty()) {
+      rebuild(userId);
+    }
+  }
+
+  @Transactional(readOnly = true)
+  public boolean isProjected(long userId) {
+    return userRepository.findPositionsHwmById(userId).isPresent();
+  }
+
+  /** Stores {@code position} for the ticker, deleting the row when it is closed. */
+  private boolean write(
+      long userId,
+      String ticker,
+      @Nullable Position position,
+      @Nullable PortfolioPositionEntity existing) {
+    if (position == null) {
+      if (existing == null) {
+        return false;
+      }
+      positionRepository.delete(existing);
+      return true;
+    }
+    if (existing == null) {
+      positionRepository.save(
+          new PortfolioPositionEntity(userId, ticker, position.qty(), position.basis()));
+      return true;
+    }
+    if (existing.getQty().compareTo(position.qty()) == 0
+        && existing.getBasis().compareTo(position.basis()) == 0) {
+      return false;
+    }
+    existing.setQty(position.qty());
+    existing.setBasis(position.basis());
+    positionRepository.save(existing);
+    return true;
+  }
+}
@@ -0,0 +1,86 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rebuilds every user's positions from the trade log, a bounded number of users at a time. Each
+ * user is one {@link PositionProjector#rebuild} transaction that streams its fills, so memory stays
+ * flat however large the trade log is, and writes for other users are never blocked. Any position
+ * the rebuild has to correct is drift between the projection and the log, and is logged.
+ */
+@Service
+public class PositionRebuildJob {
+
+  private static final Logger log = LoggerFactory.getLogger(PositionRebuildJob.class);
+
+  private final PositionProjector projector;
+  private final UserRepository userRepository;
+  private final int parallelism;
+
+  public PositionRebuildJob(
+      PositionProjector projector,
+      UserRepository userRepository,
+      @Value("${trading.positions.rebuild-parallelism:4}") int parallelism) {
+    this.projector = projector;
+    this.userRepository = userRepository;
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  @Scheduled(cron = "${trading.positions.rebuild-cron:-}")
+  public void nightly() {
+    RebuildReport report = rebuildAll();
+    log.info(
+        "Rebuilt positions for {} users in {} ms: {} corrected in {} users, {} failed",
+        report.users(),
+        report.elapsedMillis(),
+        report.positionsCorrected(),
+        report.driftedUsers(),
+        report.failedUsers());
+  }
+
+  public RebuildReport rebuildAll() {
+    long start = System.nanoTime();
+    List<Long> userIds = userRepository.findAllIds();
+    List<Future<Integer>> results = new ArrayList<>(userIds.size());
+    try (ExecutorService pool = Executors.newFixedThreadPool(parallelism)) {
+      for (Long userId : userIds) {
+        results.add(pool.submit(() -> projector.rebuild(userId)));
+      }
+    }
+    int drifted = 0;
+    int corrected = 0;
+    int failed = 0;
+    for (int i = 0; i < userIds.size(); i++) {
+      try {
+        int changed = results.get(i).get();
+        if (changed > 0) {
+          log.warn("Corrected {} drifted positions for user {}", changed, userIds.get(i));
+          drifted++;
+          corrected += changed;
+        }
+      } catch (ExecutionException e) {
+        log.error("Position rebuild failed for user {}", userIds.get(i), e.getCause());
+        failed++;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while rebuilding positions", e);
+      }
+    }
+    return new RebuildReport(
+        userIds.size(), drifted, corrected, failed, (System.nanoTime() - start) / 1_000_000);
+  }
+
+  public record RebuildReport(
+      int users, int driftedUsers, int positionsCorrected, int failedUsers, long elapsedMillis) {}
+}
@@ -4,14 +4,35 @@ import com.austinharlan.trading_dashboard.marketdata.CompanyOverview;
 import com.austinharlan.trading_dashboard.marketdata.DailyBar;
 import com.austinharlan.trading_dashboard.marketdata.NewsArticle;
 import com.austinharlan.trading_dashboard.marketdata.Quote;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface QuoteService {
   Quote getCached(String symbol);
 
+  /**
+   * Quotes for several symbols, served from the quote cache where fresh and fetched from the
+   * provider in one batched call otherwise. Symbols with no quote, fresh or stale, are absent from
+   * the returned map.
+   */
+  Map<String, Quote> getCachedQuotes(Collection<String> symbols);
+
   CompanyOverview getCachedOverview(String symbol);
 
+  /**
+   * {@link #getCachedOverview} for several symbols, loaded a few at a time in parallel. Symbols
+   * whose overview cannot be loaded are absent from the returned map.
+   */
+  Map<String, CompanyOverview> getCachedOverviews(Collection<String> symbols);
+
   List<DailyBar> getCachedHistory(String symbol);
 
+  /**
+   * {@link #getCachedHistory} for several symbols, loaded a few at a time in parallel. Symbols
+   * whose history cannot be loaded are absent from the returned map.
+   */
+  Map<String, List<DailyBar>> getCachedHistories(Collection<String> symbols);
+
   List<NewsArticle> getCachedNews(String symbol);
 }
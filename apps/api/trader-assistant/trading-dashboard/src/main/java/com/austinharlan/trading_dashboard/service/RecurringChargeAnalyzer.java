@@ -0,0 +1,153 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.finance.RecurringCadence;
+import com.austinharlan.trading_dashboard.persistence.FinanceCharge;
+import com.austinharlan.trading_dashboard.persistence.FinanceRecurringSeriesEntity;
+import com.austinharlan.trading_dashboard.persistence.FinanceRecurringSeriesRepository;
+import com.austinharlan.trading_dashboard.persistence.FinanceTransactionRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps {@code finance_recurring_series} in step with the user's charges. Each run streams the
+ * charges written since {@code users.recurring_hwm} in date order and folds each into its
+ * merchant's series in a hash map, one pass and constant work per charge, then moves the mark.
+ *
+ * <p>Gaps between charges are only meaningful in date order, so a new charge dated before its
+ * merchant's last one (an older statement imported late) makes the run start over from every
+ * charge. Every finance write (single writes, statement imports and portfolio CSV cash events)
+ * takes the user row lock before inserting and holds it until it commits, as does the analyzer, so
+ * rows commit in {@code insert_seq} order and the mark never passes one still being written.
+ */
+@Service
+public class RecurringChargeAnalyzer {
+
+  /** Gaps that must fit the cadence; two gaps take three charges. */
+  static final int MIN_HITS = 2;
+
+  /** Share of all gaps that must fit it, so a merchant visited irregularly is not a series. */
+  static final double MIN_HIT_SHARE = 0.75;
+
+  /** Largest standard deviation of the amounts, relative to their mean. */
+  static final double MAX_AMOUNT_SPREAD = 0.25;
+
+  private final FinanceRecurringSeriesRepository repository;
+  private final FinanceTransactionRepository transactionRepository;
+  private final UserRepository userRepository;
+
+  public RecurringChargeAnalyzer(
+      FinanceRecurringSeriesRepository repository,
+      FinanceTransactionRepository transactionRepository,
+      UserRepository userRepository) {
+    this.repository = repository;
+    this.transactionRepository = transactionRepository;
+    this.userRepository = userRepository;
+  }
+
+  /**
+   * Folds the user's charges written since the last run into their series and returns how many were
+   * read. Runs in its own transaction so read paths can call it.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public int catchUp(long userId) {
+    Optional<Long> mark = userRepository.lockRecurringHwmById(userId);
+    long through = transactionRepository.findMaxInsertSeqByUserId(userId).orElse(0L);
+    if (mark.isPresent() && mark.get() >= through) {
+      return 0;
+    }
+    Map<String, FinanceRecurringSeriesEntity> series = new HashMap<>();
+    repository.findAllByUserId(userId).forEach(s -> series.put(s.getMerchantKey(), s));
+    int folded = mark.isPresent() ? fold(userId, mark.get(), through, series) : -1;
+    if (folded < 0) {
+      series.values().forEach(FinanceRecurringSeriesEntity::reset);
+      folded = fold(userId, 0, through, series);
+    }
+    for (FinanceRecurringSeriesEntity s : series.values()) {
+      if (s.getOccurrences() > 0) {
+        RecurringCadence cadence = detect(s);
+        s.setCadence(cadence != null ? cadence.name() : null);
+        repository.save(s);
+      } else if (!s.isNew()) {
+        repository.delete(s);
+      }
+    }
+    userRepository.setRecurringHwm(userId, through);
+    return folded;
+  }
+
+  /** Drops the user's series after their transactions were deleted or rewritten. */
+  @Transactional
+  public void reset(long userId) {
+    repository.deleteAllForUser(userId);
+    userRepository.clearRecurringHwm(userId);
+  }
+
+  @Transactional(readOnly = true)
+  public List<FinanceRecurringSeriesEntity> detected(long userId) {
+    return repository.findDetectedByUserId(userId);
+  }
+
+  /** The cadence the series keeps, or null while its charges do not recur. */
+  @Nullable
+  static RecurringCadence detect(FinanceRecurringSeriesEntity s) {
+    if (s.getAmountStdDev() > MAX_AMOUNT_SPREAD * Math.abs(s.getAmountMean())) {
+      return null;
+    }
+    RecurringCadence best = null;
+    int bestHits = 0;
+    for (RecurringCadence cadence : RecurringCadence.values()) {
+      int hits = s.hits(cadence.name());
+      if (hits > bestHits) {
+        best = cadence;
+        bestHits = hits;
+      }
+    }
+    return bestHits >= MIN_HITS && bestHits >= MIN_HIT_SHARE * s.getIntervals() ? best : null;
+  }
+
+  /**
+   * Folds the charges in {@code (after, through]} into {@code series}, returning how many there
+   * were, or -1 as soon as one is dated before its merchant's last charge.
+   */
+  private int fold(
+      long userId, long after, long through, Map<String, FinanceRecurringSeriesEntity> series) {
+    int folded = 0;
+    try (Stream<FinanceCharge> charges =
+        transactionRepository.streamCharges(userId, after, through)) {
+      for (Iterator<FinanceCharge> it = charges.iterator(); it.hasNext(); ) {
+        FinanceCharge charge = it.next();
+        FinanceRecurringSeriesEntity s =
+            series.computeIfAbsent(
+                MerchantKeys.of(charge.description()),
+                key -> new FinanceRecurringSeriesEntity(userId, key));
+        LocalDate chargedOn = charge.postedAt().atZone(ZoneOffset.UTC).toLocalDate();
+        LocalDate last = s.getLastChargedOn();
+        if (last != null && chargedOn.isBefore(last)) {
+          return -1;
+        }
+        RecurringCadence gap =
+            last != null ? RecurringCadence.ofGap(ChronoUnit.DAYS.between(last, chargedOn)) : null;
+        s.add(
+            chargedOn,
+            charge.amount(),
+            charge.description(),
+            charge.category(),
+            gap != null ? gap.name() : null);
+        folded++;
+      }
+    }
+    return folded;
+  }
+}
@@ -0,0 +1,79 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Brings every user's recurring series up to date in the background, a bounded number of users at a
+ * time. Each user is one {@link RecurringChargeAnalyzer#catchUp} transaction over only the charges
+ * written since their last run, so a frequent schedule stays cheap and the recurring endpoint
+ * seldom has anything left to fold in.
+ */
+@Service
+public class RecurringChargeJob {
+
+  private static final Logger log = LoggerFactory.getLogger(RecurringChargeJob.class);
+
+  private final RecurringChargeAnalyzer analyzer;
+  private final UserRepository userRepository;
+  private final int parallelism;
+
+  public RecurringChargeJob(
+      RecurringChargeAnalyzer analyzer,
+      UserRepository userRepository,
+      @Value("${trading.finance.recurring-parallelism:4}") int parallelism) {
+    this.analyzer = analyzer;
+    this.userRepository = userRepository;
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  @Scheduled(cron = "${trading.finance.recurring-cron:-}")
+  public void scheduled() {
+    AnalysisReport report = analyzeAll();
+    log.info(
+        "Folded {} new charges into recurring series for {} users in {} ms, {} failed",
+        report.chargesFolded(),
+        report.users(),
+        report.elapsedMillis(),
+        report.failedUsers());
+  }
+
+  public AnalysisReport analyzeAll() {
+    long start = System.nanoTime();
+    List<Long> userIds = userRepository.findAllIds();
+    List<Future<Integer>> results = new ArrayList<>(userIds.size());
+    try (ExecutorService pool = Executors.newFixedThreadPool(parallelism)) {
+      for (Long userId : userIds) {
+        results.add(pool.submit(() -> analyzer.catchUp(userId)));
+      }
+    }
+    long folded = 0;
+    int failed = 0;
+    for (int i = 0; i < userIds.size(); i++) {
+      try {
+        folded += results.get(i).get();
+      } catch (ExecutionException e) {
+        log.error("Recurring charge analysis failed for user {}", userIds.get(i), e.getCause());
+        failed++;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while analyzing recurring charges", e);
+      }
+    }
+    return new AnalysisReport(
+        userIds.size(), folded, failed, (System.nanoTime() - start) / 1_000_000);
+  }
+
+  public record AnalysisReport(
+      int users, long chargesFolded, int failedUsers, long elapsedMillis) {}
+}
@@ -0,0 +1,162 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.marketdata.DailyBar;
+import com.austinharlan.trading_dashboard.service.CorrelationService.CorrelationMatrix;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Pairwise return correlation and covariance over daily closes. Every ticker's closes are placed on
+ * the union of all bar dates without carrying prices forward, and the simple return on a date is
+ * defined only when the ticker has a close on it and on the date before. Each pair is then measured
+ * over the dates on which both have a return.
+ *
+ * <p>Returns are kept as one {@code double[]} per ticker with undefined entries zeroed, next to a
+ * 0/1 mask, so a pair's six running sums are a single branch-free pass over four arrays. The upper
+ * triangle is cut into square tiles of {@link #TILE} tickers; tiles write disjoint cells and are
+ * summed in parallel when there is more than one.
+ */
+final class ReturnCorrelations {
+
+  static final int TILE = 16;
+
+  private ReturnCorrelations() {}
+
+  static CorrelationMatrix compute(List<String> tickers, Map<String, List<DailyBar>> histories) {
+    int t = tickers.size();
+    int count = 0;
+    for (String ticker : tickers) {
+      count += histories.get(ticker).size();
+    }
+    long[] axis = new long[count];
+    count = 0;
+    for (String ticker : tickers) {
+      for (DailyBar bar : histories.get(ticker)) {
+        if (bar.close() != null) {
+          axis[count++] = bar.date().toEpochDay();
+        }
+      }
+    }
+    Arrays.sort(axis, 0, count);
+    int n = 0;
+    for (int i = 0; i < count; i++) {
+      if (n == 0 || axis[i] != axis[n - 1]) {
+        axis[n++] = axis[i];
+      }
+    }
+
+    // returns[k][i - 1] is the return from axis[i - 1] to axis[i].
+    int m = Math.max(n - 1, 0);
+    double[][] returns = new double[t][m];
+    double[][] valid = new double[t][m];
+    int firstReturn = m;
+    for (int k = 0; k < t; k++) {
+      double[] close = new double[n];
+      Arrays.fill(close, Double.NaN);
+      for (DailyBar bar : histories.get(tickers.get(k))) {
+        BigDecimal value = bar.close();
+        if (value != null) {
+          close[Arrays.binarySearch(axis, 0, n, bar.date().toEpochDay())] = value.doubleValue();
+        }
+      }
+      double[] r = returns[k];
+      double[] v = valid[k];
+      for (int i = 1; i < n; i++) {
+        if (close[i - 1] > 0 && !Double.isNaN(close[i])) {
+          r[i - 1] = close[i] / close[i - 1] - 1;
+          v[i - 1] = 1;
+          firstReturn = Math.min(firstReturn, i);
+        }
+      }
+    }
+
+    double[][] correlation = new double[t][t];
+    double[][] covariance = new double[t][t];
+    int[][] observations = new int[t][t];
+    int blocks = (t + TILE - 1) / TILE;
+    int[] tileRow = new int[blocks * (blocks + 1) / 2];
+    int[] tileCol = new int[tileRow.length];
+    int tiles = 0;
+    for (int bi = 0; bi < blocks; bi++) {
+      for (int bj = bi; bj < blocks; bj++) {
+        tileRow[tiles] = bi;
+        tileCol[tiles++] = bj;
+      }
+    }
+    IntStream range = IntStream.range(0, tiles);
+    if (tiles > 1) {
+      range = range.parallel();
+    }
+    range.forEach(
+        tile -> {
+          int rowEnd = Math.min((tileRow[tile] + 1) * TILE, t);
+          int colEnd = Math.min((tileCol[tile] + 1) * TILE, t);
+          for (int a = tileRow[tile] * TILE; a < rowEnd; a++) {
+            for (int b = Math.max(tileCol[tile] * TILE, a); b < colEnd; b++) {
+              pair(a, b, returns, valid, correlation, covariance, observations);
+            }
+          }
+        });
+
+    return new CorrelationMatrix(
+        firstReturn < n ? LocalDate.ofEpochDay(axis[firstReturn]) : null,
+        n > 0 ? LocalDate.ofEpochDay(axis[n - 1]) : null,
+        List.copyOf(tickers),
+        correlation,
+        covariance,
+        observations,
+        List.of());
+  }
+
+  /** Fills cells {@code [a][b]} and {@code [b][a]}. */
+  private static void pair(
+      int a,
+      int b,
+      double[][] returns,
+      double[][] valid,
+      double[][] correlation,
+      double[][] covariance,
+      int[][] observations) {
+    double[] x = returns[a];
+    double[] y = returns[b];
+    double[] vx = valid[a];
+    double[] vy = valid[b];
+    double n = 0;
+    double sx = 0;
+    double sy = 0;
+    double sxx = 0;
+    double syy = 0;
+    double sxy = 0;
+    for (int i = 0; i < x.length; i++) {
+      // Undefined returns are zero, so masking the other side is enough to drop a date.
+      double xi = x[i] * vy[i];
+      double yi = y[i] * vx[i];
+      n += vx[i] * vy[i];
+      sx += xi;
+      sy += yi;
+      sxx += xi * xi;
+      syy += yi * yi;
+      sxy += xi * yi;
+    }
+    double cov = Double.NaN;
+    double corr = Double.NaN;
+    if (n >= 2) {
+      cov = (sxy - sx * sy / n) / (n - 1);
+      double varX = (sxx - sx * sx / n) / (n - 1);
+      double varY = (syy - sy * sy / n) / (n - 1);
+      if (varX > 0 && varY > 0) {
+        corr = Math.max(-1.0, Math.min(1.0, cov / Math.sqrt(varX * varY)));
+      }
+    }
+    covariance[a][b] = cov;
+    covariance[b][a] = cov;
+    correlation[a][b] = corr;
+    correlation[b][a] = corr;
+    observations[a][b] = (int) n;
+    observations[b][a] = (int) n;
+  }
+}
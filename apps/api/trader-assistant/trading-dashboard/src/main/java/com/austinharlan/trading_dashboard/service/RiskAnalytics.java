@@ -0,0 +1,160 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.service.TradeService.RiskMetrics;
+import com.austinharlan.trading_dashboard.service.TradeService.RiskWindow;
+import com.austinharlan.trading_dashboard.trades.ClosedTrade;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Risk and performance metrics over realized P&L, computed in one pass over the closed trades in
+ * sell-date order. Per-trade statistics use Welford accumulators; the daily series is written
+ * straight into prefix-sum arrays over calendar days, so drawdown falls out of the same walk and
+ * each rolling window is answered with a few array reads.
+ *
+ * <p>The series is dollar P&L, not returns, because the trade log has no account value to divide
+ * by. Days without a closing trade count as zero and volatility is annualized over 365 days to
+ * match.
+ */
+final class RiskAnalytics {
+
+  static final int[] WINDOWS = {30, 90, 365};
+
+  private static final double DAYS_PER_YEAR = 365.0;
+
+  private RiskAnalytics() {}
+
+  static RiskMetrics compute(List<ClosedTrade> closed, LocalDate asOf) {
+    if (closed.isEmpty()) {
+      List<RiskWindow> windows = new ArrayList<>(WINDOWS.length);
+      for (int w : WINDOWS) {
+        windows.add(new RiskWindow(w, 0, 0, 0, 0, 0, null, null));
+      }
+      return new RiskMetrics(
+          asOf,
+          0,
+          null,
+          0,
+          0,
+          0,
+          0,
+          0,
+          null,
+          null,
+          0,
+          0,
+          0,
+          windows,
+          new RiskWindow(0, 0, 0, 0, 0, 0, null, null));
+    }
+
+    ClosedTrade[] sorted = closed.toArray(ClosedTrade[]::new);
+    Arrays.sort(sorted, Comparator.comparing(ClosedTrade::sellDate));
+    LocalDate first = sorted[0].sellDate();
+    LocalDate last = sorted[sorted.length - 1].sellDate();
+    LocalDate end = asOf.isAfter(last) ? asOf : last;
+    int days = (int) ChronoUnit.DAYS.between(first, end) + 1;
+
+    // prefix[d] holds the total over days [0, d).
+    double[] sum = new double[days + 1];
+    double[] sumSq = new double[days + 1];
+    double[] downSq = new double[days + 1];
+
+    int count = 0, wins = 0, losses = 0;
+    double mean = 0, m2 = 0;
+    double grossProfit = 0, grossLoss = 0;
+
+    double cumulative = 0, peak = 0;
+    int peakDay = -1, maxDdPeakDay = -1, maxDdTroughDay = -1;
+    double maxDrawdown = 0;
+    int longestUnderwater = 0;
+
+    int i = 0;
+    for (int d = 0; d < days; d++) {
+      LocalDate date = first.plusDays(d);
+      double dayPnl = 0;
+      while (i < sorted.length && sorted[i].sellDate().equals(date)) {
+        double pnl = sorted[i++].pnl().doubleValue();
+        dayPnl += pnl;
+        count++;
+        double delta = pnl - mean;
+        mean += delta / count;
+        m2 += delta * (pnl - mean);
+        if (pnl > 0) {
+          wins++;
+          grossProfit += pnl;
+        } else if (pnl < 0) {
+          losses++;
+          grossLoss -= pnl;
+        }
+      }
+
+      sum[d + 1] = sum[d] + dayPnl;
+      sumSq[d + 1] = sumSq[d] + dayPnl * dayPnl;
+      downSq[d + 1] = downSq[d] + (dayPnl < 0 ? dayPnl * dayPnl : 0);
+
+      cumulative += dayPnl;
+      if (cumulative >= peak) {
+        peak = cumulative;
+        peakDay = d;
+      } else {
+        longestUnderwater = Math.max(longestUnderwater, d - peakDay);
+        if (peak - cumulative > maxDrawdown) {
+          maxDrawdown = peak - cumulative;
+          maxDdPeakDay = peakDay;
+          maxDdTroughDay = d;
+        }
+      }
+    }
+
+    List<RiskWindow> windows = new ArrayList<>(WINDOWS.length);
+    for (int w : WINDOWS) {
+      windows.add(window(w, days, sum, sumSq, downSq));
+    }
+
+    return new RiskMetrics(
+        asOf,
+        count,
+        grossLoss > 0 ? grossProfit / grossLoss : null,
+        mean,
+        wins > 0 ? grossProfit / wins : 0,
+        losses > 0 ? grossLoss / losses : 0,
+        count > 1 ? Math.sqrt(m2 / (count - 1)) : 0,
+        maxDrawdown,
+        maxDdTroughDay >= 0 ? first.plusDays(maxDdPeakDay) : null,
+        maxDdTroughDay >= 0 ? first.plusDays(maxDdTroughDay) : null,
+        longestUnderwater,
+        peak - cumulative,
+        cumulative < peak ? days - 1 - peakDay : 0,
+        windows,
+        window(days, days, sum, sumSq, downSq));
+  }
+
+  /** Stats over the last {@code length} days of the series, or all of it if shorter. */
+  private static RiskWindow window(
+      int length, int days, double[] sum, double[] sumSq, double[] downSq) {
+    int to = days;
+    int from = Math.max(0, days - length);
+    int n = to - from;
+    double total = sum[to] - sum[from];
+    double mean = total / n;
+    double variance =
+        n > 1 ? Math.max(0, (sumSq[to] - sumSq[from] - n * mean * mean) / (n - 1)) : 0;
+    double stdDev = Math.sqrt(variance);
+    double downside = Math.sqrt((downSq[to] - downSq[from]) / n);
+    double annualize = Math.sqrt(DAYS_PER_YEAR);
+    return new RiskWindow(
+        length,
+        n,
+        total,
+        mean,
+        stdDev,
+        stdDev * annualize,
+        stdDev > 0 ? mean / stdDev * annualize : null,
+        downside > 0 ? mean / downside * annualize : null);
+  }
+}
@@ -0,0 +1,211 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.persistence.TradeEntity;
+import com.austinharlan.trading_dashboard.service.DefaultTradeService.ContractKey;
+import com.austinharlan.trading_dashboard.trades.ClosedTrade;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Primitive FIFO lot matcher for one contract. Quantities and prices are held as {@code long}
+ * values scaled to 6 decimal places, matching the {@code DECIMAL(16,6)} trade columns, and are only
+ * turned back into {@link BigDecimal} when a {@link ClosedTrade} is emitted.
+ *
+ * <p>Output is bit-identical to the {@code BigDecimal} matcher in {@link DefaultTradeService}:
+ * every value is emitted with the same unscaled value and scale that the reference arithmetic would
+ * produce, and price objects are passed through untouched. Any input with more than 6 decimal
+ * places, and any overflow during matching, throws {@link ArithmeticException}; {@link
+ * #matchContract} then discards the partial output so the caller can use the reference path.
+ */
+final class ScaledLotMatcher {
+
+  static final int SCALE = 6;
+
+  private static final long[] POW10 = {
+    1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+  };
+
+  private ScaledLotMatcher() {}
+
+  /**
+   * Matches all trades of one contract (in chronological order) and appends the closed lots to
+   * {@code result}. Returns {@code false}, leaving {@code result} as it was, when the values do not
+   * fit the scaled representation.
+   */
+  static boolean matchContract(
+      ContractKey key, List<TradeEntity> trades, List<ClosedTrade> result) {
+    int start = result.size();
+    try {
+      run(key, trades, result);
+      return true;
+    } catch (ArithmeticException overflow) {
+      result.subList(start, result.size()).clear();
+      return false;
+    }
+  }
+
+  private static void run(ContractKey key, List<TradeEntity> trades, List<ClosedTrade> result) {
+    Deque<Lot> buyQueue = new ArrayDeque<>();
+    Deque<Lot> sellQueue = new ArrayDeque<>();
+
+    for (TradeEntity t : trades) {
+      String side = t.getSide();
+      int mult = t.getMultiplier();
+
+      if ("EXPIRE".equals(side)) {
+        closeAllLots(buyQueue, t.getTradeDate(), key, mult, result);
+        closeAllLots(sellQueue, t.getTradeDate(), key, mult, result);
+        continue;
+      }
+
+      BigDecimal quantity = t.getQuantity();
+      long qty = toScaled(quantity);
+      int qtyScale = quantity.scale();
+
+      if ("EXERCISE".equals(side)) {
+        Deque<Lot> openQueue = !buyQueue.isEmpty() ? buyQueue : sellQueue;
+        Lot close = new Lot(qty, qtyScale, BigDecimal.ZERO, 0L, t.getTradeDate(), false);
+        matchLots(openQueue, close, key, mult, result);
+        continue;
+      }
+
+      boolean isBuy = "BUY".equals(side);
+      Deque<Lot> oppositeQueue = isBuy ? sellQueue : buyQueue;
+      Deque<Lot> sameQueue = isBuy ? buyQueue : sellQueue;
+      BigDecimal price = t.getPricePerShare();
+      Lot incoming = new Lot(qty, qtyScale, price, toScaled(price), t.getTradeDate(), isBuy);
+
+      if (!oppositeQueue.isEmpty()) {
+        matchLots(oppositeQueue, incoming, key, mult, result);
+        if (incoming.remaining > 0) {
+          sameQueue.addLast(incoming);
+        }
+      } else {
+        sameQueue.addLast(incoming);
+      }
+    }
+  }
+
+  private static void closeAllLots(
+      Deque<Lot> queue, LocalDate closeDate, ContractKey key, int mult, List<ClosedTrade> result) {
+    while (!queue.isEmpty()) {
+      Lot lot = queue.pollFirst();
+      emit(lot, BigDecimal.ZERO, 0L, closeDate, lot.remaining, lot.scale, key, mult, result);
+    }
+  }
+
+  /**
+   * Consumes {@code close.remaining} against the open queue. Whatever cannot be matched is left on
+   * {@code close} so the caller can open it as a new lot.
+   */
+  private static void matchLots(
+      Deque<Lot> openQueue, Lot close, ContractKey key, int mult, List<ClosedTrade> result) {
+    while (close.remaining > 0 && !openQueue.isEmpty()) {
+      Lot lot = openQueue.peekFirst();
+      // Mirrors BigDecimal.min: ties keep the closing quantity, which decides the emitted scale.
+      boolean closeIsSmaller = close.remaining <= lot.remaining;
+      long matched = closeIsSmaller ? close.remaining : lot.remaining;
+      int matchedScale = closeIsSmaller ? close.scale : lot.scale;
+
+      emit(lot, close.price, close.price6, close.date, matched, matchedScale, key, mult, result);
+
+      lot.remaining -= matched;
+      lot.scale = Math.max(lot.scale, matchedScale);
+      close.remaining -= matched;
+      close.scale = Math.max(close.scale, matchedScale);
+      if (lot.remaining == 0) {
+        openQueue.pollFirst();
+      }
+    }
+  }
+
+  private static void emit(
+      Lot lot,
+      BigDecimal closePrice,
+      long closePrice6,
+      LocalDate closeDate,
+      long quantity,
+      int quantityScale,
+      ContractKey key,
+      int mult,
+      List<ClosedTrade> result) {
+    BigDecimal buyPrice = lot.isBuy ? lot.price : closePrice;
+    BigDecimal sellPrice = lot.isBuy ? closePrice : lot.price;
+    long buy6 = lot.isBuy ? lot.price6 : closePrice6;
+    long sell6 = lot.isBuy ? closePrice6 : lot.price6;
+    LocalDate buyDate = lot.isBuy ? lot.date : closeDate;
+    LocalDate sellDate = lot.isBuy ? closeDate : lot.date;
+
+    // BigDecimal subtract keeps the larger scale; multiplying by the quantity adds its scale.
+    int diffScale = Math.max(sellPrice.scale(), buyPrice.scale());
+    long diff = Math.subtractExact(sell6, buy6) / POW10[SCALE - diffScale];
+    long qtyUnscaled = quantity / POW10[SCALE - quantityScale];
+    long pnl = Math.multiplyExact(Math.multiplyExact(diff, qtyUnscaled), (long) mult);
+    long holdDays = Math.abs(sellDate.toEpochDay() - buyDate.toEpochDay());
+
+    result.add(
+        new ClosedTrade(
+            key.ticker(),
+            BigDecimal.valueOf(qtyUnscaled, quantityScale),
+            buyPrice,
+            sellPrice,
+            buyDate,
+            sellDate,
+            BigDecimal.valueOf(pnl, diffScale + quantityScale),
+            pnlPercent(buy6, sell6),
+            holdDays,
+            key.assetType(),
+            key.optionType(),
+            key.strikePrice(),
+            key.expirationDate()));
+  }
+
+  /**
+   * Same result as {@code (sell - buy).divide(base, 4, HALF_UP).multiply(100)}, where the base is
+   * the buy price, or the sell price for shorts opened at a zero buy price.
+   */
+  static BigDecimal pnlPercent(long buy6, long sell6) {
+    long base = buy6 != 0 ? buy6 : sell6;
+    if (base == 0) {
+      return BigDecimal.ZERO;
+    }
+    long numerator = Math.multiplyExact(Math.subtractExact(sell6, buy6), 10_000L);
+    long quotient = numerator / base;
+    long remainder = numerator % base;
+    if (remainder != 0 && Math.abs(remainder) >= Math.abs(base) - Math.abs(remainder)) {
+      quotient += (numerator < 0) == (base < 0) ? 1 : -1;
+    }
+    return BigDecimal.valueOf(Math.multiplyExact(quotient, 100L), 4);
+  }
+
+  /** Converts to a 6 dp scaled long, throwing when the value is not exactly representable. */
+  static long toScaled(BigDecimal value) {
+    int scale = value.scale();
+    if (scale < 0 || scale > SCALE) {
+      throw new ArithmeticException("Unsupported scale " + scale);
+    }
+    long unscaled = value.unscaledValue().longValueExact();
+    return Math.multiplyExact(unscaled, POW10[SCALE - scale]);
+  }
+
+  private static final class Lot {
+    long remaining;
+    int scale;
+    final BigDecimal price;
+    final long price6;
+    final LocalDate date;
+    final boolean isBuy;
+
+    Lot(long remaining, int scale, BigDecimal price, long price6, LocalDate date, boolean isBuy) {
+      this.remaining = remaining;
+      this.scale = scale;
+      this.price = price;
+      this.price6 = price6;
+      this.date = date;
+      this.isBuy = isBuy;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.persistence.PortfolioCheckpointRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import java.time.LocalDate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per-user counter of trade writes, stored on {@code users.trade_data_version} so every app
+ * instance sees the same value. Anything derived purely from a user's trades can be cached under
+ * (userId, version) and is implicitly invalidated by the next bump.
+ *
+ * <p>Holdings checkpoints are also derived from trades but are kept across writes, so a bump
+ * deletes the ones the write can affect: all of them, or only those on or after the earliest trade
+ * date touched when the caller knows it. Daily P&L rollups are maintained by the trade service's
+ * own writes, and so are projected positions; a bump without a date means the trade log changed
+ * some other way, so it marks both for a rebuild.
+ */
+@Service
+public class TradeDataVersions {
+
+  private final UserRepository userRepository;
+  private final PortfolioCheckpointRepository checkpointRepository;
+
+  public TradeDataVersions(
+      UserRepository userRepository, PortfolioCheckpointRepository checkpointRepository) {
+    this.userRepository = userRepository;
+    this.checkpointRepository = checkpointRepository;
+  }
+
+  @Transactional(readOnly = true)
+  public long current(long userId) {
+    return userRepository.findTradeDataVersionById(userId).orElse(0L);
+  }
+
+  /** Must be called in the same transaction as the trade write so the bump commits with it. */
+  @Transactional
+  public void bump(long userId) {
+    userRepository.incrementTradeDataVersion(userId);
+    userRepository.setDailyPnlBuilt(userId, false);
+    userRepository.clearPositionsHwm(userId);
+    checkpointRepository.deleteAllByUserId(userId);
+  }
+
+  /** Like {@link #bump(long)}, keeping checkpoints dated before {@code earliestTradeDate}. */
+  @Transactional
+  public void bump(long userId, LocalDate earliestTradeDate) {
+    userRepository.incrementTradeDataVersion(userId);
+    checkpointRepository.deleteFrom(userId, earliestTradeDate);
+  }
+}
@@ -1,10 +1,12 @@
 package com.austinharlan.trading_dashboard.service;
 
+import com.austinharlan.trading_dashboard.persistence.PnlPeriodTotal;
 import com.austinharlan.trading_dashboard.persistence.TradeEntity;
 import com.austinharlan.trading_dashboard.trades.ClosedTrade;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 import org.springframework.lang.Nullable;
 
 public interface TradeService {
@@ -21,12 +23,44 @@ public interface TradeService {
       @Nullable BigDecimal strikePrice,
       @Nullable LocalDate expirationDate);
 
+  /**
+   * Validates every trade before writing any, then inserts them in JDBC batches and applies the
+   * portfolio changes once per ticker. Only BUY and SELL are accepted; EXPIRE and EXERCISE depend
+   * on the open position and go through {@link #logTrade}. Returns the number of trades written.
+   */
+  int logTrades(List<NewTrade> trades);
+
   List<TradeEntity> listTrades(
       @Nullable String ticker,
       @Nullable String side,
       @Nullable LocalDate from,
       @Nullable LocalDate to);
 
+  /**
+   * One page of trades, newest first, using a keyset cursor on (trade_date, created_at, id). Pass
+   * the previous page's {@code nextCursor} to continue; it is null on the last page.
+   */
+  TradePage listTradesPage(
+      @Nullable String ticker,
+      @Nullable String side,
+      @Nullable LocalDate from,
+      @Nullable LocalDate to,
+      @Nullable String cursor,
+      @Nullable Integer limit);
+
+  /**
+   * Streams every matching trade, newest first, to {@code sink} inside one read-only transaction.
+   * Rows are detached as they are handed over, so memory use does not grow with the result size.
+   * Takes the user id explicitly because callers may run off the request thread.
+   */
+  void exportTrades(
+      long userId,
+      @Nullable String ticker,
+      @Nullable String side,
+      @Nullable LocalDate from,
+      @Nullable LocalDate to,
+      Consumer<TradeEntity> sink);
+
   TradeEntity getTrade(long id);
 
   void deleteTrade(long id);
@@ -35,9 +69,45 @@ public interface TradeService {
 
   TradeStats getStats();
 
-  List<PnlHistoryEntry> getPnlHistory();
+  /**
+   * Realized P&L per day with a running total, read from the daily rollup. The running total
+   * includes everything before {@code from}. Both bounds are optional and inclusive.
+   */
+  List<PnlHistoryEntry> getPnlHistory(@Nullable LocalDate from, @Nullable LocalDate to);
+
+  /** Realized P&L and number of closes per day from the daily rollup; bounds as above. */
+  List<TradeCalendarEntry> getTradeCalendar(@Nullable LocalDate from, @Nullable LocalDate to);
+
+  /** Realized P&L summed per calendar {@code MONTH} or {@code YEAR} from the daily rollup. */
+  List<PnlPeriodTotal> getPnlSummary(
+      String period, @Nullable LocalDate from, @Nullable LocalDate to);
+
+  /**
+   * Runs the lot matcher once and derives stats from the same closed-trade list. The closed-trade
+   * and stats getters above are views over this result; per-day P&L comes from the daily rollup
+   * through {@link #getPnlHistory} and {@link #getTradeCalendar}.
+   */
+  TradeAnalytics getAnalytics();
+
+  /**
+   * Drawdown, volatility, Sharpe/Sortino, profit factor and expectancy over realized P&L, with
+   * trailing 30/90/365-day windows ending today.
+   */
+  RiskMetrics getRiskMetrics();
 
-  List<TradeCalendarEntry> getTradeCalendar();
+  record NewTrade(
+      String ticker,
+      String side,
+      @Nullable BigDecimal quantity,
+      @Nullable BigDecimal pricePerShare,
+      @Nullable LocalDate tradeDate,
+      @Nullable String notes,
+      @Nullable String assetType,
+      @Nullable String optionType,
+      @Nullable BigDecimal strikePrice,
+      @Nullable LocalDate expirationDate) {}
+
+  record TradePage(List<TradeEntity> trades, @Nullable String nextCursor) {}
 
   record TradeStats(
       int totalTrades,
@@ -57,4 +127,38 @@ public interface TradeService {
   record PnlHistoryEntry(LocalDate date, BigDecimal pnl, BigDecimal cumulativePnl) {}
 
   record TradeCalendarEntry(LocalDate date, BigDecimal pnl, int tradeCount) {}
+
+  record TradeAnalytics(TradeStats stats, List<ClosedTrade> closedTrades) {}
+
+  /**
+   * Realized P&L risk metrics. Drawdown is measured on cumulative realized P&L from zero; a
+   * drawdown that starts before the first close reports the day before it as its peak.
+   */
+  record RiskMetrics(
+      LocalDate asOf,
+      int closedTrades,
+      @Nullable Double profitFactor,
+      double expectancy,
+      double avgWin,
+      double avgLoss,
+      double tradePnlStdDev,
+      double maxDrawdown,
+      @Nullable LocalDate maxDrawdownPeak,
+      @Nullable LocalDate maxDrawdownTrough,
+      int longestDrawdownDays,
+      double currentDrawdown,
+      int currentDrawdownDays,
+      List<RiskWindow> windows,
+      RiskWindow allTime) {}
+
+  /** Daily P&L statistics over the trailing {@code days}; {@code observedDays} may be fewer. */
+  record RiskWindow(
+      int days,
+      int observedDays,
+      double totalPnl,
+      double meanDailyPnl,
+      double dailyVolatility,
+      double annualizedVolatility,
+      @Nullable Double sharpe,
+      @Nullable Double sortino) {}
 }
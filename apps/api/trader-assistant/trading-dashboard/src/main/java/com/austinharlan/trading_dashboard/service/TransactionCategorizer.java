@@ -0,0 +1,131 @@
+package com.austinharlan.trading_dashboard.service;
+
+import com.austinharlan.trading_dashboard.service.FinanceCategories.Registry;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.lang.Nullable;
+
+/**
+ * Guesses a default category from a statement description by whole-word merchant keywords. Rules
+ * are tried in order, so a more specific phrase ("uber eats") comes before a shorter one ("uber").
+ * A slug the user has since deleted is never assigned.
+ */
+final class TransactionCategorizer {
+
+  private record Rule(String slug, boolean incomeOnly, List<String> keywords) {}
+
+  private static final List<Rule> RULES =
+      List.of(
+          rule("income", true, "payroll", "salary", "direct dep", "direct deposit", "paycheck"),
+          rule(
+              "dining",
+              false,
+              "uber eats",
+              "doordash",
+              "grubhub",
+              "restaurant",
+              "cafe",
+              "coffee",
+              "starbucks",
+              "mcdonalds",
+              "chipotle",
+              "pizza"),
+          rule(
+              "groceries",
+              false,
+              "whole foods",
+              "trader joe",
+              "safeway",
+              "kroger",
+              "aldi",
+              "publix",
+              "grocery",
+              "supermarket"),
+          rule(
+              "subscriptions",
+              false,
+              "netflix",
+              "spotify",
+              "hulu",
+              "disney plus",
+              "apple com bill",
+              "youtube premium",
+              "patreon"),
+          rule("video_games", false, "steam", "playstation", "xbox", "nintendo"),
+          rule("gambling", false, "casino", "draftkings", "fanduel", "lottery"),
+          rule("investing", false, "robinhood", "vanguard", "fidelity", "schwab", "coinbase"),
+          rule(
+              "transport",
+              false,
+              "uber",
+              "lyft",
+              "shell",
+              "chevron",
+              "exxon",
+              "parking",
+              "transit",
+              "toll"),
+          rule("housing", false, "rent", "mortgage", "hoa"),
+          rule(
+              "utilities",
+              false,
+              "electric",
+              "water",
+              "comcast",
+              "xfinity",
+              "verizon",
+              "at t",
+              "t mobile",
+              "utility"),
+          rule("health", false, "pharmacy", "cvs", "walgreens", "dental", "clinic", "hospital"),
+          rule("entertainment", false, "cinema", "theater", "theatre", "ticketmaster", "amc"),
+          rule("shopping", false, "amazon", "amzn", "target", "walmart", "best buy", "ebay"));
+
+  private TransactionCategorizer() {}
+
+  /** A slug from {@code registry} for the transaction, or null if no rule matches. */
+  @Nullable
+  static String categorize(String description, BigDecimal amount, Registry registry) {
+    String text = normalize(description);
+    for (Rule rule : RULES) {
+      if (rule.incomeOnly() && amount.signum() <= 0) {
+        continue;
+      }
+      if (!registry.contains(rule.slug())) {
+        continue;
+      }
+      for (String keyword : rule.keywords()) {
+        if (text.contains(keyword)) {
+          return rule.slug();
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Lower-case letters and digits, every other run of characters one space, padded with a space at
+   * each end so a keyword wrapped in spaces only matches whole words.
+   */
+  static String normalize(String text) {
+    StringBuilder out = new StringBuilder(text.length() + 2).append(' ');
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        out.append(Character.toLowerCase(c));
+      } else if (c != '\'' && out.charAt(out.length() - 1) != ' ') {
+        out.append(' ');
+      }
+    }
+    if (out.charAt(out.length() - 1) != ' ') {
+      out.append(' ');
+    }
+    return out.toString();
+  }
+
+  private static Rule rule(String slug, boolean incomeOnly, String... keywords) {
+    return new Rule(
+        slug, incomeOnly, Arrays.stream(keywords).map(TransactionCategorizer::normalize).toList());
+  }
+}
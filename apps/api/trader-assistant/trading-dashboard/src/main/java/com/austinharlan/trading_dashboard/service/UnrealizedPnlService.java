@@ -0,0 +1,51 @@
+package com.austinharlan.trading_dashboard.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.lang.Nullable;
+
+public interface UnrealizedPnlService {
+
+  /**
+   * Marks every lot left open by FIFO matching to the current quotes of its ticker. All prices come
+   * from one batched quote lookup; option lots are marked at intrinsic value of the underlying.
+   * Lots whose ticker has no quote are left out of the totals and reported as unpriced.
+   */
+  UnrealizedPnl currentUnrealizedPnl();
+
+  record LotPnl(
+      String ticker,
+      String assetType,
+      @Nullable String optionType,
+      @Nullable BigDecimal strikePrice,
+      @Nullable LocalDate expirationDate,
+      LocalDate openDate,
+      boolean isLong,
+      double quantity,
+      int multiplier,
+      double openPrice,
+      double markPrice,
+      double marketValue,
+      double unrealizedPnl,
+      double dayChange) {}
+
+  record TickerPnl(
+      String ticker,
+      double marketValue,
+      double costBasis,
+      double unrealizedPnl,
+      double dayChange,
+      int lotCount) {}
+
+  record UnrealizedPnl(
+      Instant asOf,
+      double totalMarketValue,
+      double totalCostBasis,
+      double totalUnrealizedPnl,
+      double totalDayChange,
+      List<TickerPnl> tickers,
+      List<LotPnl> lots,
+      List<String> unpricedTickers) {}
+}
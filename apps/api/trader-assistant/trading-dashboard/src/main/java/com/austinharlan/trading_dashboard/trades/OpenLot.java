@@ -0,0 +1,17 @@
+package com.austinharlan.trading_dashboard.trades;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Unmatched remainder of an opening trade: long for buys, short for sells. */
+public record OpenLot(
+    String ticker,
+    BigDecimal quantity,
+    BigDecimal openPrice,
+    LocalDate openDate,
+    boolean isLong,
+    int multiplier,
+    String assetType,
+    String optionType,
+    BigDecimal strikePrice,
+    LocalDate expirationDate) {}
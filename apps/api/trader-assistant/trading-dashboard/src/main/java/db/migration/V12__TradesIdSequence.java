@@ -0,0 +1,46 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Adds {@code trades_id_pool_seq} for Hibernate's pooled id generator so trade inserts can be
+ * batched (IDENTITY ids force one round trip per row).
+ *
+ * <p>Written in Java because the start value depends on existing data and neither {@code setval}
+ * nor {@code RESTART WITH (subquery)} works on both Postgres and H2. The pooled optimizer treats
+ * each {@code nextval} as the top of a 50-id block, so the first value is {@code max(id) + 50}.
+ */
+public class V12__TradesIdSequence extends BaseJavaMigration {
+
+  private static final int ALLOCATION_SIZE = 50;
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    Connection connection = context.getConnection();
+    try (Statement statement = connection.createStatement()) {
+      long maxId;
+      try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM trades")) {
+        rs.next();
+        maxId = rs.getLong(1);
+      }
+      statement.execute(
+          "CREATE SEQUENCE trades_id_pool_seq START WITH "
+              + (maxId + ALLOCATION_SIZE)
+              + " INCREMENT BY "
+              + ALLOCATION_SIZE);
+
+      // Keep raw INSERTs (manual fixes, psql) off Hibernate's blocks: each nextval reserves a
+      // whole block, so a single value taken here is never handed out by the pooled optimizer.
+      if ("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+        statement.execute(
+            "ALTER TABLE trades ALTER COLUMN id SET DEFAULT nextval('trades_id_pool_seq')");
+        statement.execute("ALTER SEQUENCE trades_id_pool_seq OWNED BY trades.id");
+        statement.execute("DROP SEQUENCE IF EXISTS trades_id_seq");
+      }
+    }
+  }
+}
@@ -0,0 +1,4 @@
+-- V10__trade_data_version.sql
+-- Per-user counter bumped on every trade write; cached trade analytics are keyed by it
+
+ALTER TABLE users ADD COLUMN trade_data_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,5 @@
+-- V11__trades_keyset_index.sql
+-- Matches the trade list order so keyset pages seek straight to the cursor
+
+CREATE INDEX idx_trades_user_keyset
+    ON trades (user_id, trade_date DESC, created_at DESC, id DESC);
@@ -0,0 +1,13 @@
+-- V13__portfolio_checkpoints.sql
+-- Month-end snapshots of equity holdings rebuilt from the trade log. As-of queries start from the
+-- nearest checkpoint and replay only later trades; trade writes delete checkpoints they affect.
+
+CREATE TABLE portfolio_checkpoint (
+    id          BIGSERIAL    PRIMARY KEY,
+    user_id     BIGINT       NOT NULL,
+    as_of_date  DATE         NOT NULL,
+    holdings    TEXT         NOT NULL,
+    created_at  TIMESTAMP    NOT NULL DEFAULT NOW(),
+    CONSTRAINT fk_portfolio_checkpoint_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT uq_portfolio_checkpoint_user_date UNIQUE (user_id, as_of_date)
+);
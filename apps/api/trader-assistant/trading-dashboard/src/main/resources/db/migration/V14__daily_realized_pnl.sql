@@ -0,0 +1,15 @@
+-- V14__daily_realized_pnl.sql
+-- Realized P&L per user and sell date, maintained by trade writes so the calendar, P&L history and
+-- period summaries are range scans instead of a full lot-matching replay. Existing users start
+-- with daily_pnl_built = FALSE and get their rows built from the trade log on first read.
+
+CREATE TABLE daily_realized_pnl (
+    user_id       BIGINT         NOT NULL,
+    pnl_date      DATE           NOT NULL,
+    realized_pnl  NUMERIC(24, 6) NOT NULL,
+    trade_count   INTEGER        NOT NULL,
+    CONSTRAINT pk_daily_realized_pnl PRIMARY KEY (user_id, pnl_date),
+    CONSTRAINT fk_daily_realized_pnl_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+ALTER TABLE users ADD COLUMN daily_pnl_built BOOLEAN NOT NULL DEFAULT FALSE;
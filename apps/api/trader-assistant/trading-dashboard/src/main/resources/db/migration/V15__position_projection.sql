@@ -0,0 +1,7 @@
+-- V15__position_projection.sql
+-- portfolio_position becomes a projection of the equity trade log. positions_hwm is the highest
+-- trade id already folded into a user's positions; NULL means the positions have never been
+-- projected (or the trade log was changed outside the trade service) and are rebuilt from scratch
+-- on the next write or read.
+
+ALTER TABLE users ADD COLUMN positions_hwm BIGINT;
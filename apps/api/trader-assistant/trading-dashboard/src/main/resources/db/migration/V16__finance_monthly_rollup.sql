@@ -0,0 +1,16 @@
+-- V16__finance_monthly_rollup.sql
+-- Transaction totals per user and UTC calendar month, maintained by transaction writes so the
+-- finance summary's monthly trend reads a dozen rows instead of every transaction. Existing users
+-- start with finance_rollup_built = FALSE and get their rows built from finance_transaction on
+-- first read.
+
+CREATE TABLE finance_monthly_rollup (
+    user_id       BIGINT         NOT NULL,
+    month_start   DATE           NOT NULL,
+    total_amount  NUMERIC(24, 2) NOT NULL,
+    txn_count     INTEGER        NOT NULL,
+    CONSTRAINT pk_finance_monthly_rollup PRIMARY KEY (user_id, month_start),
+    CONSTRAINT fk_finance_monthly_rollup_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+ALTER TABLE users ADD COLUMN finance_rollup_built BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,6 @@
+-- V17__finance_transaction_breakdown_index.sql
+-- Serves the per-user range scans behind the finance breakdown and summary. Category rides along
+-- in the key so grouping by period and category reads the index in posted_at order.
+
+CREATE INDEX idx_finance_transaction_user_posted_category
+    ON finance_transaction (user_id, posted_at, category);
@@ -0,0 +1,16 @@
+-- V18__finance_transaction_keyset_index.sql
+-- Matches the transaction list order so keyset pages seek straight to the cursor, with and without
+-- a category filter. Categories are lower-cased first: the filter used to compare lower(category),
+-- which no index could serve, and is now a plain equality. The global posted_at and category indexes
+-- from V2 are replaced by the per-user ones.
+
+UPDATE finance_transaction SET category = LOWER(category) WHERE category <> LOWER(category);
+
+CREATE INDEX idx_finance_transaction_user_keyset
+    ON finance_transaction (user_id, posted_at DESC, id DESC);
+
+CREATE INDEX idx_finance_transaction_user_category_keyset
+    ON finance_transaction (user_id, category, posted_at DESC, id DESC);
+
+DROP INDEX finance_transaction_posted_at_idx;
+DROP INDEX finance_transaction_category_idx;
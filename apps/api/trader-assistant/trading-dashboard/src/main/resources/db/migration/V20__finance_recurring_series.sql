@@ -0,0 +1,35 @@
+-- V20__finance_recurring_series.sql
+-- Recurring charge detection. insert_seq numbers transactions in the order they were written, and
+-- users.recurring_hwm is the highest one already folded into the user's series, so each run reads
+-- only the rows written since; NULL means the series are rebuilt from every transaction. A series
+-- row holds running statistics for one merchant whether or not it has been found recurring yet,
+-- since the next charge may be the one that makes it so.
+
+ALTER TABLE finance_transaction ADD COLUMN insert_seq BIGINT GENERATED BY DEFAULT AS IDENTITY;
+
+CREATE INDEX idx_finance_transaction_user_insert_seq
+    ON finance_transaction (user_id, insert_seq);
+
+ALTER TABLE users ADD COLUMN recurring_hwm BIGINT;
+
+CREATE TABLE finance_recurring_series (
+    user_id          BIGINT           NOT NULL,
+    merchant_key     VARCHAR(64)      NOT NULL,
+    merchant         VARCHAR(255)     NOT NULL,
+    category         VARCHAR(64),
+    occurrences      INTEGER          NOT NULL,
+    first_charged_on DATE             NOT NULL,
+    last_charged_on  DATE             NOT NULL,
+    last_amount      NUMERIC(18, 2)   NOT NULL,
+    amount_mean      DOUBLE PRECISION NOT NULL,
+    amount_m2        DOUBLE PRECISION NOT NULL,
+    intervals        INTEGER          NOT NULL,
+    weekly_hits      INTEGER          NOT NULL,
+    biweekly_hits    INTEGER          NOT NULL,
+    monthly_hits     INTEGER          NOT NULL,
+    quarterly_hits   INTEGER          NOT NULL,
+    annual_hits      INTEGER          NOT NULL,
+    cadence          VARCHAR(16),
+    CONSTRAINT pk_finance_recurring_series PRIMARY KEY (user_id, merchant_key),
+    CONSTRAINT fk_finance_recurring_series_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
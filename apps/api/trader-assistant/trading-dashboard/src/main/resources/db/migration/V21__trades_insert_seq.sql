@@ -0,0 +1,11 @@
+-- V21__trades_insert_seq.sql
+-- positions_hwm tracked trade ids, but those come from a pooled sequence where each app instance
+-- reserves its own block, so a lower id can commit after a higher one. insert_seq is assigned by
+-- the database as each row is inserted, and every trade write inserts under the user row lock, so
+-- per user it grows in commit order. The marks are cleared so positions rebuild against it.
+
+ALTER TABLE trades ADD COLUMN insert_seq BIGINT GENERATED BY DEFAULT AS IDENTITY;
+
+CREATE INDEX idx_trades_user_insert_seq ON trades (user_id, insert_seq);
+
+UPDATE users SET positions_hwm = NULL;
@@ -0,0 +1,192 @@
+package com.austinharlan.trading_dashboard;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.austinharlan.trading_dashboard.persistence.DailyRealizedPnlRepository;
+import com.austinharlan.trading_dashboard.persistence.PortfolioPositionRepository;
+import com.austinharlan.trading_dashboard.persistence.TradeEntity;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.trading_dashboard.service.TradeDataVersions;
+import com.austinharlan.trading_dashboard.testsupport.DatabaseIntegrationTest;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class DailyPnlRollupIT extends DatabaseIntegrationTest {
+
+  @Autowired private TestRestTemplate rest;
+  @Autowired private TradeRepository tradeRepository;
+  @Autowired private PortfolioPositionRepository portfolioRepository;
+  @Autowired private DailyRealizedPnlRepository pnlRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private TradeDataVersions tradeDataVersions;
+
+  private final HttpHeaders headers = new HttpHeaders();
+  private Long testUserId;
+
+  {
+    headers.set("X-API-KEY", "test-api-key");
+    headers.setContentType(MediaType.APPLICATION_JSON);
+  }
+
+  @BeforeEach
+  void setUp() {
+    testUserId = userRepository.findByApiKey("test-api-key").orElseThrow().getId();
+  }
+
+  @AfterEach
+  void cleanup() {
+    tradeRepository.deleteAllByUserId(testUserId);
+    portfolioRepository.deleteAllByUserId(testUserId);
+    tradeDataVersions.bump(testUserId);
+  }
+
+  @Test
+  void writesKeepRollupsEqualToAFullReplay() {
+    postTrade("AAPL", "BUY", 10, 100, "2025-01-10");
+    // First read builds the rows; every later write maintains them.
+    assertThat(calendar("")).isEmpty();
+
+    postTrade("AAPL", "SELL", 4, 120, "2025-02-03");
+    postTrade("MSFT", "BUY", 5, 200, "2025-02-04");
+    postTrade("MSFT", "SELL", 5, 190, "2025-02-03");
+    postBatch(
+        """
+        {"trades":[
+          {"ticker":"AAPL","side":"SELL","quantity":6,"pricePerShare":90,"tradeDate":"2025-03-01"},
+          {"ticker":"NVDA","side":"BUY","quantity":1,"pricePerShare":400,"tradeDate":"2025-03-02"},
+          {"ticker":"NVDA","side":"SELL","quantity":1,"pricePerShare":450,"tradeDate":"2026-01-05"}]}
+        """);
+    // Backdated buy moves the FIFO basis of every AAPL close after it.
+    Map<String, Object> backdated = postTrade("AAPL", "BUY", 2, 50, "2025-01-02");
+    rest.exchange(
+        "/api/trades/" + backdated.get("id"),
+        HttpMethod.DELETE,
+        new HttpEntity<>(headers),
+        Void.class);
+    postTrade("AAPL", "BUY", 1, 80, "2025-01-05");
+
+    List<Map<String, Object>> incremental = calendar("");
+    assertThat(incremental).hasSizeGreaterThanOrEqualTo(3);
+
+    // Force a rebuild from the trade log and compare.
+    tradeDataVersions.bump(testUserId);
+    assertThat(calendar("")).isEqualTo(incremental);
+    // Analytics serves the same daily rows as the dedicated endpoints.
+    Map analytics =
+        rest.exchange("/api/trades/analytics", HttpMethod.GET, new HttpEntity<>(headers), Map.class)
+            .getBody();
+    assertThat(analytics.get("calendar")).isEqualTo(incremental);
+    assertThat(analytics.get("pnlHistory")).isEqualTo(history(""));
+  }
+
+  @Test
+  void rangeQueriesAndSummariesComeFromTheRollup() {
+    postTrade("AAPL", "BUY", 10, 100, "2025-01-10");
+    postTrade("AAPL", "SELL", 2, 110, "2025-01-20");
+    postTrade("AAPL", "SELL", 2, 90, "2025-02-10");
+    postTrade("AAPL", "SELL", 2, 130, "2025-02-11");
+    postTrade("AAPL", "SELL", 2, 100, "2026-03-01");
+
+    assertThat(calendar("?from=2025-02-01&to=2025-02-28"))
+        .extracting(e -> e.get("date"))
+        .containsExactly("2025-02-10", "2025-02-11");
+
+    List<Map<String, Object>> history = history("?from=2025-02-11");
+    assertThat(history).hasSize(2);
+    // 20 from January and -20 on Feb 10 are carried into the running total.
+    assertThat(((Number) history.get(0).get("cumulativePnl")).doubleValue())
+        .isCloseTo(60.0, within(1e-9));
+    assertThat(((Number) history.get(1).get("cumulativePnl")).doubleValue())
+        .isCloseTo(60.0, within(1e-9));
+
+    List<Map<String, Object>> months = summary("?period=MONTH");
+    assertThat(months)
+        .extracting(m -> m.get("year"), m -> m.get("month"), m -> m.get("tradeCount"))
+        .containsExactly(tuple(2025, 1, 1), tuple(2025, 2, 2), tuple(2026, 3, 1));
+    assertThat(((Number) months.get(1).get("pnl")).doubleValue()).isCloseTo(40.0, within(1e-9));
+
+    List<Map<String, Object>> years = summary("?period=YEAR&to=2025-12-31");
+    assertThat(years).singleElement().satisfies(y -> assertThat(y.get("year")).isEqualTo(2025));
+    assertThat(((Number) years.get(0).get("pnl")).doubleValue()).isCloseTo(60.0, within(1e-9));
+
+    ResponseEntity<Map> bad =
+        rest.exchange(
+            "/api/trades/pnl-summary?period=WEEK",
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            Map.class);
+    assertThat(bad.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  @Test
+  void writesOutsideTheTradeServiceAreCaughtByTheNextRead() {
+    postTrade("AAPL", "BUY", 10, 100, "2025-01-10");
+    postTrade("AAPL", "SELL", 5, 110, "2025-01-20");
+    assertThat(calendar("")).hasSize(1);
+
+    tradeRepository.save(
+        new TradeEntity(
+            testUserId,
+            "AAPL",
+            "SELL",
+            BigDecimal.valueOf(5),
+            BigDecimal.valueOf(120),
+            LocalDate.of(2025, 1, 25),
+            null));
+    tradeDataVersions.bump(testUserId);
+
+    assertThat(calendar("")).hasSize(2);
+    assertThat(pnlRepository.findRange(testUserId, null, null)).hasSize(2);
+  }
+
+  private Map<String, Object> postTrade(
+      String ticker, String side, double quantity, double price, String date) {
+    String body =
+        """
+        {"ticker":"%s","side":"%s","quantity":%s,"pricePerShare":%s,"tradeDate":"%s"}
+        """
+            .formatted(ticker, side, quantity, price, date);
+    ResponseEntity<Map> response =
+        rest.exchange("/api/trades", HttpMethod.POST, new HttpEntity<>(body, headers), Map.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    return response.getBody();
+  }
+
+  private void postBatch(String body) {
+    ResponseEntity<Map> response =
+        rest.exchange(
+            "/api/trades/batch", HttpMethod.POST, new HttpEntity<>(body, headers), Map.class);
+    assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+  }
+
+  private List<Map<String, Object>> calendar(String query) {
+    return entries("/api/trades/calendar" + query);
+  }
+
+  private List<Map<String, Object>> history(String query) {
+    return entries("/api/trades/pnl-history" + query);
+  }
+
+  private List<Map<String, Object>> summary(String query) {
+    return entries("/api/trades/pnl-summary" + query);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Map<String, Object>> entries(String url) {
+    ResponseEntity<Map> response =
+        rest.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    return (List<Map<String, Object>>) response.getBody().get("entries");
+  }
+}
@@ -0,0 +1,216 @@
+package com.austinharlan.trading_dashboard;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.austinharlan.trading_dashboard.marketdata.DailyBar;
+import com.austinharlan.trading_dashboard.marketdata.MarketDataProvider;
+import com.austinharlan.trading_dashboard.persistence.PortfolioCheckpointEntity;
+import com.austinharlan.trading_dashboard.persistence.PortfolioCheckpointRepository;
+import com.austinharlan.trading_dashboard.persistence.PortfolioPositionRepository;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.trading_dashboard.service.TradeDataVersions;
+import com.austinharlan.trading_dashboard.testsupport.DatabaseIntegrationTest;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PortfolioAsOfIT extends DatabaseIntegrationTest {
+
+  @Autowired private TestRestTemplate rest;
+  @Autowired private TradeRepository tradeRepository;
+  @Autowired private PortfolioPositionRepository portfolioRepository;
+  @Autowired private PortfolioCheckpointRepository checkpointRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private TradeDataVersions tradeDataVersions;
+  @MockBean private MarketDataProvider marketDataProvider;
+
+  private final HttpHeaders headers = new HttpHeaders();
+  private Long testUserId;
+
+  {
+    headers.set("X-API-KEY", "test-api-key");
+    headers.setContentType(MediaType.APPLICATION_JSON);
+  }
+
+  @BeforeEach
+  void setUp() {
+    testUserId = userRepository.findByApiKey("test-api-key").orElseThrow().getId();
+  }
+
+  @AfterEach
+  void cleanup() {
+    tradeRepository.deleteAllByUserId(testUserId);
+    portfolioRepository.deleteAllByUserId(testUserId);
+    tradeDataVersions.bump(testUserId);
+  }
+
+  @Test
+  void asOf_replaysTradesUpToTheDateAndCheckpointsMonthEnds() {
+    postTrade("AAPL", "BUY", 10, 100, "2025-01-10");
+    postTrade("MSFT", "BUY", 5, 200, "2025-02-03");
+    postTrade("AAPL", "SELL", 4, 120, "2025-03-15");
+
+    assertThat(asOf("2025-01-09")).isEmpty();
+    assertThat(asOf("2025-01-31"))
+        .singleElement()
+        .satisfies(p -> assertPosition(p, "AAPL", 10, 1000));
+
+    List<Map<String, Object>> march = asOf("2025-03-20");
+    assertThat(march).hasSize(2);
+    assertPosition(march.get(0), "AAPL", 6, 600);
+    assertPosition(march.get(1), "MSFT", 5, 1000);
+
+    // The second query started from the January checkpoint and added February's.
+    assertThat(checkpointDates())
+        .containsExactly(LocalDate.parse("2025-01-31"), LocalDate.parse("2025-02-28"));
+  }
+
+  @Test
+  void asOf_todayMatchesLivePositions() {
+    postTrade("AAPL", "BUY", 10, 100, "2025-01-10");
+    postTrade("AAPL", "SELL", 3, 150, "2025-06-02");
+    postTrade("NVDA", "BUY", 2, 400, "2025-09-30");
+    postTrade("NVDA", "SELL", 2, 420, "2025-10-01");
+
+    List<Map<String, Object>> today = asOf(LocalDate.now().toString());
+    ResponseEntity<Map> live =
+        rest.exchange(
+            "/api/portfolio/positions", HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+    assertThat(today).isEqualTo(live.getBody().get("positions"));
+    assertThat(today).singleElement().satisfies(p -> assertPosition(p, "AAPL", 7, 700));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void history_multipliesClosesByTheQuantityHeldOnEachDate() {
+    LocalDate today = LocalDate.now();
+    postTrade("AAPL", "BUY", 10, 100, today.minusDays(60).toString());
+    postTrade("AAPL", "SELL", 4, 120, today.minusDays(20).toString());
+    postTrade("MSFT", "BUY", 2, 300, today.minusDays(10).toString());
+    when(marketDataProvider.getDailyHistory(anyString()))
+        .thenAnswer(call -> dailyBars(today.minusDays(45), today.minusDays(1)));
+
+    ResponseEntity<Map> response =
+        rest.exchange(
+            "/api/portfolio/history?range=1M",
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            Map.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    List<String> dates = (List<String>) response.getBody().get("dates");
+    List<Number> values = (List<Number>) response.getBody().get("values");
+    List<Map<String, Object>> tickers =
+        (List<Map<String, Object>>) response.getBody().get("tickers");
+    assertThat(LocalDate.parse(dates.get(0))).isAfterOrEqualTo(today.minusMonths(1));
+    assertThat(tickers).extracting(t -> t.get("ticker")).containsExactly("AAPL", "MSFT");
+    List<Number> aaplQty = (List<Number>) tickers.get(0).get("quantities");
+    assertThat(aaplQty.get(0).doubleValue()).isEqualTo(10.0);
+    assertThat(aaplQty.get(aaplQty.size() - 1).doubleValue()).isEqualTo(6.0);
+    for (int i = 0; i < dates.size(); i++) {
+      double expected = 0;
+      for (Map<String, Object> ticker : tickers) {
+        Number qty = ((List<Number>) ticker.get("quantities")).get(i);
+        Number close = ((List<Number>) ticker.get("closes")).get(i);
+        expected += close == null ? 0 : qty.doubleValue() * close.doubleValue();
+      }
+      assertThat(values.get(i).doubleValue()).isCloseTo(expected, within(1e-6));
+    }
+  }
+
+  @Test
+  void backdatedWrites_dropOnlyCheckpointsOnOrAfterTheTradeDate() {
+    postTrade("AAPL", "BUY", 10, 100, "2025-01-10");
+    postTrade("AAPL", "SELL", 4, 120, "2025-03-15");
+    asOf("2025-03-20");
+    assertThat(checkpointDates())
+        .containsExactly(LocalDate.parse("2025-01-31"), LocalDate.parse("2025-02-28"));
+
+    Map<String, Object> backdated = postTrade("AAPL", "BUY", 2, 50, "2025-02-10");
+
+    assertThat(checkpointDates()).containsExactly(LocalDate.parse("2025-01-31"));
+    // 12 shares for 1100, then selling 4 keeps two thirds of the basis.
+    assertThat(asOf("2025-03-20"))
+        .singleElement()
+        .satisfies(p -> assertPosition(p, "AAPL", 8, 733.333333));
+
+    rest.exchange(
+        "/api/trades/" + backdated.get("id"),
+        HttpMethod.DELETE,
+        new HttpEntity<>(headers),
+        Void.class);
+
+    assertThat(checkpointDates()).containsExactly(LocalDate.parse("2025-01-31"));
+    assertThat(asOf("2025-03-20"))
+        .singleElement()
+        .satisfies(p -> assertPosition(p, "AAPL", 6, 600));
+  }
+
+  private Map<String, Object> postTrade(
+      String ticker, String side, double quantity, double price, String date) {
+    String body =
+        """
+        {"ticker":"%s","side":"%s","quantity":%s,"pricePerShare":%s,"tradeDate":"%s"}
+        """
+            .formatted(ticker, side, quantity, price, date);
+    ResponseEntity<Map> response =
+        rest.exchange("/api/trades", HttpMethod.POST, new HttpEntity<>(body, headers), Map.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    return response.getBody();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Map<String, Object>> asOf(String date) {
+    ResponseEntity<Map> response =
+        rest.exchange(
+            "/api/portfolio/as-of?date=" + date,
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            Map.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).containsEntry("date", date);
+    return (List<Map<String, Object>>) response.getBody().get("positions");
+  }
+
+  /** One bar per weekday, closing at 100 plus the day of month. */
+  private static List<DailyBar> dailyBars(LocalDate from, LocalDate to) {
+    return from.datesUntil(to.plusDays(1))
+        .filter(d -> d.getDayOfWeek().getValue() < 6)
+        .map(
+            d -> {
+              BigDecimal close = BigDecimal.valueOf(100 + d.getDayOfMonth());
+              return new DailyBar(d, close, close, close, close, 1_000L);
+            })
+        .toList();
+  }
+
+  private List<LocalDate> checkpointDates() {
+    return checkpointRepository.findAll().stream()
+        .filter(c -> c.getUserId().equals(testUserId))
+        .map(PortfolioCheckpointEntity::getAsOfDate)
+        .sorted()
+        .toList();
+  }
+
+  private static void assertPosition(
+      Map<String, Object> position, String ticker, double quantity, double costBasis) {
+    assertThat(position).containsEntry("ticker", ticker);
+    assertThat(((Number) position.get("quantity")).doubleValue()).isEqualTo(quantity);
+    assertThat(((Number) position.get("cost_basis")).doubleValue())
+        .isCloseTo(costBasis, within(1e-6));
+  }
+}
@@ -0,0 +1,219 @@
+package com.austinharlan.trading_dashboard;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.austinharlan.trading_dashboard.persistence.PortfolioPositionEntity;
+import com.austinharlan.trading_dashboard.persistence.PortfolioPositionRepository;
+import com.austinharlan.trading_dashboard.persistence.TradeEntity;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.trading_dashboard.service.TradeDataVersions;
+import com.austinharlan.trading_dashboard.testsupport.DatabaseIntegrationTest;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PositionProjectionIT extends DatabaseIntegrationTest {
+
+  @Autowired private TestRestTemplate rest;
+  @Autowired private TradeRepository tradeRepository;
+  @Autowired private PortfolioPositionRepository portfolioRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private TradeDataVersions tradeDataVersions;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private final HttpHeaders headers = new HttpHeaders();
+  private Long testUserId;
+
+  {
+    headers.set("X-API-KEY", "test-api-key");
+    headers.setContentType(MediaType.APPLICATION_JSON);
+  }
+
+  @BeforeEach
+  void setUp() {
+    testUserId = userRepository.findByApiKey("test-api-key").orElseThrow().getId();
+  }
+
+  @AfterEach
+  void cleanup() {
+    // Exercises link two trades to each other; unlink them so the rows can be deleted.
+    List<TradeEntity> trades = tradeRepository.findAllChronologicalByUserId(testUserId);
+    trades.forEach(t -> t.setLinkedTradeId(null));
+    tradeRepository.saveAll(trades);
+    tradeRepository.deleteAllByUserId(testUserId);
+    portfolioRepository.deleteAllByUserId(testUserId);
+    tradeDataVersions.bump(testUserId);
+  }
+
+  @Test
+  void deletingTrades_revertsThePosition() {
+    postTrade("AAPL", "BUY", 10, 100, "2025-01-10");
+    Map<String, Object> sell = postTrade("AAPL", "SELL", 4, 120, "2025-02-10");
+    assertPosition("AAPL", "6", "600");
+
+    deleteTrade(sell.get("id"));
+    assertPosition("AAPL", "10", "1000");
+
+    deleteTrade(tradeRepository.findAllChronologicalByUserId(testUserId).get(0).getId());
+    assertThat(portfolioRepository.findByUserIdAndTicker(testUserId, "AAPL")).isEmpty();
+  }
+
+  @Test
+  void backdatedTrade_replaysTheTickerInDateOrder() {
+    postTrade("AAPL", "BUY", 10, 100, "2025-01-10");
+    postTrade("AAPL", "SELL", 5, 120, "2025-03-10");
+    postTrade("MSFT", "BUY", 2, 300, "2025-03-11");
+    assertPosition("AAPL", "5", "500");
+
+    postTrade("AAPL", "BUY", 10, 200, "2025-02-10");
+
+    // 20 shares for 3000, then selling 5 keeps three quarters of the basis.
+    assertPosition("AAPL", "15", "2250");
+    assertPosition("MSFT", "2", "600");
+    ResponseEntity<Map> asOf =
+        rest.exchange(
+            "/api/portfolio/as-of?date=" + LocalDate.now(),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            Map.class);
+    ResponseEntity<Map> live =
+        rest.exchange(
+            "/api/portfolio/positions", HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+    assertThat(live.getBody().get("positions")).isEqualTo(asOf.getBody().get("positions"));
+  }
+
+  @Test
+  void exercise_projectsTheLinkedEquityTrade() {
+    String open =
+        """
+        {"ticker":"AAPL","side":"BUY","quantity":2,"pricePerShare":5,"tradeDate":"2025-03-01",
+         "assetType":"OPTION","optionType":"CALL","strikePrice":150,"expirationDate":"2025-04-17"}
+        """;
+    String exercise =
+        """
+        {"ticker":"AAPL","side":"EXERCISE","quantity":1,"tradeDate":"2025-04-10",
+         "assetType":"OPTION","optionType":"CALL","strikePrice":150,"expirationDate":"2025-04-17"}
+        """;
+    post(open);
+    post(exercise);
+
+    assertPosition("AAPL", "100", "15000");
+  }
+
+  @Test
+  void tradeCommittedWithALowerIdAfterTheMark_isStillProjected() {
+    postTrade("AAPL", "BUY", 10, 100, "2025-01-10");
+    // Another instance commits an id from an earlier block of the pooled sequence.
+    long lowerId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM trades", Long.class) - 1;
+    jdbcTemplate.update(
+        "INSERT INTO trades (id, user_id, ticker, side, quantity, price_per_share, trade_date,"
+            + " created_at, asset_type, multiplier)"
+            + " VALUES (?, ?, 'NVDA', 'BUY', 3, 400, DATE '2025-01-12', CURRENT_TIMESTAMP,"
+            + " 'EQUITY', 1)",
+        lowerId,
+        testUserId);
+
+    postTrade("MSFT", "BUY", 2, 300, "2025-01-13");
+
+    assertPosition("NVDA", "3", "1200");
+    assertPosition("MSFT", "2", "600");
+  }
+
+  @Test
+  void tradesWrittenOutsideTheTradeService_areProjectedOnTheNextRead() {
+    postTrade("AAPL", "BUY", 10, 100, "2025-01-10");
+    tradeRepository.save(
+        new TradeEntity(
+            testUserId,
+            "NVDA",
+            "BUY",
+            new BigDecimal("3"),
+            new BigDecimal("400"),
+            LocalDate.parse("2025-01-12"),
+            null));
+    tradeDataVersions.bump(testUserId);
+
+    ResponseEntity<Map> live =
+        rest.exchange(
+            "/api/portfolio/positions", HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+    assertThat((List<?>) live.getBody().get("positions")).hasSize(2);
+    assertPosition("NVDA", "3", "1200");
+  }
+
+  @Test
+  void rebuildAll_correctsDriftAndLeavesHandEnteredPositions() {
+    postTrade("AAPL", "BUY", 10, 100, "2025-01-10");
+    postTrade("AAPL", "SELL", 4, 120, "2025-02-10");
+    post(
+        "/api/portfolio/positions", "{\"ticker\":\"MANUAL\",\"quantity\":3,\"price_per_share\":7}");
+    // Settle every user first; other tests may have left theirs waiting for a rebuild.
+    rebuildAll();
+    PortfolioPositionEntity aapl =
+        portfolioRepository.findByUserIdAndTicker(testUserId, "AAPL").orElseThrow();
+    aapl.setQty(new BigDecimal("999"));
+    portfolioRepository.save(aapl);
+
+    Map<String, Object> report = rebuildAll();
+
+    assertThat(((Number) report.get("driftedUsers")).intValue()).isEqualTo(1);
+    assertThat(((Number) report.get("positionsCorrected")).intValue()).isEqualTo(1);
+    assertThat(((Number) report.get("failedUsers")).intValue()).isZero();
+    assertPosition("AAPL", "6", "600");
+    assertPosition("MANUAL", "3", "21");
+    assertThat(((Number) rebuildAll().get("positionsCorrected")).intValue()).isZero();
+  }
+
+  private Map<String, Object> rebuildAll() {
+    ResponseEntity<Map> response =
+        rest.exchange(
+            "/api/admin/positions/rebuild", HttpMethod.POST, new HttpEntity<>(headers), Map.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    return response.getBody();
+  }
+
+  private Map<String, Object> postTrade(
+      String ticker, String side, double quantity, double price, String date) {
+    return post(
+        """
+        {"ticker":"%s","side":"%s","quantity":%s,"pricePerShare":%s,"tradeDate":"%s"}
+        """
+            .formatted(ticker, side, quantity, price, date));
+  }
+
+  private Map<String, Object> post(String body) {
+    return post("/api/trades", body);
+  }
+
+  private Map<String, Object> post(String path, String body) {
+    ResponseEntity<Map> response =
+        rest.exchange(path, HttpMethod.POST, new HttpEntity<>(body, headers), Map.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    return response.getBody();
+  }
+
+  private void deleteTrade(Object id) {
+    ResponseEntity<Void> response =
+        rest.exchange(
+            "/api/trades/" + id, HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+  }
+
+  private void assertPosition(String ticker, String quantity, String basis) {
+    PortfolioPositionEntity position =
+        portfolioRepository.findByUserIdAndTicker(testUserId, ticker).orElseThrow();
+    assertThat(position.getQty()).isEqualByComparingTo(quantity);
+    assertThat(position.getBasis()).isEqualByComparingTo(basis);
+  }
+}
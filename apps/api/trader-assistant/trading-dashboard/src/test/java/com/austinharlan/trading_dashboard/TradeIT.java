@@ -2,12 +2,17 @@ package com.austinharlan.trading_dashboard;
 
 import static org.assertj.core.api.Assertions.*;
 
+import com.austinharlan.trading_dashboard.persistence.PortfolioPositionEntity;
+import com.austinharlan.trading_dashboard.persistence.PortfolioPositionRepository;
 import com.austinharlan.trading_dashboard.persistence.TradeEntity;
 import com.austinharlan.trading_dashboard.persistence.TradeRepository;
 import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.trading_dashboard.service.TradeDataVersions;
 import com.austinharlan.trading_dashboard.testsupport.DatabaseIntegrationTest;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.AfterEach;
@@ -24,6 +29,8 @@ class TradeIT extends DatabaseIntegrationTest {
   @Autowired private TestRestTemplate rest;
   @Autowired private TradeRepository tradeRepository;
   @Autowired private UserRepository userRepository;
+  @Autowired private TradeDataVersions tradeDataVersions;
+  @Autowired private PortfolioPositionRepository portfolioRepository;
 
   private final HttpHeaders headers = new HttpHeaders();
   private Long testUserId;
@@ -41,6 +48,8 @@ class TradeIT extends DatabaseIntegrationTest {
   @AfterEach
   void cleanup() {
     tradeRepository.deleteAllByUserId(testUserId);
+    // Fixtures are written straight through the repository, so invalidate cached analytics here.
+    tradeDataVersions.bump(testUserId);
   }
 
   @Test
@@ -202,6 +211,88 @@ class TradeIT extends DatabaseIntegrationTest {
         .isCloseTo(100.0, within(0.1));
   }
 
+  @Test
+  void analytics_returnsAllViewsInOneResponse() {
+    tradeRepository.save(
+        new TradeEntity(
+            testUserId,
+            "AAPL",
+            "BUY",
+            BigDecimal.TEN,
+            BigDecimal.valueOf(100),
+            LocalDate.of(2026, 1, 1),
+            null));
+    tradeRepository.save(
+        new TradeEntity(
+            testUserId,
+            "AAPL",
+            "SELL",
+            BigDecimal.TEN,
+            BigDecimal.valueOf(150),
+            LocalDate.of(2026, 2, 1),
+            null));
+
+    ResponseEntity<Map> response =
+        rest.exchange(
+            "/api/trades/analytics", HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    Map stats = (Map) response.getBody().get("stats");
+    assertThat(((Number) stats.get("wins")).intValue()).isEqualTo(1);
+    assertThat((List<Map>) response.getBody().get("closedTrades")).hasSize(1);
+    List<Map> history = (List<Map>) response.getBody().get("pnlHistory");
+    assertThat(((Number) history.get(0).get("cumulativePnl")).doubleValue())
+        .isCloseTo(500.0, within(0.01));
+    List<Map> calendar = (List<Map>) response.getBody().get("calendar");
+    assertThat(calendar).hasSize(1);
+    assertThat(calendar.get(0).get("date")).isEqualTo("2026-02-01");
+  }
+
+  @Test
+  void risk_returnsDrawdownAndWindows() {
+    LocalDate today = LocalDate.now();
+    tradeRepository.save(
+        new TradeEntity(
+            testUserId,
+            "AAPL",
+            "BUY",
+            BigDecimal.TEN,
+            BigDecimal.valueOf(100),
+            today.minusDays(10),
+            null));
+    tradeRepository.save(
+        new TradeEntity(
+            testUserId,
+            "AAPL",
+            "SELL",
+            BigDecimal.ONE,
+            BigDecimal.valueOf(150),
+            today.minusDays(5),
+            null));
+    tradeRepository.save(
+        new TradeEntity(
+            testUserId,
+            "AAPL",
+            "SELL",
+            BigDecimal.ONE,
+            BigDecimal.valueOf(80),
+            today.minusDays(2),
+            null));
+
+    ResponseEntity<Map> response =
+        rest.exchange("/api/trades/risk", HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    Map body = response.getBody();
+    assertThat(((Number) body.get("closedTrades")).intValue()).isEqualTo(2);
+    assertThat(((Number) body.get("profitFactor")).doubleValue()).isCloseTo(2.5, within(1e-9));
+    assertThat(((Number) body.get("maxDrawdown")).doubleValue()).isCloseTo(20.0, within(1e-9));
+    List<Map> windows = (List<Map>) body.get("windows");
+    assertThat(windows).extracting(w -> w.get("days")).containsExactly(30, 90, 365);
+    assertThat(((Number) windows.get(0).get("totalPnl")).doubleValue())
+        .isCloseTo(30.0, within(1e-9));
+  }
+
   @Test
   void postOptionTrade_returns201WithOptionFields() {
     String body =
@@ -293,4 +384,172 @@ class TradeIT extends DatabaseIntegrationTest {
 
     assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
   }
+
+  @Test
+  void postExpire_closesOpenQuantityOfThatContractOnly() {
+    String open =
+        """
+        {"ticker":"AAPL","side":"BUY","quantity":3,"pricePerShare":2.5,"tradeDate":"2026-03-01",
+         "assetType":"OPTION","optionType":"CALL","strikePrice":200,"expirationDate":"2026-04-17"}
+        """;
+    String otherStrike =
+        """
+        {"ticker":"AAPL","side":"BUY","quantity":5,"pricePerShare":1.5,"tradeDate":"2026-03-01",
+         "assetType":"OPTION","optionType":"CALL","strikePrice":210,"expirationDate":"2026-04-17"}
+        """;
+    String partialClose =
+        """
+        {"ticker":"AAPL","side":"SELL","quantity":1,"pricePerShare":3.0,"tradeDate":"2026-03-10",
+         "assetType":"OPTION","optionType":"CALL","strikePrice":200,"expirationDate":"2026-04-17"}
+        """;
+    String expire =
+        """
+        {"ticker":"AAPL","side":"EXPIRE","tradeDate":"2026-04-17",
+         "assetType":"OPTION","optionType":"CALL","strikePrice":200.00,"expirationDate":"2026-04-17"}
+        """;
+    for (String body : List.of(open, otherStrike, partialClose)) {
+      rest.exchange("/api/trades", HttpMethod.POST, new HttpEntity<>(body, headers), Map.class);
+    }
+
+    ResponseEntity<Map> response =
+        rest.exchange("/api/trades", HttpMethod.POST, new HttpEntity<>(expire, headers), Map.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    assertThat(((Number) response.getBody().get("quantity")).doubleValue()).isEqualTo(2.0);
+  }
+
+  @Test
+  void listTrades_keysetPagesCoverHistoryWithoutGapsOrDuplicates() {
+    for (int day = 1; day <= 5; day++) {
+      tradeRepository.save(
+          new TradeEntity(
+              testUserId,
+              "T" + day,
+              "BUY",
+              BigDecimal.ONE,
+              BigDecimal.TEN,
+              LocalDate.of(2026, 1, day % 3 + 1),
+              null));
+    }
+
+    List<String> seen = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      String url = "/api/trades?limit=2" + (cursor != null ? "&cursor=" + cursor : "");
+      ResponseEntity<Map> page =
+          rest.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+      assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+      List<Map> trades = (List<Map>) page.getBody().get("trades");
+      assertThat(trades).hasSizeLessThanOrEqualTo(2);
+      trades.forEach(t -> seen.add(t.get("tradeDate") + " " + t.get("ticker")));
+      cursor = (String) page.getBody().get("nextCursor");
+      pages++;
+    } while (cursor != null);
+
+    assertThat(pages).isEqualTo(3);
+    assertThat(seen).doesNotHaveDuplicates().hasSize(5);
+    assertThat(seen)
+        .isSortedAccordingTo(Comparator.comparing((String t) -> t.substring(0, 10)).reversed());
+  }
+
+  @Test
+  void listTrades_rejectsMalformedCursor() {
+    ResponseEntity<Map> response =
+        rest.exchange(
+            "/api/trades?cursor=not-a-cursor",
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            Map.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  @Test
+  void exportTrades_streamsOneJsonObjectPerLine() {
+    tradeRepository.save(
+        new TradeEntity(
+            testUserId,
+            "AAPL",
+            "BUY",
+            BigDecimal.TEN,
+            BigDecimal.ONE,
+            LocalDate.of(2026, 1, 1),
+            null));
+    tradeRepository.save(
+        new TradeEntity(
+            testUserId,
+            "MSFT",
+            "BUY",
+            BigDecimal.TEN,
+            BigDecimal.ONE,
+            LocalDate.of(2026, 2, 1),
+            null));
+
+    ResponseEntity<String> response =
+        rest.exchange(
+            "/api/trades/export", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getHeaders().getContentType().toString())
+        .startsWith("application/x-ndjson");
+    String[] lines = response.getBody().strip().split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).contains("\"ticker\":\"MSFT\"");
+    assertThat(lines[1]).contains("\"ticker\":\"AAPL\"");
+  }
+
+  @Test
+  void postBatch_insertsAllTradesAndFoldsPortfolioPerTicker() {
+    StringBuilder body = new StringBuilder("{\"trades\":[");
+    for (int i = 0; i < 120; i++) {
+      if (i > 0) body.append(',');
+      body.append(
+          String.format(
+              "{\"ticker\":\"BAT%d\",\"side\":\"BUY\",\"quantity\":2,"
+                  + "\"pricePerShare\":10,\"tradeDate\":\"2026-01-02\"}",
+              i % 3));
+    }
+    body.append(
+        ",{\"ticker\":\"BAT0\",\"side\":\"SELL\",\"quantity\":40,\"pricePerShare\":12,"
+            + "\"tradeDate\":\"2026-01-03\"}]}");
+
+    ResponseEntity<Map> response =
+        rest.exchange(
+            "/api/trades/batch",
+            HttpMethod.POST,
+            new HttpEntity<>(body.toString(), headers),
+            Map.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    assertThat(response.getBody()).containsEntry("tradesLogged", 121);
+    assertThat(tradeRepository.findAllChronologicalByUserId(testUserId)).hasSize(121);
+    // 40 BAT0 buys of 2 → 80 shares; selling 40 keeps half the basis.
+    PortfolioPositionEntity bat0 =
+        portfolioRepository.findByUserIdAndTicker(testUserId, "BAT0").orElseThrow();
+    assertThat(bat0.getQty()).isEqualByComparingTo("40");
+    assertThat(bat0.getBasis()).isEqualByComparingTo("400");
+    assertThat(portfolioRepository.findByUserIdAndTicker(testUserId, "BAT1").orElseThrow().getQty())
+        .isEqualByComparingTo("80");
+    portfolioRepository.deleteAllByUserId(testUserId);
+  }
+
+  @Test
+  void postBatch_rejectsWholeBatchWhenAnyTradeIsInvalid() {
+    String body =
+        """
+        {"trades":[
+          {"ticker":"AAPL","side":"BUY","quantity":1,"pricePerShare":100,"tradeDate":"2026-01-02"},
+          {"ticker":"AAPL","side":"SELL","quantity":1,"tradeDate":"2026-01-03"}
+        ]}
+        """;
+
+    ResponseEntity<Map> response =
+        rest.exchange(
+            "/api/trades/batch", HttpMethod.POST, new HttpEntity<>(body, headers), Map.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat((String) response.getBody().get("message")).startsWith("trades[1]:");
+    assertThat(tradeRepository.findAllChronologicalByUserId(testUserId)).isEmpty();
+  }
 }
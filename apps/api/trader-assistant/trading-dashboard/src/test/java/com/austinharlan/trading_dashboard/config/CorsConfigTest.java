@@ -0,0 +1,37 @@
+package com.austinharlan.trading_dashboard.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.cors.CorsConfiguration;
+
+class CorsConfigTest {
+
+  private final CorsConfig config = new CorsConfig();
+
+  @Test
+  void exposesTheCursorHeader_whenNoExposedHeadersAreConfigured() {
+    assertThat(exposedHeaders(new CorsConfig.CorsProperties())).containsExactly("X-Next-Cursor");
+  }
+
+  @Test
+  void addsTheCursorHeader_toConfiguredExposedHeaders() {
+    CorsConfig.CorsProperties properties = new CorsConfig.CorsProperties();
+    properties.setExposedHeaders(List.of("X-Request-Id"));
+
+    assertThat(exposedHeaders(properties)).containsExactly("X-Request-Id", "X-Next-Cursor");
+
+    properties.setExposedHeaders(List.of("X-Next-Cursor", "X-Request-Id"));
+    assertThat(exposedHeaders(properties)).containsExactly("X-Next-Cursor", "X-Request-Id");
+  }
+
+  private List<String> exposedHeaders(CorsConfig.CorsProperties properties) {
+    CorsConfiguration cors =
+        config
+            .corsConfigurationSource(properties)
+            .getCorsConfiguration(new MockHttpServletRequest("GET", "/api/finance/transactions"));
+    return cors.getExposedHeaders();
+  }
+}
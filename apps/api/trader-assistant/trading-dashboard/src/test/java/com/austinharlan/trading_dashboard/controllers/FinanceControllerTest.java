@@ -5,15 +5,25 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.austinharlan.trading_dashboard.finance.FinanceBucketTotal;
 import com.austinharlan.trading_dashboard.finance.FinanceSummaryData;
+import com.austinharlan.trading_dashboard.finance.FinanceSummaryData.CategoryTotal;
+import com.austinharlan.trading_dashboard.finance.FinanceSummaryData.MonthTotal;
 import com.austinharlan.trading_dashboard.finance.FinanceTransactionRecord;
+import com.austinharlan.trading_dashboard.finance.RecurringCadence;
+import com.austinharlan.trading_dashboard.finance.RecurringSeriesRecord;
 import com.austinharlan.trading_dashboard.persistence.UserRepository;
 import com.austinharlan.trading_dashboard.service.FinanceInsightsService;
+import com.austinharlan.trading_dashboard.service.FinanceInsightsService.RecurringCharges;
+import com.austinharlan.trading_dashboard.service.FinanceInsightsService.TransactionPage;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -38,7 +48,16 @@ class FinanceControllerTest {
     Instant asOf = Instant.parse("2024-05-15T12:00:00Z");
     FinanceSummaryData summary =
         new FinanceSummaryData(
-            new BigDecimal("1500.00"), new BigDecimal("100.00"), new BigDecimal("3100.00"), asOf);
+            new BigDecimal("1500.00"),
+            new BigDecimal("100.00"),
+            new BigDecimal("3100.00"),
+            asOf,
+            List.of(
+                new CategoryTotal("groceries", new BigDecimal("400.00"), 6),
+                new CategoryTotal(null, new BigDecimal("1100.00"), 1)),
+            List.of(
+                new MonthTotal(YearMonth.of(2024, 4), new BigDecimal("2900.00"), 31),
+                new MonthTotal(YearMonth.of(2024, 5), new BigDecimal("1500.00"), 7)));
     when(financeInsightsService.getSummary()).thenReturn(summary);
 
     mockMvc
@@ -47,7 +66,89 @@ class FinanceControllerTest {
         .andExpect(jsonPath("$.month_to_date_spend").value(1500.00))
         .andExpect(jsonPath("$.average_daily_spend").value(100.00))
         .andExpect(jsonPath("$.projected_month_end_spend").value(3100.00))
-        .andExpect(jsonPath("$.as_of").exists());
+        .andExpect(jsonPath("$.as_of").exists())
+        .andExpect(jsonPath("$.month_to_date_by_category[0].category").value("groceries"))
+        .andExpect(jsonPath("$.month_to_date_by_category[1].category").doesNotExist())
+        .andExpect(jsonPath("$.month_to_date_by_category[1].count").value(1))
+        .andExpect(jsonPath("$.monthly_trend[0].month").value("2024-04"))
+        .andExpect(jsonPath("$.monthly_trend[1].amount").value(1500.00));
+  }
+
+  @Test
+  void getFinanceBreakdownReturnsBucketsWithCategories() throws Exception {
+    when(financeInsightsService.getBreakdown(
+            "week", LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31)))
+        .thenReturn(
+            List.of(
+                new FinanceBucketTotal(
+                    LocalDate.of(2024, 4, 29),
+                    new BigDecimal("42.50"),
+                    3,
+                    List.of(
+                        new CategoryTotal("dining", new BigDecimal("30.00"), 2),
+                        new CategoryTotal(null, new BigDecimal("12.50"), 1)))));
+
+    mockMvc
+        .perform(
+            get("/api/finance/breakdown")
+                .param("from", "2024-05-01")
+                .param("to", "2024-05-31")
+                .param("bucket", "week"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.bucket").value("week"))
+        .andExpect(jsonPath("$.buckets[0].start").value("2024-04-29"))
+        .andExpect(jsonPath("$.buckets[0].amount").value(42.50))
+        .andExpect(jsonPath("$.buckets[0].count").value(3))
+        .andExpect(jsonPath("$.buckets[0].by_category[0].category").value("dining"))
+        .andExpect(jsonPath("$.buckets[0].by_category[1].category").doesNotExist())
+        .andExpect(jsonPath("$.buckets[0].by_category[1].amount").value(12.50));
+  }
+
+  @Test
+  void getFinanceBreakdownDefaultsToMonthsAndRejectsUnknownBuckets() throws Exception {
+    when(financeInsightsService.getBreakdown("month", null, null)).thenReturn(List.of());
+    when(financeInsightsService.getBreakdown(eq("year"), any(), any()))
+        .thenThrow(new IllegalArgumentException("bucket must be day, week or month"));
+
+    mockMvc
+        .perform(get("/api/finance/breakdown"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.bucket").value("month"))
+        .andExpect(jsonPath("$.buckets").isEmpty());
+    mockMvc
+        .perform(get("/api/finance/breakdown").param("bucket", "year"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void listRecurringChargesReturnsSeriesAndMonthlyTotal() throws Exception {
+    when(financeInsightsService.listRecurring(false))
+        .thenReturn(
+            new RecurringCharges(
+                List.of(
+                    new RecurringSeriesRecord(
+                        "netflix",
+                        "NETFLIX.COM",
+                        "subscriptions",
+                        RecurringCadence.MONTHLY,
+                        6,
+                        new BigDecimal("-15.49"),
+                        new BigDecimal("-15.49"),
+                        LocalDate.of(2024, 1, 3),
+                        LocalDate.of(2024, 6, 3),
+                        LocalDate.of(2024, 7, 3),
+                        true)),
+                new BigDecimal("-15.49")));
+
+    mockMvc
+        .perform(get("/api/finance/recurring"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.estimated_monthly_total").value(-15.49))
+        .andExpect(jsonPath("$.series[0].merchant_key").value("netflix"))
+        .andExpect(jsonPath("$.series[0].cadence").value("MONTHLY"))
+        .andExpect(jsonPath("$.series[0].average_amount").value(-15.49))
+        .andExpect(jsonPath("$.series[0].next_expected_on").value("2024-07-03"))
+        .andExpect(jsonPath("$.series[0].active").value(true));
   }
 
   @Test
@@ -69,11 +170,13 @@ class FinanceControllerTest {
                 new BigDecimal("-5.00"),
                 "dining",
                 null));
-    when(financeInsightsService.listTransactions(isNull(), isNull())).thenReturn(transactions);
+    when(financeInsightsService.listTransactions(isNull(), isNull(), isNull()))
+        .thenReturn(new TransactionPage(transactions, null));
 
     mockMvc
         .perform(get("/api/finance/transactions"))
         .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
         .andExpect(jsonPath("$.transactions").isArray())
         .andExpect(jsonPath("$.transactions.length()").value(2))
         .andExpect(jsonPath("$.transactions[0].id").value("txn-001"))
@@ -87,7 +190,8 @@ class FinanceControllerTest {
 
   @Test
   void listFinanceTransactionsReturnsNoContentWhenEmpty() throws Exception {
-    when(financeInsightsService.listTransactions(any(), any())).thenReturn(Collections.emptyList());
+    when(financeInsightsService.listTransactions(any(), any(), any()))
+        .thenReturn(new TransactionPage(Collections.emptyList(), null));
 
     mockMvc.perform(get("/api/finance/transactions")).andExpect(status().isNoContent());
   }
@@ -99,8 +203,8 @@ class FinanceControllerTest {
         List.of(
             new FinanceTransactionRecord(
                 "txn-001", postedAt, "Grocery Store", new BigDecimal("-75.50"), "groceries", null));
-    when(financeInsightsService.listTransactions(isNull(), eq("groceries")))
-        .thenReturn(groceryTransactions);
+    when(financeInsightsService.listTransactions(isNull(), eq("groceries"), isNull()))
+        .thenReturn(new TransactionPage(groceryTransactions, null));
 
     mockMvc
         .perform(get("/api/finance/transactions").param("category", "groceries"))
@@ -116,11 +220,43 @@ class FinanceControllerTest {
         List.of(
             new FinanceTransactionRecord(
                 "txn-001", postedAt, "Store A", new BigDecimal("-50.00"), "shopping", null));
-    when(financeInsightsService.listTransactions(eq(1), isNull())).thenReturn(limitedTransactions);
+    when(financeInsightsService.listTransactions(eq(1), isNull(), isNull()))
+        .thenReturn(new TransactionPage(limitedTransactions, null));
 
     mockMvc
         .perform(get("/api/finance/transactions").param("limit", "1"))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.transactions.length()").value(1));
   }
+
+  @Test
+  void listFinanceTransactionsPassesTheCursorAndReturnsTheNextOneInAHeader() throws Exception {
+    Instant postedAt = Instant.parse("2024-05-10T10:00:00Z");
+    List<FinanceTransactionRecord> page =
+        List.of(
+            new FinanceTransactionRecord(
+                "txn-002", postedAt, "Store B", new BigDecimal("-20.00"), "dining", null));
+    when(financeInsightsService.listTransactions(eq(1), eq("dining"), eq("cursor-1")))
+        .thenReturn(new TransactionPage(page, "cursor-2"));
+
+    mockMvc
+        .perform(
+            get("/api/finance/transactions")
+                .param("limit", "1")
+                .param("category", "dining")
+                .param("cursor", "cursor-1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Next-Cursor", "cursor-2"))
+        .andExpect(jsonPath("$.transactions[0].id").value("txn-002"));
+  }
+
+  @Test
+  void listFinanceTransactionsRejectsInvalidCursors() throws Exception {
+    when(financeInsightsService.listTransactions(any(), any(), eq("garbage")))
+        .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+    mockMvc
+        .perform(get("/api/finance/transactions").param("cursor", "garbage"))
+        .andExpect(status().isBadRequest());
+  }
 }
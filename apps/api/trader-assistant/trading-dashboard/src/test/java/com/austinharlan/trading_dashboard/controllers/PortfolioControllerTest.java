@@ -11,11 +11,24 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioExposure;
 import com.austinharlan.trading_dashboard.portfolio.PortfolioHolding;
 import com.austinharlan.trading_dashboard.portfolio.PortfolioPositionNotFoundException;
 import com.austinharlan.trading_dashboard.portfolio.PortfolioSnapshot;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValuation;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValuation.ValuedPosition;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValueHistory;
+import com.austinharlan.trading_dashboard.service.CorrelationService;
+import com.austinharlan.trading_dashboard.service.CorrelationService.CorrelationMatrix;
+import com.austinharlan.trading_dashboard.service.OptionsAnalyticsService;
 import com.austinharlan.trading_dashboard.service.PortfolioService;
+import com.austinharlan.trading_dashboard.service.UnrealizedPnlService;
+import com.austinharlan.trading_dashboard.service.UnrealizedPnlService.LotPnl;
+import com.austinharlan.trading_dashboard.service.UnrealizedPnlService.TickerPnl;
+import com.austinharlan.trading_dashboard.service.UnrealizedPnlService.UnrealizedPnl;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -35,6 +48,12 @@ class PortfolioControllerTest {
 
   @MockBean private PortfolioService portfolioService;
 
+  @MockBean private UnrealizedPnlService unrealizedPnlService;
+
+  @MockBean private OptionsAnalyticsService optionsAnalyticsService;
+
+  @MockBean private CorrelationService correlationService;
+
   @MockBean private UserRepository userRepository;
 
   @Test
@@ -64,6 +83,115 @@ class PortfolioControllerTest {
     mockMvc.perform(get("/api/portfolio/positions")).andExpect(status().isNoContent());
   }
 
+  @Test
+  void getPortfolioAsOfReturnsRebuiltHoldings() throws Exception {
+    when(portfolioService.holdingsAsOf(LocalDate.parse("2025-03-31")))
+        .thenReturn(
+            List.of(new PortfolioHolding("AAPL", new BigDecimal("6"), new BigDecimal("600.00"))));
+
+    mockMvc
+        .perform(get("/api/portfolio/as-of").param("date", "2025-03-31"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.date").value("2025-03-31"))
+        .andExpect(jsonPath("$.positions[0].ticker").value("AAPL"))
+        .andExpect(jsonPath("$.positions[0].quantity").value(6.0))
+        .andExpect(jsonPath("$.positions[0].cost_basis").value(600.0));
+  }
+
+  @Test
+  void getPortfolioAsOfRequiresDate() throws Exception {
+    mockMvc.perform(get("/api/portfolio/as-of")).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void getUnrealizedPnlReturnsLotsTickersAndTotals() throws Exception {
+    LotPnl call =
+        new LotPnl(
+            "SPY",
+            "OPTION",
+            "CALL",
+            new BigDecimal("500"),
+            LocalDate.parse("2026-06-19"),
+            LocalDate.parse("2026-01-02"),
+            true,
+            2,
+            100,
+            3.0,
+            10.0,
+            2000.0,
+            1400.0,
+            200.0);
+    when(unrealizedPnlService.currentUnrealizedPnl())
+        .thenReturn(
+            new UnrealizedPnl(
+                Instant.parse("2026-03-10T15:00:00Z"),
+                2000.0,
+                600.0,
+                1400.0,
+                200.0,
+                List.of(new TickerPnl("SPY", 2000.0, 600.0, 1400.0, 200.0, 1)),
+                List.of(call),
+                List.of("GONE")));
+
+    mockMvc
+        .perform(get("/api/portfolio/unrealized-pnl"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total_unrealized_pnl").value(1400.0))
+        .andExpect(jsonPath("$.total_day_change").value(200.0))
+        .andExpect(jsonPath("$.tickers[0].ticker").value("SPY"))
+        .andExpect(jsonPath("$.tickers[0].lot_count").value(1))
+        .andExpect(jsonPath("$.lots[0].side").value("LONG"))
+        .andExpect(jsonPath("$.lots[0].option_type").value("CALL"))
+        .andExpect(jsonPath("$.lots[0].strike_price").value(500.0))
+        .andExpect(jsonPath("$.lots[0].multiplier").value(100))
+        .andExpect(jsonPath("$.lots[0].mark_price").value(10.0))
+        .andExpect(jsonPath("$.unpriced_tickers[0]").value("GONE"));
+  }
+
+  @Test
+  void getPortfolioGreeksReturnsContractsAndNetExposure() throws Exception {
+    var contract =
+        new OptionsAnalyticsService.ContractGreeks(
+            "SPY",
+            "PUT",
+            new BigDecimal("480"),
+            LocalDate.parse("2026-06-19"),
+            false,
+            3,
+            100,
+            505.0,
+            0.18,
+            0.28,
+            6.1,
+            -0.22,
+            0.004,
+            -0.05,
+            0.9,
+            -1830.0,
+            66.0);
+    when(optionsAnalyticsService.currentGreeks())
+        .thenReturn(
+            new OptionsAnalyticsService.OptionsGreeks(
+                Instant.parse("2026-03-10T15:00:00Z"),
+                0.04,
+                List.of(contract),
+                List.of(
+                    new OptionsAnalyticsService.UnderlyingExposure(
+                        "SPY", 505.0, 0.18, 1, 66.0, 33330.0, -1.2, 15.0, -270.0, -1830.0)),
+                List.of()));
+
+    mockMvc
+        .perform(get("/api/portfolio/greeks"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.risk_free_rate").value(0.04))
+        .andExpect(jsonPath("$.contracts[0].side").value("SHORT"))
+        .andExpect(jsonPath("$.contracts[0].strike_price").value(480.0))
+        .andExpect(jsonPath("$.contracts[0].position_delta").value(66.0))
+        .andExpect(jsonPath("$.underlyings[0].net_delta").value(66.0))
+        .andExpect(jsonPath("$.underlyings[0].dollar_delta").value(33330.0))
+        .andExpect(jsonPath("$.unpriced_tickers").isEmpty());
+  }
+
   @Test
   void getPortfolioSummaryReturnsSummary() throws Exception {
     PortfolioSnapshot snapshot =
@@ -86,6 +214,140 @@ class PortfolioControllerTest {
     mockMvc.perform(get("/api/portfolio/summary")).andExpect(status().isNoContent());
   }
 
+  @Test
+  void getPortfolioValuationReturnsPricedAndUnpricedPositions() throws Exception {
+    PortfolioValuation valuation =
+        new PortfolioValuation(
+            Instant.parse("2026-03-10T15:00:00Z"),
+            2,
+            1100.0,
+            1500.0,
+            100.0,
+            10.0,
+            0.9174,
+            List.of(
+                new ValuedPosition("AAPL", 10, 1000, 110.0, 0.92, 1100.0, 1.0, 100.0, 10.0),
+                new ValuedPosition("ZZZ", 5, 500, null, null, null, null, null, null)),
+            List.of("ZZZ"));
+    when(portfolioService.valuation()).thenReturn(Optional.of(valuation));
+
+    mockMvc
+        .perform(get("/api/portfolio/valuation"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.positions_count").value(2))
+        .andExpect(jsonPath("$.total_market_value").value(1100.0))
+        .andExpect(jsonPath("$.total_day_change").value(10.0))
+        .andExpect(jsonPath("$.positions[0].weight").value(1.0))
+        .andExpect(jsonPath("$.positions[0].change_percent").value(0.92))
+        .andExpect(jsonPath("$.positions[1].price").doesNotExist())
+        .andExpect(jsonPath("$.unpriced_tickers[0]").value("ZZZ"));
+  }
+
+  @Test
+  void getPortfolioValuationReturnsNoContentWhenEmpty() throws Exception {
+    when(portfolioService.valuation()).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/api/portfolio/valuation")).andExpect(status().isNoContent());
+  }
+
+  @Test
+  void getPortfolioExposureReturnsTheSectorTree() throws Exception {
+    PortfolioExposure.Group software =
+        new PortfolioExposure.Group(
+            "Software", 1500.0, 1000.0, 500.0, 1.0, List.of("MSFT"), List.of());
+    PortfolioExposure exposure =
+        new PortfolioExposure(
+            Instant.parse("2026-03-10T15:00:00Z"),
+            1500.0,
+            List.of(
+                new PortfolioExposure.Group(
+                    "Technology", 1500.0, 1000.0, 500.0, 1.0, List.of("MSFT"), List.of(software))),
+            List.of(),
+            List.of("ZZZ"));
+    when(portfolioService.exposure()).thenReturn(Optional.of(exposure));
+
+    mockMvc
+        .perform(get("/api/portfolio/exposure"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total_market_value").value(1500.0))
+        .andExpect(jsonPath("$.sectors[0].name").value("Technology"))
+        .andExpect(jsonPath("$.sectors[0].children[0].name").value("Software"))
+        .andExpect(jsonPath("$.sectors[0].children[0].tickers[0]").value("MSFT"))
+        .andExpect(jsonPath("$.unpriced_tickers[0]").value("ZZZ"));
+  }
+
+  @Test
+  void getPortfolioExposureReturnsNoContentWhenEmpty() throws Exception {
+    when(portfolioService.exposure()).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/api/portfolio/exposure")).andExpect(status().isNoContent());
+  }
+
+  @Test
+  void getPortfolioHistoryReturnsTheSummedSeries() throws Exception {
+    PortfolioValueHistory history =
+        new PortfolioValueHistory(
+            List.of(LocalDate.parse("2026-03-02"), LocalDate.parse("2026-03-03")),
+            new double[] {1000.0, 1100.0},
+            List.of(
+                new PortfolioValueHistory.TickerSeries(
+                    "AAPL", new double[] {10, 10}, new double[] {Double.NaN, 110.0})),
+            List.of("ZZZ"));
+    when(portfolioService.valueHistory("1M")).thenReturn(history);
+
+    mockMvc
+        .perform(get("/api/portfolio/history").param("range", "1M"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.range").value("1M"))
+        .andExpect(jsonPath("$.dates[1]").value("2026-03-03"))
+        .andExpect(jsonPath("$.values[1]").value(1100.0))
+        .andExpect(jsonPath("$.tickers[0].closes[0]").doesNotExist())
+        .andExpect(jsonPath("$.tickers[0].closes[1]").value(110.0))
+        .andExpect(jsonPath("$.missing_tickers[0]").value("ZZZ"));
+  }
+
+  @Test
+  void getPortfolioHistoryRejectsUnknownRange() throws Exception {
+    when(portfolioService.valueHistory("2Y"))
+        .thenThrow(new IllegalArgumentException("Unknown range: 2Y"));
+
+    mockMvc
+        .perform(get("/api/portfolio/history").param("range", "2Y"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void getPortfolioCorrelationReturnsMatricesWithNullsForUndefinedCells() throws Exception {
+    CorrelationMatrix matrix =
+        new CorrelationMatrix(
+            LocalDate.parse("2026-03-03"),
+            LocalDate.parse("2026-03-31"),
+            List.of("AAPL", "CASH"),
+            new double[][] {{1.0, Double.NaN}, {Double.NaN, Double.NaN}},
+            new double[][] {{0.0004, 0.0}, {0.0, 0.0}},
+            new int[][] {{20, 20}, {20, 20}},
+            List.of("ZZZ"));
+    when(correlationService.currentCorrelations()).thenReturn(Optional.of(matrix));
+
+    mockMvc
+        .perform(get("/api/portfolio/correlation"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.from").value("2026-03-03"))
+        .andExpect(jsonPath("$.tickers[1]").value("CASH"))
+        .andExpect(jsonPath("$.correlation[0][0]").value(1.0))
+        .andExpect(jsonPath("$.correlation[0][1]").doesNotExist())
+        .andExpect(jsonPath("$.covariance[0][0]").value(0.0004))
+        .andExpect(jsonPath("$.observations[1][0]").value(20))
+        .andExpect(jsonPath("$.missing_tickers[0]").value("ZZZ"));
+  }
+
+  @Test
+  void getPortfolioCorrelationReturns204WithNoPositions() throws Exception {
+    when(correlationService.currentCorrelations()).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/api/portfolio/correlation")).andExpect(status().isNoContent());
+  }
+
   @Test
   void addPortfolioPositionCreatesAndReturns201() throws Exception {
     PortfolioHolding holding =
@@ -60,7 +60,7 @@ class MarketDataHealthIndicatorTest {
     registry.add(
         "spring.datasource.url",
         () ->
-            "jdbc:h2:mem:trading-dashboard-test;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+            "jdbc:h2:mem:market-data-health-test;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
     registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
     registry.add("spring.datasource.username", () -> "sa");
     registry.add("spring.datasource.password", () -> "");
@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterEach;
@@ -98,6 +99,35 @@ class RealMarketDataProviderTest {
         .isInstanceOf(QuoteNotFoundException.class);
   }
 
+  @Test
+  void shouldReturnQuotesForManySymbolsInOneRequest() throws InterruptedException {
+    server.enqueue(
+        jsonResponse(
+            """
+            {
+              "quoteResponse": {
+                "result": [
+                  {"symbol": "AAPL", "regularMarketPrice": 189.84,
+                   "regularMarketChangePercent": 1.25, "regularMarketTime": 1700000000},
+                  {"symbol": "MSFT", "regularMarketPrice": 402.5,
+                   "regularMarketChangePercent": -0.5, "regularMarketTime": 1700000000}
+                ],
+                "error": null
+              }
+            }
+            """));
+
+    RealMarketDataProvider provider = provider();
+    Map<String, Quote> quotes = provider.getQuotes(List.of("AAPL", "MSFT", "NOPE", "AAPL"));
+
+    assertThat(quotes).containsOnlyKeys("AAPL", "MSFT");
+    assertThat(quotes.get("MSFT").price()).isEqualByComparingTo(new BigDecimal("402.5"));
+    assertThat(quotes.get("MSFT").changePercent()).isEqualByComparingTo(new BigDecimal("-0.5"));
+    assertThat(server.getRequestCount()).isEqualTo(1);
+    assertThat(server.takeRequest().getRequestUrl().queryParameter("symbols"))
+        .isEqualTo("AAPL,MSFT,NOPE");
+  }
+
   @Test
   void shouldReturnOverviewFromMultipleModules() {
     server.enqueue(
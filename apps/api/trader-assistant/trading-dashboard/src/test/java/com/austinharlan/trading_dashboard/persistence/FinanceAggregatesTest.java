@@ -0,0 +1,90 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/** The grouped finance queries on H2; the PostgreSQL side runs through the finance ITs. */
+@SpringBootTest
+@ActiveProfiles("test")
+class FinanceAggregatesTest {
+
+  @Autowired private FinanceTransactionRepository repository;
+  @Autowired private UserRepository userRepository;
+
+  private long userId;
+
+  @BeforeEach
+  void setUp() {
+    userId = userRepository.findByApiKey("test-api-key").orElseThrow().getId();
+    repository.deleteAllByUserId(userId);
+    save("2024-05-13T09:00:00Z", "12.50", "groceries");
+    save("2024-05-15T18:00:00Z", "7.50", "groceries");
+    save("2024-05-15T19:00:00Z", "30.00", "dining");
+    save("2024-05-15T20:00:00Z", "5.00", null);
+    // Late on May 31 in New York is already June in UTC.
+    save("2024-05-31T23:30:00-05:00", "100.00", "dining");
+  }
+
+  @AfterEach
+  void cleanup() {
+    repository.deleteAllByUserId(userId);
+  }
+
+  @Test
+  void sumByPeriod_groupsByUtcDayAndCategory() {
+    List<FinancePeriodTotal> days =
+        repository.sumByPeriod(
+            userId,
+            FinanceAggregates.DAY,
+            true,
+            Instant.parse("2024-05-14T00:00:00Z"),
+            Instant.parse("2024-07-01T00:00:00Z"));
+
+    assertThat(days)
+        .extracting(
+            FinancePeriodTotal::period,
+            FinancePeriodTotal::category,
+            t -> t.amount().toPlainString(),
+            FinancePeriodTotal::count)
+        .containsExactly(
+            tuple(LocalDate.of(2024, 5, 15), null, "5.00", 1L),
+            tuple(LocalDate.of(2024, 5, 15), "dining", "30.00", 1L),
+            tuple(LocalDate.of(2024, 5, 15), "groceries", "7.50", 1L),
+            tuple(LocalDate.of(2024, 6, 1), "dining", "100.00", 1L));
+  }
+
+  @Test
+  void sumByPeriod_rollsWeeksFromMondayAndMonthsAcrossCategories() {
+    assertThat(repository.sumByPeriod(userId, FinanceAggregates.WEEK, false, null, null))
+        .extracting(FinancePeriodTotal::period, t -> t.amount().toPlainString())
+        .containsExactly(
+            tuple(LocalDate.of(2024, 5, 13), "55.00"), tuple(LocalDate.of(2024, 5, 27), "100.00"));
+
+    assertThat(repository.sumByPeriod(userId, FinanceAggregates.MONTH, false, null, null))
+        .containsExactly(
+            new FinancePeriodTotal(LocalDate.of(2024, 5, 1), null, new BigDecimal("55.00"), 4),
+            new FinancePeriodTotal(LocalDate.of(2024, 6, 1), null, new BigDecimal("100.00"), 1));
+  }
+
+  @Test
+  void sumByPeriod_rejectsUnknownUnits() {
+    assertThatThrownBy(() -> repository.sumByPeriod(userId, "year'; --", false, null, null))
+        .hasMessageContaining("Unknown period");
+  }
+
+  private void save(String postedAt, String amount, String category) {
+    repository.save(
+        new FinanceTransactionEntity(
+            userId, Instant.parse(postedAt), "Test", new BigDecimal(amount), category, null));
+  }
+}
@@ -0,0 +1,71 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Drivers that batch without row counts; H2 always reports them, so the JDBC layer is mocked. */
+class FinanceTransactionImportsTest {
+
+  @Test
+  void insertSkippingDuplicates_countsInsertedRowsWhenTheDriverReportsNoInfo() throws Exception {
+    Connection connection = mock(Connection.class);
+    PreparedStatement insert = mock(PreparedStatement.class);
+    PreparedStatement count = mock(PreparedStatement.class);
+    ResultSet result = mock(ResultSet.class);
+    when(connection.prepareStatement(startsWith("insert into finance_transaction")))
+        .thenReturn(insert);
+    when(connection.prepareStatement(startsWith("select count(*)"))).thenReturn(count);
+    when(insert.executeBatch())
+        .thenReturn(
+            new int[] {
+              Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO
+            });
+    when(count.executeQuery()).thenReturn(result);
+    when(result.next()).thenReturn(true);
+    when(result.getInt(1)).thenReturn(2);
+    List<FinanceTransactionEntity> rows = List.of(row(), row(), row());
+
+    assertThat(imports(connection).insertSkippingDuplicates(rows)).isEqualTo(2);
+    for (int i = 0; i < rows.size(); i++) {
+      verify(count).setString(i + 1, rows.get(i).getId());
+    }
+  }
+
+  private static FinanceTransactionImportsImpl imports(Connection connection) {
+    EntityManager entityManager = mock(EntityManager.class);
+    Session session = mock(Session.class);
+    when(entityManager.unwrap(Session.class)).thenReturn(session);
+    when(session.doReturningWork(any()))
+        .thenAnswer(inv -> inv.<ReturningWork<?>>getArgument(0).execute(connection));
+    FinanceTransactionImportsImpl imports = new FinanceTransactionImportsImpl();
+    ReflectionTestUtils.setField(imports, "entityManager", entityManager);
+    return imports;
+  }
+
+  private static FinanceTransactionEntity row() {
+    return new FinanceTransactionEntity(
+        1L,
+        Instant.parse("2024-01-05T00:00:00Z"),
+        "STARBUCKS",
+        new BigDecimal("-4.50"),
+        null,
+        null);
+  }
+}
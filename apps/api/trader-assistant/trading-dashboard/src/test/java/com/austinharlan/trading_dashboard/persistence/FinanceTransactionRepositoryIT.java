@@ -13,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest
 class FinanceTransactionRepositoryIT extends DatabaseIntegrationTest {
@@ -74,8 +75,7 @@ class FinanceTransactionRepositoryIT extends DatabaseIntegrationTest {
     repository.saveAll(List.of(groceries, dining, groceriesLater));
 
     List<FinanceTransactionEntity> groceriesResults =
-        repository.findByUserIdAndCategoryIgnoreCaseOrderByPostedAtDesc(
-            testUserId, "groceries", Pageable.unpaged());
+        repository.findPageByUserIdAndCategory(testUserId, "groceries", Pageable.unpaged());
 
     assertThat(groceriesResults)
         .extracting(FinanceTransactionEntity::getId)
@@ -90,4 +90,33 @@ class FinanceTransactionRepositoryIT extends DatabaseIntegrationTest {
         .extracting(FinanceTransactionEntity::getId)
         .contains("groceries-1", "dining-1", "groceries-2");
   }
+
+  @Test
+  @Transactional
+  void insertSkippingDuplicatesSkipsTakenDedupKeys() {
+    Instant postedAt = Instant.parse("2024-05-15T00:00:00Z");
+    FinanceTransactionEntity first = imported("Coffee", "key-1", postedAt);
+    FinanceTransactionEntity second = imported("Lunch", "key-2", postedAt);
+
+    assertThat(repository.insertSkippingDuplicates(List.of(first, second))).isEqualTo(2);
+    assertThat(
+            repository.insertSkippingDuplicates(
+                List.of(
+                    imported("Coffee again", "key-1", postedAt),
+                    imported("Tea", "key-3", postedAt))))
+        .isEqualTo(1);
+
+    assertThat(repository.findImportDedupKeysByUserId(testUserId))
+        .containsExactlyInAnyOrder("key-1", "key-2", "key-3");
+    assertThat(repository.findById(first.getId()).orElseThrow().getPostedAt()).isEqualTo(postedAt);
+  }
+
+  private FinanceTransactionEntity imported(String description, String key, Instant postedAt) {
+    FinanceTransactionEntity entity =
+        new FinanceTransactionEntity(
+            testUserId, postedAt, description, new BigDecimal("-4.50"), "Dining", null);
+    entity.setAccount("CHECKING");
+    entity.setImportDedupKey(key);
+    return entity;
+  }
 }
@@ -0,0 +1,126 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.austinharlan.trading_dashboard.testsupport.DatabaseIntegrationTest;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class PortfolioPositionUpsertsIT extends DatabaseIntegrationTest {
+
+  private static final int THREADS = 8;
+  private static final int FILLS_PER_THREAD = 50;
+
+  @Autowired private PortfolioPositionRepository repository;
+  @Autowired private UserRepository userRepository;
+
+  private long userId;
+
+  @BeforeEach
+  void setUp() {
+    userId = userRepository.findByApiKey("test-api-key").orElseThrow().getId();
+  }
+
+  @AfterEach
+  void cleanup() {
+    repository.deleteAllByUserId(userId);
+  }
+
+  @Test
+  void applyFill_matchesThePositionArithmetic() {
+    repository.applyFill(userId, "AAPL", "BUY", new BigDecimal("10"), new BigDecimal("12.345678"));
+    repository.applyFill(userId, "AAPL", "BUY", new BigDecimal("5"), new BigDecimal("3.333333"));
+    assertPosition("AAPL", "15", "140.123445");
+
+    repository.applyFill(userId, "AAPL", "SELL", new BigDecimal("4"), BigDecimal.ONE);
+    assertPosition("AAPL", "11", "102.757193");
+
+    repository.applyFill(userId, "AAPL", "SELL", new BigDecimal("12"), BigDecimal.ONE);
+    assertThat(repository.findByUserIdAndTicker(userId, "AAPL")).isEmpty();
+
+    repository.applyFill(userId, "AAPL", "SELL", BigDecimal.ONE, BigDecimal.ONE);
+    repository.applyFill(userId, "AAPL", "BUY", new BigDecimal("2"), BigDecimal.ONE);
+    assertPosition("AAPL", "2", "2");
+  }
+
+  @Test
+  void concurrentBuys_ofANewTicker_loseNoUpdates() throws Exception {
+    runConcurrently(
+        t -> repository.applyFill(userId, "NVDA", "BUY", BigDecimal.ONE, new BigDecimal("10.5")));
+
+    int fills = THREADS * FILLS_PER_THREAD;
+    assertPosition("NVDA", String.valueOf(fills), new BigDecimal("10.5").multiply(of(fills)));
+  }
+
+  @Test
+  void concurrentBuysAndSells_keepTheQuantityExact() throws Exception {
+    repository.upsert(userId, "MSFT", new BigDecimal("1000"), new BigDecimal("100000"));
+
+    // Half the threads buy one share at a time and half sell one; the net is zero.
+    runConcurrently(
+        t ->
+            repository.applyFill(
+                userId,
+                "MSFT",
+                t % 2 == 0 ? "BUY" : "SELL",
+                BigDecimal.ONE,
+                new BigDecimal("100")));
+
+    assertThat(repository.findByUserIdAndTicker(userId, "MSFT").orElseThrow().getQty())
+        .isEqualByComparingTo("1000");
+  }
+
+  private interface Fill {
+    void apply(int thread);
+  }
+
+  /** Starts all threads together and runs {@link #FILLS_PER_THREAD} fills on each. */
+  private void runConcurrently(Fill fill) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+    try (ExecutorService pool = Executors.newFixedThreadPool(THREADS)) {
+      for (int t = 0; t < THREADS; t++) {
+        int thread = t;
+        results.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  for (int i = 0; i < FILLS_PER_THREAD; i++) {
+                    fill.apply(thread);
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> result : results) {
+        result.get();
+      }
+    }
+  }
+
+  private static BigDecimal of(int value) {
+    return BigDecimal.valueOf(value);
+  }
+
+  private void assertPosition(String ticker, String qty, String basis) {
+    assertPosition(ticker, qty, new BigDecimal(basis));
+  }
+
+  private void assertPosition(String ticker, String qty, BigDecimal basis) {
+    PortfolioPositionEntity position =
+        repository.findByUserIdAndTicker(userId, ticker).orElseThrow();
+    assertThat(position.getQty()).isEqualByComparingTo(qty);
+    assertThat(position.getBasis()).isEqualByComparingTo(basis);
+  }
+}
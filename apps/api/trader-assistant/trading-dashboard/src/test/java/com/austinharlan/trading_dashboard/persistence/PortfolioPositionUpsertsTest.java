@@ -0,0 +1,64 @@
+package com.austinharlan.trading_dashboard.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/** The H2 {@code MERGE} fallback must give the same positions as the PostgreSQL statements. */
+@SpringBootTest
+@ActiveProfiles("test")
+class PortfolioPositionUpsertsTest {
+
+  @Autowired private PortfolioPositionRepository repository;
+  @Autowired private UserRepository userRepository;
+
+  private long userId;
+
+  @BeforeEach
+  void setUp() {
+    userId = userRepository.findByApiKey("test-api-key").orElseThrow().getId();
+  }
+
+  @AfterEach
+  void cleanup() {
+    repository.deleteAllByUserId(userId);
+  }
+
+  @Test
+  void applyFill_matchesThePositionArithmetic() {
+    repository.applyFill(userId, "AAPL", "BUY", new BigDecimal("10"), new BigDecimal("12.345678"));
+    repository.applyFill(userId, "AAPL", "BUY", new BigDecimal("5"), new BigDecimal("3.333333"));
+    assertPosition("AAPL", "15", "140.123445");
+
+    repository.applyFill(userId, "AAPL", "SELL", new BigDecimal("4"), BigDecimal.ONE);
+    assertPosition("AAPL", "11", "102.757193");
+
+    repository.applyFill(userId, "AAPL", "SELL", new BigDecimal("12"), BigDecimal.ONE);
+    assertThat(repository.findByUserIdAndTicker(userId, "AAPL")).isEmpty();
+
+    repository.applyFill(userId, "AAPL", "SELL", BigDecimal.ONE, BigDecimal.ONE);
+    repository.applyFill(userId, "AAPL", "BUY", new BigDecimal("2"), BigDecimal.ONE);
+    assertPosition("AAPL", "2", "2");
+  }
+
+  @Test
+  void upsert_overwritesAnExistingPosition() {
+    repository.upsert(userId, "MSFT", new BigDecimal("3"), new BigDecimal("900"));
+    repository.upsert(userId, "MSFT", new BigDecimal("1"), new BigDecimal("310"));
+
+    assertPosition("MSFT", "1", "310");
+  }
+
+  private void assertPosition(String ticker, String qty, String basis) {
+    PortfolioPositionEntity position =
+        repository.findByUserIdAndTicker(userId, ticker).orElseThrow();
+    assertThat(position.getQty()).isEqualByComparingTo(qty);
+    assertThat(position.getBasis()).isEqualByComparingTo(basis);
+  }
+}
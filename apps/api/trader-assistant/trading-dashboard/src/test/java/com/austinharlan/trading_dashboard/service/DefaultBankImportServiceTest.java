@@ -0,0 +1,283 @@
+package com.austinharlan.trading_dashboard.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.finance.FinanceCategoryRecord;
+import com.austinharlan.trading_dashboard.persistence.FinanceTransactionEntity;
+import com.austinharlan.trading_dashboard.persistence.FinanceTransactionRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.trading_dashboard.service.FinanceCategories.Registry;
+import com.austinharlan.tradingdashboard.dto.BankImportResponse;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Statement imports against H2; the insert statement is the same one PostgreSQL runs. */
+@SpringBootTest
+@ActiveProfiles("test")
+class DefaultBankImportServiceTest {
+
+  private static final String CHECKING_CSV =
+      """
+      Account Name:,Everyday Checking
+      Account Number:,****1234
+
+      Posting Date,Description,Debit,Credit,Balance
+      01/05/2024,WHOLE FOODS MKT #123,54.20,,1000.00
+      01/05/2024,STARBUCKS STORE 9,4.50,,995.50
+      01/05/2024,STARBUCKS STORE 9,4.50,,991.00
+      01/06/2024,ACME CORP PAYROLL,,2500.00,3491.00
+      not a date,MYSTERY,1.00,,3490.00
+      01/07/2024,UNKNOWN VENDOR,,,3490.00
+      01/08/2024,Local hardware store,12.00,,3478.00
+      """;
+
+  private static final String CARD_OFX =
+      """
+      OFXHEADER:100
+      DATA:OFXSGML
+      VERSION:102
+
+      <OFX>
+      <CREDITCARDMSGSRSV1><CCSTMTTRNRS><CCSTMTRS><BANKTRANLIST>
+      <STMTTRN>
+      <TRNTYPE>DEBIT
+      <DTPOSTED>20240210120000.000[-5:EST]
+      <TRNAMT>-15.99
+      <FITID>2024021001
+      <NAME>NETFLIX.COM
+      <MEMO>Monthly plan
+      </STMTTRN>
+      <STMTTRN>
+      <TRNTYPE>DEBIT
+      <DTPOSTED>20240211
+      <TRNAMT>-23.10
+      <FITID>2024021102
+      <NAME>UBER   *EATS &amp; MORE
+      </STMTTRN>
+      <STMTTRN>
+      <TRNTYPE>DEBIT
+      <DTPOSTED>20240211
+      <TRNAMT>-23.10
+      <FITID>2024021103
+      <NAME>UBER *TRIP
+      </STMTTRN>
+      </BANKTRANLIST></CCSTMTRS></CCSTMTTRNRS></CREDITCARDMSGSRSV1>
+      </OFX>
+      """;
+
+  @Autowired private BankImportService importService;
+  @Autowired private FinanceTransactionRepository repository;
+  @Autowired private UserRepository userRepository;
+
+  private long userId;
+
+  @BeforeEach
+  void setUp() {
+    userId = userRepository.findByApiKey("test-api-key").orElseThrow().getId();
+    repository.deleteAllByUserId(userId);
+    authenticate(false);
+  }
+
+  @AfterEach
+  void cleanup() {
+    repository.deleteAllByUserId(userId);
+    SecurityContextHolder.clearContext();
+  }
+
+  // ── CSV ──────────────────────────────────────────────────────────────────
+
+  @Test
+  void csv_importsCategorisesAndReportsBadRows() {
+    BankImportResponse result = importService.importStatement(csv(CHECKING_CSV), "checking");
+
+    assertThat(result.getFormat()).isEqualTo(BankImportResponse.FormatEnum.CSV);
+    assertThat(result.getRowsRead()).isEqualTo(7);
+    assertThat(result.getImported()).isEqualTo(5);
+    assertThat(result.getDuplicatesSkipped()).isZero();
+    assertThat(result.getCategorized()).isEqualTo(4);
+    assertThat(result.getErrorCount()).isEqualTo(2);
+    assertThat(result.getErrors())
+        .containsExactly("Row 9: Unrecognised date: \"not a date\"", "Row 10: Missing amount");
+    assertThat(result.getRowsPerSecond()).isPositive();
+
+    List<FinanceTransactionEntity> rows = saved();
+    assertThat(rows)
+        .extracting(
+            FinanceTransactionEntity::getDescription,
+            t -> t.getAmount().toPlainString(),
+            FinanceTransactionEntity::getCategory)
+        .containsExactly(
+            tuple("WHOLE FOODS MKT #123", "-54.20", "groceries"),
+            tuple("STARBUCKS STORE 9", "-4.50", "dining"),
+            tuple("STARBUCKS STORE 9", "-4.50", "dining"),
+            tuple("ACME CORP PAYROLL", "2500.00", "income"),
+            tuple("Local hardware store", "-12.00", null));
+    assertThat(rows.get(0).getPostedAt()).isEqualTo(Instant.parse("2024-01-05T00:00:00Z"));
+    assertThat(rows).allSatisfy(t -> assertThat(t.getAccount()).isEqualTo("CHECKING"));
+  }
+
+  @Test
+  void csv_reimportSkipsEveryRowAlreadyImported() {
+    importService.importStatement(csv(CHECKING_CSV), "CHECKING");
+
+    BankImportResponse again = importService.importStatement(csv(CHECKING_CSV), "CHECKING");
+
+    assertThat(again.getImported()).isZero();
+    assertThat(again.getDuplicatesSkipped()).isEqualTo(5);
+    assertThat(saved()).hasSize(5);
+
+    // The same rows from another account are different transactions.
+    assertThat(importService.importStatement(csv(CHECKING_CSV), "SAVINGS").getImported())
+        .isEqualTo(5);
+  }
+
+  @Test
+  void csv_numbersRepeatsOfADayAcrossAnUnsortedFile() {
+    String merged =
+        """
+        Date,Description,Amount
+        2024-01-05,STARBUCKS STORE 9,-4.50
+        2024-01-07,SHELL OIL 5544,-30.00
+        2024-01-05,STARBUCKS STORE 9,-4.50
+        2024-01-06,STARBUCKS STORE 9,-4.50
+        2024-01-05,STARBUCKS STORE 9,-4.50
+        """;
+
+    BankImportResponse first = importService.importStatement(csv(merged), "CARD");
+    BankImportResponse second = importService.importStatement(csv(merged), "CARD");
+
+    assertThat(first.getImported()).isEqualTo(5);
+    assertThat(first.getDuplicatesSkipped()).isZero();
+    assertThat(second.getDuplicatesSkipped()).isEqualTo(5);
+  }
+
+  @Test
+  void csv_withoutAHeaderIsRejected() {
+    assertThatThrownBy(() -> importService.importStatement(csv("a,b\n1,2\n"), "CHECKING"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("header");
+  }
+
+  @Test
+  void csv_streamsLargeFilesInBatches() {
+    int count = 5 * DefaultBankImportService.BATCH_SIZE + 7;
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.writeBytes("Date,Description,Amount\n".getBytes(StandardCharsets.UTF_8));
+    LocalDate start = LocalDate.of(2023, 1, 1);
+    for (int i = 0; i < count; i++) {
+      // Ten identical purchases a day, each imported once.
+      String line = start.plusDays(i / 10) + ",SHELL OIL 5544,-30.00\n";
+      out.writeBytes(line.getBytes(StandardCharsets.UTF_8));
+    }
+    MockMultipartFile file =
+        new MockMultipartFile("file", "big.csv", "text/csv", out.toByteArray());
+
+    BankImportResponse first = importService.importStatement(file, "CARD");
+    BankImportResponse second = importService.importStatement(file, "CARD");
+
+    assertThat(first.getImported()).isEqualTo(count);
+    assertThat(first.getCategorized()).isEqualTo(count);
+    assertThat(second.getDuplicatesSkipped()).isEqualTo(count);
+  }
+
+  // ── OFX ──────────────────────────────────────────────────────────────────
+
+  @Test
+  void ofx_readsTransactionsAndDedupsByFitId() {
+    BankImportResponse result =
+        importService.importStatement(
+            new MockMultipartFile(
+                "file", "card.qfx", null, CARD_OFX.getBytes(StandardCharsets.UTF_8)),
+            "CARD");
+
+    assertThat(result.getFormat()).isEqualTo(BankImportResponse.FormatEnum.OFX);
+    assertThat(result.getImported()).isEqualTo(3);
+    assertThat(saved())
+        .extracting(
+            FinanceTransactionEntity::getDescription,
+            FinanceTransactionEntity::getCategory,
+            FinanceTransactionEntity::getNotes)
+        .containsExactlyInAnyOrder(
+            tuple("NETFLIX.COM", "subscriptions", "Monthly plan"),
+            tuple("UBER   *EATS & MORE", "dining", null),
+            tuple("UBER *TRIP", "transport", null));
+
+    // A later statement overlapping the first by one transaction.
+    String next = CARD_OFX.replace("2024021001", "2024030101");
+    BankImportResponse overlap =
+        importService.importStatement(
+            new MockMultipartFile("file", "next.ofx", null, next.getBytes(StandardCharsets.UTF_8)),
+            "CARD");
+    assertThat(overlap.getImported()).isEqualTo(1);
+    assertThat(overlap.getDuplicatesSkipped()).isEqualTo(2);
+  }
+
+  // ── Guards and rules ─────────────────────────────────────────────────────
+
+  @Test
+  void demoUsersAndBadAccountsAreRejected() {
+    assertThatThrownBy(() -> importService.importStatement(csv(CHECKING_CSV), " "))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> importService.importStatement(csv(CHECKING_CSV), "X".repeat(21)))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    authenticate(true);
+    assertThatThrownBy(() -> importService.importStatement(csv(CHECKING_CSV), "CHECKING"))
+        .isInstanceOf(AccessDeniedException.class);
+  }
+
+  @Test
+  void categorizer_matchesWholeWordsAndSkipsDeletedCategories() {
+    Registry all = Registry.of(FinanceCategories.DEFAULTS);
+    BigDecimal spend = new BigDecimal("-10");
+
+    assertThat(TransactionCategorizer.categorize("AT&T *BILL", spend, all)).isEqualTo("utilities");
+    assertThat(TransactionCategorizer.categorize("SHELLFISH SHACK", spend, all)).isNull();
+    assertThat(TransactionCategorizer.categorize("PAYROLL REVERSAL", spend, all)).isNull();
+    assertThat(
+            TransactionCategorizer.categorize(
+                "AMAZON MKTPL",
+                spend,
+                Registry.of(List.of(new FinanceCategoryRecord("groceries", "Groceries")))))
+        .isNull();
+  }
+
+  // ── Helpers ──────────────────────────────────────────────────────────────
+
+  private List<FinanceTransactionEntity> saved() {
+    return repository.findAllByUserIdOrderByPostedAtDesc(userId, Pageable.unpaged()).stream()
+        .sorted(
+            Comparator.comparing(FinanceTransactionEntity::getPostedAt)
+                .thenComparing(FinanceTransactionEntity::getAmount))
+        .toList();
+  }
+
+  private void authenticate(boolean demo) {
+    SecurityContextHolder.getContext()
+        .setAuthentication(
+            new PreAuthenticatedAuthenticationToken(
+                new UserContext(userId, "Test User", demo, false), null, List.of()));
+  }
+
+  private static MockMultipartFile csv(String content) {
+    return new MockMultipartFile(
+        "file", "statement.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,250 @@
+package com.austinharlan.trading_dashboard.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.austinharlan.trading_dashboard.marketdata.DailyBar;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioHolding;
+import com.austinharlan.trading_dashboard.service.CorrelationService.CorrelationMatrix;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+class DefaultCorrelationServiceTest {
+
+  private static final LocalDate START = LocalDate.of(2026, 3, 2);
+
+  // ── Matrix ───────────────────────────────────────────────────────────────
+
+  @Test
+  void matrix_measuresScaledAndInvertedReturns() {
+    double[] returns = {0.01, -0.02, 0.015, 0.005, -0.01};
+    Map<String, List<DailyBar>> histories = new LinkedHashMap<>();
+    histories.put("A", bars(START, 100, returns, 1));
+    histories.put("B", bars(START, 50, returns, 2));
+    histories.put("C", bars(START, 80, returns, -1));
+
+    CorrelationMatrix m = ReturnCorrelations.compute(List.of("A", "B", "C"), histories);
+
+    double var = sampleVariance(returns);
+    assertThat(m.from()).isEqualTo(START.plusDays(1));
+    assertThat(m.to()).isEqualTo(START.plusDays(5));
+    assertThat(m.observations()[0][1]).isEqualTo(5);
+    assertThat(m.correlation()[0][0]).isEqualTo(1.0);
+    assertThat(m.correlation()[0][1]).isCloseTo(1.0, within(1e-12));
+    assertThat(m.correlation()[2][0]).isCloseTo(-1.0, within(1e-12));
+    assertThat(m.covariance()[0][0]).isCloseTo(var, within(1e-12));
+    assertThat(m.covariance()[1][0]).isCloseTo(2 * var, within(1e-12));
+    assertThat(m.covariance()[0][2]).isCloseTo(-var, within(1e-12));
+  }
+
+  @Test
+  void matrix_measuresEachPairOverTheDatesBothHaveAReturn() {
+    Map<String, List<DailyBar>> histories = new LinkedHashMap<>();
+    histories.put("OLD", bars(START, 100, new double[] {0.01, -0.02, 0.03, 0.01, -0.01}, 1));
+    // Listed on the fourth date, so its first return is on the fifth.
+    histories.put("NEW", bars(START.plusDays(3), 10, new double[] {0.02, -0.01}, 1));
+    histories.put("FLAT", bars(START, 5, new double[] {0, 0, 0, 0, 0}, 1));
+
+    CorrelationMatrix m = ReturnCorrelations.compute(List.of("OLD", "NEW", "FLAT"), histories);
+
+    assertThat(m.observations()[0][0]).isEqualTo(5);
+    assertThat(m.observations()[0][1]).isEqualTo(2);
+    assertThat(m.observations()[1][1]).isEqualTo(2);
+    // OLD over the last two dates: 0.01, -0.01; NEW: 0.02, -0.01.
+    assertThat(m.covariance()[0][1]).isCloseTo(2 * 0.01 * 0.015, within(1e-12));
+    assertThat(m.correlation()[0][1]).isCloseTo(1.0, within(1e-12));
+    assertThat(m.covariance()[2][0]).isZero();
+    assertThat(m.correlation()[2][0]).isNaN();
+    assertThat(m.correlation()[2][2]).isNaN();
+  }
+
+  @Test
+  void matrix_withOneCommonReturnIsUndefined() {
+    Map<String, List<DailyBar>> histories = new LinkedHashMap<>();
+    histories.put("A", bars(START, 100, new double[] {0.01, 0.02}, 1));
+    histories.put("B", bars(START.plusDays(1), 100, new double[] {0.03}, 1));
+
+    CorrelationMatrix m = ReturnCorrelations.compute(List.of("A", "B"), histories);
+
+    assertThat(m.observations()[0][1]).isEqualTo(1);
+    assertThat(m.covariance()[0][1]).isNaN();
+    assertThat(m.correlation()[0][1]).isNaN();
+  }
+
+  @Test
+  void matrix_tiledAcrossManyTickersMatchesTwoPassStatistics() {
+    Random random = new Random(7L);
+    int t = 2 * ReturnCorrelations.TILE + 5;
+    List<String> tickers = new ArrayList<>();
+    Map<String, List<DailyBar>> histories = new LinkedHashMap<>();
+    for (int k = 0; k < t; k++) {
+      String ticker = "T" + k;
+      tickers.add(ticker);
+      double[] returns = new double[60];
+      for (int i = 0; i < returns.length; i++) {
+        returns[i] = random.nextGaussian() * 0.02;
+      }
+      // Some tickers list late so pairs differ in length.
+      int skip = k % 3 == 0 ? random.nextInt(30) : 0;
+      histories.put(ticker, bars(START, 20 + k, returns, 1).subList(skip, returns.length + 1));
+    }
+
+    CorrelationMatrix m = ReturnCorrelations.compute(tickers, histories);
+
+    for (int a = 0; a < t; a++) {
+      for (int b = 0; b < t; b++) {
+        double[][] common = commonReturns(histories.get("T" + a), histories.get("T" + b));
+        double cov = sampleCovariance(common[0], common[1]);
+        double corr = cov / Math.sqrt(sampleVariance(common[0]) * sampleVariance(common[1]));
+        assertThat(m.observations()[a][b]).isEqualTo(common[0].length);
+        assertThat(m.covariance()[a][b]).isCloseTo(cov, within(1e-12));
+        assertThat(m.correlation()[a][b]).isCloseTo(corr, within(1e-9));
+      }
+    }
+  }
+
+  // ── Service ──────────────────────────────────────────────────────────────
+
+  @Test
+  void current_cachesPerTickerSetAndLastBarAndReportsMissingHistories() {
+    PortfolioService portfolioService = mock(PortfolioService.class);
+    QuoteService quoteService = mock(QuoteService.class);
+    var service =
+        new DefaultCorrelationService(
+            portfolioService, quoteService, new CaffeineCacheManager("correlations"));
+    when(portfolioService.listHoldings())
+        .thenReturn(List.of(holding("MSFT"), holding("AAPL"), holding("ZZZ")));
+    double[] returns = {0.01, -0.02, 0.015};
+    Map<String, List<DailyBar>> histories = new LinkedHashMap<>();
+    histories.put("AAPL", bars(START, 100, returns, 1));
+    histories.put("MSFT", bars(START, 300, returns, -1));
+    when(quoteService.getCachedHistories(anyCollection())).thenReturn(histories);
+
+    CorrelationMatrix first = service.currentCorrelations().orElseThrow();
+    CorrelationMatrix second = service.currentCorrelations().orElseThrow();
+
+    assertThat(first.tickers()).containsExactly("AAPL", "MSFT");
+    assertThat(first.missingTickers()).containsExactly("ZZZ");
+    assertThat(first.correlation()[0][1]).isCloseTo(-1.0, within(1e-12));
+    assertThat(second.correlation()).isSameAs(first.correlation());
+
+    histories.put("AAPL", bars(START, 100, new double[] {0.01, -0.02, 0.015, 0.01}, 1));
+    assertThat(service.currentCorrelations().orElseThrow().correlation())
+        .isNotSameAs(first.correlation());
+  }
+
+  @Test
+  void current_recomputesWhenALaggingTickerCatchesUpToTheLatestBar() {
+    PortfolioService portfolioService = mock(PortfolioService.class);
+    QuoteService quoteService = mock(QuoteService.class);
+    var service =
+        new DefaultCorrelationService(
+            portfolioService, quoteService, new CaffeineCacheManager("correlations"));
+    when(portfolioService.listHoldings()).thenReturn(List.of(holding("AAPL"), holding("MSFT")));
+    Map<String, List<DailyBar>> histories = new LinkedHashMap<>();
+    histories.put("AAPL", bars(START, 100, new double[] {0.01, -0.02, 0.015, 0.01}, 1));
+    // A day behind AAPL, so the latest bar across both is still AAPL's.
+    histories.put("MSFT", bars(START, 300, new double[] {0.01, -0.02, 0.015}, 1));
+    when(quoteService.getCachedHistories(anyCollection())).thenReturn(histories);
+
+    CorrelationMatrix lagging = service.currentCorrelations().orElseThrow();
+    histories.put("MSFT", bars(START, 300, new double[] {0.01, -0.02, 0.015, 0.01}, 1));
+    CorrelationMatrix caughtUp = service.currentCorrelations().orElseThrow();
+
+    assertThat(lagging.observations()[0][1]).isEqualTo(3);
+    assertThat(caughtUp.observations()[0][1]).isEqualTo(4);
+  }
+
+  @Test
+  void current_isEmptyWithNoPositions() {
+    PortfolioService portfolioService = mock(PortfolioService.class);
+    QuoteService quoteService = mock(QuoteService.class);
+    var service = new DefaultCorrelationService(portfolioService, quoteService, null);
+    when(portfolioService.listHoldings()).thenReturn(List.of());
+
+    assertThat(service.currentCorrelations()).isEmpty();
+    verifyNoInteractions(quoteService);
+  }
+
+  // ── Helpers ──────────────────────────────────────────────────────────────
+
+  /** Daily bars from {@code start} whose returns are {@code scale} times {@code returns}. */
+  private static List<DailyBar> bars(
+      LocalDate start, double firstClose, double[] returns, double scale) {
+    List<DailyBar> bars = new ArrayList<>();
+    double close = firstClose;
+    bars.add(bar(start, close));
+    for (int i = 0; i < returns.length; i++) {
+      close *= 1 + scale * returns[i];
+      bars.add(bar(start.plusDays(i + 1), close));
+    }
+    return bars;
+  }
+
+  private static DailyBar bar(LocalDate date, double close) {
+    BigDecimal value = BigDecimal.valueOf(close);
+    return new DailyBar(date, value, value, value, value, 0L);
+  }
+
+  /**
+   * Returns of both histories on the dates where each has a close on that date and the day before.
+   */
+  private static double[][] commonReturns(List<DailyBar> a, List<DailyBar> b) {
+    Map<LocalDate, Double> ra = returnsByDate(a);
+    Map<LocalDate, Double> rb = returnsByDate(b);
+    List<double[]> pairs = new ArrayList<>();
+    ra.forEach(
+        (date, x) -> {
+          Double y = rb.get(date);
+          if (y != null) {
+            pairs.add(new double[] {x, y});
+          }
+        });
+    double[][] common = new double[2][pairs.size()];
+    for (int i = 0; i < pairs.size(); i++) {
+      common[0][i] = pairs.get(i)[0];
+      common[1][i] = pairs.get(i)[1];
+    }
+    return common;
+  }
+
+  private static Map<LocalDate, Double> returnsByDate(List<DailyBar> bars) {
+    Map<LocalDate, Double> returns = new LinkedHashMap<>();
+    for (int i = 1; i < bars.size(); i++) {
+      returns.put(
+          bars.get(i).date(),
+          bars.get(i).close().doubleValue() / bars.get(i - 1).close().doubleValue() - 1);
+    }
+    return returns;
+  }
+
+  private static double sampleVariance(double[] x) {
+    return sampleCovariance(x, x);
+  }
+
+  private static double sampleCovariance(double[] x, double[] y) {
+    double mx = 0;
+    double my = 0;
+    for (int i = 0; i < x.length; i++) {
+      mx += x[i] / x.length;
+      my += y[i] / y.length;
+    }
+    double sum = 0;
+    for (int i = 0; i < x.length; i++) {
+      sum += (x[i] - mx) * (y[i] - my);
+    }
+    return sum / (x.length - 1);
+  }
+
+  private static PortfolioHolding holding(String ticker) {
+    return new PortfolioHolding(ticker, BigDecimal.ONE, BigDecimal.TEN);
+  }
+}
@@ -1,20 +1,29 @@
 package com.austinharlan.trading_dashboard.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.finance.FinanceCategoryRecord;
 import com.austinharlan.trading_dashboard.finance.FinanceSummaryData;
+import com.austinharlan.trading_dashboard.finance.FinanceSummaryData.CategoryTotal;
+import com.austinharlan.trading_dashboard.finance.FinanceSummaryData.MonthTotal;
 import com.austinharlan.trading_dashboard.finance.FinanceTransactionRecord;
 import com.austinharlan.trading_dashboard.persistence.FinanceCategoryRepository;
 import com.austinharlan.trading_dashboard.persistence.FinanceTransactionEntity;
 import com.austinharlan.trading_dashboard.persistence.FinanceTransactionRepository;
+import com.austinharlan.trading_dashboard.persistence.UserEntity;
 import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import com.austinharlan.trading_dashboard.service.FinanceInsightsService.TransactionPage;
 import com.austinharlan.trading_dashboard.testsupport.DatabaseIntegrationTest;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.AfterEach;
@@ -34,6 +43,11 @@ class DefaultFinanceInsightsServiceIT extends DatabaseIntegrationTest {
   @Autowired private FinanceTransactionRepository repository;
   @Autowired private FinanceCategoryRepository categoryRepository;
   @Autowired private UserRepository userRepository;
+  @Autowired private FinanceRollups financeRollups;
+  @Autowired private FinanceCategories financeCategories;
+  @Autowired private FinanceSearch financeSearch;
+  @Autowired private RecurringChargeAnalyzer recurringChargeAnalyzer;
+  @Autowired private FinanceInsightsService financeService;
 
   private DefaultFinanceInsightsService service;
   private Long testUserId;
@@ -42,9 +56,16 @@ class DefaultFinanceInsightsServiceIT extends DatabaseIntegrationTest {
   void setUp() {
     repository.deleteAll();
     testUserId = userRepository.findByApiKey("test-api-key").orElseThrow().getId();
+    financeRollups.invalidate(testUserId);
     service =
         new DefaultFinanceInsightsService(
-            repository, categoryRepository, userRepository, FIXED_CLOCK);
+            repository,
+            categoryRepository,
+            financeCategories,
+            financeRollups,
+            financeSearch,
+            recurringChargeAnalyzer,
+            FIXED_CLOCK);
     setUserContext(testUserId);
   }
 
@@ -112,6 +133,40 @@ class DefaultFinanceInsightsServiceIT extends DatabaseIntegrationTest {
     assertThat(summary.averageDailySpend()).isEqualByComparingTo("9.69");
     assertThat(summary.projectedMonthEndSpend()).isEqualByComparingTo("300.39");
     assertThat(summary.asOf()).isEqualTo(reference);
+    assertThat(summary.monthToDateByCategory())
+        .extracting(CategoryTotal::category, c -> c.amount().toPlainString(), CategoryTotal::count)
+        .containsExactly(
+            tuple("bills", "75.10", 1L),
+            tuple("dining", "20.00", 1L),
+            tuple("groceries", "50.25", 1L));
+    assertThat(summary.monthlyTrend()).hasSize(12);
+    assertThat(summary.monthlyTrend().get(10))
+        .isEqualTo(new MonthTotal(YearMonth.of(2024, 4), new BigDecimal("1200.00"), 1));
+    assertThat(summary.monthlyTrend().get(11).amount()).isEqualByComparingTo("145.35");
+    assertThat(summary.monthlyTrend().get(0).month()).isEqualTo(YearMonth.of(2023, 6));
+  }
+
+  @Test
+  void createTransactionFoldsIntoABuiltRollup() {
+    financeService.listCategories();
+    YearMonth lastMonth = YearMonth.now(ZoneOffset.UTC).minusMonths(1);
+    Instant postedAt = lastMonth.atDay(3).atStartOfDay(ZoneOffset.UTC).toInstant();
+    financeService.createTransaction(
+        postedAt, "Groceries", new BigDecimal("10.00"), "groceries", null);
+    // Rows written behind the service's back are picked up by the first build.
+    repository.save(
+        new FinanceTransactionEntity(
+            testUserId, postedAt, "Imported", new BigDecimal("2.50"), null, null));
+
+    assertThat(financeService.getSummary().monthlyTrend().get(10))
+        .isEqualTo(new MonthTotal(lastMonth, new BigDecimal("12.50"), 2));
+
+    financeService.createTransaction(
+        postedAt, "Groceries", new BigDecimal("7.25"), "groceries", null);
+
+    assertThat(userRepository.findFinanceRollupBuiltById(testUserId)).contains(true);
+    assertThat(financeService.getSummary().monthlyTrend().get(10))
+        .isEqualTo(new MonthTotal(lastMonth, new BigDecimal("19.75"), 3));
   }
 
   @Test
@@ -150,16 +205,149 @@ class DefaultFinanceInsightsServiceIT extends DatabaseIntegrationTest {
 
     repository.saveAll(List.of(groceriesEarly, dining, groceriesLatest));
 
-    List<FinanceTransactionRecord> groceries = service.listTransactions(5, "groceries");
+    List<FinanceTransactionRecord> groceries =
+        service.listTransactions(5, "Groceries", null).transactions();
 
     assertThat(groceries)
         .extracting(FinanceTransactionRecord::id)
         .containsExactly("groceries-latest", "groceries-early");
 
-    List<FinanceTransactionRecord> limited = service.listTransactions(2, null);
+    TransactionPage limited = service.listTransactions(2, null, null);
 
-    assertThat(limited)
+    assertThat(limited.transactions())
         .extracting(FinanceTransactionRecord::id)
         .containsExactly("groceries-latest", "dining");
+
+    assertThat(service.listTransactions(2, null, limited.nextCursor()).transactions())
+        .extracting(FinanceTransactionRecord::id)
+        .containsExactly("groceries-early");
+  }
+
+  @Test
+  void listTransactionsPagesThroughTiesWithoutSkippingOrRepeating() {
+    Instant reference = FIXED_CLOCK.instant();
+    List<FinanceTransactionEntity> rows = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      // Pairs share a timestamp, so pages split on the id tie-break.
+      rows.add(
+          new FinanceTransactionEntity(
+              "txn-" + i,
+              testUserId,
+              reference.minus(i / 2, ChronoUnit.DAYS),
+              "Row " + i,
+              new BigDecimal("1.00"),
+              i % 3 == 0 ? "dining" : "groceries",
+              null));
+    }
+    repository.saveAll(rows);
+
+    assertThat(walk(null))
+        .containsExactly("txn-1", "txn-0", "txn-3", "txn-2", "txn-5", "txn-4", "txn-6");
+    assertThat(walk("groceries")).containsExactly("txn-1", "txn-2", "txn-5", "txn-4");
+  }
+
+  @Test
+  void searchTransactionsRanksPrefixMatchesAndPagesWithoutRepeating() {
+    Instant reference = FIXED_CLOCK.instant();
+    repository.saveAll(
+        List.of(
+            new FinanceTransactionEntity(
+                "wf-old",
+                testUserId,
+                reference.minus(3, ChronoUnit.DAYS),
+                "WHOLE FOODS MKT #10",
+                new BigDecimal("-54.20"),
+                "groceries",
+                null),
+            new FinanceTransactionEntity(
+                "wf-new",
+                testUserId,
+                reference.minus(1, ChronoUnit.DAYS),
+                "Whole Foods Market",
+                new BigDecimal("-12.00"),
+                "groceries",
+                null),
+            new FinanceTransactionEntity(
+                "deli",
+                testUserId,
+                reference,
+                "Corner deli",
+                new BigDecimal("-9.50"),
+                "dining",
+                "Picked up whole food for lunch"),
+            new FinanceTransactionEntity(
+                "coffee",
+                testUserId,
+                reference,
+                "STARBUCKS STORE 9",
+                new BigDecimal("-4.50"),
+                "dining",
+                null)));
+
+    TransactionPage first = service.searchTransactions("whole fo", 2, null);
+    assertThat(first.transactions())
+        .extracting(FinanceTransactionRecord::id)
+        .containsExactly("wf-new", "wf-old");
+    assertThat(first.nextCursor()).isNotNull();
+
+    TransactionPage second = service.searchTransactions("whole fo", 2, first.nextCursor());
+    assertThat(second.transactions())
+        .extracting(FinanceTransactionRecord::id)
+        .containsExactly("deli");
+    assertThat(second.nextCursor()).isNull();
+
+    assertThat(service.searchTransactions("wholesale", null, null).transactions()).isEmpty();
+  }
+
+  @Test
+  void categoriesAreSeededOnceAndServedFromTheCacheUntilChanged() {
+    resetCategories();
+    try {
+      assertThat(service.listCategories())
+          .extracting(FinanceCategoryRecord::slug)
+          .containsExactlyElementsOf(
+              FinanceCategories.DEFAULTS.stream().map(FinanceCategoryRecord::slug).toList());
+      assertThat(userRepository.findById(testUserId).orElseThrow().isCategorySeeded()).isTrue();
+
+      // Changes behind the service's back stay invisible until the service itself writes.
+      categoryRepository.deleteByUserIdAndSlug(testUserId, "other");
+      assertThat(service.listCategories()).hasSize(14);
+
+      service.createCategory("Pets");
+      List<FinanceCategoryRecord> categories = service.listCategories();
+      assertThat(categories).hasSize(14);
+      assertThat(categories.get(0)).isEqualTo(new FinanceCategoryRecord("pets", "Pets"));
+      assertThat(categories).extracting(FinanceCategoryRecord::slug).doesNotContain("other");
+      assertThatThrownBy(
+              () -> service.createTransaction(null, "Vet", new BigDecimal("-80.00"), "other", null))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessageContaining("Unknown category");
+
+      assertThat(service.deleteCategory("pets")).isTrue();
+      assertThat(service.listCategories())
+          .extracting(FinanceCategoryRecord::slug)
+          .doesNotContain("pets");
+    } finally {
+      resetCategories();
+    }
+  }
+
+  private void resetCategories() {
+    categoryRepository.deleteAllByUserId(testUserId);
+    UserEntity user = userRepository.findById(testUserId).orElseThrow();
+    user.setCategorySeeded(false);
+    userRepository.save(user);
+    financeCategories.evict(testUserId);
+  }
+
+  private List<String> walk(String category) {
+    List<String> ids = new ArrayList<>();
+    String cursor = null;
+    do {
+      TransactionPage page = service.listTransactions(2, category, cursor);
+      page.transactions().forEach(t -> ids.add(t.id()));
+      cursor = page.nextCursor();
+    } while (cursor != null);
+    return ids;
   }
 }
@@ -1,22 +1,42 @@
 package com.austinharlan.trading_dashboard.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.finance.FinanceBucketTotal;
+import com.austinharlan.trading_dashboard.finance.FinanceCategoryRecord;
+import com.austinharlan.trading_dashboard.finance.FinanceSummaryData.CategoryTotal;
+import com.austinharlan.trading_dashboard.finance.FinanceTransactionRecord;
+import com.austinharlan.trading_dashboard.finance.RecurringSeriesRecord;
+import com.austinharlan.trading_dashboard.persistence.FinanceAggregates;
+import com.austinharlan.trading_dashboard.persistence.FinanceCategoryEntity;
 import com.austinharlan.trading_dashboard.persistence.FinanceCategoryRepository;
+import com.austinharlan.trading_dashboard.persistence.FinancePeriodTotal;
+import com.austinharlan.trading_dashboard.persistence.FinanceRecurringSeriesEntity;
+import com.austinharlan.trading_dashboard.persistence.FinanceSearchHit;
 import com.austinharlan.trading_dashboard.persistence.FinanceTransactionEntity;
 import com.austinharlan.trading_dashboard.persistence.FinanceTransactionRepository;
-import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -49,53 +69,363 @@ class DefaultFinanceInsightsServiceTest {
   @Test
   void listTransactionsUsesDefaultLimitWhenMissing() {
     FinanceTransactionRepository repository = mock(FinanceTransactionRepository.class);
-    when(repository.findAllByUserIdOrderByPostedAtDesc(eq(1L), any(Pageable.class)))
-        .thenReturn(List.of());
+    when(repository.findPageByUserId(eq(1L), any(Pageable.class))).thenReturn(List.of());
     DefaultFinanceInsightsService service =
         new DefaultFinanceInsightsService(
-            repository, mock(FinanceCategoryRepository.class), mock(UserRepository.class), CLOCK);
+            repository,
+            mock(FinanceCategoryRepository.class),
+            mock(FinanceCategories.class),
+            mock(FinanceRollups.class),
+            mock(FinanceSearch.class),
+            mock(RecurringChargeAnalyzer.class),
+            CLOCK);
 
-    service.listTransactions(null, null);
+    service.listTransactions(null, null, null);
 
+    // One row past the page tells whether another page follows.
     ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-    verify(repository).findAllByUserIdOrderByPostedAtDesc(eq(1L), pageableCaptor.capture());
+    verify(repository).findPageByUserId(eq(1L), pageableCaptor.capture());
     assertThat(pageableCaptor.getValue().isPaged()).isTrue();
-    assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(100);
+    assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(101);
   }
 
   @Test
   void listTransactionsCapsLimitAtFiveHundred() {
     FinanceTransactionRepository repository = mock(FinanceTransactionRepository.class);
-    when(repository.findAllByUserIdOrderByPostedAtDesc(eq(1L), any(Pageable.class)))
-        .thenReturn(List.of());
+    when(repository.findPageByUserId(eq(1L), any(Pageable.class))).thenReturn(List.of());
     DefaultFinanceInsightsService service =
         new DefaultFinanceInsightsService(
-            repository, mock(FinanceCategoryRepository.class), mock(UserRepository.class), CLOCK);
+            repository,
+            mock(FinanceCategoryRepository.class),
+            mock(FinanceCategories.class),
+            mock(FinanceRollups.class),
+            mock(FinanceSearch.class),
+            mock(RecurringChargeAnalyzer.class),
+            CLOCK);
 
-    service.listTransactions(9999, null);
+    service.listTransactions(9999, null, null);
 
     ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-    verify(repository).findAllByUserIdOrderByPostedAtDesc(eq(1L), pageableCaptor.capture());
+    verify(repository).findPageByUserId(eq(1L), pageableCaptor.capture());
     assertThat(pageableCaptor.getValue().isPaged()).isTrue();
-    assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(500);
+    assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(501);
   }
 
   @Test
-  void listTransactionsUsesCategoryRepositoryWhenCategoryPresent() {
+  void listTransactionsUsesCategoryQueryWithLowerCasedCategory() {
     FinanceTransactionRepository repository = mock(FinanceTransactionRepository.class);
-    when(repository.findByUserIdAndCategoryIgnoreCaseOrderByPostedAtDesc(
-            eq(1L), any(), any(Pageable.class)))
+    when(repository.findPageByUserIdAndCategory(eq(1L), any(), any(Pageable.class)))
         .thenReturn(List.<FinanceTransactionEntity>of());
     DefaultFinanceInsightsService service =
         new DefaultFinanceInsightsService(
-            repository, mock(FinanceCategoryRepository.class), mock(UserRepository.class), CLOCK);
+            repository,
+            mock(FinanceCategoryRepository.class),
+            mock(FinanceCategories.class),
+            mock(FinanceRollups.class),
+            mock(FinanceSearch.class),
+            mock(RecurringChargeAnalyzer.class),
+            CLOCK);
 
-    service.listTransactions(20, "groceries");
+    service.listTransactions(20, " Groceries ", null);
 
     ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
     verify(repository)
-        .findByUserIdAndCategoryIgnoreCaseOrderByPostedAtDesc(
-            eq(1L), any(), pageableCaptor.capture());
-    assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(20);
+        .findPageByUserIdAndCategory(eq(1L), eq("groceries"), pageableCaptor.capture());
+    assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(21);
+  }
+
+  @Test
+  void listTransactionsHandsOutACursorThatContinuesAfterTheLastRow() {
+    FinanceTransactionRepository repository = mock(FinanceTransactionRepository.class);
+    Instant postedAt = Instant.parse("2024-05-10T10:00:00Z");
+    FinanceTransactionEntity first = transaction("b", postedAt);
+    FinanceTransactionEntity second = transaction("a", postedAt);
+    FinanceTransactionEntity third = transaction("c", postedAt.minusSeconds(60));
+    when(repository.findPageByUserId(eq(1L), any(Pageable.class)))
+        .thenReturn(List.of(first, second, third));
+    when(repository.findPageByUserIdAfter(eq(1L), eq(postedAt), eq("a"), any(Pageable.class)))
+        .thenReturn(List.of(third));
+    DefaultFinanceInsightsService service =
+        new DefaultFinanceInsightsService(
+            repository,
+            mock(FinanceCategoryRepository.class),
+            mock(FinanceCategories.class),
+            mock(FinanceRollups.class),
+            mock(FinanceSearch.class),
+            mock(RecurringChargeAnalyzer.class),
+            CLOCK);
+
+    FinanceInsightsService.TransactionPage page = service.listTransactions(2, null, null);
+    assertThat(page.transactions())
+        .extracting(FinanceTransactionRecord::id)
+        .containsExactly("b", "a");
+    assertThat(page.nextCursor()).isNotNull();
+
+    FinanceInsightsService.TransactionPage next =
+        service.listTransactions(2, null, page.nextCursor());
+    assertThat(next.transactions()).extracting(FinanceTransactionRecord::id).containsExactly("c");
+    assertThat(next.nextCursor()).isNull();
+  }
+
+  @Test
+  void listTransactionsRejectsInvalidCursors() {
+    DefaultFinanceInsightsService service =
+        new DefaultFinanceInsightsService(
+            mock(FinanceTransactionRepository.class),
+            mock(FinanceCategoryRepository.class),
+            mock(FinanceCategories.class),
+            mock(FinanceRollups.class),
+            mock(FinanceSearch.class),
+            mock(RecurringChargeAnalyzer.class),
+            CLOCK);
+
+    assertThatThrownBy(() -> service.listTransactions(null, null, "not a cursor"))
+        .isInstanceOf(IllegalArgumentException.class);
+    String noId =
+        Base64.getUrlEncoder()
+            .encodeToString("2024-05-10T10:00:00Z|".getBytes(StandardCharsets.UTF_8));
+    assertThatThrownBy(() -> service.listTransactions(null, null, noId))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void getBreakdownGroupsCategoryRowsIntoBucketsOverUtcDates() {
+    FinanceTransactionRepository repository = mock(FinanceTransactionRepository.class);
+    when(repository.sumByPeriod(
+            1L,
+            FinanceAggregates.WEEK,
+            true,
+            Instant.parse("2024-05-01T00:00:00Z"),
+            Instant.parse("2024-06-01T00:00:00Z")))
+        .thenReturn(
+            List.of(
+                new FinancePeriodTotal(
+                    LocalDate.of(2024, 4, 29), "dining", new BigDecimal("30.00"), 2),
+                new FinancePeriodTotal(
+                    LocalDate.of(2024, 4, 29), "groceries", new BigDecimal("12.50"), 1),
+                new FinancePeriodTotal(
+                    LocalDate.of(2024, 5, 13), null, new BigDecimal("5.00"), 1)));
+    DefaultFinanceInsightsService service =
+        new DefaultFinanceInsightsService(
+            repository,
+            mock(FinanceCategoryRepository.class),
+            mock(FinanceCategories.class),
+            mock(FinanceRollups.class),
+            mock(FinanceSearch.class),
+            mock(RecurringChargeAnalyzer.class),
+            CLOCK);
+
+    List<FinanceBucketTotal> buckets =
+        service.getBreakdown(
+            FinanceAggregates.WEEK, LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31));
+
+    assertThat(buckets)
+        .containsExactly(
+            new FinanceBucketTotal(
+                LocalDate.of(2024, 4, 29),
+                new BigDecimal("42.50"),
+                3,
+                List.of(
+                    new CategoryTotal("dining", new BigDecimal("30.00"), 2),
+                    new CategoryTotal("groceries", new BigDecimal("12.50"), 1))),
+            new FinanceBucketTotal(
+                LocalDate.of(2024, 5, 13),
+                new BigDecimal("5.00"),
+                1,
+                List.of(new CategoryTotal(null, new BigDecimal("5.00"), 1))));
+  }
+
+  @Test
+  void getBreakdownRejectsUnknownBucketsAndReversedRanges() {
+    FinanceTransactionRepository repository = mock(FinanceTransactionRepository.class);
+    DefaultFinanceInsightsService service =
+        new DefaultFinanceInsightsService(
+            repository,
+            mock(FinanceCategoryRepository.class),
+            mock(FinanceCategories.class),
+            mock(FinanceRollups.class),
+            mock(FinanceSearch.class),
+            mock(RecurringChargeAnalyzer.class),
+            CLOCK);
+
+    assertThatThrownBy(() -> service.getBreakdown("year", null, null))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () ->
+                service.getBreakdown(
+                    FinanceAggregates.DAY, LocalDate.of(2024, 5, 2), LocalDate.of(2024, 5, 1)))
+        .isInstanceOf(IllegalArgumentException.class);
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void categoriesAreServedFromTheCachedRegistry() {
+    FinanceTransactionRepository repository = mock(FinanceTransactionRepository.class);
+    FinanceCategoryRepository categoryRepository = mock(FinanceCategoryRepository.class);
+    FinanceCategories categories = mock(FinanceCategories.class);
+    List<FinanceCategoryRecord> dining = List.of(new FinanceCategoryRecord("dining", "Dining"));
+    when(categories.cached(1L)).thenReturn(FinanceCategories.Registry.of(dining));
+    DefaultFinanceInsightsService service =
+        new DefaultFinanceInsightsService(
+            repository,
+            categoryRepository,
+            categories,
+            mock(FinanceRollups.class),
+            mock(FinanceSearch.class),
+            mock(RecurringChargeAnalyzer.class),
+            CLOCK);
+
+    assertThat(service.listCategories()).isEqualTo(dining);
+    assertThatThrownBy(
+            () ->
+                service.createTransaction(
+                    null, "Market", new BigDecimal("-5.00"), "Groceries", null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Unknown category: groceries");
+    assertThatThrownBy(() -> service.createCategory("Dining"))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    verify(categories, never()).load(anyLong());
+    verifyNoInteractions(repository, categoryRepository);
+  }
+
+  @Test
+  void categoryWritesEvictTheRegistryAndMissesLoadIt() {
+    FinanceCategoryRepository categoryRepository = mock(FinanceCategoryRepository.class);
+    FinanceCategories categories = mock(FinanceCategories.class);
+    when(categories.load(1L)).thenReturn(FinanceCategories.Registry.of(List.of()));
+    when(categoryRepository.save(any(FinanceCategoryEntity.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    when(categoryRepository.deleteByUserIdAndSlug(1L, "pets")).thenReturn(1L);
+    DefaultFinanceInsightsService service =
+        new DefaultFinanceInsightsService(
+            mock(FinanceTransactionRepository.class),
+            categoryRepository,
+            categories,
+            mock(FinanceRollups.class),
+            mock(FinanceSearch.class),
+            mock(RecurringChargeAnalyzer.class),
+            CLOCK);
+
+    assertThat(service.createCategory("Pets")).isEqualTo(new FinanceCategoryRecord("pets", "Pets"));
+    assertThat(service.deleteCategory("Pets")).isTrue();
+
+    verify(categories).load(1L);
+    verify(categories, times(2)).evict(1L);
+  }
+
+  @Test
+  void searchTransactionsKeepsRankOrderAndContinuesAfterTheLastHit() {
+    FinanceTransactionRepository repository = mock(FinanceTransactionRepository.class);
+    FinanceSearch financeSearch = mock(FinanceSearch.class);
+    Instant postedAt = Instant.parse("2024-05-10T10:00:00Z");
+    FinanceSearchHit best = new FinanceSearchHit("b", 1.0f, postedAt);
+    FinanceSearchHit next = new FinanceSearchHit("a", 0.4f, postedAt);
+    FinanceSearchHit last = new FinanceSearchHit("c", 0.4f, postedAt.minusSeconds(60));
+    when(financeSearch.search(1L, List.of("whole", "fo"), null, 3))
+        .thenReturn(List.of(best, next, last));
+    when(financeSearch.search(1L, List.of("whole", "fo"), next, 3)).thenReturn(List.of(last));
+    when(repository.findAllById(List.of("b", "a")))
+        .thenReturn(List.of(transaction("a", postedAt), transaction("b", postedAt)));
+    when(repository.findAllById(List.of("c")))
+        .thenReturn(List.of(transaction("c", postedAt.minusSeconds(60))));
+    DefaultFinanceInsightsService service =
+        new DefaultFinanceInsightsService(
+            repository,
+            mock(FinanceCategoryRepository.class),
+            mock(FinanceCategories.class),
+            mock(FinanceRollups.class),
+            financeSearch,
+            mock(RecurringChargeAnalyzer.class),
+            CLOCK);
+
+    FinanceInsightsService.TransactionPage page = service.searchTransactions("Whole fo", 2, null);
+    assertThat(page.transactions())
+        .extracting(FinanceTransactionRecord::id)
+        .containsExactly("b", "a");
+    assertThat(page.nextCursor()).isNotNull();
+
+    FinanceInsightsService.TransactionPage rest =
+        service.searchTransactions("Whole fo", 2, page.nextCursor());
+    assertThat(rest.transactions()).extracting(FinanceTransactionRecord::id).containsExactly("c");
+    assertThat(rest.nextCursor()).isNull();
+  }
+
+  @Test
+  void searchTransactionsRejectsEmptyQueriesAndInvalidCursors() {
+    FinanceSearch financeSearch = mock(FinanceSearch.class);
+    DefaultFinanceInsightsService service =
+        new DefaultFinanceInsightsService(
+            mock(FinanceTransactionRepository.class),
+            mock(FinanceCategoryRepository.class),
+            mock(FinanceCategories.class),
+            mock(FinanceRollups.class),
+            financeSearch,
+            mock(RecurringChargeAnalyzer.class),
+            CLOCK);
+
+    assertThatThrownBy(() -> service.searchTransactions(" -- ", null, null))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> service.searchTransactions("a b c d e f g h i", null, null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("at most 8");
+    String badRank =
+        Base64.getUrlEncoder()
+            .encodeToString("high|2024-05-10T10:00:00Z|a".getBytes(StandardCharsets.UTF_8));
+    assertThatThrownBy(() -> service.searchTransactions("rent", null, badRank))
+        .isInstanceOf(IllegalArgumentException.class);
+    verifyNoInteractions(financeSearch);
+  }
+
+  @Test
+  void listRecurringCatchesUpThenDropsSeriesThatMissedTwoCharges() {
+    RecurringChargeAnalyzer analyzer = mock(RecurringChargeAnalyzer.class);
+    // CLOCK is 2025-01-01.
+    FinanceRecurringSeriesEntity monthly =
+        series("netflix", "MONTHLY", LocalDate.of(2024, 12, 3), "-15.49");
+    FinanceRecurringSeriesEntity weekly =
+        series("blue bottle", "WEEKLY", LocalDate.of(2024, 12, 30), "-4.50");
+    FinanceRecurringSeriesEntity lapsed =
+        series("gym", "MONTHLY", LocalDate.of(2024, 10, 30), "-40.00");
+    when(analyzer.detected(1L)).thenReturn(List.of(monthly, weekly, lapsed));
+    DefaultFinanceInsightsService service =
+        new DefaultFinanceInsightsService(
+            mock(FinanceTransactionRepository.class),
+            mock(FinanceCategoryRepository.class),
+            mock(FinanceCategories.class),
+            mock(FinanceRollups.class),
+            mock(FinanceSearch.class),
+            analyzer,
+            CLOCK);
+
+    FinanceInsightsService.RecurringCharges active = service.listRecurring(false);
+
+    verify(analyzer).catchUp(1L);
+    assertThat(active.series())
+        .extracting(RecurringSeriesRecord::merchantKey, RecurringSeriesRecord::nextExpectedOn)
+        .containsExactly(
+            tuple("netflix", LocalDate.of(2025, 1, 3)),
+            tuple("blue bottle", LocalDate.of(2025, 1, 6)));
+    // -4.50 * 52 / 12 - 15.49
+    assertThat(active.estimatedMonthlyTotal()).isEqualByComparingTo("-34.99");
+
+    FinanceInsightsService.RecurringCharges all = service.listRecurring(true);
+    assertThat(all.series())
+        .extracting(RecurringSeriesRecord::merchantKey, RecurringSeriesRecord::active)
+        .containsExactly(tuple("gym", false), tuple("netflix", true), tuple("blue bottle", true));
+    assertThat(all.estimatedMonthlyTotal()).isEqualByComparingTo("-34.99");
+  }
+
+  private static FinanceRecurringSeriesEntity series(
+      String key, String cadence, LocalDate last, String amount) {
+    FinanceRecurringSeriesEntity series = new FinanceRecurringSeriesEntity(1L, key);
+    series.add(last, new BigDecimal(amount), key.toUpperCase(Locale.ROOT), null, null);
+    series.setCadence(cadence);
+    return series;
+  }
+
+  private static FinanceTransactionEntity transaction(String id, Instant postedAt) {
+    return new FinanceTransactionEntity(
+        id, 1L, postedAt, "Test", new BigDecimal("-1.00"), "groceries", null);
   }
 }
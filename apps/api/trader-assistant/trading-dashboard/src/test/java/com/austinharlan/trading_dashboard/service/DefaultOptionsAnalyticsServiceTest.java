@@ -0,0 +1,184 @@
+package com.austinharlan.trading_dashboard.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.austinharlan.trading_dashboard.marketdata.DailyBar;
+import com.austinharlan.trading_dashboard.marketdata.Quote;
+import com.austinharlan.trading_dashboard.service.OptionsAnalyticsService.ContractGreeks;
+import com.austinharlan.trading_dashboard.service.OptionsAnalyticsService.OptionsGreeks;
+import com.austinharlan.trading_dashboard.service.OptionsAnalyticsService.UnderlyingExposure;
+import com.austinharlan.trading_dashboard.trades.OpenLot;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class DefaultOptionsAnalyticsServiceTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+  private static final Instant NOW = Instant.parse("2026-03-10T15:00:00Z");
+
+  // ── Black-Scholes kernel ─────────────────────────────────────────────────
+
+  @Test
+  void priceAll_matchesTextbookValues() {
+    // S=100, K=100, T=1, r=5%, sigma=20%: Hull's standard at-the-money example.
+    double[][] call = price(100, 100, 1, 0.2, true, 0.05);
+    double[][] put = price(100, 100, 1, 0.2, false, 0.05);
+
+    assertThat(call[0][0]).isCloseTo(10.4506, within(1e-4));
+    assertThat(put[0][0]).isCloseTo(5.5735, within(1e-4));
+    assertThat(call[1][0]).isCloseTo(0.6368, within(1e-4));
+    assertThat(put[1][0]).isCloseTo(-0.3632, within(1e-4));
+    assertThat(call[2][0]).isCloseTo(0.018762, within(1e-6));
+    assertThat(put[2][0]).isCloseTo(call[2][0], within(1e-12));
+    assertThat(call[3][0]).isCloseTo(-6.4140 / 365, within(1e-5));
+    assertThat(put[3][0]).isCloseTo(-1.6579 / 365, within(1e-5));
+    assertThat(call[4][0]).isCloseTo(0.37524, within(1e-4));
+  }
+
+  @Test
+  void priceAll_satisfiesPutCallParityAndFiniteDifferenceGreeks() {
+    double s = 87.5, k = 92, t = 0.37, sigma = 0.41, r = 0.03;
+    double[][] call = price(s, k, t, sigma, true, r);
+    double[][] put = price(s, k, t, sigma, false, r);
+
+    assertThat(call[0][0] - put[0][0]).isCloseTo(s - k * Math.exp(-r * t), within(1e-6));
+
+    double h = 1e-3;
+    double up = price(s + h, k, t, sigma, true, r)[0][0];
+    double down = price(s - h, k, t, sigma, true, r)[0][0];
+    assertThat(call[1][0]).isCloseTo((up - down) / (2 * h), within(1e-5));
+    assertThat(call[2][0]).isCloseTo((up - 2 * call[0][0] + down) / (h * h), within(1e-3));
+    double volUp = price(s, k, t, sigma + h, true, r)[0][0];
+    double volDown = price(s, k, t, sigma - h, true, r)[0][0];
+    assertThat(call[4][0]).isCloseTo((volUp - volDown) / (2 * h) / 100, within(1e-5));
+  }
+
+  @Test
+  void priceAll_expiredContractsAreWorthIntrinsicValue() {
+    double[][] itm = price(110, 100, 0, 0.3, true, 0.04);
+    double[][] otm = price(110, 100, -0.1, 0.3, false, 0.04);
+
+    assertThat(itm[0][0]).isEqualTo(10.0);
+    assertThat(itm[1][0]).isEqualTo(1.0);
+    assertThat(itm[2][0]).isZero();
+    assertThat(otm[0][0]).isZero();
+    assertThat(otm[1][0]).isZero();
+  }
+
+  @Test
+  void normCdf_isAccurateAcrossTheRange() {
+    assertThat(BlackScholes.normCdf(0)).isCloseTo(0.5, within(1e-7));
+    assertThat(BlackScholes.normCdf(1.96)).isCloseTo(0.9750021, within(1e-7));
+    assertThat(BlackScholes.normCdf(-1.0)).isCloseTo(0.1586553, within(1e-7));
+    assertThat(BlackScholes.normCdf(-8)).isCloseTo(0, within(1e-12));
+  }
+
+  // ── Realized volatility ──────────────────────────────────────────────────
+
+  @Test
+  void realizedVolatility_annualizesDailyLogReturns() {
+    // Alternating +1% / -1% log returns: sample variance is known in closed form.
+    List<DailyBar> bars = new ArrayList<>();
+    double close = 100;
+    for (int i = 0; i <= DefaultOptionsAnalyticsService.VOLATILITY_LOOKBACK + 20; i++) {
+      bars.add(bar(TODAY.minusDays(200 - i), close));
+      close *= Math.exp(i % 2 == 0 ? 0.01 : -0.01);
+    }
+
+    int n = DefaultOptionsAnalyticsService.VOLATILITY_LOOKBACK;
+    // Mean of the 63 returns is 0.01/63 because one extra +1% return is in the window.
+    double mean = 0.01 / n;
+    double var = (n * 0.0001 - n * mean * mean) / (n - 1);
+    assertThat(DefaultOptionsAnalyticsService.realizedVolatility(bars))
+        .isCloseTo(Math.sqrt(var * 252), within(1e-9));
+    assertThat(DefaultOptionsAnalyticsService.realizedVolatility(bars.subList(0, 2))).isZero();
+  }
+
+  // ── Aggregation ──────────────────────────────────────────────────────────
+
+  @Test
+  void analyze_signsPositionsAndNetsDeltaPerUnderlying() {
+    List<OpenLot> lots =
+        List.of(
+            option("SPY", "CALL", 500, "2026-06-19", 2, true),
+            option("SPY", "PUT", 480, "2026-06-19", 3, false),
+            option("QQQ", "CALL", 420, "2026-04-17", 1, true),
+            option("GONE", "CALL", 10, "2026-04-17", 1, true));
+
+    OptionsGreeks greeks =
+        DefaultOptionsAnalyticsService.analyze(
+            lots,
+            Map.of("SPY", quote("SPY", 505), "QQQ", quote("QQQ", 410), "GONE", quote("GONE", 9)),
+            Map.of("SPY", 0.18, "QQQ", 0.25),
+            TODAY,
+            0.04,
+            NOW);
+
+    assertThat(greeks.unpricedTickers()).containsExactly("GONE");
+    assertThat(greeks.contracts()).hasSize(3);
+    ContractGreeks call = greeks.contracts().get(0);
+    ContractGreeks put = greeks.contracts().get(1);
+    assertThat(call.yearsToExpiry()).isCloseTo(101 / 365.0, within(1e-12));
+    assertThat(call.positionDelta()).isCloseTo(call.delta() * 200, within(1e-9));
+    // Short puts carry positive delta.
+    assertThat(put.positionDelta()).isCloseTo(put.delta() * -300, within(1e-9)).isPositive();
+
+    UnderlyingExposure spy = greeks.underlyings().get(0);
+    assertThat(spy.ticker()).isEqualTo("SPY");
+    assertThat(spy.lots()).isEqualTo(2);
+    assertThat(spy.netDelta()).isCloseTo(call.positionDelta() + put.positionDelta(), within(1e-9));
+    assertThat(spy.dollarDelta()).isCloseTo(spy.netDelta() * 505, within(1e-6));
+    assertThat(spy.marketValue()).isCloseTo(call.price() * 200 - put.price() * 300, within(1e-9));
+    assertThat(greeks.underlyings())
+        .extracting(UnderlyingExposure::ticker)
+        .containsExactly("SPY", "QQQ");
+  }
+
+  private static double[][] price(
+      double s, double k, double t, double sigma, boolean isCall, double r) {
+    double[][] out = new double[5][1];
+    BlackScholes.priceAll(
+        1,
+        new double[] {s},
+        new double[] {k},
+        new double[] {t},
+        new double[] {sigma},
+        new boolean[] {isCall},
+        r,
+        out[0],
+        out[1],
+        out[2],
+        out[3],
+        out[4]);
+    return out;
+  }
+
+  private static OpenLot option(
+      String ticker, String type, double strike, String expiry, double qty, boolean isLong) {
+    return new OpenLot(
+        ticker,
+        BigDecimal.valueOf(qty),
+        BigDecimal.valueOf(2.5),
+        LocalDate.of(2026, 1, 2),
+        isLong,
+        100,
+        "OPTION",
+        type,
+        BigDecimal.valueOf(strike),
+        LocalDate.parse(expiry));
+  }
+
+  private static Quote quote(String symbol, double price) {
+    return new Quote(symbol, BigDecimal.valueOf(price), BigDecimal.ZERO, NOW);
+  }
+
+  private static DailyBar bar(LocalDate date, double close) {
+    BigDecimal c = BigDecimal.valueOf(close);
+    return new DailyBar(date, c, c, c, c, 1_000);
+  }
+}
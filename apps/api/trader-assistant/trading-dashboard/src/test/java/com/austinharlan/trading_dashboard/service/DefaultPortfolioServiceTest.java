@@ -0,0 +1,195 @@
+package com.austinharlan.trading_dashboard.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.austinharlan.trading_dashboard.marketdata.CompanyOverview;
+import com.austinharlan.trading_dashboard.marketdata.DailyBar;
+import com.austinharlan.trading_dashboard.marketdata.Quote;
+import com.austinharlan.trading_dashboard.persistence.EquityFill;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioExposure;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioExposure.Group;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioHolding;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValuation;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValuation.ValuedPosition;
+import com.austinharlan.trading_dashboard.portfolio.PortfolioValueHistory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class DefaultPortfolioServiceTest {
+
+  private static final Instant NOW = Instant.parse("2026-03-10T15:00:00Z");
+
+  @Test
+  void value_weighsPricedPositionsAndDerivesDayChangeFromThePreviousClose() {
+    List<PortfolioHolding> holdings =
+        List.of(
+            holding("AAPL", "10", "1000"), holding("MSFT", "2", "500"), holding("ZZZ", "5", "50"));
+    Map<String, Quote> quotes =
+        Map.of(
+            "AAPL", quote("AAPL", "110", "10"),
+            "MSFT", quote("MSFT", "450", null));
+
+    PortfolioValuation valuation = DefaultPortfolioService.value(holdings, quotes, NOW);
+
+    assertThat(valuation.positionsCount()).isEqualTo(3);
+    assertThat(valuation.totalMarketValue()).isCloseTo(2000.0, within(1e-9));
+    assertThat(valuation.totalCostBasis()).isCloseTo(1550.0, within(1e-9));
+    assertThat(valuation.totalUnrealizedPnl()).isCloseTo(500.0, within(1e-9));
+    // AAPL closed at 100 yesterday; MSFT has no change percent and counts as flat.
+    assertThat(valuation.totalDayChange()).isCloseTo(100.0, within(1e-9));
+    assertThat(valuation.totalDayChangePercent()).isCloseTo(100.0 / 1900.0 * 100.0, within(1e-9));
+    assertThat(valuation.unpricedTickers()).containsExactly("ZZZ");
+
+    ValuedPosition aapl = valuation.positions().get(0);
+    assertThat(aapl.marketValue()).isCloseTo(1100.0, within(1e-9));
+    assertThat(aapl.weight()).isCloseTo(0.55, within(1e-9));
+    assertThat(aapl.dayChange()).isCloseTo(100.0, within(1e-9));
+    ValuedPosition zzz = valuation.positions().get(2);
+    assertThat(zzz.price()).isNull();
+    assertThat(zzz.weight()).isNull();
+    assertThat(zzz.costBasis()).isEqualTo(50.0);
+  }
+
+  @Test
+  void value_withNoQuotesLeavesTotalsAtZero() {
+    PortfolioValuation valuation =
+        DefaultPortfolioService.value(List.of(holding("AAPL", "1", "10")), Map.of(), NOW);
+
+    assertThat(valuation.totalMarketValue()).isZero();
+    assertThat(valuation.totalDayChangePercent()).isNull();
+    assertThat(valuation.unpricedTickers()).containsExactly("AAPL");
+  }
+
+  @Test
+  void series_alignsClosesOnASharedAxisAndFollowsTheTradeLog() {
+    LocalDate d1 = LocalDate.of(2026, 3, 2);
+    LocalDate d2 = d1.plusDays(1);
+    LocalDate d3 = d1.plusDays(2);
+    Map<String, List<DailyBar>> histories =
+        Map.of(
+            "AAPL", List.of(bar(d1.minusDays(1), "90"), bar(d1, "100"), bar(d3, "120")),
+            "MSFT", List.of(bar(d2, "50"), bar(d3, "55")),
+            "HAND", List.of(bar(d1, "10"), bar(d2, "10"), bar(d3, "10")));
+    Map<String, DefaultPortfolioService.Position> opening =
+        Map.of("AAPL", new DefaultPortfolioService.Position(BigDecimal.TEN, new BigDecimal("900")));
+    List<EquityFill> fills =
+        List.of(
+            fill("MSFT", "BUY", "2", d2),
+            fill("AAPL", "SELL", "4", d3),
+            fill("GONE", "BUY", "1", d3));
+
+    PortfolioValueHistory history =
+        DefaultPortfolioService.series(
+            d1, opening, fills, Map.of("HAND", new BigDecimal("3")), histories);
+
+    assertThat(history.dates()).containsExactly(d1, d2, d3);
+    // AAPL carries 100 over the gap on d2; MSFT is bought on d2; AAPL is partly sold on d3.
+    assertThat(history.values()).containsExactly(1030.0, 1130.0, 860.0);
+    assertThat(history.tickers())
+        .extracting(PortfolioValueHistory.TickerSeries::ticker)
+        .containsExactly("AAPL", "HAND", "MSFT");
+    assertThat(history.tickers().get(2).closes()[0]).isNaN();
+    assertThat(history.tickers().get(0).quantities()).containsExactly(10.0, 10.0, 6.0);
+    assertThat(history.missingTickers()).containsExactly("GONE");
+  }
+
+  @Test
+  void series_dropsTickersClosedBeforeTheRange() {
+    LocalDate d1 = LocalDate.of(2026, 3, 2);
+    PortfolioValueHistory history =
+        DefaultPortfolioService.series(
+            d1,
+            Map.of(),
+            List.of(),
+            Map.of(),
+            Map.of("AAPL", List.of(bar(d1, "100")), "OLD", List.of(bar(d1, "5"))));
+
+    assertThat(history.dates()).containsExactly(d1);
+    assertThat(history.values()).containsExactly(0.0);
+    assertThat(history.tickers()).isEmpty();
+    assertThat(history.missingTickers()).isEmpty();
+  }
+
+  @Test
+  void exposure_groupsBySectorAndIndustryAndFallsBackToUnknown() {
+    PortfolioValuation valuation =
+        DefaultPortfolioService.value(
+            List.of(
+                holding("AAPL", "10", "1000"),
+                holding("MSFT", "5", "1000"),
+                holding("SPY", "2", "800"),
+                holding("ZZZ", "1", "10")),
+            Map.of(
+                "AAPL", quote("AAPL", "150", null),
+                "MSFT", quote("MSFT", "320", null),
+                "SPY", quote("SPY", "500", null)),
+            NOW);
+    Map<String, CompanyOverview> overviews =
+        Map.of(
+            "AAPL", overview("AAPL", "Technology", "Consumer Electronics"),
+            "MSFT", overview("MSFT", "Technology", "Software"),
+            "SPY", overview("SPY", " ", null));
+
+    PortfolioExposure exposure = DefaultPortfolioService.exposure(valuation, overviews);
+
+    assertThat(exposure.totalMarketValue()).isCloseTo(4100.0, within(1e-9));
+    assertThat(exposure.sectors()).extracting(Group::name).containsExactly("Technology", "Unknown");
+    Group tech = exposure.sectors().get(0);
+    assertThat(tech.weight()).isCloseTo(3100.0 / 4100.0, within(1e-9));
+    assertThat(tech.unrealizedPnl()).isCloseTo(1100.0, within(1e-9));
+    assertThat(tech.tickers()).containsExactly("AAPL", "MSFT");
+    assertThat(tech.children())
+        .extracting(Group::name)
+        .containsExactly("Software", "Consumer Electronics");
+    assertThat(exposure.unclassifiedTickers()).containsExactly("SPY");
+    assertThat(exposure.unpricedTickers()).containsExactly("ZZZ");
+  }
+
+  @Test
+  void exposure_missingOverviewGoesUnderUnknown() {
+    PortfolioValuation valuation =
+        DefaultPortfolioService.value(
+            List.of(holding("AAPL", "1", "100")), Map.of("AAPL", quote("AAPL", "100", null)), NOW);
+
+    PortfolioExposure exposure = DefaultPortfolioService.exposure(valuation, Map.of());
+
+    assertThat(exposure.sectors())
+        .singleElement()
+        .satisfies(
+            g -> {
+              assertThat(g.name()).isEqualTo(PortfolioExposure.UNKNOWN);
+              assertThat(g.weight()).isEqualTo(1.0);
+              assertThat(g.children()).extracting(Group::name).containsExactly("Unknown");
+            });
+  }
+
+  private static CompanyOverview overview(String ticker, String sector, String industry) {
+    return new CompanyOverview(
+        ticker, ticker, sector, industry, null, null, null, null, null, null, null);
+  }
+
+  private static DailyBar bar(LocalDate date, String close) {
+    BigDecimal value = new BigDecimal(close);
+    return new DailyBar(date, value, value, value, value, 0L);
+  }
+
+  private static EquityFill fill(String ticker, String side, String qty, LocalDate date) {
+    return new EquityFill(ticker, side, new BigDecimal(qty), BigDecimal.ONE, date);
+  }
+
+  private static PortfolioHolding holding(String ticker, String qty, String basis) {
+    return new PortfolioHolding(ticker, new BigDecimal(qty), new BigDecimal(basis));
+  }
+
+  private static Quote quote(String ticker, String price, String changePercent) {
+    return new Quote(
+        ticker,
+        new BigDecimal(price),
+        changePercent != null ? new BigDecimal(changePercent) : null,
+        NOW);
+  }
+}
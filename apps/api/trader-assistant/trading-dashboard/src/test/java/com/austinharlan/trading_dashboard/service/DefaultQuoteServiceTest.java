@@ -1,18 +1,26 @@
 package com.austinharlan.trading_dashboard.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.austinharlan.trader.config.CacheConfig;
 import com.austinharlan.trader.config.CacheProperties;
+import com.austinharlan.trading_dashboard.config.MarketDataProperties;
+import com.austinharlan.trading_dashboard.marketdata.CompanyOverview;
+import com.austinharlan.trading_dashboard.marketdata.DailyBar;
 import com.austinharlan.trading_dashboard.marketdata.MarketDataClientException;
 import com.austinharlan.trading_dashboard.marketdata.MarketDataProvider;
 import com.austinharlan.trading_dashboard.marketdata.Quote;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -66,6 +74,116 @@ class DefaultQuoteServiceTest {
     cacheProperties.getQuotes().setTtl(Duration.ofMinutes(5));
   }
 
+  @Test
+  void getCachedQuotesFetchesOnlyMissesInOneProviderCall() {
+    cacheProperties.getQuotes().setTtl(Duration.ofMinutes(5));
+    Quote nvda = new Quote("NVDA", BigDecimal.ONE, null, Instant.parse("2024-03-01T00:00:00Z"));
+    Quote amd = new Quote("AMD", BigDecimal.TWO, null, Instant.parse("2024-03-01T00:00:00Z"));
+    when(provider.getQuote("NVDA")).thenReturn(nvda);
+    quoteService.getCached("NVDA");
+    when(provider.getQuotes(List.of("AMD", "GONE"))).thenReturn(Map.of("AMD", amd));
+
+    Map<String, Quote> quotes = quoteService.getCachedQuotes(List.of("NVDA", "AMD", "GONE"));
+
+    assertThat(quotes).containsOnly(Map.entry("NVDA", nvda), Map.entry("AMD", amd));
+    verify(provider, times(1)).getQuotes(List.of("AMD", "GONE"));
+    assertThat(quoteService.getCachedQuotes(List.of("AMD"))).containsEntry("AMD", amd);
+    verify(provider, times(1)).getQuotes(anyCollection());
+  }
+
+  @Test
+  void getCachedQuotesLooksUpSymbolsTheBatchLeftOutOneByOne() {
+    cacheProperties.getQuotes().setTtl(Duration.ofMinutes(5));
+    Quote brk = new Quote("BRK.B", BigDecimal.TEN, null, Instant.parse("2024-04-01T00:00:00Z"));
+    when(provider.getQuotes(List.of("BRK.B", "NOPE"))).thenReturn(Map.of());
+    when(provider.getQuote("BRK.B")).thenReturn(brk);
+    when(provider.getQuote("NOPE")).thenThrow(new MarketDataClientException("unknown"));
+
+    Map<String, Quote> quotes = quoteService.getCachedQuotes(List.of("BRK.B", "NOPE"));
+
+    assertThat(quotes).containsOnly(Map.entry("BRK.B", brk));
+    assertThat(quoteService.getCachedQuotes(List.of("BRK.B"))).containsEntry("BRK.B", brk);
+    verify(provider, times(1)).getQuote("BRK.B");
+  }
+
+  @Test
+  void getCachedQuotesSkipsSingleLookupsWhenTheBatchFails() {
+    cacheProperties.getQuotes().setTtl(Duration.ofMinutes(5));
+    when(provider.getQuotes(List.of("DOWN"))).thenThrow(new MarketDataClientException("down"));
+
+    assertThat(quoteService.getCachedQuotes(List.of("DOWN"))).isEmpty();
+    verify(provider, never()).getQuote("DOWN");
+  }
+
+  @Test
+  void getCachedHistoriesLeavesOutSymbolsThatFail() {
+    cacheProperties.getHistory().setTtl(Duration.ofMinutes(5));
+    List<DailyBar> bars =
+        List.of(
+            new DailyBar(
+                LocalDate.parse("2024-05-01"),
+                BigDecimal.ONE,
+                BigDecimal.ONE,
+                BigDecimal.ONE,
+                BigDecimal.ONE,
+                0L));
+    when(provider.getDailyHistory("SPY")).thenReturn(bars);
+    when(provider.getDailyHistory("BAD")).thenThrow(new MarketDataClientException("down"));
+
+    Map<String, List<DailyBar>> histories =
+        quoteService.getCachedHistories(List.of("SPY", "BAD", "SPY"));
+
+    assertThat(histories).containsOnly(Map.entry("SPY", bars));
+    verify(provider, times(1)).getDailyHistory("SPY");
+  }
+
+  @Test
+  void getCachedOverviewsServesRepeatLookupsFromTheCache() {
+    cacheProperties.getOverview().setTtl(Duration.ofMinutes(5));
+    CompanyOverview ibm =
+        new CompanyOverview(
+            "IBM", "IBM", "Technology", "IT Services", null, null, null, null, null, null, null);
+    when(provider.getOverview("IBM")).thenReturn(ibm);
+    when(provider.getOverview("FAIL")).thenThrow(new MarketDataClientException("timeout"));
+
+    assertThat(quoteService.getCachedOverviews(List.of("IBM", "FAIL")))
+        .containsOnly(Map.entry("IBM", ibm));
+    assertThat(quoteService.getCachedOverviews(List.of("IBM"))).containsEntry("IBM", ibm);
+    verify(provider, times(1)).getOverview("IBM");
+  }
+
+  @Test
+  void getCachedOverviewsLeavesOutSymbolsStillLoadingAtTheBatchTimeout() {
+    cacheProperties.getOverview().setTtl(Duration.ofMinutes(5));
+    CompanyOverview msft =
+        new CompanyOverview(
+            "MSFT",
+            "Microsoft",
+            "Technology",
+            "Software",
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null);
+    when(provider.getOverview("MSFT")).thenReturn(msft);
+    when(provider.getOverview("HUNG"))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(30_000);
+              return null;
+            });
+
+    long started = System.nanoTime();
+    Map<String, CompanyOverview> overviews =
+        quoteService.getCachedOverviews(List.of("HUNG", "MSFT"));
+
+    assertThat(overviews).containsOnly(Map.entry("MSFT", msft));
+    assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+  }
+
   @TestConfiguration
   static class TestConfig {
     @Bean
@@ -80,5 +198,12 @@ class DefaultQuoteServiceTest {
       properties.getQuotes().setMaximumSize(100);
       return properties;
     }
+
+    @Bean
+    MarketDataProperties marketDataProperties() {
+      MarketDataProperties properties = new MarketDataProperties();
+      properties.setBatchTimeout(Duration.ofMillis(500));
+      return properties;
+    }
   }
 }
@@ -4,16 +4,21 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.persistence.ContractFill;
+import com.austinharlan.trading_dashboard.persistence.DailyRealizedPnlRepository;
 import com.austinharlan.trading_dashboard.persistence.TradeEntity;
 import com.austinharlan.trading_dashboard.persistence.TradeRepository;
 import com.austinharlan.trading_dashboard.trades.ClosedTrade;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 
@@ -22,12 +27,22 @@ class DefaultTradeServiceTest {
   private static final long USER_ID = 1L;
 
   private TradeRepository repository;
+  private TradeDataVersions versions;
   private DefaultTradeService service;
 
   @BeforeEach
   void setUp() {
     repository = mock(TradeRepository.class);
-    service = new DefaultTradeService(repository, mock(PortfolioService.class));
+    versions = mock(TradeDataVersions.class);
+    service =
+        new DefaultTradeService(
+            repository,
+            mock(PositionProjector.class),
+            versions,
+            mock(DailyPnlRollups.class),
+            mock(DailyRealizedPnlRepository.class),
+            null,
+            mock(EntityManager.class));
     setUserContext(USER_ID);
   }
 
@@ -314,4 +329,172 @@ class DefaultTradeServiceTest {
     assertThat(closed.get(0).assetType()).isEqualTo("EQUITY");
     assertThat(closed.get(0).pnl()).isEqualByComparingTo("500.00");
   }
+
+  @Test
+  void analytics_singleRepositoryScanFeedsStatsAndClosedTrades() {
+    when(repository.findAllChronologicalByUserId(USER_ID))
+        .thenReturn(
+            List.of(
+                trade("AAPL", "BUY", 10, 100, "2026-01-01"),
+                trade("MSFT", "BUY", 10, 200, "2026-01-01"),
+                trade("AAPL", "SELL", 10, 110, "2026-01-10"),
+                trade("MSFT", "SELL", 10, 150, "2026-01-10"),
+                trade("NVDA", "BUY", 10, 50, "2026-01-12"),
+                trade("NVDA", "SELL", 10, 80, "2026-01-20")));
+
+    TradeService.TradeAnalytics analytics = service.getAnalytics();
+
+    verify(repository, times(1)).findAllChronologicalByUserId(USER_ID);
+    assertThat(analytics.closedTrades()).hasSize(3);
+    assertThat(analytics.stats().totalTrades()).isEqualTo(3);
+    assertThat(analytics.stats().totalPnl()).isEqualByComparingTo("-100");
+    assertThat(analytics.stats().topTickers())
+        .extracting(TradeService.TickerPnl::ticker)
+        .containsExactly("MSFT", "NVDA", "AAPL");
+  }
+
+  @Test
+  void analytics_cachedUntilTradeDataVersionChanges() {
+    DefaultTradeService cached =
+        new DefaultTradeService(
+            repository,
+            mock(PositionProjector.class),
+            versions,
+            mock(DailyPnlRollups.class),
+            mock(DailyRealizedPnlRepository.class),
+            new CaffeineCacheManager("tradeAnalytics"),
+            mock(EntityManager.class));
+    when(repository.findAllChronologicalByUserId(USER_ID))
+        .thenReturn(
+            List.of(
+                trade("AAPL", "BUY", 10, 100, "2026-01-01"),
+                trade("AAPL", "SELL", 10, 110, "2026-01-10")));
+    when(versions.current(USER_ID)).thenReturn(3L);
+
+    TradeService.TradeAnalytics first = cached.getAnalytics();
+    TradeService.TradeAnalytics second = cached.getAnalytics();
+
+    assertThat(second).isSameAs(first);
+    verify(repository, times(1)).findAllChronologicalByUserId(USER_ID);
+
+    when(versions.current(USER_ID)).thenReturn(4L);
+    TradeService.TradeAnalytics third = cached.getAnalytics();
+
+    assertThat(third).isNotSameAs(first);
+    verify(repository, times(2)).findAllChronologicalByUserId(USER_ID);
+  }
+
+  @Test
+  void writesBumpTradeDataVersion() {
+    TradeEntity existing = trade("AAPL", "BUY", 10, 100, "2026-01-01");
+    when(repository.save(any(TradeEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+    when(repository.findById(7L)).thenReturn(Optional.of(existing));
+
+    service.logTrade(
+        "AAPL",
+        "BUY",
+        BigDecimal.ONE,
+        BigDecimal.TEN,
+        LocalDate.parse("2026-01-02"),
+        null,
+        null,
+        null,
+        null,
+        null);
+    service.deleteTrade(7L);
+
+    verify(versions).bump(USER_ID, LocalDate.parse("2026-01-02"));
+    verify(versions).bump(USER_ID, LocalDate.parse("2026-01-01"));
+  }
+
+  @Test
+  void openPosition_replaysClosesAgainstTheSideOpenAtTheTime() {
+    // Long 5, exercise 4, then sell 3: the position ends short 2 even though buys exceed sells.
+    DefaultTradeService.OpenPosition open =
+        DefaultTradeService.replayOpenPosition(
+            List.of(
+                new ContractFill("BUY", new BigDecimal("5")),
+                new ContractFill("EXERCISE", new BigDecimal("4")),
+                new ContractFill("SELL", new BigDecimal("3"))));
+
+    assertThat(open.quantity()).isEqualByComparingTo("2");
+    assertThat(open.isLong()).isFalse();
+  }
+
+  @Test
+  void expire_usesContractScopedFillsInsteadOfFullHistory() {
+    BigDecimal strike = new BigDecimal("200");
+    LocalDate expiry = LocalDate.parse("2026-04-17");
+    when(repository.findContractFills(USER_ID, "AAPL", "OPTION", "CALL", strike, expiry))
+        .thenReturn(
+            List.of(
+                new ContractFill("BUY", new BigDecimal("3")),
+                new ContractFill("SELL", new BigDecimal("1"))));
+    when(repository.save(any(TradeEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+    TradeEntity expire =
+        service.logTrade(
+            "AAPL", "EXPIRE", null, null, expiry, null, "OPTION", "CALL", strike, expiry);
+
+    assertThat(expire.getQuantity()).isEqualByComparingTo("2");
+    verify(repository, never()).findAllChronologicalByUserId(anyLong());
+  }
+
+  @Test
+  void tradeCursor_roundTripsAndRejectsGarbage() {
+    var cursor =
+        new DefaultTradeService.TradeCursor(
+            LocalDate.parse("2026-03-01"),
+            java.time.Instant.parse("2026-03-01T10:15:30.123456Z"),
+            42L);
+
+    assertThat(DefaultTradeService.TradeCursor.decode(cursor.encode())).isEqualTo(cursor);
+    assertThatThrownBy(() -> DefaultTradeService.TradeCursor.decode("bm9wZQ"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> DefaultTradeService.TradeCursor.decode("***"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void listTradesPage_capsPageSizeAndReturnsCursorOnlyWhenMoreRowsExist() {
+    List<TradeEntity> rows = new java.util.ArrayList<>();
+    for (int i = 0; i < 501; i++) {
+      TradeEntity t = trade("AAPL", "BUY", 1, 1, "2026-01-01");
+      org.springframework.test.util.ReflectionTestUtils.setField(t, "id", (long) (1000 - i));
+      rows.add(t);
+    }
+    when(repository.findPageByUserId(eq(USER_ID), any(), any(), any(), any(), any()))
+        .thenReturn(rows);
+
+    TradeService.TradePage page = service.listTradesPage(null, null, null, null, null, 10_000);
+
+    assertThat(page.trades()).hasSize(500);
+    assertThat(page.nextCursor()).isNotNull();
+    assertThat(DefaultTradeService.TradeCursor.decode(page.nextCursor()).id()).isEqualTo(501L);
+  }
+
+  @Test
+  void logTrades_validatesEveryEntryBeforeWriting() {
+    List<TradeService.NewTrade> batch =
+        List.of(
+            new TradeService.NewTrade(
+                "AAPL", "BUY", BigDecimal.ONE, BigDecimal.TEN, null, null, null, null, null, null),
+            new TradeService.NewTrade(
+                "AAPL",
+                "EXPIRE",
+                null,
+                null,
+                null,
+                null,
+                "OPTION",
+                "CALL",
+                BigDecimal.TEN,
+                LocalDate.parse("2026-01-16")));
+
+    assertThatThrownBy(() -> service.logTrades(batch))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("trades[1]:");
+    verify(repository, never()).saveAll(any());
+    verify(versions, never()).bump(anyLong(), any(LocalDate.class));
+  }
 }
@@ -0,0 +1,314 @@
+package com.austinharlan.trading_dashboard.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.austinharlan.trading_dashboard.config.UserContext;
+import com.austinharlan.trading_dashboard.marketdata.Quote;
+import com.austinharlan.trading_dashboard.persistence.TradeEntity;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.service.UnrealizedPnlService.LotPnl;
+import com.austinharlan.trading_dashboard.service.UnrealizedPnlService.TickerPnl;
+import com.austinharlan.trading_dashboard.service.UnrealizedPnlService.UnrealizedPnl;
+import com.austinharlan.trading_dashboard.trades.OpenLot;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+class DefaultUnrealizedPnlServiceTest {
+
+  private static final long USER_ID = 1L;
+  private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+  private static final Instant NOW = Instant.parse("2026-03-10T15:00:00Z");
+
+  private TradeRepository repository;
+  private TradeDataVersions versions;
+  private QuoteService quoteService;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(TradeRepository.class);
+    versions = mock(TradeDataVersions.class);
+    quoteService = mock(QuoteService.class);
+    var ctx = new UserContext(USER_ID, "Test", false, true);
+    SecurityContextHolder.getContext()
+        .setAuthentication(
+            new PreAuthenticatedAuthenticationToken(ctx, "", Collections.emptyList()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  // ── Open lots ────────────────────────────────────────────────────────────
+
+  @Test
+  void openLots_keepUnmatchedRemaindersOnBothSides() {
+    List<OpenLot> lots =
+        DefaultTradeService.computeOpenLots(
+            List.of(
+                trade("AAPL", "BUY", 10, 100, "2026-01-02"),
+                trade("AAPL", "BUY", 5, 120, "2026-01-05"),
+                trade("AAPL", "SELL", 12, 130, "2026-01-08"),
+                trade("TSLA", "SELL", 4, 200, "2026-01-09"),
+                option("SPY", "BUY", 2, 3.5, "2026-01-03", "CALL", 500, "2026-06-19"),
+                option("SPY", "SELL", 1, 4.0, "2026-01-04", "CALL", 500, "2026-06-19")));
+
+    assertThat(lots)
+        .extracting(OpenLot::ticker, l -> l.quantity().doubleValue(), OpenLot::isLong)
+        .containsExactlyInAnyOrder(
+            tuple("AAPL", 3.0, true), tuple("TSLA", 4.0, false), tuple("SPY", 1.0, true));
+    OpenLot aapl = lots.stream().filter(l -> l.ticker().equals("AAPL")).findFirst().orElseThrow();
+    assertThat(aapl.openPrice()).isEqualByComparingTo("120");
+    assertThat(aapl.openDate()).isEqualTo(LocalDate.parse("2026-01-05"));
+    OpenLot spy = lots.stream().filter(l -> l.ticker().equals("SPY")).findFirst().orElseThrow();
+    assertThat(spy.multiplier()).isEqualTo(100);
+    assertThat(spy.optionType()).isEqualTo("CALL");
+  }
+
+  @Test
+  void openLots_expiredOptionsAreClosed() {
+    assertThat(
+            DefaultTradeService.computeOpenLots(
+                List.of(
+                    option("SPY", "BUY", 2, 3.5, "2026-01-03", "PUT", 500, "2026-01-16"),
+                    option("SPY", "EXPIRE", 0, 0, "2026-01-16", "PUT", 500, "2026-01-16"))))
+        .isEmpty();
+  }
+
+  // ── Valuation ────────────────────────────────────────────────────────────
+
+  @Test
+  void value_marksLongAndShortEquityLots() {
+    UnrealizedPnl pnl =
+        DefaultUnrealizedPnlService.value(
+            List.of(
+                lot("AAPL", 10, 100, "2026-01-02", true), lot("TSLA", 4, 200, "2026-01-09", false)),
+            Map.of("AAPL", quote("AAPL", 110, 10), "TSLA", quote("TSLA", 220, 10)),
+            TODAY,
+            NOW);
+
+    LotPnl aapl = pnl.lots().get(0);
+    assertThat(aapl.marketValue()).isCloseTo(1100, within(1e-9));
+    assertThat(aapl.unrealizedPnl()).isCloseTo(100, within(1e-9));
+    // Previous close 100, so the whole gain happened today.
+    assertThat(aapl.dayChange()).isCloseTo(100, within(1e-9));
+
+    LotPnl tsla = pnl.lots().get(1);
+    assertThat(tsla.marketValue()).isCloseTo(-880, within(1e-9));
+    assertThat(tsla.unrealizedPnl()).isCloseTo(-80, within(1e-9));
+    assertThat(tsla.dayChange()).isCloseTo(-80, within(1e-9));
+
+    assertThat(pnl.totalUnrealizedPnl()).isCloseTo(20, within(1e-9));
+    assertThat(pnl.totalDayChange()).isCloseTo(20, within(1e-9));
+    assertThat(pnl.totalCostBasis()).isCloseTo(1000 - 800, within(1e-9));
+    assertThat(pnl.asOf()).isEqualTo(NOW);
+  }
+
+  @Test
+  void value_marksOptionsAtIntrinsicValueTimesMultiplier() {
+    UnrealizedPnl pnl =
+        DefaultUnrealizedPnlService.value(
+            List.of(
+                optionLot("SPY", "CALL", 500, "2026-06-19", 2, 3.0, true),
+                optionLot("SPY", "PUT", 520, "2026-06-19", 1, 5.0, false),
+                optionLot("SPY", "CALL", 400, "2026-03-06", 1, 50.0, true)),
+            Map.of("SPY", quote("SPY", 510, 2)),
+            TODAY,
+            NOW);
+
+    LotPnl call = pnl.lots().get(0);
+    assertThat(call.markPrice()).isCloseTo(10, within(1e-9));
+    assertThat(call.unrealizedPnl()).isCloseTo((10 - 3.0) * 2 * 100, within(1e-9));
+    // Underlying was 500 at the previous close, so the call was worth nothing then.
+    assertThat(call.dayChange()).isCloseTo(10 * 2 * 100, within(1e-9));
+
+    LotPnl put = pnl.lots().get(1);
+    assertThat(put.markPrice()).isCloseTo(10, within(1e-9));
+    assertThat(put.unrealizedPnl()).isCloseTo((5.0 - 10) * 100, within(1e-9));
+
+    LotPnl expired = pnl.lots().get(2);
+    assertThat(expired.markPrice()).isZero();
+    assertThat(expired.unrealizedPnl()).isCloseTo(-50.0 * 100, within(1e-9));
+    assertThat(expired.dayChange()).isZero();
+
+    assertThat(pnl.tickers())
+        .singleElement()
+        .satisfies(
+            t -> {
+              assertThat(t.lotCount()).isEqualTo(3);
+              assertThat(t.unrealizedPnl())
+                  .isCloseTo(
+                      call.unrealizedPnl() + put.unrealizedPnl() + expired.unrealizedPnl(),
+                      within(1e-9));
+            });
+  }
+
+  @Test
+  void value_lotOpenedTodayMeasuresDayChangeFromOpenPrice() {
+    UnrealizedPnl pnl =
+        DefaultUnrealizedPnlService.value(
+            List.of(lot("AAPL", 10, 108, TODAY.toString(), true)),
+            Map.of("AAPL", quote("AAPL", 110, 10)),
+            TODAY,
+            NOW);
+
+    assertThat(pnl.lots().get(0).dayChange()).isCloseTo(20, within(1e-9));
+  }
+
+  @Test
+  void value_reportsUnpricedTickersAndLeavesThemOutOfTotals() {
+    UnrealizedPnl pnl =
+        DefaultUnrealizedPnlService.value(
+            List.of(
+                lot("AAPL", 10, 100, "2026-01-02", true),
+                lot("GONE", 5, 50, "2026-01-02", true),
+                lot("GONE", 1, 40, "2026-01-03", true)),
+            Map.of("AAPL", quote("AAPL", 110, 0)),
+            TODAY,
+            NOW);
+
+    assertThat(pnl.lots()).extracting(LotPnl::ticker).containsExactly("AAPL");
+    assertThat(pnl.tickers()).extracting(TickerPnl::ticker).containsExactly("AAPL");
+    assertThat(pnl.unpricedTickers()).containsExactly("GONE");
+    assertThat(pnl.totalMarketValue()).isCloseTo(1100, within(1e-9));
+    assertThat(pnl.totalDayChange()).isZero();
+  }
+
+  // ── Service ──────────────────────────────────────────────────────────────
+
+  @Test
+  void current_fetchesQuotesOnceAndCachesPerTradeDataVersion() {
+    var service =
+        new DefaultUnrealizedPnlService(
+            repository, versions, quoteService, new CaffeineCacheManager("unrealizedPnl"));
+    when(versions.current(USER_ID)).thenReturn(3L);
+    when(repository.findAllChronologicalByUserId(USER_ID))
+        .thenReturn(
+            List.of(
+                trade("AAPL", "BUY", 10, 100, "2026-01-02"),
+                trade("MSFT", "BUY", 2, 300, "2026-01-02"),
+                trade("AAPL", "BUY", 1, 105, "2026-01-05")));
+    when(quoteService.getCachedQuotes(anyCollection()))
+        .thenReturn(Map.of("AAPL", quote("AAPL", 110, 0), "MSFT", quote("MSFT", 310, 0)));
+
+    UnrealizedPnl first = service.currentUnrealizedPnl();
+    UnrealizedPnl second = service.currentUnrealizedPnl();
+
+    assertThat(second).isSameAs(first);
+    assertThat(first.totalUnrealizedPnl()).isCloseTo(100 + 5 + 20, within(1e-9));
+    verify(quoteService, times(1)).getCachedQuotes(anyCollection());
+    verify(repository, times(1)).findAllChronologicalByUserId(USER_ID);
+
+    when(versions.current(USER_ID)).thenReturn(4L);
+    assertThat(service.currentUnrealizedPnl()).isNotSameAs(first);
+  }
+
+  @Test
+  void current_skipsQuoteLookupWithNoOpenLots() {
+    var service = new DefaultUnrealizedPnlService(repository, versions, quoteService, null);
+    when(repository.findAllChronologicalByUserId(USER_ID))
+        .thenReturn(
+            List.of(
+                trade("AAPL", "BUY", 10, 100, "2026-01-02"),
+                trade("AAPL", "SELL", 10, 110, "2026-01-05")));
+
+    UnrealizedPnl pnl = service.currentUnrealizedPnl();
+
+    assertThat(pnl.lots()).isEmpty();
+    assertThat(pnl.totalUnrealizedPnl()).isZero();
+    verifyNoInteractions(quoteService);
+  }
+
+  // ── Helpers ──────────────────────────────────────────────────────────────
+
+  private static TradeEntity trade(
+      String ticker, String side, double qty, double price, String date) {
+    return new TradeEntity(
+        USER_ID,
+        ticker,
+        side,
+        BigDecimal.valueOf(qty),
+        BigDecimal.valueOf(price),
+        LocalDate.parse(date),
+        null);
+  }
+
+  private static TradeEntity option(
+      String ticker,
+      String side,
+      double qty,
+      double price,
+      String date,
+      String optionType,
+      double strike,
+      String expDate) {
+    return new TradeEntity(
+        USER_ID,
+        ticker,
+        side,
+        BigDecimal.valueOf(qty),
+        BigDecimal.valueOf(price),
+        LocalDate.parse(date),
+        null,
+        "OPTION",
+        optionType,
+        BigDecimal.valueOf(strike),
+        LocalDate.parse(expDate),
+        100);
+  }
+
+  private static OpenLot lot(String ticker, double qty, double price, String date, boolean isLong) {
+    return new OpenLot(
+        ticker,
+        BigDecimal.valueOf(qty),
+        BigDecimal.valueOf(price),
+        LocalDate.parse(date),
+        isLong,
+        1,
+        "EQUITY",
+        null,
+        null,
+        null);
+  }
+
+  private static OpenLot optionLot(
+      String ticker,
+      String optionType,
+      double strike,
+      String expDate,
+      double qty,
+      double price,
+      boolean isLong) {
+    return new OpenLot(
+        ticker,
+        BigDecimal.valueOf(qty),
+        BigDecimal.valueOf(price),
+        LocalDate.parse("2026-01-02"),
+        isLong,
+        100,
+        "OPTION",
+        optionType,
+        BigDecimal.valueOf(strike),
+        LocalDate.parse(expDate));
+  }
+
+  private static Quote quote(String symbol, double price, double changePercent) {
+    return new Quote(
+        symbol,
+        BigDecimal.valueOf(price),
+        BigDecimal.valueOf(changePercent),
+        Instant.parse("2026-03-10T14:59:00Z"));
+  }
+}
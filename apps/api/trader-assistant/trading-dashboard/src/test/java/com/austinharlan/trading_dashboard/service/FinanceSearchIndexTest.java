@@ -0,0 +1,72 @@
+package com.austinharlan.trading_dashboard.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.austinharlan.trading_dashboard.persistence.FinanceSearchDocument;
+import com.austinharlan.trading_dashboard.persistence.FinanceSearchHit;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FinanceSearchIndexTest {
+
+  private static final Instant DAY = Instant.parse("2024-05-10T00:00:00Z");
+
+  private static final FinanceSearchIndex INDEX =
+      FinanceSearchIndex.build(
+          "v1",
+          List.of(
+              new FinanceSearchDocument("wf-1", DAY, "WHOLE FOODS MKT #10", null),
+              new FinanceSearchDocument("wf-2", DAY.plusSeconds(60), "Whole Foods Market", null),
+              new FinanceSearchDocument(
+                  "deli", DAY.plusSeconds(120), "Corner deli", "Picked up whole food for lunch"),
+              new FinanceSearchDocument("coffee", DAY, "STARBUCKS STORE 9", "foods court")));
+
+  @Test
+  void everyPrefixMustMatchSomeWord() {
+    assertThat(ids(INDEX.search(List.of("whole", "fo"), null, 10)))
+        .containsExactly("wf-2", "wf-1", "deli");
+    assertThat(ids(INDEX.search(List.of("fo"), null, 10)))
+        .containsExactly("wf-2", "wf-1", "deli", "coffee");
+    assertThat(INDEX.search(List.of("whole", "starbucks"), null, 10)).isEmpty();
+    assertThat(INDEX.search(List.of("wholesale"), null, 10)).isEmpty();
+  }
+
+  @Test
+  void descriptionMatchesOutrankNotesMatches() {
+    List<FinanceSearchHit> hits = INDEX.search(List.of("whole"), null, 10);
+
+    assertThat(hits)
+        .extracting(FinanceSearchHit::rank)
+        .containsExactly(
+            FinanceSearchIndex.DESCRIPTION_WEIGHT,
+            FinanceSearchIndex.DESCRIPTION_WEIGHT,
+            FinanceSearchIndex.NOTES_WEIGHT);
+  }
+
+  @Test
+  void pagesContinueStrictlyAfterTheGivenHit() {
+    List<String> walked = new ArrayList<>();
+    FinanceSearchHit after = null;
+    List<FinanceSearchHit> page;
+    do {
+      page = INDEX.search(List.of("fo"), after, 1);
+      walked.addAll(ids(page));
+      after = page.isEmpty() ? null : page.get(page.size() - 1);
+    } while (after != null);
+
+    assertThat(walked).containsExactly("wf-2", "wf-1", "deli", "coffee");
+  }
+
+  @Test
+  void wordsAreLowerCasedRunsOfLettersAndDigits() {
+    assertThat(FinanceSearchIndex.words("AT&T *Bill #42 café"))
+        .containsExactly("at", "t", "bill", "42", "café");
+    assertThat(FinanceSearchIndex.words(" -- ")).isEmpty();
+  }
+
+  private static List<String> ids(List<FinanceSearchHit> hits) {
+    return hits.stream().map(FinanceSearchHit::id).toList();
+  }
+}
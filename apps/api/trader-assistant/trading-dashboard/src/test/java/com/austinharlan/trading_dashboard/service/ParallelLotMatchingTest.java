@@ -0,0 +1,114 @@
+package com.austinharlan.trading_dashboard.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.austinharlan.trading_dashboard.persistence.TradeEntity;
+import com.austinharlan.trading_dashboard.trades.ClosedTrade;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Property checks for parallel lot matching: for any generated trade history, the parallel matcher
+ * must produce exactly the sequential output, in the same order, on every run.
+ */
+class ParallelLotMatchingTest {
+
+  private static final LocalDate START = LocalDate.of(2021, 1, 4);
+
+  static LongStream seeds() {
+    return LongStream.range(0, 60);
+  }
+
+  @ParameterizedTest
+  @MethodSource("seeds")
+  void parallelMatchesSequentialForRandomHistories(long seed) {
+    List<TradeEntity> trades = randomHistory(new Random(seed));
+
+    List<ClosedTrade> sequential = DefaultTradeService.computeClosedTrades(trades, false);
+    List<ClosedTrade> parallel = DefaultTradeService.computeClosedTrades(trades, true);
+
+    assertThat(parallel).isEqualTo(sequential);
+    assertThat(DefaultTradeService.computeClosedTrades(trades, true)).isEqualTo(parallel);
+    assertThat(sequential).isEqualTo(DefaultTradeService.computeClosedTradesExact(trades));
+  }
+
+  @Test
+  void largeHistoriesTakeTheParallelPathWithoutChangingOutput() {
+    List<TradeEntity> trades = new ArrayList<>();
+    Random random = new Random(2024L);
+    while (trades.size() < DefaultTradeService.PARALLEL_MATCH_THRESHOLD) {
+      trades.addAll(randomHistory(random));
+    }
+    // List.sort is stable, so trades on the same day keep their generated order.
+    trades.sort(Comparator.comparing(TradeEntity::getTradeDate));
+
+    assertThat(DefaultTradeService.computeClosedTrades(trades))
+        .isEqualTo(DefaultTradeService.computeClosedTrades(trades, false));
+  }
+
+  // ── Generator ────────────────────────────────────────────────────────────
+
+  /**
+   * Chronological history over a random number of equity tickers and option contracts, with random
+   * lot sizes, prices of mixed scale, expiries, exercises and the occasional value too large for
+   * the scaled matcher so the fallback path runs inside the parallel stream too.
+   */
+  private static List<TradeEntity> randomHistory(Random random) {
+    int contracts = 1 + random.nextInt(400);
+    int tradeCount = contracts + random.nextInt(contracts * 8);
+    List<TradeEntity> trades = new ArrayList<>(tradeCount);
+    for (int i = 0; i < tradeCount; i++) {
+      int contract = random.nextInt(contracts);
+      LocalDate date = START.plusDays(i / 25);
+      String ticker = "C" + (contract % 50);
+      String side = random.nextBoolean() ? "BUY" : "SELL";
+      if (contract % 3 != 0) {
+        trades.add(
+            new TradeEntity(
+                1L, ticker, side, randomAmount(random), randomAmount(random), date, null));
+        continue;
+      }
+      int roll = random.nextInt(12);
+      BigDecimal qty = BigDecimal.valueOf(1 + random.nextInt(10));
+      BigDecimal price = BigDecimal.valueOf(1 + random.nextInt(100_000), random.nextInt(4));
+      if (roll == 0) {
+        side = "EXPIRE";
+        qty = BigDecimal.ZERO;
+        price = BigDecimal.ZERO;
+      } else if (roll == 1) {
+        side = "EXERCISE";
+        price = BigDecimal.ZERO;
+      }
+      trades.add(
+          new TradeEntity(
+              1L,
+              ticker,
+              side,
+              qty,
+              price,
+              date,
+              null,
+              "OPTION",
+              contract % 2 == 0 ? "CALL" : "PUT",
+              BigDecimal.valueOf(50 + contract / 50 * 5L),
+              START.plusDays(30L * (1 + contract % 4)),
+              100));
+    }
+    return trades;
+  }
+
+  private static BigDecimal randomAmount(Random random) {
+    if (random.nextInt(500) == 0) {
+      return new BigDecimal("9000000000");
+    }
+    return BigDecimal.valueOf(1 + random.nextInt(50_000_000), random.nextInt(7));
+  }
+}
@@ -0,0 +1,71 @@
+package com.austinharlan.trading_dashboard.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.austinharlan.trading_dashboard.persistence.EquityFill;
+import com.austinharlan.trading_dashboard.persistence.PortfolioPositionEntity;
+import com.austinharlan.trading_dashboard.persistence.PortfolioPositionRepository;
+import com.austinharlan.trading_dashboard.persistence.TradeRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class PositionProjectorTest {
+
+  private static final long USER_ID = 7L;
+  private static final LocalDate START = LocalDate.of(2025, 1, 10);
+
+  private final PortfolioPositionRepository positionRepository =
+      mock(PortfolioPositionRepository.class);
+  private final TradeRepository tradeRepository = mock(TradeRepository.class);
+  private final UserRepository userRepository = mock(UserRepository.class);
+  private final PositionProjector projector =
+      new PositionProjector(positionRepository, tradeRepository, userRepository);
+
+  @Test
+  void catchUp_foldsABatchIntoOneWritePerTicker() {
+    List<EquityFill> fills = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      fills.add(fill("AAPL", "BUY", "2", "100", START.plusDays(i)));
+      fills.add(fill("MSFT", "BUY", "1", "300", START.plusDays(i)));
+    }
+    fills.add(fill("AAPL", "SELL", "50", "120", START.plusDays(60)));
+    PortfolioPositionEntity aapl =
+        new PortfolioPositionEntity(USER_ID, "AAPL", new BigDecimal("10"), new BigDecimal("900"));
+    when(userRepository.lockPositionsHwmById(USER_ID)).thenReturn(Optional.of(40L));
+    when(tradeRepository.findEquityFillsAfterSeq(USER_ID, 40L)).thenReturn(fills);
+    when(tradeRepository.findLastEquityFillDates(eq(USER_ID), eq(40L), anyCollection()))
+        .thenReturn(List.of());
+    when(positionRepository.findAllByUserId(USER_ID)).thenReturn(List.of(aapl));
+    when(tradeRepository.findMaxInsertSeqByUserId(USER_ID)).thenReturn(Optional.of(141L));
+
+    projector.catchUp(USER_ID);
+
+    ArgumentCaptor<PortfolioPositionEntity> saved =
+        ArgumentCaptor.forClass(PortfolioPositionEntity.class);
+    verify(positionRepository, times(2)).save(saved.capture());
+    verify(positionRepository, never())
+        .applyFill(anyLong(), anyString(), anyString(), any(), any());
+    assertThat(saved.getAllValues())
+        .extracting(
+            PortfolioPositionEntity::getTicker,
+            p -> p.getQty().toPlainString(),
+            p -> p.getBasis().stripTrailingZeros().toPlainString())
+        // AAPL: 110 shares for 10900, then selling 50 keeps 60/110 of the basis.
+        .containsExactlyInAnyOrder(
+            tuple("AAPL", "60", "5945.454546"), tuple("MSFT", "50", "15000"));
+    verify(userRepository).setPositionsHwm(USER_ID, 141L);
+  }
+
+  private static EquityFill fill(
+      String ticker, String side, String quantity, String price, LocalDate date) {
+    return new EquityFill(ticker, side, new BigDecimal(quantity), new BigDecimal(price), date);
+  }
+}
@@ -0,0 +1,186 @@
+package com.austinharlan.trading_dashboard.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.austinharlan.trading_dashboard.finance.RecurringCadence;
+import com.austinharlan.trading_dashboard.persistence.FinanceRecurringSeriesEntity;
+import com.austinharlan.trading_dashboard.persistence.FinanceRecurringSeriesRepository;
+import com.austinharlan.trading_dashboard.persistence.FinanceTransactionEntity;
+import com.austinharlan.trading_dashboard.persistence.FinanceTransactionRepository;
+import com.austinharlan.trading_dashboard.persistence.UserRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Recurring series built and caught up against H2. */
+@SpringBootTest
+@ActiveProfiles("test")
+class RecurringChargeAnalyzerTest {
+
+  private static final LocalDate START = LocalDate.of(2024, 1, 3);
+
+  @Autowired private RecurringChargeAnalyzer analyzer;
+  @Autowired private FinanceRecurringSeriesRepository seriesRepository;
+  @Autowired private FinanceTransactionRepository repository;
+  @Autowired private UserRepository userRepository;
+
+  private long userId;
+
+  @BeforeEach
+  void setUp() {
+    userId = userRepository.findByApiKey("test-api-key").orElseThrow().getId();
+    repository.deleteAllByUserId(userId);
+    analyzer.reset(userId);
+  }
+
+  @AfterEach
+  void cleanup() {
+    repository.deleteAllByUserId(userId);
+    analyzer.reset(userId);
+  }
+
+  // ── Catching up ──────────────────────────────────────────────────────────
+
+  @Test
+  void catchUp_detectsSeriesAndSkipsIrregularMerchants() {
+    List<FinanceTransactionEntity> rows = new ArrayList<>();
+    for (int month = 0; month < 6; month++) {
+      rows.add(charge(START.plusMonths(month), "NETFLIX.COM 866-579-7172", "-15.49"));
+      rows.add(charge(START.plusMonths(month).plusDays(month % 2), "Comcast Cable", "-80.00"));
+    }
+    for (int week = 0; week < 5; week++) {
+      rows.add(
+          charge(START.plusWeeks(week), "SQ *BLUE BOTTLE 4412", week == 2 ? "-4.25" : "-4.50"));
+    }
+    // Visits at irregular gaps, and a steady gap with wildly varying amounts.
+    for (int day : new int[] {0, 2, 9, 10, 24, 25, 40}) {
+      rows.add(charge(START.plusDays(day), "WHOLE FOODS MKT #10", "-54.20"));
+    }
+    for (int month = 0; month < 5; month++) {
+      rows.add(
+          charge(START.plusMonths(month), "AMAZON MKTPL", month % 2 == 0 ? "-12.00" : "-140.00"));
+    }
+    rows.add(charge(START, "ACME PAYROLL", "2500.00"));
+    repository.saveAll(rows);
+
+    assertThat(analyzer.catchUp(userId)).isEqualTo(rows.size() - 1);
+
+    Map<String, String> detected = cadences();
+    assertThat(detected)
+        .containsExactlyInAnyOrderEntriesOf(
+            Map.of("netflix", "MONTHLY", "comcast cable", "MONTHLY", "blue bottle", "WEEKLY"));
+    FinanceRecurringSeriesEntity netflix =
+        seriesRepository
+            .findById(new FinanceRecurringSeriesEntity.Key(userId, "netflix"))
+            .orElseThrow();
+    assertThat(netflix.getOccurrences()).isEqualTo(6);
+    assertThat(netflix.getFirstChargedOn()).isEqualTo(START);
+    assertThat(netflix.getLastChargedOn()).isEqualTo(START.plusMonths(5));
+    assertThat(netflix.getAmountMean()).isCloseTo(-15.49, within(1e-9));
+    assertThat(netflix.getCategory()).isEqualTo("subscriptions");
+
+    assertThat(analyzer.catchUp(userId)).isZero();
+  }
+
+  @Test
+  void catchUp_foldsOnlyRowsWrittenSinceTheLastRun() {
+    repository.saveAll(
+        List.of(
+            charge(START, "Spotify USA P1234ABCD", "-9.99"),
+            charge(START.plusMonths(1), "Spotify USA P5678EFGH", "-9.99")));
+    analyzer.catchUp(userId);
+    assertThat(cadences()).isEmpty();
+
+    repository.save(charge(START.plusMonths(2), "SPOTIFY USA P9999ZZZZ", "-10.99"));
+    assertThat(analyzer.catchUp(userId)).isEqualTo(1);
+
+    assertThat(cadences()).containsExactly(Map.entry("spotify", "MONTHLY"));
+    FinanceRecurringSeriesEntity spotify =
+        seriesRepository
+            .findById(new FinanceRecurringSeriesEntity.Key(userId, "spotify"))
+            .orElseThrow();
+    assertThat(spotify.getOccurrences()).isEqualTo(3);
+    assertThat(spotify.getLastAmount()).isEqualByComparingTo("-10.99");
+    assertThat(spotify.getMerchant()).isEqualTo("SPOTIFY USA P9999ZZZZ");
+  }
+
+  @Test
+  void catchUp_startsOverWhenAnOlderChargeArrivesLate() {
+    repository.saveAll(
+        List.of(
+            charge(START.plusMonths(1), "GYM MEMBERSHIP", "-40.00"),
+            charge(START.plusMonths(3), "GYM MEMBERSHIP", "-40.00"),
+            charge(START.plusMonths(4), "GYM MEMBERSHIP", "-40.00")));
+    analyzer.catchUp(userId);
+    assertThat(cadences()).isEmpty();
+
+    // The months an earlier statement fills in make the series regular.
+    repository.saveAll(
+        List.of(
+            charge(START, "GYM MEMBERSHIP", "-40.00"),
+            charge(START.plusMonths(2), "GYM MEMBERSHIP", "-40.00")));
+    assertThat(analyzer.catchUp(userId)).isEqualTo(5);
+
+    assertThat(cadences()).containsExactly(Map.entry("gym membership", "MONTHLY"));
+    FinanceRecurringSeriesEntity gym =
+        seriesRepository
+            .findById(new FinanceRecurringSeriesEntity.Key(userId, "gym membership"))
+            .orElseThrow();
+    assertThat(gym.getOccurrences()).isEqualTo(5);
+    assertThat(gym.getIntervals()).isEqualTo(4);
+  }
+
+  // ── Rules ────────────────────────────────────────────────────────────────
+
+  @Test
+  void merchantKeys_dropCodesProcessorsAndFiller() {
+    assertThat(MerchantKeys.of("NETFLIX.COM")).isEqualTo("netflix");
+    assertThat(MerchantKeys.of("Netflix.com 866-579-7172")).isEqualTo("netflix");
+    assertThat(MerchantKeys.of("SQ *BLUE BOTTLE COFFEE 4412 OAKLAND"))
+        .isEqualTo("blue bottle coffee");
+    assertThat(MerchantKeys.of("PAYPAL *1PASSWORD")).isEqualTo("1password");
+    assertThat(MerchantKeys.of("POS PURCHASE 12345")).isEqualTo("pos purchase 12345");
+    assertThat(MerchantKeys.of("***")).isEqualTo("-");
+  }
+
+  @Test
+  void cadences_fitGapsWithSlack() {
+    assertThat(RecurringCadence.ofGap(7)).isEqualTo(RecurringCadence.WEEKLY);
+    assertThat(RecurringCadence.ofGap(28)).isEqualTo(RecurringCadence.MONTHLY);
+    assertThat(RecurringCadence.ofGap(31)).isEqualTo(RecurringCadence.MONTHLY);
+    assertThat(RecurringCadence.ofGap(366)).isEqualTo(RecurringCadence.ANNUAL);
+    assertThat(RecurringCadence.ofGap(20)).isNull();
+    assertThat(RecurringCadence.MONTHLY.next(LocalDate.of(2024, 1, 31)))
+        .isEqualTo(LocalDate.of(2024, 2, 29));
+  }
+
+  // ── Helpers ──────────────────────────────────────────────────────────────
+
+  private Map<String, String> cadences() {
+    return analyzer.detected(userId).stream()
+        .collect(
+            Collectors.toMap(
+                FinanceRecurringSeriesEntity::getMerchantKey,
+                FinanceRecurringSeriesEntity::getCadence));
+  }
+
+  private FinanceTransactionEntity charge(LocalDate on, String description, String amount) {
+    return new FinanceTransactionEntity(
+        userId,
+        on.atStartOfDay(ZoneOffset.UTC).toInstant(),
+        description,
+        new BigDecimal(amount),
+        description.startsWith("NETFLIX") ? "subscriptions" : null,
+        null);
+  }
+}
@@ -0,0 +1,149 @@
+package com.austinharlan.trading_dashboard.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.austinharlan.trading_dashboard.service.TradeService.RiskMetrics;
+import com.austinharlan.trading_dashboard.service.TradeService.RiskWindow;
+import com.austinharlan.trading_dashboard.trades.ClosedTrade;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RiskAnalyticsTest {
+
+  private static final LocalDate AS_OF = LocalDate.of(2026, 1, 10);
+
+  @Test
+  void computesTradeStatsDrawdownAndWindowsInOnePass() {
+    // Daily series from Jan 1 to Jan 10: 100, 0, -80, 0, 200, -150, 0, 0, 0, 0.
+    RiskMetrics risk =
+        RiskAnalytics.compute(
+            List.of(
+                closed("2026-01-05", 200),
+                closed("2026-01-01", 100),
+                closed("2026-01-03", -50),
+                closed("2026-01-06", -150),
+                closed("2026-01-03", -30)),
+            AS_OF);
+
+    assertThat(risk.closedTrades()).isEqualTo(5);
+    assertThat(risk.profitFactor()).isCloseTo(300.0 / 230.0, within(1e-12));
+    assertThat(risk.expectancy()).isCloseTo(14.0, within(1e-12));
+    assertThat(risk.avgWin()).isCloseTo(150.0, within(1e-12));
+    assertThat(risk.avgLoss()).isCloseTo(230.0 / 3, within(1e-12));
+    assertThat(risk.tradePnlStdDev()).isCloseTo(Math.sqrt(74_920.0 / 4), within(1e-9));
+
+    assertThat(risk.maxDrawdown()).isCloseTo(150.0, within(1e-12));
+    assertThat(risk.maxDrawdownPeak()).isEqualTo(LocalDate.of(2026, 1, 5));
+    assertThat(risk.maxDrawdownTrough()).isEqualTo(LocalDate.of(2026, 1, 6));
+    assertThat(risk.longestDrawdownDays()).isEqualTo(5);
+    assertThat(risk.currentDrawdown()).isCloseTo(150.0, within(1e-12));
+    assertThat(risk.currentDrawdownDays()).isEqualTo(5);
+
+    RiskWindow month = risk.windows().get(0);
+    assertThat(month.days()).isEqualTo(30);
+    assertThat(month.observedDays()).isEqualTo(10);
+    assertThat(month.totalPnl()).isCloseTo(70.0, within(1e-12));
+    assertThat(month.meanDailyPnl()).isCloseTo(7.0, within(1e-12));
+    double std = Math.sqrt((78_900.0 - 10 * 49.0) / 9);
+    assertThat(month.dailyVolatility()).isCloseTo(std, within(1e-9));
+    assertThat(month.sharpe()).isCloseTo(7.0 / std * Math.sqrt(365), within(1e-9));
+    assertThat(month.sortino())
+        .isCloseTo(7.0 / Math.sqrt(28_900.0 / 10) * Math.sqrt(365), within(1e-9));
+    assertThat(risk.allTime())
+        .isEqualTo(
+            new RiskWindow(
+                10, 10, 70.0, 7.0, std, std * Math.sqrt(365), month.sharpe(), month.sortino()));
+  }
+
+  @Test
+  void quietWindowHasNoRatiosAndNoLossesMeansNoProfitFactor() {
+    RiskMetrics risk =
+        RiskAnalytics.compute(List.of(closed("2025-01-02", 40), closed("2025-01-03", 60)), AS_OF);
+
+    RiskWindow month = risk.windows().get(0);
+    assertThat(month.observedDays()).isEqualTo(30);
+    assertThat(month.totalPnl()).isZero();
+    assertThat(month.sharpe()).isNull();
+    assertThat(month.sortino()).isNull();
+    assertThat(risk.profitFactor()).isNull();
+    assertThat(risk.maxDrawdown()).isZero();
+    assertThat(risk.maxDrawdownPeak()).isNull();
+    assertThat(risk.allTime().totalPnl()).isCloseTo(100.0, within(1e-12));
+  }
+
+  @Test
+  void drawdownFromTheFirstCloseStartsAtZero() {
+    RiskMetrics risk = RiskAnalytics.compute(List.of(closed("2026-01-08", -25)), AS_OF);
+
+    assertThat(risk.maxDrawdown()).isCloseTo(25.0, within(1e-12));
+    assertThat(risk.maxDrawdownPeak()).isEqualTo(LocalDate.of(2026, 1, 7));
+    assertThat(risk.currentDrawdownDays()).isEqualTo(3);
+  }
+
+  @Test
+  void emptyHistoryReturnsZeroedWindows() {
+    RiskMetrics risk = RiskAnalytics.compute(List.of(), AS_OF);
+
+    assertThat(risk.closedTrades()).isZero();
+    assertThat(risk.windows()).extracting(RiskWindow::days).containsExactly(30, 90, 365);
+    assertThat(risk.windows()).allSatisfy(w -> assertThat(w.observedDays()).isZero());
+  }
+
+  @Test
+  void prefixSumWindowsMatchDirectComputation() {
+    Random random = new Random(7L);
+    List<ClosedTrade> trades = new ArrayList<>();
+    LocalDate start = AS_OF.minusDays(500);
+    for (int i = 0; i < 2_000; i++) {
+      trades.add(
+          closed(
+              start.plusDays(random.nextInt(500)).toString(),
+              Math.round((random.nextGaussian() * 300 + 20) * 100) / 100.0));
+    }
+
+    RiskMetrics risk = RiskAnalytics.compute(trades, AS_OF);
+
+    for (RiskWindow window : risk.windows()) {
+      double[] daily = new double[window.days()];
+      for (ClosedTrade t : trades) {
+        long back = ChronoUnit.DAYS.between(t.sellDate(), AS_OF);
+        if (back < window.days()) {
+          daily[(int) back] += t.pnl().doubleValue();
+        }
+      }
+      double mean = 0;
+      for (double d : daily) {
+        mean += d / daily.length;
+      }
+      double var = 0;
+      for (double d : daily) {
+        var += (d - mean) * (d - mean) / (daily.length - 1);
+      }
+      assertThat(window.meanDailyPnl()).isCloseTo(mean, within(1e-6));
+      assertThat(window.dailyVolatility()).isCloseTo(Math.sqrt(var), within(1e-6));
+    }
+  }
+
+  private static ClosedTrade closed(String sellDate, double pnl) {
+    LocalDate date = LocalDate.parse(sellDate);
+    return new ClosedTrade(
+        "AAPL",
+        BigDecimal.ONE,
+        BigDecimal.TEN,
+        BigDecimal.TEN,
+        date,
+        date,
+        BigDecimal.valueOf(pnl),
+        BigDecimal.ZERO,
+        0,
+        "EQUITY",
+        null,
+        null,
+        null);
+  }
+}
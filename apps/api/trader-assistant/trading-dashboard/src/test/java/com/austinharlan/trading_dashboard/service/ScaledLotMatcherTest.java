@@ -0,0 +1,170 @@
+package com.austinharlan.trading_dashboard.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.austinharlan.trading_dashboard.persistence.TradeEntity;
+import com.austinharlan.trading_dashboard.trades.ClosedTrade;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ScaledLotMatcherTest {
+
+  private static final LocalDate START = LocalDate.of(2020, 1, 2);
+
+  @Test
+  void matchesBigDecimalMatcherBitForBitOn100kTrades() {
+    List<TradeEntity> trades = syntheticTrades(100_000, 42L);
+
+    List<ClosedTrade> scaled = DefaultTradeService.computeClosedTrades(trades);
+    List<ClosedTrade> exact = DefaultTradeService.computeClosedTradesExact(trades);
+
+    // Record equality uses BigDecimal.equals, so scales must match as well as values.
+    assertThat(scaled).hasSizeGreaterThan(10_000).isEqualTo(exact);
+  }
+
+  @Test
+  void preservesReferenceScalesForMixedScaleInput() {
+    List<TradeEntity> trades =
+        List.of(
+            equity("AAPL", "BUY", new BigDecimal("10"), new BigDecimal("100.5"), 0),
+            equity("AAPL", "BUY", new BigDecimal("2.25"), new BigDecimal("101"), 1),
+            equity("AAPL", "SELL", new BigDecimal("11.000"), new BigDecimal("99.125"), 2),
+            equity("AAPL", "SELL", new BigDecimal("1.25"), new BigDecimal("102.000001"), 3),
+            equity("TSLA", "SELL", new BigDecimal("3"), new BigDecimal("250"), 4),
+            equity("TSLA", "BUY", new BigDecimal("3.0"), new BigDecimal("240.50"), 5),
+            option("SPY", "SELL", "2", "1.30", 6),
+            option("SPY", "EXPIRE", "0", "0", 7),
+            option("QQQ", "BUY", "3", "4.10", 8),
+            option("QQQ", "EXERCISE", "1", "0", 9));
+
+    assertThat(DefaultTradeService.computeClosedTrades(trades))
+        .isEqualTo(DefaultTradeService.computeClosedTradesExact(trades));
+  }
+
+  @Test
+  void overflowFallsBackToBigDecimalMatcher() {
+    List<TradeEntity> trades =
+        List.of(
+            equity("BRK", "BUY", new BigDecimal("9000000000"), new BigDecimal("1000000000"), 0),
+            equity("BRK", "SELL", new BigDecimal("9000000000"), new BigDecimal("3000000000"), 1));
+    var key = DefaultTradeService.ContractKey.from(trades.get(0));
+    List<ClosedTrade> out = new ArrayList<>();
+
+    assertThat(ScaledLotMatcher.matchContract(key, trades, out)).isFalse();
+    assertThat(out).isEmpty();
+    assertThat(DefaultTradeService.computeClosedTrades(trades))
+        .isEqualTo(DefaultTradeService.computeClosedTradesExact(trades))
+        .singleElement()
+        .extracting(ClosedTrade::pnl)
+        .isEqualTo(new BigDecimal("18000000000000000000"));
+  }
+
+  @Test
+  void pnlPercentRoundsHalfUpLikeBigDecimal() {
+    Random random = new Random(7L);
+    for (int i = 0; i < 10_000; i++) {
+      long buy6 = random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(500_000_000);
+      long sell6 = random.nextInt(500_000_000);
+      BigDecimal buy = BigDecimal.valueOf(buy6, 6);
+      BigDecimal sell = BigDecimal.valueOf(sell6, 6);
+      BigDecimal base = buy6 != 0 ? buy : sell;
+      BigDecimal expected =
+          base.signum() == 0
+              ? BigDecimal.ZERO
+              : sell.subtract(buy)
+                  .divide(base, 4, RoundingMode.HALF_UP)
+                  .multiply(BigDecimal.valueOf(100));
+
+      assertThat(ScaledLotMatcher.pnlPercent(buy6, sell6)).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void toScaledRejectsValuesBeyondSixDecimals() {
+    assertThat(ScaledLotMatcher.toScaled(new BigDecimal("1.5"))).isEqualTo(1_500_000L);
+    assertThatThrownBy(() -> ScaledLotMatcher.toScaled(new BigDecimal("1.0000001")))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> ScaledLotMatcher.toScaled(new BigDecimal("1E+3")))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  // ── Fixtures ─────────────────────────────────────────────────────────────
+
+  /**
+   * Chronological mix of long and short equity round trips plus option lots that close by trade,
+   * expiry or exercise. Quantities and prices carry 6 dp like values read from the database.
+   */
+  static List<TradeEntity> syntheticTrades(int count, long seed) {
+    Random random = new Random(seed);
+    String[] tickers = new String[200];
+    for (int i = 0; i < tickers.length; i++) {
+      tickers[i] = "T" + i;
+    }
+    List<TradeEntity> trades = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int day = i / 50;
+      String ticker = tickers[random.nextInt(tickers.length)];
+      int kind = random.nextInt(20);
+      if (kind < 17) {
+        String side = random.nextBoolean() ? "BUY" : "SELL";
+        BigDecimal qty = BigDecimal.valueOf(1 + random.nextInt(200_000_000), 6);
+        BigDecimal price = BigDecimal.valueOf(1_000_000L + random.nextInt(900_000_000), 6);
+        trades.add(equity(ticker, side, qty, price, day));
+      } else {
+        String side = kind == 17 ? "BUY" : kind == 18 ? "SELL" : "EXPIRE";
+        if (side.equals("EXPIRE") && random.nextBoolean()) {
+          side = "EXERCISE";
+        }
+        BigDecimal qty =
+            side.equals("EXPIRE")
+                ? BigDecimal.ZERO.setScale(6)
+                : BigDecimal.valueOf(1 + random.nextInt(5), 0).setScale(6);
+        BigDecimal price =
+            side.startsWith("EX")
+                ? BigDecimal.ZERO.setScale(6)
+                : BigDecimal.valueOf(10_000L + random.nextInt(20_000_000), 6);
+        trades.add(
+            new TradeEntity(
+                1L,
+                ticker,
+                side,
+                qty,
+                price,
+                START.plusDays(day),
+                null,
+                "OPTION",
+                random.nextBoolean() ? "CALL" : "PUT",
+                new BigDecimal("100.000000"),
+                START.plusDays(90),
+                100));
+      }
+    }
+    return trades;
+  }
+
+  private static TradeEntity equity(
+      String ticker, String side, BigDecimal qty, BigDecimal price, int day) {
+    return new TradeEntity(1L, ticker, side, qty, price, START.plusDays(day), null);
+  }
+
+  private static TradeEntity option(String ticker, String side, String qty, String price, int day) {
+    return new TradeEntity(
+        1L,
+        ticker,
+        side,
+        new BigDecimal(qty),
+        new BigDecimal(price),
+        START.plusDays(day),
+        null,
+        "OPTION",
+        "CALL",
+        new BigDecimal("400"),
+        START.plusDays(30),
+        100);
+  }
+}